@@ -111,7 +111,7 @@ public class Main {
                 window.getPosition(windowPos);
                 glClearColor(0, 0, 0, 0);
                 glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
-                glViewport(0, 0, windowSize.x, windowSize.y);
+                window.getStateCache().viewport(0, 0, windowSize.x, windowSize.y);
                 triangleTimeColorShader.bind();
                 triangleTimeColorShader.uploadUniformFloat("time", (float) glfwGetTime());
                 vao.bind();
@@ -2,6 +2,7 @@ package com.github.nebula.graphics;
 
 import com.github.nebula.graphics.globjects.Buffer;
 import com.github.nebula.graphics.util.BufferUtil;
+import com.github.nebula.graphics.util.Versions;
 import lombok.Getter;
 import lombok.NonNull;
 
@@ -19,46 +20,59 @@ import static org.lwjgl.opengl.GL42C.*;
 public class GPUMesh implements Mesh {
     private final Buffer vbo, ebo;
     private long verticesSize, indicesSize;
+    private long version;
 
     public GPUMesh() {
         vbo = new Buffer(GL_ARRAY_BUFFER);
         ebo = new Buffer(GL_ELEMENT_ARRAY_BUFFER);
         verticesSize = 0;
         indicesSize = 0;
+        version = Versions.INITIAL;
+    }
+
+    private void touch(ReadPolicy readPolicy) {
+        if (readPolicy != ReadPolicy.READ) version = Versions.next();
     }
 
     @Override
     public GPUCloseableBuffer<FloatBuffer> getVerticesRange(long offset, int length, ReadPolicy readPolicy) {
+        touch(readPolicy);
         return new GPUCloseableBuffer<>(vbo, vbo.mapRange(readPolicy.glAccessPolicy, offset * Float.BYTES, length * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer());
     }
 
     @Override
     public GPUCloseableBuffer<IntBuffer> getIndicesRange(long offset, int length, ReadPolicy readPolicy) {
+        touch(readPolicy);
         return new GPUCloseableBuffer<>(ebo, ebo.mapRange(readPolicy.glAccessPolicy, offset * Integer.BYTES, length * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer());
     }
 
     @Override
     public GPUCloseableBuffer<FloatBuffer> getVertices(ReadPolicy readPolicy) {
+        touch(readPolicy);
         return new GPUCloseableBuffer<>(vbo, vbo.map(readPolicy.glReadPolicy).asFloatBuffer());
     }
 
     @Override
     public GPUCloseableBuffer<IntBuffer> getIndices(ReadPolicy readPolicy) {
+        touch(readPolicy);
         return new GPUCloseableBuffer<>(ebo, ebo.map(readPolicy.glReadPolicy).asIntBuffer());
     }
 
     @Override
     public void setVerticesRange(long offset, @NonNull FloatBuffer buffer) {
+        version = Versions.next();
         vbo.subData(buffer, offset);
     }
 
     @Override
     public void setIndicesRange(long offset, @NonNull IntBuffer buffer) {
+        version = Versions.next();
         ebo.subData(buffer, offset);
     }
 
     @Override
     public void setVertices(@NonNull FloatBuffer vertices) {
+        version = Versions.next();
         BufferUtil.requireNative(vertices);
         if (verticesSize == vertices.limit()) {
             vbo.subData(vertices, 0);
@@ -70,6 +84,7 @@ public class GPUMesh implements Mesh {
 
     @Override
     public void setIndices(@NonNull IntBuffer indices) {
+        version = Versions.next();
         BufferUtil.requireNative(indices);
         if (indicesSize == indices.limit()) {
             ebo.subData(indices, 0);
@@ -0,0 +1,306 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.data.GLDataType;
+import com.github.nebula.graphics.data.VertexAttributes;
+import com.github.nebula.graphics.globjects.Buffer;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.joml.Vector2fc;
+import org.joml.Vector3fc;
+import org.joml.Vector4fc;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL15C.GL_DYNAMIC_DRAW;
+
+/**
+ * The {@code InstanceAttributeBuffer} class stores custom per-instance attributes, such as a tint colour or an
+ * animation frame, interleaved in off-heap memory. Every instance holds one struct laid out by the
+ * {@link VertexAttributes} passed to the constructor, using the {@code std430} rules of the shader storage buffer it
+ * is uploaded to, so instances with different attribute values can still share a single draw call.
+ *
+ * <p>Attributes are addressed by their location inside the layout. Supported types are {@code float}, {@code int},
+ * their two to four component vectors and {@code mat4}. {@link #getGlslDeclaration(int)} produces the matching
+ * buffer block, which shaders index like the transforms: {@code instanceAttributes[visibleInstances[gl_InstanceID]]}.
+ *
+ * <p>Writes extend a single dirty range, which {@link #upload(Buffer)} transfers with one {@code glBufferSubData}
+ * call.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class InstanceAttributeBuffer implements AutoCloseable {
+    /**
+     * The name of the struct type holding the attributes of one instance.
+     */
+    public static final String STRUCT_NAME = "InstanceAttributes";
+    /**
+     * The name of the array of all instance structs inside the buffer block.
+     */
+    public static final String ARRAY_NAME = "instanceAttributes";
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final @Getter VertexAttributes layout;
+    private final int[] offsets;
+    /**
+     * The number of bytes per instance, including padding.
+     */
+    private final @Getter int stride;
+    private ByteBuffer staging;
+    private @Getter int size;
+    private @Getter int capacity;
+    private int gpuCapacity;
+    private int dirtyFrom, dirtyTo;
+
+    /**
+     * Creates an empty buffer for the given attribute layout.
+     *
+     * @param layout the attributes of every instance
+     * @throws IllegalArgumentException if an attribute has an unsupported type
+     */
+    public InstanceAttributeBuffer(@NonNull VertexAttributes layout) {
+        this.layout = layout;
+        var attributeCount = 0;
+        for (val ignored : layout) attributeCount++;
+        this.offsets = new int[attributeCount];
+        var offset = 0;
+        var structAlignment = 4;
+        for (val attribute : layout) {
+            val alignment = alignmentOf(attribute.dataType());
+            offset = align(offset, alignment);
+            offsets[attribute.location()] = offset;
+            offset += attribute.dataType().byteSize;
+            structAlignment = Math.max(structAlignment, alignment);
+        }
+        this.stride = Math.max(align(offset, structAlignment), structAlignment);
+        this.capacity = INITIAL_CAPACITY;
+        this.staging = MemoryUtil.memCalloc(capacity * stride);
+        this.size = 0;
+        this.gpuCapacity = 0;
+        clearDirtyRange();
+    }
+
+    /**
+     * Returns the base alignment of a type inside of a {@code std430} struct.
+     */
+    private static int alignmentOf(GLDataType type) {
+        return switch (type) {
+            case FLOAT, INT -> 4;
+            case VEC2, IVEC2 -> 8;
+            case VEC3, VEC4, IVEC3, IVEC4, MAT4 -> 16;
+            default -> throw new IllegalArgumentException(STR."Unsupported instance attribute type \{type.name}");
+        };
+    }
+
+    private static int align(int offset, int alignment) {
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+
+    /**
+     * Returns the byte offset of an attribute inside the struct of an instance.
+     *
+     * @param location the location of the attribute inside the layout
+     * @return the offset in bytes
+     */
+    public int getOffset(int location) {
+        return offsets[location];
+    }
+
+    /**
+     * Appends {@code count} instances whose attributes are all zero.
+     *
+     * @param count the number of instances to add
+     * @return the index of the first new instance
+     */
+    public int add(int count) {
+        if (count < 0) throw new IllegalArgumentException(STR."Negative instance count: \{count}");
+        ensureCapacity(size + count);
+        val first = size;
+        size += count;
+        MemoryUtil.memSet(address(first), 0, (long) count * stride);
+        markDirty(first, size);
+        return first;
+    }
+
+    /**
+     * Removes the instance at the given index by moving the last instance into its slot.
+     *
+     * @param index the index of the instance to remove
+     */
+    public void swapRemove(int index) {
+        checkIndex(index);
+        val last = --size;
+        if (index == last) return;
+        MemoryUtil.memCopy(address(last), address(index), stride);
+        markDirty(index, index + 1);
+    }
+
+    public void setFloat(int index, int location, float value) {
+        staging.putFloat(position(index, location, GLDataType.FLOAT), value);
+        markDirty(index, index + 1);
+    }
+
+    public void setInt(int index, int location, int value) {
+        staging.putInt(position(index, location, GLDataType.INT), value);
+        markDirty(index, index + 1);
+    }
+
+    public void setVector(int index, int location, @NonNull Vector2fc value) {
+        value.get(position(index, location, GLDataType.VEC2), staging);
+        markDirty(index, index + 1);
+    }
+
+    public void setVector(int index, int location, @NonNull Vector3fc value) {
+        value.get(position(index, location, GLDataType.VEC3), staging);
+        markDirty(index, index + 1);
+    }
+
+    public void setVector(int index, int location, @NonNull Vector4fc value) {
+        value.get(position(index, location, GLDataType.VEC4), staging);
+        markDirty(index, index + 1);
+    }
+
+    /**
+     * Writes all components of a float typed attribute.
+     *
+     * @param index    the index of the instance
+     * @param location the location of the attribute inside the layout
+     * @param values   the components, as many as the attribute's type has
+     */
+    public void setFloats(int index, int location, @NonNull float... values) {
+        checkIndex(index);
+        val type = layout.get(location).dataType();
+        if (type.glDataType != GLDataType.FLOAT.glDataType || values.length != type.size)
+            throw new IllegalArgumentException(STR."Expected \{type.size} floats for \{type.name}");
+        val base = index * stride + offsets[location];
+        for (var i = 0; i < values.length; i++)
+            staging.putFloat(base + i * Float.BYTES, values[i]);
+        markDirty(index, index + 1);
+    }
+
+    /**
+     * Reads one component of a float typed attribute.
+     */
+    public float getFloat(int index, int location, int component) {
+        checkIndex(index);
+        return staging.getFloat(index * stride + offsets[location] + component * Float.BYTES);
+    }
+
+    /**
+     * Reads one component of an int typed attribute.
+     */
+    public int getInt(int index, int location, int component) {
+        checkIndex(index);
+        return staging.getInt(index * stride + offsets[location] + component * Integer.BYTES);
+    }
+
+    private int position(int index, int location, GLDataType expected) {
+        checkIndex(index);
+        val attribute = layout.get(location);
+        if (attribute.dataType() != expected)
+            throw new IllegalArgumentException(STR."Attribute \{attribute.name()} is not of type \{expected.name}");
+        return index * stride + offsets[location];
+    }
+
+    /**
+     * Returns the native address of the struct of an instance. Writers using the address directly have to call
+     * {@link #markDirty(int, int)} for the instances they have written.
+     *
+     * @param index the index of the instance
+     * @return the native address of the first byte of the struct
+     */
+    public long address(int index) {
+        return MemoryUtil.memAddress(staging) + (long) index * stride;
+    }
+
+    /**
+     * Marks all instances from {@code from} (inclusive) to {@code to} (exclusive) as changed.
+     *
+     * @param from the first index
+     * @param to   the index after the last one
+     */
+    public void markDirty(int from, int to) {
+        if (from >= to) return;
+        dirtyFrom = Math.min(dirtyFrom, from);
+        dirtyTo = Math.max(dirtyTo, to);
+    }
+
+    private void clearDirtyRange() {
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = 0;
+    }
+
+    /**
+     * Uploads the changed instances into the given shader storage buffer. If the buffer is too small it is
+     * reallocated and filled completely.
+     *
+     * @param ssbo the buffer to upload to
+     */
+    public void upload(@NonNull Buffer ssbo) {
+        val address = MemoryUtil.memAddress(staging);
+        if (gpuCapacity < capacity) {
+            ssbo.ndata((long) capacity * stride, GL_DYNAMIC_DRAW);
+            gpuCapacity = capacity;
+            if (size > 0) ssbo.nsubData(0, (long) size * stride, address);
+        } else {
+            // Instances beyond size have been removed since they were written
+            val to = Math.min(dirtyTo, size);
+            if (dirtyFrom < to) {
+                val offset = (long) dirtyFrom * stride;
+                ssbo.nsubData(offset, (long) (to - dirtyFrom) * stride, address + offset);
+            }
+        }
+        clearDirtyRange();
+    }
+
+    /**
+     * Generates the GLSL declaration of the struct and the buffer block holding the attributes of all instances.
+     *
+     * @param binding the shader storage buffer binding point of the block
+     * @return the GLSL source of the declarations
+     */
+    @NonNull
+    public String getGlslDeclaration(int binding) {
+        val builder = new StringBuilder(STR."struct \{STRUCT_NAME} {\n");
+        for (val attribute : layout)
+            builder.append(STR."    \{attribute.dataType().name} \{attribute.name()};\n");
+        builder.append("};\n")
+                .append(STR."layout(std430, binding = \{binding}) readonly buffer \{STRUCT_NAME}Buffer {\n")
+                .append(STR."    \{STRUCT_NAME} \{ARRAY_NAME}[];\n")
+                .append("};\n");
+        return builder.toString();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= capacity) return;
+        var newCapacity = capacity;
+        while (newCapacity < required) newCapacity <<= 1;
+        staging = MemoryUtil.memRealloc(staging, newCapacity * stride);
+        capacity = newCapacity;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(STR."Index \{index} out of bounds for size \{size}");
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    layout=\{layout},
+                    stride=\{stride},
+                    size=\{size}
+                }
+                """;
+    }
+
+    @Override
+    public void close() {
+        MemoryUtil.memFree(staging);
+        size = 0;
+        capacity = 0;
+    }
+}
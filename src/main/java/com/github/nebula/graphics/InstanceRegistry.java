@@ -0,0 +1,170 @@
+package com.github.nebula.graphics;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.Arrays;
+
+/**
+ * The {@code InstanceRegistry} class hands out generational handles for the instances of a {@link Model} and maps
+ * them to dense indices, so per-instance data can be stored in tightly packed arrays that are uploaded as is.
+ *
+ * <p>A handle combines a slot in its low 32 bits with the slot's generation in its high 32 bits. Destroying an
+ * instance moves the last dense instance into the freed index and bumps the generation of the slot, so handles stay
+ * valid across this compaction while stale handles are detected instead of aliasing a newer instance. Owners of
+ * dense data have to perform the same move, see {@link #destroy(long)}.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class InstanceRegistry {
+    /**
+     * A handle that never refers to an instance, since generations start at {@code 1}.
+     */
+    public static final long NULL_HANDLE = 0L;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NO_SLOT = -1;
+
+    /**
+     * Dense index of a live slot, or the next free slot for slots in the free list.
+     */
+    private int[] slotIndices;
+    private int[] generations;
+    private int[] denseSlots;
+    private int slotCount;
+    private int freeList;
+    /**
+     * The number of live instances, which occupy the dense indices {@code 0} to {@code size - 1}.
+     */
+    private @Getter int size;
+
+    public InstanceRegistry() {
+        this.slotIndices = new int[INITIAL_CAPACITY];
+        this.generations = new int[INITIAL_CAPACITY];
+        this.denseSlots = new int[INITIAL_CAPACITY];
+        this.slotCount = 0;
+        this.freeList = NO_SLOT;
+        this.size = 0;
+    }
+
+    private static long handle(int slot, int generation) {
+        return (long) generation << 32 | slot & 0xFFFFFFFFL;
+    }
+
+    private static int slotOf(long handle) {
+        return (int) handle;
+    }
+
+    private static int generationOf(long handle) {
+        return (int) (handle >>> 32);
+    }
+
+    /**
+     * Creates an instance at dense index {@link #getSize()}.
+     *
+     * @return the handle of the new instance
+     */
+    public long create() {
+        int slot;
+        if (freeList != NO_SLOT) {
+            slot = freeList;
+            freeList = slotIndices[slot];
+        } else {
+            if (slotCount == generations.length) {
+                slotIndices = Arrays.copyOf(slotIndices, slotCount << 1);
+                generations = Arrays.copyOf(generations, slotCount << 1);
+            }
+            slot = slotCount++;
+            generations[slot] = 1;
+        }
+        if (size == denseSlots.length) denseSlots = Arrays.copyOf(denseSlots, size << 1);
+        slotIndices[slot] = size;
+        denseSlots[size++] = slot;
+        return handle(slot, generations[slot]);
+    }
+
+    /**
+     * Creates {@code count} instances at the dense indices following the current {@link #getSize() size}.
+     *
+     * @param dest   receives the handles of the new instances
+     * @param offset the index of the first handle inside of {@code dest}
+     * @param count  the number of instances to create
+     */
+    public void create(@NonNull long[] dest, int offset, int count) {
+        Arrays.checkFromIndexSize(offset, count, dest.length);
+        if (size + count > denseSlots.length)
+            denseSlots = Arrays.copyOf(denseSlots, Math.max(size + count, denseSlots.length << 1));
+        for (var i = 0; i < count; i++)
+            dest[offset + i] = create();
+    }
+
+    /**
+     * Destroys an instance by moving the last dense instance into its index. Afterwards the instance that was at
+     * dense index {@link #getSize()} lives at the returned index, unless both are equal.
+     *
+     * @param handle the handle of the instance
+     * @return the dense index the instance had, or {@code -1} if the handle is stale
+     */
+    public int destroy(long handle) {
+        val index = indexOf(handle);
+        if (index < 0) return -1;
+        val slot = slotOf(handle);
+        val last = --size;
+        if (index != last) {
+            val movedSlot = denseSlots[last];
+            denseSlots[index] = movedSlot;
+            slotIndices[movedSlot] = index;
+        }
+        // Generation 0 is reserved for the null handle
+        if (++generations[slot] == 0) generations[slot] = 1;
+        slotIndices[slot] = freeList;
+        freeList = slot;
+        return index;
+    }
+
+    /**
+     * Checks whether a handle refers to a live instance.
+     *
+     * @param handle the handle to check
+     * @return {@code true} if the instance has not been destroyed yet
+     */
+    public boolean isAlive(long handle) {
+        return indexOf(handle) >= 0;
+    }
+
+    /**
+     * Returns the dense index of an instance, which changes when other instances are destroyed.
+     *
+     * @param handle the handle of the instance
+     * @return the dense index, or {@code -1} if the handle is stale
+     */
+    public int indexOf(long handle) {
+        val slot = slotOf(handle);
+        if (slot < 0 || slot >= slotCount || generations[slot] != generationOf(handle)) return -1;
+        return slotIndices[slot];
+    }
+
+    /**
+     * Returns the handle of the instance at a dense index.
+     *
+     * @param index the dense index
+     * @return the handle of the instance
+     */
+    public long handleAt(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(STR."Index \{index} out of bounds for size \{size}");
+        val slot = denseSlots[index];
+        return handle(slot, generations[slot]);
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    size=\{size},
+                    slotCount=\{slotCount}
+                }
+                """;
+    }
+}
@@ -0,0 +1,445 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.data.GLDataType;
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.util.Versions;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import org.joml.Vector3fc;
+import org.joml.Vector4f;
+import org.lwjgl.system.MemoryUtil;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import static org.lwjgl.opengl.GL15C.GL_DYNAMIC_DRAW;
+
+/**
+ * The {@code InstanceTransformBuffer} class stores the transformation matrices of all instances of a {@link Model}
+ * tightly packed in off-heap memory, using the same layout as the shader storage buffer they are uploaded to.
+ *
+ * <p>Every write marks the written instance as dirty. {@link #upload(Buffer)} only transfers the dirty ranges,
+ * coalescing runs that are separated by small gaps into a single {@code glBufferSubData} call, so mostly static
+ * instance sets cost next to nothing per frame.
+ *
+ * <p>Matrices are always staged as full column-major {@code mat4}s. A compact {@link TransformEncoding} can be
+ * selected to shrink the uploaded data, in which case every uploaded run is encoded right before the transfer.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class InstanceTransformBuffer implements AutoCloseable {
+    /**
+     * Number of floats per instance matrix.
+     */
+    public static final int MATRIX_FLOATS = GLDataType.MAT4.size;
+    /**
+     * Number of bytes per instance matrix.
+     */
+    public static final int MATRIX_BYTES = GLDataType.MAT4.byteSize;
+    /**
+     * Dirty runs separated by at most this many clean instances are uploaded with a single call.
+     */
+    private static final int COALESCE_GAP = 8;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final Matrix4fc IDENTITY = new Matrix4f();
+
+    private FloatBuffer staging;
+    private long[] dirty;
+    private @Getter int size;
+    private @Getter int capacity;
+    private int gpuCapacity;
+    private long version;
+    /**
+     * Whether a matrix changed since {@link #version} was last handed out, so writes do not touch the global counter.
+     */
+    private boolean modified;
+    /**
+     * Whether any dirty bit is set, so uploads of unchanged buffers return without scanning the bit set.
+     */
+    private boolean pending;
+    /**
+     * The layout matrices are uploaded in.
+     */
+    private @Getter TransformEncoding encoding;
+    private TransformEncoder encoder;
+    private ByteBuffer encodedStaging;
+
+    public InstanceTransformBuffer() {
+        this.capacity = INITIAL_CAPACITY;
+        this.staging = MemoryUtil.memCallocFloat(capacity * MATRIX_FLOATS);
+        this.dirty = new long[wordCount(capacity)];
+        this.size = 0;
+        this.gpuCapacity = 0;
+        this.encoding = TransformEncoding.MAT4;
+    }
+
+    /**
+     * Selects the layout matrices are uploaded in. The next {@link #upload(Buffer)} reallocates the buffer and
+     * uploads all matrices in the new layout.
+     *
+     * @param encoding the encoding, whose {@link TransformEncoding#glslDecode decode snippet} the shaders have to use
+     */
+    public void setEncoding(@NonNull TransformEncoding encoding) {
+        if (encoding == this.encoding) return;
+        this.encoding = encoding;
+        gpuCapacity = 0;
+        if (encoding != TransformEncoding.MAT4 && encoder == null) {
+            encoder = new TransformEncoder();
+            encodedStaging = MemoryUtil.memAlloc(INITIAL_CAPACITY * MATRIX_BYTES);
+        }
+    }
+
+    private static int wordCount(int bits) {
+        return (bits + Long.SIZE - 1) >>> 6;
+    }
+
+    /**
+     * Appends an identity matrix and returns its index.
+     *
+     * @return the index of the new instance
+     */
+    public int add() {
+        ensureCapacity(size + 1);
+        val index = size++;
+        IDENTITY.get(index * MATRIX_FLOATS, staging);
+        markDirty(index);
+        return index;
+    }
+
+    /**
+     * Appends {@code count} identity matrices.
+     *
+     * @param count the number of instances to add
+     * @return the index of the first new instance
+     */
+    public int add(int count) {
+        if (count < 0) throw new IllegalArgumentException(STR."Negative instance count: \{count}");
+        ensureCapacity(size + count);
+        val first = size;
+        for (var i = 0; i < count; i++) IDENTITY.get((first + i) * MATRIX_FLOATS, staging);
+        size += count;
+        markDirty(first, size);
+        return first;
+    }
+
+    /**
+     * Removes the matrix at the given index by moving the last matrix into its slot, so only a single matrix has to
+     * be uploaded again.
+     *
+     * @param index the index of the matrix to remove
+     */
+    public void swapRemove(int index) {
+        checkIndex(index);
+        val last = --size;
+        modified = true;
+        if (index == last) return;
+        MemoryUtil.memCopy(address(last), address(index), MATRIX_BYTES);
+        markDirty(index);
+    }
+
+    /**
+     * Removes the matrix at the given index, moving all following matrices down by one.
+     *
+     * @param index the index of the matrix to remove
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        val moved = size - index - 1;
+        if (moved > 0) {
+            val address = MemoryUtil.memAddress(staging);
+            MemoryUtil.memCopy(address + (long) (index + 1) * MATRIX_BYTES,
+                    address + (long) index * MATRIX_BYTES, (long) moved * MATRIX_BYTES);
+        }
+        size--;
+        modified = true;
+        markDirty(index, size);
+    }
+
+    /**
+     * Copies the given matrix into the slot of the instance with the given index and marks it dirty.
+     *
+     * @param index  the instance index
+     * @param matrix the new transformation matrix
+     */
+    public void set(int index, @NonNull Matrix4fc matrix) {
+        checkIndex(index);
+        matrix.get(index * MATRIX_FLOATS, staging);
+        markDirty(index);
+    }
+
+    /**
+     * Sets the transformation matrix of the instance at {@code index} from 16 column-major floats.
+     *
+     * @param index  the index of the instance
+     * @param src    the array holding the matrix
+     * @param offset the offset of the matrix inside of {@code src}
+     */
+    public void set(int index, @NonNull float[] src, int offset) {
+        checkIndex(index);
+        staging.put(index * MATRIX_FLOATS, src, offset, MATRIX_FLOATS);
+        markDirty(index);
+    }
+
+    /**
+     * Reads the matrix of the instance with the given index into {@code dest}.
+     *
+     * @param index the instance index
+     * @param dest  the matrix to store the result in
+     * @return {@code dest}
+     */
+    @NonNull
+    public Matrix4f get(int index, @NonNull Matrix4f dest) {
+        checkIndex(index);
+        return dest.set(index * MATRIX_FLOATS, staging);
+    }
+
+    /**
+     * Returns the native address of the matrix with the given index. Writers using the address directly
+     * have to call {@link #markDirty(int, int)} for the range they have written.
+     *
+     * @param index the instance index
+     * @return the native address of the first float of the matrix
+     */
+    public long address(int index) {
+        return MemoryUtil.memAddress(staging) + (long) index * MATRIX_BYTES;
+    }
+
+    /**
+     * Returns a memory segment spanning the staging memory of all slots of this buffer.
+     * The segment is invalidated when the buffer grows. Writers have to mark the slots they change as dirty.
+     *
+     * @return the staging memory of this buffer
+     */
+    @NonNull
+    public MemorySegment segment() {
+        return MemorySegment.ofBuffer(staging);
+    }
+
+    /**
+     * Marks the instance with the given index as changed.
+     *
+     * @param index the instance index
+     */
+    public void markDirty(int index) {
+        dirty[index >>> 6] |= 1L << index;
+        modified = true;
+        pending = true;
+    }
+
+    /**
+     * Marks all instances from {@code from} (inclusive) to {@code to} (exclusive) as changed.
+     *
+     * @param from the first index
+     * @param to   the index after the last one
+     */
+    public void markDirty(int from, int to) {
+        if (from >= to) return;
+        modified = true;
+        pending = true;
+        val fromWord = from >>> 6;
+        val toWord = (to - 1) >>> 6;
+        val firstMask = -1L << from;
+        val lastMask = -1L >>> -to;
+        if (fromWord == toWord) {
+            dirty[fromWord] |= firstMask & lastMask;
+            return;
+        }
+        dirty[fromWord] |= firstMask;
+        for (var i = fromWord + 1; i < toWord; i++) dirty[i] = -1L;
+        dirty[toWord] |= lastMask;
+    }
+
+    /**
+     * Returns the {@link com.github.nebula.graphics.util.Versions version} of the last change to any matrix or to
+     * the number of instances.
+     *
+     * @return the version of the matrices
+     */
+    public long getVersion() {
+        if (modified) {
+            version = Versions.next();
+            modified = false;
+        }
+        return version;
+    }
+
+    /**
+     * Forgets all pending changes without uploading them, for when the staging memory is consumed directly.
+     * The next {@link #upload(Buffer)} will only upload instances changed after this call.
+     */
+    public void clearDirty() {
+        Arrays.fill(dirty, 0L);
+        pending = false;
+    }
+
+    /**
+     * Checks whether any instance has changed since the last upload.
+     *
+     * @return {@code true} if there is data to upload
+     */
+    public boolean isDirty() {
+        if (gpuCapacity < capacity) return true;
+        if (!pending) return false;
+        val words = wordCount(size);
+        for (var i = 0; i < words; i++)
+            if (dirty[i] != 0) return true;
+        return false;
+    }
+
+    /**
+     * Reports the index of every instance that has changed since the last upload, in ascending order.
+     *
+     * @param consumer receives the indices of changed instances
+     */
+    public void forEachDirty(@NonNull IntConsumer consumer) {
+        if (!pending) return;
+        val words = wordCount(size);
+        for (var w = 0; w < words; w++) {
+            var word = dirty[w];
+            while (word != 0) {
+                val index = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (index >= size) return;
+                consumer.accept(index);
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Transforms a model space bounding sphere by the matrix of an instance.
+     * Non-uniform scales are bounded by the largest axis scale.
+     *
+     * @param index  the instance index
+     * @param center the center of the sphere in model space
+     * @param radius the radius of the sphere in model space
+     * @param dest   receives the world space center in {@code xyz} and the radius in {@code w}
+     * @return {@code dest}
+     */
+    @NonNull
+    public Vector4f transformSphere(int index, @NonNull Vector3fc center, float radius, @NonNull Vector4f dest) {
+        checkIndex(index);
+        val b = index * MATRIX_FLOATS;
+        float m00 = staging.get(b), m01 = staging.get(b + 1), m02 = staging.get(b + 2);
+        float m10 = staging.get(b + 4), m11 = staging.get(b + 5), m12 = staging.get(b + 6);
+        float m20 = staging.get(b + 8), m21 = staging.get(b + 9), m22 = staging.get(b + 10);
+        val scaleSquared = Math.max(m00 * m00 + m01 * m01 + m02 * m02,
+                Math.max(m10 * m10 + m11 * m11 + m12 * m12, m20 * m20 + m21 * m21 + m22 * m22));
+        return dest.set(
+                m00 * center.x() + m10 * center.y() + m20 * center.z() + staging.get(b + 12),
+                m01 * center.x() + m11 * center.y() + m21 * center.z() + staging.get(b + 13),
+                m02 * center.x() + m12 * center.y() + m22 * center.z() + staging.get(b + 14),
+                radius * (float) Math.sqrt(scaleSquared));
+    }
+
+    /**
+     * Uploads all changed matrices into the given shader storage buffer. If the buffer is too small it is
+     * reallocated and filled completely.
+     *
+     * @param ssbo the buffer to upload to
+     */
+    public void upload(@NonNull Buffer ssbo) {
+        if (!pending && gpuCapacity >= capacity) return;
+        pending = false;
+        val address = MemoryUtil.memAddress(staging);
+        if (gpuCapacity < capacity) {
+            ssbo.ndata((long) capacity * encoding.byteSize, GL_DYNAMIC_DRAW);
+            gpuCapacity = capacity;
+            if (size > 0) uploadRun(ssbo, address, 0, size);
+            Arrays.fill(dirty, 0L);
+            return;
+        }
+
+        forEachDirtyRun((from, to) -> uploadRun(ssbo, address, from, to));
+        // Bits beyond size belong to removed instances
+        Arrays.fill(dirty, 0L);
+    }
+
+    /**
+     * Receives a range of instances from {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    @FunctionalInterface
+    interface RunConsumer {
+        void accept(int from, int to);
+    }
+
+    /**
+     * Reports the ranges {@link #upload(Buffer)} transfers, in ascending order: every run of changed instances,
+     * with runs separated by at most {@link #COALESCE_GAP} unchanged instances merged into one. The dirty bits are
+     * kept.
+     *
+     * @param consumer receives the ranges
+     */
+    void forEachDirtyRun(RunConsumer consumer) {
+        var runStart = -1;
+        var runEnd = -1;
+        val words = wordCount(size);
+        for (var w = 0; w < words; w++) {
+            var word = dirty[w];
+            while (word != 0) {
+                val index = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (index >= size) break;
+                if (runStart >= 0 && index - runEnd <= COALESCE_GAP) {
+                    runEnd = index + 1;
+                    continue;
+                }
+                if (runStart >= 0) consumer.accept(runStart, runEnd);
+                runStart = index;
+                runEnd = index + 1;
+            }
+        }
+        if (runStart >= 0) consumer.accept(runStart, runEnd);
+    }
+
+    private void uploadRun(Buffer ssbo, long address, int from, int to) {
+        if (encoding == TransformEncoding.MAT4) {
+            val offset = (long) from * MATRIX_BYTES;
+            ssbo.nsubData(offset, (long) (to - from) * MATRIX_BYTES, address + offset);
+            return;
+        }
+        val bytes = (to - from) * encoding.byteSize;
+        if (encodedStaging.capacity() < bytes)
+            encodedStaging = MemoryUtil.memRealloc(encodedStaging, Math.max(bytes, encodedStaging.capacity() << 1));
+        encoder.encode(encoding, segment(), from, to, MemorySegment.ofBuffer(encodedStaging));
+        ssbo.nsubData((long) from * encoding.byteSize, bytes, MemoryUtil.memAddress(encodedStaging));
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= capacity) return;
+        var newCapacity = capacity;
+        while (newCapacity < required) newCapacity <<= 1;
+        staging = MemoryUtil.memRealloc(staging, newCapacity * MATRIX_FLOATS);
+        dirty = Arrays.copyOf(dirty, wordCount(newCapacity));
+        capacity = newCapacity;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(STR."Index \{index} out of bounds for size \{size}");
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    size=\{size},
+                    capacity=\{capacity}
+                }
+                """;
+    }
+
+    @Override
+    public void close() {
+        MemoryUtil.memFree(staging);
+        if (encodedStaging != null) MemoryUtil.memFree(encodedStaging);
+        size = 0;
+        capacity = 0;
+    }
+}
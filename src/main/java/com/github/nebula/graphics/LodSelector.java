@@ -0,0 +1,256 @@
+package com.github.nebula.graphics;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector4f;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * The {@code LodSelector} class picks a level of detail for every visible instance of a {@link Model} from the
+ * screen size of its bounding sphere, and sorts the visible instances into one bucket per level so every level can be
+ * drawn with a single instanced draw call.
+ *
+ * <p>The screen size of an instance is the diameter of its projected bounding sphere relative to the viewport height.
+ * Level {@code 0} is used for instances at least as large as the first threshold, level {@code i} for instances
+ * between threshold {@code i - 1} and {@code i}, and the last level for everything smaller. An instance only switches
+ * to a coarser level once its size drops a {@link #getHysteresis() hysteresis} fraction below the threshold, and only
+ * switches back once it exceeds the threshold by the same fraction, so instances near a threshold do not pop back
+ * and forth.
+ *
+ * <p>Buckets start at multiples of the bucket alignment, so each of them can be bound as a shader storage buffer range.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class LodSelector implements AutoCloseable {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final byte UNASSIGNED = -1;
+
+    private final @Getter int bucketAlignment;
+    private final Vector3f cameraPosition;
+    private final Vector4f sphere;
+    private float[] thresholds;
+    private float inverseTanHalfFov;
+    private @Getter float hysteresis;
+    /**
+     * The level of every instance, indexed like the instances of the model.
+     */
+    private byte[] levels;
+    private int size;
+    private int[] visibleLevels;
+    private int[] bucketOffsets, bucketCounts;
+    private IntBuffer bucketedIndices;
+    /**
+     * The number of ints used by the buckets including their alignment padding.
+     */
+    private @Getter int bucketedSize;
+
+    /**
+     * Creates a selector with a single level.
+     *
+     * @param bucketAlignment the number of ints every bucket offset is a multiple of
+     */
+    public LodSelector(int bucketAlignment) {
+        if (bucketAlignment <= 0) throw new IllegalArgumentException("Bucket alignment must be positive");
+        this.bucketAlignment = bucketAlignment;
+        this.cameraPosition = new Vector3f();
+        this.sphere = new Vector4f();
+        this.thresholds = new float[0];
+        this.inverseTanHalfFov = 1;
+        this.hysteresis = 0.1f;
+        this.levels = new byte[INITIAL_CAPACITY];
+        this.visibleLevels = new int[INITIAL_CAPACITY];
+        this.bucketOffsets = new int[1];
+        this.bucketCounts = new int[1];
+        this.bucketedIndices = MemoryUtil.memAllocInt(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Sets the screen size thresholds between the levels, which also sets the number of levels to
+     * {@code thresholds.length + 1}.
+     *
+     * @param thresholds strictly decreasing screen sizes, as fraction of the viewport height
+     */
+    public void setThresholds(@NonNull float... thresholds) {
+        for (var i = 1; i < thresholds.length; i++)
+            if (thresholds[i] >= thresholds[i - 1])
+                throw new IllegalArgumentException("LOD thresholds must be strictly decreasing");
+        if (thresholds.length > Byte.MAX_VALUE - 1)
+            throw new IllegalArgumentException(STR."Too many LOD levels: \{thresholds.length + 1}");
+        this.thresholds = thresholds.clone();
+        this.bucketOffsets = new int[thresholds.length + 1];
+        this.bucketCounts = new int[thresholds.length + 1];
+        Arrays.fill(levels, 0, size, UNASSIGNED);
+    }
+
+    public float[] getThresholds() {
+        return thresholds.clone();
+    }
+
+    public int getLevelCount() {
+        return thresholds.length + 1;
+    }
+
+    /**
+     * Sets the fraction by which the screen size of an instance has to cross a threshold before its level changes.
+     *
+     * @param hysteresis a fraction between {@code 0} and {@code 1}
+     */
+    public void setHysteresis(float hysteresis) {
+        if (hysteresis < 0 || hysteresis >= 1) throw new IllegalArgumentException("Hysteresis must be in [0, 1)");
+        this.hysteresis = hysteresis;
+    }
+
+    /**
+     * Sets the camera the screen sizes are computed for.
+     *
+     * @param position the position of the camera in world space
+     * @param fovY     the vertical field of view, in radians
+     */
+    public void setCamera(@NonNull Vector3fc position, float fovY) {
+        cameraPosition.set(position);
+        inverseTanHalfFov = 1 / (float) Math.tan(fovY * 0.5f);
+    }
+
+    void add(int count) {
+        if (size + count > levels.length) levels = Arrays.copyOf(levels, Math.max(size + count, levels.length << 1));
+        Arrays.fill(levels, size, size + count, UNASSIGNED);
+        size += count;
+    }
+
+    /**
+     * Removes the instance at {@code index} by moving the last instance into its index, like the model does.
+     */
+    void swapRemove(int index) {
+        levels[index] = levels[--size];
+    }
+
+    /**
+     * Returns the level the instance at {@code index} was drawn with last.
+     *
+     * @param index the index of the instance
+     * @return the level, or {@code -1} if the instance has not been visible yet
+     */
+    public int getLevel(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(STR."Index \{index} out of bounds for size \{size}");
+        return levels[index];
+    }
+
+    /**
+     * Computes the screen size of a world space bounding sphere.
+     *
+     * @return the projected diameter relative to the viewport height
+     */
+    public float getScreenSize(float x, float y, float z, float radius) {
+        val distance = cameraPosition.distance(x, y, z);
+        // The camera is inside of the sphere
+        if (distance <= radius) return Float.POSITIVE_INFINITY;
+        return radius * inverseTanHalfFov / distance;
+    }
+
+    /**
+     * Returns the level for a screen size, ignoring the level of the previous frame.
+     */
+    private int levelFor(float screenSize, float scale) {
+        var level = 0;
+        while (level < thresholds.length && screenSize < thresholds[level] * scale) level++;
+        return level;
+    }
+
+    /**
+     * Selects the level of every visible instance and sorts the visible indices into one bucket per level.
+     *
+     * @param visibleIndices the indices of the visible instances
+     * @param visibleCount   the number of visible instances
+     * @param transforms     the instance transforms
+     * @param localCenter    the center of the bounding sphere shared by all instances, in model space
+     * @param localRadius    the radius of the bounding sphere shared by all instances, in model space
+     */
+    public void select(@NonNull IntBuffer visibleIndices, int visibleCount, @NonNull InstanceTransformBuffer transforms,
+                       @NonNull Vector3fc localCenter, float localRadius) {
+        if (visibleLevels.length < visibleCount) visibleLevels = new int[Math.max(visibleCount, visibleLevels.length << 1)];
+        Arrays.fill(bucketCounts, 0);
+
+        for (var i = 0; i < visibleCount; i++) {
+            val index = visibleIndices.get(i);
+            transforms.transformSphere(index, localCenter, localRadius, sphere);
+            val screenSize = getScreenSize(sphere.x, sphere.y, sphere.z, sphere.w);
+            int current = levels[index], level = levelFor(screenSize, 1);
+            if (current != UNASSIGNED && level != current) {
+                // Coarser levels require the size to drop below the threshold by the hysteresis, finer ones to exceed it
+                level = level > current
+                        ? Math.max(current, levelFor(screenSize, 1 - hysteresis))
+                        : Math.min(current, levelFor(screenSize, 1 + hysteresis));
+            }
+            levels[index] = (byte) level;
+            visibleLevels[i] = level;
+            bucketCounts[level]++;
+        }
+
+        var offset = 0;
+        for (var level = 0; level < bucketCounts.length; level++) {
+            bucketOffsets[level] = offset;
+            offset = align(offset + bucketCounts[level]);
+        }
+        bucketedSize = offset;
+        if (bucketedIndices.capacity() < bucketedSize)
+            bucketedIndices = MemoryUtil.memRealloc(bucketedIndices, Math.max(bucketedSize, bucketedIndices.capacity() << 1));
+
+        Arrays.fill(bucketCounts, 0);
+        for (var i = 0; i < visibleCount; i++) {
+            val level = visibleLevels[i];
+            bucketedIndices.put(bucketOffsets[level] + bucketCounts[level]++, visibleIndices.get(i));
+        }
+    }
+
+    private int align(int offset) {
+        return (offset + bucketAlignment - 1) / bucketAlignment * bucketAlignment;
+    }
+
+    /**
+     * Returns the offset of a level's bucket inside of {@link #getBucketedIndices()}, in ints.
+     */
+    public int getBucketOffset(int level) {
+        return bucketOffsets[level];
+    }
+
+    /**
+     * Returns the number of instances selected for a level by the last {@link #select}.
+     */
+    public int getBucketCount(int level) {
+        return bucketCounts[level];
+    }
+
+    /**
+     * Returns the visible indices sorted into buckets by the last {@link #select}. The first
+     * {@link #getBucketedSize()} ints are valid, padding between buckets is undefined.
+     *
+     * @return the bucketed index list
+     */
+    @NonNull
+    public IntBuffer getBucketedIndices() {
+        return bucketedIndices;
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    thresholds=\{Arrays.toString(thresholds)},
+                    hysteresis=\{hysteresis}
+                }
+                """;
+    }
+
+    @Override
+    public void close() {
+        MemoryUtil.memFree(bucketedIndices);
+    }
+}
@@ -21,6 +21,11 @@ import com.github.nebula.graphics.globjects.Shader;
  * @since 26.03.2024
  */
 public interface Material extends AutoCloseable {
+    /**
+     * The version of materials that do not track their changes.
+     */
+    long UNVERSIONED = -1;
+
     /**
      * Applies the material to the currently bound shader.
      */
@@ -62,6 +67,33 @@ public interface Material extends AutoCloseable {
 
     Shader getShader();
 
+    /**
+     * Returns the {@link com.github.nebula.graphics.util.Versions version} of the last change to the uniforms of
+     * this material. While the version stays the same and the shader still holds this material's uniforms,
+     * {@link #bindForDraw()} only binds the shader instead of calling {@link #bind()}. Materials returning a version
+     * therefore must only set program state, such as uniform values, in {@link #bind()}.
+     *
+     * @return the version of the uniforms, or {@link #UNVERSIONED} to upload them on every draw
+     */
+    default long getVersion() {
+        return UNVERSIONED;
+    }
+
+    /**
+     * Prepares the shader of this material for a draw, skipping the uniform upload if the shader still holds the
+     * uniforms of the same {@link #getVersion() version} of this material.
+     */
+    default void bindForDraw() {
+        final long version = getVersion();
+        final Shader shader = getShader();
+        if (version != UNVERSIONED && shader.holdsUniformsOf(this, version)) {
+            shader.bind();
+            return;
+        }
+        bind();
+        if (version != UNVERSIONED) shader.setUniformOwner(this, version);
+    }
+
     /**
      * Gets the value of a uniform attribute.
      *
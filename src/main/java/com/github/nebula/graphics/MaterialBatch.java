@@ -0,0 +1,104 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.globjects.VertexArray;
+import com.github.nebula.graphics.util.BufferUtil;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.List;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+/**
+ * The {@code MaterialBatch} class holds the GPU side geometry of all meshes of a {@link Model} that share a
+ * {@link Material}. The meshes are concatenated into a single {@link GPUMesh} and a {@link VertexArray} is formatted
+ * for the vertex layout of the material's shader once, so the batch can be drawn every frame without touching the
+ * source meshes again.
+ *
+ * <p>Batches are owned by their {@link Model}, which rebuilds them when its mesh material map changes.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+@Getter
+public final class MaterialBatch implements AutoCloseable {
+    private final Material material;
+    private final GPUMesh mesh;
+    private final VertexArray vertexArray;
+    private final int indexCount;
+
+    /**
+     * Concatenates the given meshes and uploads them into a new {@link GPUMesh} and {@link VertexArray}.
+     *
+     * @param material the material the meshes are rendered with
+     * @param meshes   the meshes to merge into this batch
+     */
+    MaterialBatch(@NonNull Material material, @NonNull List<Mesh> meshes) {
+        this.material = material;
+        this.mesh = new GPUMesh();
+        this.vertexArray = new VertexArray();
+
+        try (val merged = BufferUtil.concatMeshes(meshes.toArray(new Mesh[0]));
+             val vertices = merged.getVertices(ReadPolicy.READ);
+             val indices = merged.getIndices(ReadPolicy.READ)) {
+            mesh.setVertices(vertices.buffer().rewind());
+            mesh.setIndices(indices.buffer().rewind());
+        }
+        this.indexCount = (int) mesh.getIndicesSize();
+
+        material.getShader().getVertexAttributes().format(vertexArray, mesh.getVbo());
+        // The element buffer binding is part of the vertex array state
+        vertexArray.bind();
+        mesh.getEbo().bind();
+    }
+
+    /**
+     * Draws the batch {@code instanceCount} times using the batch's material.
+     *
+     * @param instanceCount the number of instances to draw
+     */
+    public void draw(int instanceCount) {
+        if (instanceCount == 0 || indexCount == 0) return;
+        vertexArray.bind();
+        material.bindForDraw();
+        glDrawElementsInstanced(GL_TRIANGLES, indexCount, GL_UNSIGNED_INT, 0L, instanceCount);
+    }
+
+    /**
+     * Draws the batch using {@code drawCount} consecutive {@code DrawElementsIndirectCommand}s read from
+     * {@code commands}, so the instance count can be decided on the GPU.
+     *
+     * @param commands  a buffer of type {@code GL_DRAW_INDIRECT_BUFFER} holding the commands
+     * @param offset    the byte offset of the first command
+     * @param drawCount the number of commands to execute
+     */
+    public void drawIndirect(@NonNull Buffer commands, long offset, int drawCount) {
+        if (drawCount == 0 || indexCount == 0) return;
+        vertexArray.bind();
+        material.bindForDraw();
+        commands.bind();
+        glMultiDrawElementsIndirect(GL_TRIANGLES, GL_UNSIGNED_INT, offset, drawCount, 0);
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    material=\{material},
+                    mesh=\{mesh},
+                    indexCount=\{indexCount}
+                }
+                """;
+    }
+
+    /**
+     * Releases the merged mesh and the vertex array of this batch. The source meshes and the material are not closed.
+     */
+    @Override
+    public void close() {
+        vertexArray.close();
+        mesh.close();
+    }
+}
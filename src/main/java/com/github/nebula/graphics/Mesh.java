@@ -1,5 +1,6 @@
 package com.github.nebula.graphics;
 
+import com.github.nebula.graphics.util.Versions;
 import io.reactivex.rxjava3.annotations.NonNull;
 
 import java.nio.FloatBuffer;
@@ -30,6 +31,16 @@ public interface Mesh extends AutoCloseable {
 
     long getIndicesSize();
 
+    /**
+     * Returns the {@link Versions version} of the last change to the vertices or indices of this mesh. Acquiring a
+     * buffer with a writing {@link ReadPolicy} counts as a change. Models compare it to rebuild their batches.
+     *
+     * @return the version of the mesh contents
+     */
+    default long getVersion() {
+        return Versions.INITIAL;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1,79 +1,743 @@
 package com.github.nebula.graphics;
 
+import com.github.nebula.graphics.culling.CullingStatistics;
+import com.github.nebula.graphics.culling.Frustum;
+import com.github.nebula.graphics.culling.FrustumCuller;
+import com.github.nebula.graphics.culling.GPUCuller;
+import com.github.nebula.graphics.culling.OcclusionCuller;
 import com.github.nebula.graphics.data.GLDataType;
+import com.github.nebula.graphics.data.VertexAttributes;
 import com.github.nebula.graphics.globjects.Buffer;
-import com.github.nebula.graphics.globjects.VertexArray;
-import com.github.nebula.graphics.util.BufferUtil;
+import com.github.nebula.graphics.spatial.DynamicAabbTree;
+import com.github.nebula.graphics.util.Versions;
 import io.reactivex.rxjava3.annotations.NonNull;
 import lombok.Getter;
 import lombok.val;
-import org.lwjgl.opengl.GL42C;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector4f;
+import org.lwjgl.system.MemoryUtil;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.nio.IntBuffer;
+import java.util.*;
+import java.util.function.IntConsumer;
 
-import static org.lwjgl.opengl.GL15C.*;
-import static org.lwjgl.opengl.GL43C.GL_SHADER_STORAGE_BUFFER;
+import static org.lwjgl.opengl.GL43C.*;
 
 /**
+ * A {@code Model} renders all of its {@link ModelInstance}s with one instanced draw call per {@link Material}.
+ * <p>
+ * The transformation matrices of all instances are bound as a shader storage buffer to
+ * {@link #TRANSFORM_BUFFER_BINDING}. The indices of the instances that survived culling are bound as a
+ * shader storage buffer to {@link #VISIBLE_INSTANCE_BUFFER_BINDING}, so shaders look up their matrix using
+ * {@code transforms[visibleInstances[gl_InstanceID]]}.
+ * <p>
+ * Instances are referred to by generational handles from an {@link InstanceRegistry}. Their data is kept dense and
+ * destroying an instance moves the last instance into its place, so creating and destroying instances takes constant
+ * time and the transform buffer never has gaps.
+ * <p>
+ * Custom per-instance data is described with {@link #setInstanceAttributeLayout(VertexAttributes)} and bound as a
+ * shader storage buffer to {@link #INSTANCE_ATTRIBUTE_BUFFER_BINDING}, indexed like the transforms.
+ * <p>
+ * Materials may provide coarser meshes for distant instances through {@link #setLodMeshes(Material, int, List)}.
+ * Once the {@link #getLodSelector() LOD selector} has thresholds, every level is drawn with its own instanced draw
+ * call, binding the level's bucket of visible indices as a range of the visible instance buffer.
+ *
  * @author Anton Schoenfeld
  * @since 26.03.2024
  */
 public class Model implements AutoCloseable {
-    private final @Getter Map<Material, List<Mesh>> meshMaterialMap;
-    private final List<ModelInstance> instances;
+    /**
+     * The shader storage buffer binding point the instance transformation matrices are bound to.
+     */
+    public static final int TRANSFORM_BUFFER_BINDING = 0;
+    /**
+     * The shader storage buffer binding point the indices of the visible instances are bound to.
+     */
+    public static final int VISIBLE_INSTANCE_BUFFER_BINDING = 1;
+    /**
+     * The shader storage buffer binding point the custom instance attributes are bound to.
+     */
+    public static final int INSTANCE_ATTRIBUTE_BUFFER_BINDING = 4;
+
+    private final Map<Material, List<Mesh>> meshMaterialMap;
+    private final Map<Material, MaterialBatch> batches;
+    /**
+     * The meshes and batches of the coarser levels of detail, index {@code 0} holds level {@code 1}.
+     */
+    private final List<Map<Material, List<Mesh>>> lodMeshMaterialMaps;
+    private final List<Map<Material, MaterialBatch>> lodBatches;
+    private final @Getter LodSelector lodSelector;
+    private final InstanceRegistry registry;
+    /**
+     * Id of every instance's proxy in the spatial index, indexed by dense instance index.
+     */
+    private int[] proxies;
+    private final @Getter InstanceTransformBuffer transforms;
     private final Buffer mat4Ssbo;
-    private int oldNumInstances;
+    private final Buffer visibleInstanceSsbo;
+    /**
+     * The custom attributes of every instance, or {@code null} if the model has no instance attribute layout.
+     */
+    private @Getter InstanceAttributeBuffer instanceAttributes;
+    private Buffer instanceAttributeSsbo;
+    private final FrustumCuller culler;
+    /**
+     * Culls instances in a compute shader and draws them indirectly, or {@code null} if disabled.
+     */
+    private GPUCuller gpuCuller;
+    private final @Getter CullingStatistics cullingStatistics;
+    private final Vector3f boundingSphereCenter;
+    private float boundingSphereRadius;
+    private final Vector4f worldSphere;
+    private final IntConsumer proxyUpdater;
+    /**
+     * Spatial index over the world bounds of all instances, or {@code null} if disabled.
+     */
+    private @Getter DynamicAabbTree spatialIndex;
+    /**
+     * The frustum instances are culled against, or {@code null} to disable frustum culling.
+     */
+    private @Getter Frustum cullingFrustum;
+    /**
+     * The rasterized occluders instances are tested against after frustum culling, or {@code null} to disable
+     * occlusion culling. The culler has to be rasterized for the current frame before the model is rendered.
+     */
+    private @Getter OcclusionCuller occlusionCuller;
+    private int visibleInstanceCapacity;
+    /**
+     * The instance count the visible instance buffer holds all indices for, or {@code -1} if it holds a culling result.
+     */
+    private int uploadedAllCount;
+    /**
+     * The largest version of all inputs of the culling result held by the visible instance buffer, or {@code -1} if
+     * the buffer holds no reusable culling result.
+     */
+    private long culledVersion;
+    private int culledVisibleCount;
+    /**
+     * The {@link Versions version} up to which mesh changes have been detected.
+     */
+    private long meshCheckVersion;
+    private boolean batchesDirty;
+    /**
+     * Incremented whenever the meshes of this model change, so external batches know when to rebuild.
+     */
+    private int meshVersion;
 
     public Model(@NonNull Map<Material, List<Mesh>> modelMaterialMap) {
         super();
         this.mat4Ssbo = new Buffer(GL_SHADER_STORAGE_BUFFER);
-        this.meshMaterialMap = new HashMap<>(modelMaterialMap);
-        this.oldNumInstances = 0;
-        this.instances = new ArrayList<>();
+        this.meshMaterialMap = new HashMap<>();
+        for (val entry : modelMaterialMap.entrySet())
+            meshMaterialMap.put(entry.getKey(), List.copyOf(entry.getValue()));
+        this.batches = new HashMap<>();
+        this.lodMeshMaterialMaps = new ArrayList<>();
+        this.lodBatches = new ArrayList<>();
+        // Buckets bound with glBindBufferRange have to start at a multiple of the offset alignment
+        this.lodSelector = new LodSelector(Math.max(1, glGetInteger(GL_SHADER_STORAGE_BUFFER_OFFSET_ALIGNMENT) / Integer.BYTES));
+        this.batchesDirty = true;
+        this.transforms = new InstanceTransformBuffer();
+        this.registry = new InstanceRegistry();
+        this.proxies = new int[0];
+        this.visibleInstanceSsbo = new Buffer(GL_SHADER_STORAGE_BUFFER);
+        this.culler = new FrustumCuller();
+        this.gpuCuller = null;
+        this.cullingStatistics = new CullingStatistics();
+        this.boundingSphereCenter = new Vector3f();
+        this.boundingSphereRadius = -1;
+        this.worldSphere = new Vector4f();
+        this.proxyUpdater = this::updateProxy;
+        this.spatialIndex = null;
+        this.visibleInstanceCapacity = 0;
+        this.uploadedAllCount = -1;
+        this.culledVersion = -1;
+        this.meshCheckVersion = Versions.current();
+    }
+
+    /**
+     * Sets the frustum instances are culled against.
+     *
+     * @param cullingFrustum the frustum, or {@code null} to disable frustum culling
+     */
+    public void setCullingFrustum(Frustum cullingFrustum) {
+        this.cullingFrustum = cullingFrustum;
+        invalidateVisibleInstances();
+    }
+
+    /**
+     * Sets the rasterized occluders instances are tested against after frustum culling.
+     *
+     * @param occlusionCuller the culler, or {@code null} to disable occlusion culling
+     * @throws IllegalStateException if an occlusion culler is set while GPU culling is enabled
+     */
+    public void setOcclusionCuller(OcclusionCuller occlusionCuller) {
+        if (occlusionCuller != null && gpuCuller != null)
+            throw new IllegalStateException("Occlusion culling is not supported while GPU culling is enabled");
+        this.occlusionCuller = occlusionCuller;
+        invalidateVisibleInstances();
+    }
+
+    /**
+     * Sets the model space bounding sphere enclosing all meshes of this model. Instances are only frustum culled
+     * once a bounding sphere has been set.
+     *
+     * @param center the center of the sphere
+     * @param radius the radius of the sphere
+     */
+    public void setBoundingSphere(@NonNull Vector3fc center, float radius) {
+        if (radius < 0) throw new IllegalArgumentException("Bounding sphere radius must not be negative");
+        boundingSphereCenter.set(center);
+        boundingSphereRadius = radius;
+        invalidateVisibleInstances();
+        if (spatialIndex != null)
+            for (var i = 0; i < registry.getSize(); i++) updateProxy(i);
+    }
+
+    /**
+     * Enables or disables the spatial index over the world bounds of all instances. While enabled, frustum culling
+     * queries the index instead of testing every instance, and the index can be used for picking and proximity
+     * queries through {@link #getSpatialIndex()}. Proxies carry the instance index as user data.
+     *
+     * @param enabled whether the spatial index should be maintained
+     * @throws IllegalStateException if the index is enabled before a bounding sphere has been set
+     */
+    public void setSpatialIndexEnabled(boolean enabled) {
+        if (enabled == (spatialIndex != null)) return;
+        if (!enabled) {
+            spatialIndex = null;
+            Arrays.fill(proxies, DynamicAabbTree.NULL_NODE);
+            return;
+        }
+        if (boundingSphereRadius < 0)
+            throw new IllegalStateException("A bounding sphere is required for the spatial index");
+        spatialIndex = new DynamicAabbTree();
+        for (var i = 0; i < registry.getSize(); i++) updateProxy(i);
+    }
+
+    /**
+     * Sets the layout of the custom attributes every instance carries in addition to its transformation matrix.
+     * All attributes of existing instances are reset to zero. The generated
+     * {@link InstanceAttributeBuffer#getGlslDeclaration(int) declaration} has to be part of the shaders.
+     *
+     * @param layout the attributes of every instance, or {@code null} to remove all instance attributes
+     */
+    public void setInstanceAttributeLayout(VertexAttributes layout) {
+        if (instanceAttributes != null) {
+            instanceAttributes.close();
+            instanceAttributeSsbo.close();
+            instanceAttributes = null;
+            instanceAttributeSsbo = null;
+        }
+        if (layout == null) return;
+        instanceAttributes = new InstanceAttributeBuffer(layout);
+        instanceAttributes.add(registry.getSize());
+        instanceAttributeSsbo = new Buffer(GL_SHADER_STORAGE_BUFFER);
+    }
+
+    /**
+     * Selects the layout the instance transforms are uploaded in. Shaders have to declare the transform buffer
+     * using the encoding's {@link TransformEncoding#glslDecode decode snippet}.
+     *
+     * @param encoding the transform encoding
+     * @throws IllegalStateException if a compact encoding is selected while GPU culling is enabled
+     */
+    public void setTransformEncoding(@NonNull TransformEncoding encoding) {
+        if (gpuCuller != null && encoding != TransformEncoding.MAT4)
+            throw new IllegalStateException("GPU culling requires the MAT4 transform encoding");
+        transforms.setEncoding(encoding);
+    }
+
+    /**
+     * Enables or disables culling on the GPU. While enabled and a {@link #setCullingFrustum culling frustum} is set,
+     * instances are culled by a compute shader and drawn with {@code glMultiDrawElementsIndirect}, so the visible
+     * instance count never reaches the CPU and {@link #getCullingStatistics()} is not updated.
+     * <p>
+     * The compute shader only tests the bounding spheres against the frustum. The {@link #getSpatialIndex() spatial
+     * index} is still maintained for queries but not used for culling, and only the meshes of level {@code 0} are
+     * drawn, so GPU culling cannot be combined with an {@link #setOcclusionCuller occlusion culler} or with several
+     * {@link #getLodSelector() levels of detail}. Thresholds set on the LOD selector afterwards are ignored.
+     *
+     * @param enabled whether instances should be culled on the GPU
+     * @throws IllegalStateException if a compact transform encoding, an occlusion culler or several levels of detail
+     *                               are in use
+     */
+    public void setGpuCullingEnabled(boolean enabled) {
+        if (enabled == (gpuCuller != null)) return;
+        if (!enabled) {
+            gpuCuller.close();
+            gpuCuller = null;
+            return;
+        }
+        if (transforms.getEncoding() != TransformEncoding.MAT4)
+            throw new IllegalStateException("GPU culling requires the MAT4 transform encoding");
+        if (occlusionCuller != null)
+            throw new IllegalStateException("GPU culling does not support occlusion culling");
+        if (lodSelector.getLevelCount() > 1)
+            throw new IllegalStateException("GPU culling only draws the finest level of detail");
+        gpuCuller = new GPUCuller();
+        updateCommands();
+    }
+
+    public boolean isGpuCullingEnabled() {
+        return gpuCuller != null;
+    }
+
+    /**
+     * Writes one indirect command per batch, in the iteration order of the batches.
+     */
+    private void updateCommands() {
+        if (gpuCuller == null) return;
+        gpuCuller.setCommandCount(batches.size());
+        var command = 0;
+        for (val batch : batches.values())
+            gpuCuller.setCommand(command++, batch.getIndexCount(), 0, 0, 0);
+    }
+
+    private void updateProxy(int index) {
+        transforms.transformSphere(index, boundingSphereCenter, boundingSphereRadius, worldSphere);
+        float x = worldSphere.x, y = worldSphere.y, z = worldSphere.z, r = worldSphere.w;
+        if (proxies[index] == DynamicAabbTree.NULL_NODE)
+            proxies[index] = spatialIndex.createProxy(x - r, y - r, z - r, x + r, y + r, z + r, index);
+        else
+            spatialIndex.moveProxy(proxies[index], x - r, y - r, z - r, x + r, y + r, z + r);
+    }
+
+    /**
+     * Returns an unmodifiable view of the meshes of this model, grouped by their material.
+     * Use {@link #setMeshes(Material, List)} and {@link #removeMeshes(Material)} to change the mapping.
+     *
+     * @return the mesh material map of this model
+     */
+    public Map<Material, List<Mesh>> getMeshMaterialMap() {
+        return Collections.unmodifiableMap(meshMaterialMap);
+    }
+
+    /**
+     * Replaces the meshes rendered with the given material and invalidates the cached draw batches.
+     *
+     * @param material the material
+     * @param meshes   the meshes rendered with the material
+     */
+    public void setMeshes(@NonNull Material material, @NonNull List<Mesh> meshes) {
+        meshMaterialMap.put(material, List.copyOf(meshes));
+        invalidateBatches();
+    }
+
+    /**
+     * Removes the meshes rendered with the given material and invalidates the cached draw batches.
+     * Neither the material nor the meshes are closed.
+     *
+     * @param material the material
+     * @return the meshes that were rendered with the material, or {@code null} if there were none
+     */
+    public List<Mesh> removeMeshes(@NonNull Material material) {
+        val removed = meshMaterialMap.remove(material);
+        if (removed != null) invalidateBatches();
+        return removed;
+    }
+
+    /**
+     * Replaces the meshes rendered with the given material at a level of detail and invalidates the cached draw
+     * batches. Level {@code 0} is the {@link #getMeshMaterialMap() mesh material map} itself. Levels without meshes
+     * fall back to the next finer level.
+     *
+     * @param material the material, which has to have meshes at level {@code 0}
+     * @param level    the level of detail, matching the levels of the {@link #getLodSelector() LOD selector}
+     * @param meshes   the meshes rendered with the material at that level
+     */
+    public void setLodMeshes(@NonNull Material material, int level, @NonNull List<Mesh> meshes) {
+        if (level < 0) throw new IllegalArgumentException(STR."Negative level of detail: \{level}");
+        if (level == 0) {
+            setMeshes(material, meshes);
+            return;
+        }
+        if (!meshMaterialMap.containsKey(material))
+            throw new IllegalArgumentException(STR."\{material} has no meshes at level 0");
+        while (lodMeshMaterialMaps.size() < level) lodMeshMaterialMaps.add(new HashMap<>());
+        lodMeshMaterialMaps.get(level - 1).put(material, List.copyOf(meshes));
+        invalidateBatches();
+    }
+
+    /**
+     * Returns the meshes rendered with the given material at a level of detail.
+     *
+     * @param material the material
+     * @param level    the level of detail
+     * @return the meshes, or {@code null} if the level has no meshes for the material
+     */
+    public List<Mesh> getLodMeshes(@NonNull Material material, int level) {
+        if (level == 0) return meshMaterialMap.get(material);
+        if (level < 0 || level > lodMeshMaterialMaps.size()) return null;
+        return lodMeshMaterialMaps.get(level - 1).get(material);
+    }
+
+    /**
+     * Marks the cached draw batches as outdated so they are rebuilt on the next render call.
+     * This has to be called when the contents of a mesh of this model have been changed.
+     */
+    public void invalidateBatches() {
+        batchesDirty = true;
+        meshVersion++;
+    }
+
+    int getMeshVersion() {
+        detectMeshChanges();
+        return meshVersion;
+    }
+
+    /**
+     * Invalidates the batches if the contents of any mesh changed since the last check.
+     */
+    private void detectMeshChanges() {
+        val checkedUpTo = Versions.current();
+        if (meshCheckVersion == checkedUpTo) return;
+        if (!batchesDirty && meshesChangedSince(meshCheckVersion)) invalidateBatches();
+        meshCheckVersion = checkedUpTo;
+    }
+
+    private boolean meshesChangedSince(long version) {
+        for (val meshes : meshMaterialMap.values())
+            for (val mesh : meshes)
+                if (mesh.getVersion() > version) return true;
+        for (val lodMeshMaterialMap : lodMeshMaterialMaps)
+            for (val meshes : lodMeshMaterialMap.values())
+                for (val mesh : meshes)
+                    if (mesh.getVersion() > version) return true;
+        return false;
+    }
+
+    private void rebuildBatches() {
+        closeBatches();
+        for (val entry : meshMaterialMap.entrySet()) {
+            if (entry.getValue().isEmpty()) continue;
+            batches.put(entry.getKey(), new MaterialBatch(entry.getKey(), entry.getValue()));
+        }
+        for (val lodMeshMaterialMap : lodMeshMaterialMaps) {
+            val levelBatches = new HashMap<Material, MaterialBatch>();
+            for (val entry : lodMeshMaterialMap.entrySet()) {
+                if (entry.getValue().isEmpty() || !batches.containsKey(entry.getKey())) continue;
+                levelBatches.put(entry.getKey(), new MaterialBatch(entry.getKey(), entry.getValue()));
+            }
+            lodBatches.add(levelBatches);
+        }
+        updateCommands();
+        batchesDirty = false;
+    }
+
+    private void closeBatches() {
+        for (val batch : batches.values())
+            batch.close();
+        batches.clear();
+        for (val levelBatches : lodBatches)
+            for (val batch : levelBatches.values())
+                batch.close();
+        lodBatches.clear();
     }
 
-    protected List<ModelInstance> getInstances() {
-        return instances;
+    /**
+     * Returns the batch drawing a material at the finest level of detail.
+     *
+     * @return the batch, or {@code null} if the batches have not been built yet or the material has no meshes
+     */
+    MaterialBatch getBatch(Material material) {
+        return batches.get(material);
+    }
+
+    /**
+     * Returns the batch drawing a material at a level of detail, falling back to finer levels.
+     */
+    private MaterialBatch getBatch(Material material, int level) {
+        for (var l = Math.min(level, lodBatches.size()); l > 0; l--) {
+            val batch = lodBatches.get(l - 1).get(material);
+            if (batch != null) return batch;
+        }
+        return batches.get(material);
+    }
+
+    /**
+     * Returns the number of live instances, which occupy the dense indices {@code 0} to {@code count - 1}.
+     *
+     * @return the number of instances
+     */
+    public int getInstanceCount() {
+        return registry.getSize();
     }
 
     public ModelInstance createInstance() {
-        val instance = new ModelInstance(this);
-        instances.add(instance);
-        return instance;
+        val handle = new long[1];
+        createInstances(handle, 0, 1);
+        return new ModelInstance(this, handle[0]);
+    }
+
+    /**
+     * Creates {@code count} instances with identity transforms.
+     *
+     * @param dest   receives the handles of the new instances
+     * @param offset the index of the first handle inside of {@code dest}
+     * @param count  the number of instances to create
+     */
+    public void createInstances(@NonNull long[] dest, int offset, int count) {
+        val first = registry.getSize();
+        registry.create(dest, offset, count);
+        transforms.add(count);
+        lodSelector.add(count);
+        if (instanceAttributes != null) instanceAttributes.add(count);
+        if (proxies.length < first + count)
+            proxies = Arrays.copyOf(proxies, Math.max(first + count, proxies.length << 1));
+        Arrays.fill(proxies, first, first + count, DynamicAabbTree.NULL_NODE);
+        if (spatialIndex != null)
+            for (var i = first; i < first + count; i++) updateProxy(i);
+    }
+
+    /**
+     * Returns a view of the instance with the given handle.
+     *
+     * @param handle the handle of the instance
+     * @return the instance
+     * @throws IllegalArgumentException if the instance has been destroyed
+     */
+    public ModelInstance getInstance(long handle) {
+        if (!registry.isAlive(handle)) throw new IllegalArgumentException(STR."Stale instance handle \{handle}");
+        return new ModelInstance(this, handle);
+    }
+
+    public boolean isAlive(long handle) {
+        return registry.isAlive(handle);
+    }
+
+    /**
+     * Returns the dense index of an instance, which is the index of its matrix in {@link #getTransforms()}.
+     * The index changes when other instances are destroyed.
+     *
+     * @param handle the handle of the instance
+     * @return the dense index of the instance
+     * @throws IllegalStateException if the instance has been destroyed
+     */
+    public int indexOf(long handle) {
+        val index = registry.indexOf(handle);
+        if (index < 0) throw new IllegalStateException(STR."Instance \{handle} has been destroyed");
+        return index;
+    }
+
+    /**
+     * Destroys an instance, moving the last instance into its dense index.
+     *
+     * @param handle the handle of the instance
+     * @return {@code false} if the instance had already been destroyed
+     */
+    public boolean destroyInstance(long handle) {
+        val index = registry.destroy(handle);
+        if (index < 0) return false;
+        val last = registry.getSize();
+        transforms.swapRemove(index);
+        lodSelector.swapRemove(index);
+        if (instanceAttributes != null) instanceAttributes.swapRemove(index);
+        if (spatialIndex != null) spatialIndex.destroyProxy(proxies[index]);
+        proxies[index] = proxies[last];
+        proxies[last] = DynamicAabbTree.NULL_NODE;
+        if (spatialIndex != null && index != last) spatialIndex.setUserData(proxies[index], index);
+        return true;
+    }
+
+    /**
+     * Destroys {@code count} instances. Stale handles are ignored.
+     *
+     * @param handles the handles of the instances
+     * @param offset  the index of the first handle inside of {@code handles}
+     * @param count   the number of handles
+     */
+    public void destroyInstances(@NonNull long[] handles, int offset, int count) {
+        Arrays.checkFromIndexSize(offset, count, handles.length);
+        for (var i = offset; i < offset + count; i++)
+            destroyInstance(handles[i]);
     }
 
     public void renderInstances() {
-        if (oldNumInstances != instances.size()) {
-            oldNumInstances = instances.size();
-            mat4Ssbo.data(oldNumInstances, GL_DYNAMIC_DRAW, GLDataType.MAT4);
+        if (spatialIndex != null) transforms.forEachDirty(proxyUpdater);
+        // Only instances whose transformation changed since the last frame are uploaded
+        transforms.upload(mat4Ssbo);
+        mat4Ssbo.bindBase(TRANSFORM_BUFFER_BINDING);
+        if (instanceAttributes != null) {
+            instanceAttributes.upload(instanceAttributeSsbo);
+            instanceAttributeSsbo.bindBase(INSTANCE_ATTRIBUTE_BUFFER_BINDING);
+        }
+
+        detectMeshChanges();
+        if (batchesDirty) rebuildBatches();
+        ensureVisibleInstanceCapacity();
+        visibleInstanceSsbo.bindBase(VISIBLE_INSTANCE_BUFFER_BINDING);
+
+        val numInstances = registry.getSize();
+        // The spatial index, occlusion culling and levels of detail are not used on the GPU path
+        if (gpuCuller != null && cullingFrustum != null && boundingSphereRadius >= 0) {
+            gpuCuller.cull(cullingFrustum, numInstances, boundingSphereCenter, boundingSphereRadius);
+            invalidateVisibleInstances();
+            var command = 0;
+            for (val batch : batches.values())
+                batch.drawIndirect(gpuCuller.getCommandBuffer(), (long) command++ * GPUCuller.COMMAND_BYTES, 1);
+            return;
         }
 
-        val mappedSsbo = mat4Ssbo.map(GL_WRITE_ONLY).asFloatBuffer();
-        // Populate Ssbo with transformation matrices
-        for (int i = 0; i < instances.size(); i++) {
-            val transformMatrix = instances.get(i).getTransformationMatrix();
-            mappedSsbo.put(i * 16, transformMatrix.get(new float[16]));
+        if (lodSelector.getLevelCount() > 1 && boundingSphereRadius >= 0) {
+            renderLevels(numInstances);
+            return;
         }
-        mat4Ssbo.unmap();
-
-        for (val material : meshMaterialMap.keySet()) {
-            val meshes = meshMaterialMap.get(material);
-            val resultMesh = BufferUtil.concatMeshesIntoMesh(new GPUMesh(), meshes.toArray(new Mesh[meshes.size() - 1]));
-            resultMesh.setIndices(BufferUtil.getDefaultIndexBuffer((int) resultMesh.getVerticesSize()));
-            val vao = new VertexArray();
-            material.getShader().getVertexAttributes().format(vao, resultMesh.getVbo());
-            // TODO: Upload mat4Ssbo into the shader
-            vao.bind();
-            resultMesh.getEbo().bind();
-            material.bind();
-            GL42C.glDrawElementsInstanced(GL_TRIANGLES, (int) resultMesh.getIndicesSize(), GL_UNSIGNED_INT, 0L, oldNumInstances);
-            vao.close();
+
+        val drawCount = selectVisibleInstances(numInstances);
+        cullingStatistics.record(drawCount, numInstances - drawCount);
+
+        for (val batch : batches.values())
+            batch.draw(drawCount);
+    }
+
+    /**
+     * Draws every level of detail with one instanced draw call per material, each reading its own bucket of the
+     * visible instance buffer.
+     */
+    private void renderLevels(int numInstances) {
+        val visibleCount = cullVisibleInstances(numInstances);
+        invalidateVisibleInstances();
+        cullingStatistics.record(visibleCount, numInstances - visibleCount);
+        lodSelector.select(culler.getVisibleIndices(), visibleCount, transforms, boundingSphereCenter, boundingSphereRadius);
+        if (visibleCount == 0) return;
+
+        val bucketed = lodSelector.getBucketedIndices();
+        visibleInstanceSsbo.nsubData(0, (long) lodSelector.getBucketedSize() * Integer.BYTES, MemoryUtil.memAddress(bucketed));
+        for (var level = 0; level < lodSelector.getLevelCount(); level++) {
+            val count = lodSelector.getBucketCount(level);
+            if (count == 0) continue;
+            visibleInstanceSsbo.bindRange(VISIBLE_INSTANCE_BUFFER_BINDING,
+                    (long) lodSelector.getBucketOffset(level) * Integer.BYTES, (long) count * Integer.BYTES);
+            for (val material : batches.keySet())
+                getBatch(material, level).draw(count);
         }
     }
 
+    private void ensureVisibleInstanceCapacity() {
+        // Every level of detail may add up to one alignment of padding
+        val required = transforms.getCapacity() + lodSelector.getLevelCount() * lodSelector.getBucketAlignment();
+        if (visibleInstanceCapacity < required) {
+            visibleInstanceCapacity = required;
+            visibleInstanceSsbo.data(visibleInstanceCapacity, GL_DYNAMIC_DRAW, GLDataType.INT);
+            invalidateVisibleInstances();
+        }
+    }
+
+    private int selectVisibleInstances(int numInstances) {
+        val culling = isCulling();
+        // Without culling the index list only changes with the instance count
+        if (!culling && uploadedAllCount == numInstances) return numInstances;
+        // Unchanged transforms, frustum and occluders produce the same result as last frame
+        if (culling && culledVersion >= 0 && culledVersion == cullingInputVersion()) return culledVisibleCount;
+        val visibleCount = cullVisibleInstances(numInstances);
+        uploadedAllCount = culling ? -1 : numInstances;
+        culledVersion = culling ? cullingInputVersion() : -1;
+        culledVisibleCount = visibleCount;
+        if (visibleCount > 0)
+            visibleInstanceSsbo.nsubData(0, (long) visibleCount * Integer.BYTES, culler.getVisibleIndicesAddress());
+        return visibleCount;
+    }
+
+    private long cullingInputVersion() {
+        var version = transforms.getVersion();
+        if (cullingFrustum != null) version = Math.max(version, cullingFrustum.getVersion());
+        if (occlusionCuller != null) version = Math.max(version, occlusionCuller.getVersion());
+        return version;
+    }
+
+    /**
+     * Forgets what the visible instance buffer holds, so the next frame culls and uploads again.
+     */
+    private void invalidateVisibleInstances() {
+        uploadedAllCount = -1;
+        culledVersion = -1;
+    }
+
+    private boolean isCulling() {
+        return boundingSphereRadius >= 0 && (cullingFrustum != null || occlusionCuller != null);
+    }
+
+    /**
+     * Writes the indices of the visible instances into the culler's index list.
+     *
+     * @return the number of visible instances
+     */
+    private int cullVisibleInstances(int numInstances) {
+        if (!isCulling()) return culler.selectAll(numInstances);
+        int visibleCount;
+        if (cullingFrustum == null)
+            visibleCount = culler.selectAll(numInstances);
+        else if (spatialIndex != null)
+            visibleCount = culler.cull(cullingFrustum, spatialIndex);
+        else
+            visibleCount = culler.cull(cullingFrustum, transforms, boundingSphereCenter, boundingSphereRadius);
+        // Occlusion tests are more expensive, so they only run on instances inside the frustum
+        if (occlusionCuller != null)
+            visibleCount = occlusionCuller.cull(culler, transforms, boundingSphereCenter, boundingSphereRadius);
+        return visibleCount;
+    }
+
+    /**
+     * Culls the instances of this model for a {@link MultiDrawBatcher}, which reads the matrices of the visible
+     * instances straight from the staging memory of {@link #getTransforms()}. Pending changes are therefore dropped
+     * instead of being uploaded to this model's own buffer.
+     *
+     * @return the number of visible instances, whose indices are stored in {@link #getVisibleInstanceIndices()}
+     */
+    int cullForBatch() {
+        if (spatialIndex != null) transforms.forEachDirty(proxyUpdater);
+        transforms.clearDirty();
+        val numInstances = registry.getSize();
+        val visibleCount = cullVisibleInstances(numInstances);
+        cullingStatistics.record(visibleCount, numInstances - visibleCount);
+        return visibleCount;
+    }
+
+    /**
+     * Uploads the instances of this model and records drawing all of them into a {@link RenderBundle}. Culling would
+     * bake the visibility of a single frame into the bundle, so every instance is marked visible. For the same reason
+     * no level of detail is selected: only the meshes of level {@code 0} are drawn, even if coarser levels are set.
+     */
+    void recordBundle(RenderBundle.Builder builder) {
+        // The upload clears the dirty bits the spatial index is synchronized from
+        if (spatialIndex != null) transforms.forEachDirty(proxyUpdater);
+        transforms.upload(mat4Ssbo);
+        if (instanceAttributes != null) instanceAttributes.upload(instanceAttributeSsbo);
+        detectMeshChanges();
+        if (batchesDirty) rebuildBatches();
+        ensureVisibleInstanceCapacity();
+
+        val numInstances = registry.getSize();
+        if (uploadedAllCount != numInstances) {
+            culler.selectAll(numInstances);
+            if (numInstances > 0)
+                visibleInstanceSsbo.nsubData(0, (long) numInstances * Integer.BYTES, culler.getVisibleIndicesAddress());
+            uploadedAllCount = numInstances;
+            culledVersion = -1;
+        }
+
+        builder.bindBufferBase(GL_SHADER_STORAGE_BUFFER, TRANSFORM_BUFFER_BINDING, mat4Ssbo);
+        if (instanceAttributes != null)
+            builder.bindBufferBase(GL_SHADER_STORAGE_BUFFER, INSTANCE_ATTRIBUTE_BUFFER_BINDING, instanceAttributeSsbo);
+        builder.bindBufferBase(GL_SHADER_STORAGE_BUFFER, VISIBLE_INSTANCE_BUFFER_BINDING, visibleInstanceSsbo);
+        for (val batch : batches.values())
+            builder.drawBatch(batch, numInstances);
+    }
+
+    IntBuffer getVisibleInstanceIndices() {
+        return culler.getVisibleIndices();
+    }
+
+    /**
+     * Called when a {@link MultiDrawBatcher} stops drawing this model, so the next {@link #renderInstances()}
+     * uploads all instances again.
+     */
+    void detachFromBatch() {
+        transforms.markDirty(0, transforms.getSize());
+        invalidateVisibleInstances();
+    }
+
     public void render() {
 
     }
@@ -86,13 +750,19 @@ public class Model implements AutoCloseable {
         Model model = (Model) o;
 
         if (!meshMaterialMap.equals(model.meshMaterialMap)) return false;
-        return instances.equals(model.instances);
+        if (registry.getSize() != model.registry.getSize()) return false;
+        // The instances are equal if their packed matrices are
+        val bytes = (long) registry.getSize() * InstanceTransformBuffer.MATRIX_BYTES;
+        return transforms.segment().asSlice(0, bytes).mismatch(model.transforms.segment().asSlice(0, bytes)) == -1;
     }
 
+    /**
+     * Hashes the meshes and the instance count, which equal models share, without reading every matrix.
+     */
     @Override
     public int hashCode() {
         int result = meshMaterialMap.hashCode();
-        result = 31 * result + instances.hashCode();
+        result = 31 * result + registry.getSize();
         return result;
     }
 
@@ -101,17 +771,27 @@ public class Model implements AutoCloseable {
         return STR."""
                 \{getClass().getSimpleName()}{
                     meshMaterialMap=\{meshMaterialMap},
-                    instances=\{instances}
+                    instanceCount=\{registry.getSize()}
                 }
                 """;
     }
 
     @Override
     public void close() {
+        closeBatches();
+        transforms.close();
+        culler.close();
+        lodSelector.close();
+        setInstanceAttributeLayout(null);
+        if (gpuCuller != null) gpuCuller.close();
+        visibleInstanceSsbo.close();
         for (val material : meshMaterialMap.keySet())
             material.close();
         for (val meshList : meshMaterialMap.values())
             meshList.stream().parallel().forEach(Mesh::close);
+        for (val lodMeshMaterialMap : lodMeshMaterialMaps)
+            for (val meshList : lodMeshMaterialMap.values())
+                meshList.stream().parallel().forEach(Mesh::close);
         mat4Ssbo.close();
     }
 }
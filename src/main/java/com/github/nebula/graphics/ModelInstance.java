@@ -2,22 +2,120 @@ package com.github.nebula.graphics;
 
 import io.reactivex.rxjava3.annotations.NonNull;
 import lombok.Getter;
+import lombok.val;
 import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
 
 /**
+ * A single instance of a {@link Model}. The transformation matrix of an instance is not stored in the instance
+ * itself but in the model's {@link InstanceTransformBuffer}, so it can be uploaded without any copying.
+ * Changes have to be written back using {@link #setTransformationMatrix(Matrix4fc)}.
+ * <p>
+ * An instance is a lightweight view of a generational handle. Several views may exist for the same handle, and all
+ * of them become invalid once the instance is closed.
+ *
  * @author Anton Schoenfeld
  * @since 26.03.2024
  */
-@Getter
 public class ModelInstance implements AutoCloseable {
-    private final Model model;
-    private final Matrix4f transformationMatrix;
+    private final @Getter Model model;
+    /**
+     * The handle of this instance in the model's {@link InstanceRegistry}.
+     */
+    private final @Getter long handle;
 
-    protected ModelInstance(@NonNull Model model) {
+    protected ModelInstance(@NonNull Model model, long handle) {
         this.model = model;
-        transformationMatrix = new Matrix4f();
+        this.handle = handle;
     }
 
+    /**
+     * Returns the index of this instance's matrix inside the model's instance transform buffer, which changes when
+     * other instances are destroyed.
+     *
+     * @return the dense index of this instance
+     */
+    public int getIndex() {
+        return model.indexOf(handle);
+    }
+
+    public boolean isAlive() {
+        return model.isAlive(handle);
+    }
+
+    /**
+     * Reads the transformation matrix of this instance into {@code dest}.
+     *
+     * @param dest the matrix to store the transformation in
+     * @return {@code dest}
+     */
+    @NonNull
+    public Matrix4f getTransformationMatrix(@NonNull Matrix4f dest) {
+        return model.getTransforms().get(getIndex(), dest);
+    }
+
+    /**
+     * Returns a copy of the transformation matrix of this instance. The matrix lives in the model's
+     * {@link InstanceTransformBuffer}, so changing the copy does not move the instance; write changes back with
+     * {@link #setTransformationMatrix(Matrix4fc)}.
+     *
+     * @return a new matrix holding the transformation of this instance
+     */
+    @NonNull
+    public Matrix4f copyTransformationMatrix() {
+        return getTransformationMatrix(new Matrix4f());
+    }
+
+    /**
+     * Sets the transformation matrix of this instance. Only instances changed this way are uploaded again.
+     *
+     * @param transformationMatrix the new transformation matrix
+     */
+    public void setTransformationMatrix(@NonNull Matrix4fc transformationMatrix) {
+        model.getTransforms().set(getIndex(), transformationMatrix);
+    }
+
+    /**
+     * Sets the transformation matrix of this instance from 16 column-major floats.
+     *
+     * @param src    the array holding the matrix
+     * @param offset the offset of the matrix inside of {@code src}
+     */
+    public void setTransformationMatrix(@NonNull float[] src, int offset) {
+        model.getTransforms().set(getIndex(), src, offset);
+    }
+
+    /**
+     * Sets a float typed custom attribute of this instance.
+     *
+     * @param location the location of the attribute inside the model's instance attribute layout
+     * @param values   the components of the attribute
+     * @throws IllegalStateException if the model has no instance attribute layout
+     */
+    public void setAttribute(int location, @NonNull float... values) {
+        getInstanceAttributes().setFloats(getIndex(), location, values);
+    }
+
+    /**
+     * Sets an {@code int} typed custom attribute of this instance.
+     *
+     * @param location the location of the attribute inside the model's instance attribute layout
+     * @param value    the value of the attribute
+     * @throws IllegalStateException if the model has no instance attribute layout
+     */
+    public void setAttribute(int location, int value) {
+        getInstanceAttributes().setInt(getIndex(), location, value);
+    }
+
+    private InstanceAttributeBuffer getInstanceAttributes() {
+        val attributes = model.getInstanceAttributes();
+        if (attributes == null) throw new IllegalStateException(STR."\{model} has no instance attributes");
+        return attributes;
+    }
+
+    /**
+     * Two instances are equal if they are views of the same handle of the same model.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -25,14 +123,15 @@ public class ModelInstance implements AutoCloseable {
 
         ModelInstance that = (ModelInstance) o;
 
-        if (!model.equals(that.model)) return false;
-        return transformationMatrix.equals(that.transformationMatrix);
+        // Models compare by content, which changes as instances are added
+        if (model != that.model) return false;
+        return handle == that.handle;
     }
 
     @Override
     public int hashCode() {
-        int result = model.hashCode();
-        result = 31 * result + transformationMatrix.hashCode();
+        int result = System.identityHashCode(model);
+        result = 31 * result + Long.hashCode(handle);
         return result;
     }
 
@@ -40,13 +139,13 @@ public class ModelInstance implements AutoCloseable {
     public String toString() {
         return STR."""
                 \{getClass().getSimpleName()}{
-                    model=\{model},
-                    transformationMatrix=\{transformationMatrix}
+                    handle=\{handle},
+                    transformationMatrix=\{isAlive() ? copyTransformationMatrix() : null}
                 }""";
     }
 
     @Override
     public void close() {
-        model.getInstances().remove(this);
+        model.destroyInstance(handle);
     }
 }
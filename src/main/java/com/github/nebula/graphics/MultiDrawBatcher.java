@@ -0,0 +1,301 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.culling.GPUCuller;
+import com.github.nebula.graphics.data.GLDataType;
+import com.github.nebula.graphics.data.VertexAttributes;
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.globjects.VertexArray;
+import com.github.nebula.graphics.util.BufferUtil;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.*;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+/**
+ * The {@code MultiDrawBatcher} class draws many {@link Model}s with one {@code glMultiDrawElementsIndirect} call per
+ * group of meshes that share a {@link Material} and vertex layout, instead of one instanced draw call per model and
+ * material.
+ *
+ * <p>The meshes of all models in a group are merged into one vertex and index buffer, with one
+ * {@code DrawElementsIndirectCommand} per model. Every frame the models are culled on the CPU and the matrices of
+ * their visible instances are gathered into one shader storage buffer bound to {@link Model#TRANSFORM_BUFFER_BINDING}.
+ * Each command's {@code baseInstance} points at the first matrix of its model, and an instanced vertex attribute named
+ * {@link #INSTANCE_INDEX_ATTRIBUTE} resolves to {@code baseInstance + gl_InstanceID}. Shaders drawn by a batcher
+ * therefore declare {@code in uint instanceIndex;} without a location qualifier and read
+ * {@code transforms[instanceIndex]}.
+ *
+ * <p>Models added to a batcher must not be rendered with {@link Model#renderInstances()} at the same time. Groups are
+ * rebuilt when models are added or removed, or when the meshes of a model change.
+ *
+ * <p>Only the matrices of the instances are gathered, so models with an
+ * {@link Model#setInstanceAttributeLayout instance attribute layout} cannot be batched and have to be rendered on
+ * their own.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class MultiDrawBatcher implements AutoCloseable {
+    /**
+     * The name of the instanced vertex attribute holding the index of an instance's matrix.
+     */
+    public static final String INSTANCE_INDEX_ATTRIBUTE = "instanceIndex";
+
+    private final Map<Model, Integer> models;
+    private final List<Group> groups;
+    private boolean groupsDirty;
+    /**
+     * The number of indirect commands issued by the last call to {@link #render()}.
+     */
+    private @Getter int commandCount;
+
+    public MultiDrawBatcher() {
+        // Models compare by content, which changes as instances are added
+        this.models = new IdentityHashMap<>();
+        this.groups = new ArrayList<>();
+        this.groupsDirty = false;
+    }
+
+    /**
+     * Adds a model to this batcher.
+     *
+     * @param model the model to draw
+     * @throws IllegalArgumentException if the model has custom instance attributes
+     */
+    public void add(@NonNull Model model) {
+        requireNoInstanceAttributes(model);
+        if (models.putIfAbsent(model, model.getMeshVersion()) == null) groupsDirty = true;
+    }
+
+    /**
+     * Removes a model from this batcher, so it can be rendered on its own again.
+     *
+     * @param model the model to remove
+     * @return whether the model was part of this batcher
+     */
+    public boolean remove(@NonNull Model model) {
+        if (models.remove(model) == null) return false;
+        model.detachFromBatch();
+        groupsDirty = true;
+        return true;
+    }
+
+    /**
+     * Returns the number of groups, which equals the number of draw calls issued per frame.
+     *
+     * @return the number of groups
+     */
+    public int getGroupCount() {
+        if (groupsDirty) rebuildGroups();
+        return groups.size();
+    }
+
+    /**
+     * Culls all models and draws every group with a single {@code glMultiDrawElementsIndirect} call.
+     */
+    public void render() {
+        for (val entry : models.entrySet()) {
+            if (entry.getKey().getMeshVersion() == entry.getValue()) continue;
+            entry.setValue(entry.getKey().getMeshVersion());
+            groupsDirty = true;
+        }
+        if (groupsDirty) rebuildGroups();
+
+        commandCount = 0;
+        for (val group : groups) {
+            group.render();
+            commandCount += group.models.length;
+        }
+    }
+
+    private static void requireNoInstanceAttributes(Model model) {
+        if (model.getInstanceAttributes() != null)
+            throw new IllegalArgumentException("Models with instance attributes cannot be batched");
+    }
+
+    private void rebuildGroups() {
+        closeGroups();
+        val members = new LinkedHashMap<GroupKey, List<Model>>();
+        for (val model : models.keySet()) {
+            for (val entry : model.getMeshMaterialMap().entrySet()) {
+                if (entry.getValue().isEmpty()) continue;
+                val material = entry.getKey();
+                val key = new GroupKey(material, material.getShader().getVertexAttributes());
+                members.computeIfAbsent(key, k -> new ArrayList<>()).add(model);
+            }
+        }
+        for (val entry : members.entrySet())
+            groups.add(new Group(entry.getKey().material(), entry.getValue()));
+        groupsDirty = false;
+    }
+
+    private void closeGroups() {
+        for (val group : groups)
+            group.close();
+        groups.clear();
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    models=\{models.size()},
+                    groups=\{groups.size()},
+                    commandCount=\{commandCount}
+                }
+                """;
+    }
+
+    /**
+     * Releases the merged geometry and buffers of all groups. The models are left untouched.
+     */
+    @Override
+    public void close() {
+        closeGroups();
+        for (val model : models.keySet())
+            model.detachFromBatch();
+        models.clear();
+    }
+
+    private record GroupKey(Material material, VertexAttributes layout) {
+    }
+
+    /**
+     * The merged geometry, gathered matrices and indirect commands of all models sharing a material.
+     */
+    private static final class Group implements AutoCloseable {
+        private final Material material;
+        private final Model[] models;
+        private final int[] firstIndices, indexCounts, visibleCounts;
+        private final GPUMesh mesh;
+        private final VertexArray vertexArray;
+        private final Buffer transformSsbo, instanceIndexVbo, commandBuffer;
+        private final IntBuffer commands;
+        private FloatBuffer gathered;
+        private int gpuTransformCapacity, instanceIndexCapacity;
+
+        private Group(Material material, List<Model> members) {
+            this.material = material;
+            this.models = members.toArray(new Model[0]);
+            this.firstIndices = new int[models.length];
+            this.indexCounts = new int[models.length];
+            this.visibleCounts = new int[models.length];
+            this.mesh = new GPUMesh();
+            this.vertexArray = new VertexArray();
+            this.transformSsbo = new Buffer(GL_SHADER_STORAGE_BUFFER);
+            this.instanceIndexVbo = new Buffer(GL_ARRAY_BUFFER);
+            this.commandBuffer = new Buffer(GL_DRAW_INDIRECT_BUFFER);
+            this.commands = MemoryUtil.memCallocInt(models.length * GPUCuller.COMMAND_INTS);
+            this.gathered = MemoryUtil.memAllocFloat(InstanceTransformBuffer.MATRIX_FLOATS);
+
+            val shader = material.getShader();
+            val location = glGetAttribLocation(shader.id, INSTANCE_INDEX_ATTRIBUTE);
+            if (location < 0)
+                throw new IllegalArgumentException(STR."Shader of \{material} does not declare \{INSTANCE_INDEX_ATTRIBUTE}");
+
+            val meshes = new ArrayList<Mesh>();
+            var firstIndex = 0;
+            for (var m = 0; m < models.length; m++) {
+                firstIndices[m] = firstIndex;
+                for (val source : models[m].getMeshMaterialMap().get(material)) {
+                    try (val indices = source.getIndices(ReadPolicy.READ)) {
+                        firstIndex += indices.buffer().limit();
+                    }
+                    meshes.add(source);
+                }
+                indexCounts[m] = firstIndex - firstIndices[m];
+            }
+            try (val merged = BufferUtil.concatMeshes(meshes.toArray(new Mesh[0]));
+                 val vertices = merged.getVertices(ReadPolicy.READ);
+                 val indices = merged.getIndices(ReadPolicy.READ)) {
+                mesh.setVertices(vertices.buffer().rewind());
+                mesh.setIndices(indices.buffer().rewind());
+            }
+
+            shader.getVertexAttributes().format(vertexArray, mesh.getVbo());
+            vertexArray.bind();
+            mesh.getEbo().bind();
+            ensureInstanceIndices(1);
+            vertexArray.vertexAttribIPointer(instanceIndexVbo, location, 1, GL_UNSIGNED_INT, 0, 0);
+            vertexArray.vertexAttribDivisor(location, 1);
+        }
+
+        /**
+         * Fills the instance index buffer with {@code 0} to {@code capacity - 1}. The attribute pointer references the
+         * buffer object, so re-specifying its storage keeps the vertex array valid.
+         */
+        private void ensureInstanceIndices(int required) {
+            if (required <= instanceIndexCapacity) return;
+            val capacity = Math.max(required, instanceIndexCapacity << 1);
+            val indices = MemoryUtil.memAllocInt(capacity);
+            for (var i = 0; i < capacity; i++) indices.put(i, i);
+            instanceIndexVbo.data(indices, GL_STATIC_DRAW);
+            MemoryUtil.memFree(indices);
+            instanceIndexCapacity = capacity;
+        }
+
+        private void render() {
+            var total = 0;
+            for (var m = 0; m < models.length; m++) {
+                // The layout may have been set after the model was added
+                requireNoInstanceAttributes(models[m]);
+                visibleCounts[m] = models[m].cullForBatch();
+                total += visibleCounts[m];
+            }
+            if (total == 0) return;
+            if (gathered.capacity() < total * InstanceTransformBuffer.MATRIX_FLOATS)
+                gathered = MemoryUtil.memRealloc(gathered, Math.max(total, gathered.capacity() / InstanceTransformBuffer.MATRIX_FLOATS * 2)
+                        * InstanceTransformBuffer.MATRIX_FLOATS);
+
+            val gatheredAddress = MemoryUtil.memAddress(gathered);
+            var baseInstance = 0;
+            for (var m = 0; m < models.length; m++) {
+                val transforms = models[m].getTransforms();
+                val visible = models[m].getVisibleInstanceIndices();
+                for (var i = 0; i < visibleCounts[m]; i++) {
+                    MemoryUtil.memCopy(transforms.address(visible.get(i)),
+                            gatheredAddress + (long) (baseInstance + i) * InstanceTransformBuffer.MATRIX_BYTES,
+                            InstanceTransformBuffer.MATRIX_BYTES);
+                }
+                val command = m * GPUCuller.COMMAND_INTS;
+                commands.put(command, indexCounts[m]);
+                commands.put(command + 1, visibleCounts[m]);
+                commands.put(command + 2, firstIndices[m]);
+                commands.put(command + 3, 0);
+                commands.put(command + 4, baseInstance);
+                baseInstance += visibleCounts[m];
+            }
+
+            val transformBytes = (long) total * InstanceTransformBuffer.MATRIX_BYTES;
+            if (gpuTransformCapacity < total) {
+                gpuTransformCapacity = gathered.capacity() / InstanceTransformBuffer.MATRIX_FLOATS;
+                transformSsbo.data(gpuTransformCapacity, GL_STREAM_DRAW, GLDataType.MAT4);
+            }
+            transformSsbo.nsubData(0, transformBytes, gatheredAddress);
+            commandBuffer.data(commands.clear(), GL_STREAM_DRAW);
+            ensureInstanceIndices(total);
+
+            vertexArray.bind();
+            material.bind();
+            transformSsbo.bindBase(Model.TRANSFORM_BUFFER_BINDING);
+            commandBuffer.bind();
+            glMultiDrawElementsIndirect(GL_TRIANGLES, GL_UNSIGNED_INT, 0L, models.length, 0);
+        }
+
+        @Override
+        public void close() {
+            vertexArray.close();
+            mesh.close();
+            transformSsbo.close();
+            instanceIndexVbo.close();
+            commandBuffer.close();
+            MemoryUtil.memFree(commands);
+            MemoryUtil.memFree(gathered);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.nebula.graphics;
 
 import com.github.nebula.graphics.util.BufferUtil;
+import com.github.nebula.graphics.util.Versions;
 import lombok.Getter;
 import lombok.NonNull;
 import org.lwjgl.system.MemoryUtil;
@@ -20,16 +21,23 @@ public class NativeMesh implements Mesh {
     private FloatBuffer vertices;
     private IntBuffer indices;
     private @Getter long verticesSize, indicesSize;
+    private @Getter long version;
 
     public NativeMesh() {
         vertices = null;
         indices = null;
         verticesSize = 0;
         indicesSize = 0;
+        version = Versions.INITIAL;
+    }
+
+    private void touch(ReadPolicy readPolicy) {
+        if (readPolicy != ReadPolicy.READ) version = Versions.next();
     }
 
     @Override
     public NativeCloseableBuffer<FloatBuffer> getVerticesRange(long offset, int length, ReadPolicy readPolicy) {
+        touch(readPolicy);
         if (readPolicy.glReadPolicy == GL_READ_WRITE || readPolicy.glReadPolicy == GL_READ_ONLY)
             return new NativeCloseableBuffer<>(vertices.slice((int) offset, length));
         return new NativeCloseableBuffer<>(vertices.slice((int) offset, length).asReadOnlyBuffer());
@@ -37,6 +45,7 @@ public class NativeMesh implements Mesh {
 
     @Override
     public NativeCloseableBuffer<IntBuffer> getIndicesRange(long offset, int length, ReadPolicy readPolicy) {
+        touch(readPolicy);
         if (readPolicy.glReadPolicy == GL_READ_WRITE || readPolicy.glReadPolicy == GL_READ_ONLY)
             return new NativeCloseableBuffer<>(indices.slice((int) offset, length));
         return new NativeCloseableBuffer<>(indices.slice((int) offset, length).asReadOnlyBuffer());
@@ -44,6 +53,7 @@ public class NativeMesh implements Mesh {
 
     @Override
     public NativeCloseableBuffer<FloatBuffer> getVertices(ReadPolicy readPolicy) {
+        touch(readPolicy);
         if (readPolicy.glReadPolicy == GL_READ_WRITE || readPolicy.glReadPolicy == GL_READ_ONLY)
             return new NativeCloseableBuffer<>(vertices);
         return new NativeCloseableBuffer<>(vertices.asReadOnlyBuffer());
@@ -51,6 +61,7 @@ public class NativeMesh implements Mesh {
 
     @Override
     public NativeCloseableBuffer<IntBuffer> getIndices(ReadPolicy readPolicy) {
+        touch(readPolicy);
         if (readPolicy.glReadPolicy == GL_READ_WRITE || readPolicy.glReadPolicy == GL_READ_ONLY)
             return new NativeCloseableBuffer<>(indices);
         return new NativeCloseableBuffer<>(indices.asReadOnlyBuffer());
@@ -58,16 +69,19 @@ public class NativeMesh implements Mesh {
 
     @Override
     public void setVerticesRange(long offset, @NonNull FloatBuffer buffer) {
+        version = Versions.next();
         vertices.put((int) offset, buffer, 0, buffer.limit());
     }
 
     @Override
     public void setIndicesRange(long offset, @NonNull IntBuffer buffer) {
+        version = Versions.next();
         indices.put((int) offset, buffer, 0, buffer.limit());
     }
 
     @Override
     public void setVertices(@NonNull FloatBuffer vertices) {
+        version = Versions.next();
         BufferUtil.requireNative(vertices);
         if (vertices.limit() == verticesSize) {
             this.vertices.put(0, vertices, 0, (int) verticesSize);
@@ -80,6 +94,7 @@ public class NativeMesh implements Mesh {
 
     @Override
     public void setIndices(@NonNull IntBuffer indices) {
+        version = Versions.next();
         BufferUtil.requireNative(indices);
         if (indices.limit() == indicesSize) {
             this.indices.put(0, indices, 0, (int) indicesSize);
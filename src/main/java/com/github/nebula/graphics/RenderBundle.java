@@ -0,0 +1,233 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.globjects.GLStateCache;
+import com.github.nebula.graphics.globjects.VertexArray;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+/**
+ * The {@code RenderBundle} class is an immutable sequence of draws of static content, recorded once from
+ * {@link Model}s and {@link Material}s and replayed every frame. Recording resolves everything a draw needs into
+ * OpenGL names, counts and offsets, validates it and drops binds that would not change the state, so
+ * {@link #execute()} is a single loop over an int array that never touches the models, their batches or their meshes.
+ *
+ * <p>A bundle refers to the vertex arrays and buffers of the content it was recorded from without owning them. It has
+ * to be recorded again when that content changes: when instances are created, destroyed or moved, when meshes change,
+ * or when the content is closed. Models recorded into a bundle are drawn with all of their instances and must not be
+ * rendered with {@link Model#renderInstances()} while the bundle is in use.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class RenderBundle {
+    private static final int BIND_BUFFER_BASE = 0;
+    private static final int BIND_VERTEX_ARRAY = 1;
+    private static final int BIND_MATERIAL = 2;
+    private static final int DRAW_ELEMENTS = 3;
+
+    /**
+     * The opcodes and arguments of all commands; byte offsets of draws are split into two ints.
+     */
+    private final int[] commands;
+    private final Material[] materials;
+    /**
+     * The number of draw calls issued by {@link #execute()}.
+     */
+    private final @Getter int drawCount;
+    /**
+     * The number of commands, including binds, replayed by {@link #execute()}.
+     */
+    private final @Getter int commandCount;
+
+    private RenderBundle(int[] commands, Material[] materials, int drawCount, int commandCount) {
+        this.commands = commands;
+        this.materials = materials;
+        this.drawCount = drawCount;
+        this.commandCount = commandCount;
+    }
+
+    /**
+     * Replays the bundle. Has to be called on the thread of the context the bundle's content was created in.
+     */
+    public void execute() {
+        val cache = GLStateCache.current();
+        val commands = this.commands;
+        var i = 0;
+        while (i < commands.length) {
+            switch (commands[i]) {
+                case BIND_BUFFER_BASE -> {
+                    cache.bindBufferBase(commands[i + 1], commands[i + 2], commands[i + 3]);
+                    i += 4;
+                }
+                case BIND_VERTEX_ARRAY -> {
+                    cache.bindVertexArray(commands[i + 1]);
+                    i += 2;
+                }
+                case BIND_MATERIAL -> {
+                    materials[commands[i + 1]].bindForDraw();
+                    i += 2;
+                }
+                case DRAW_ELEMENTS -> {
+                    val byteOffset = (long) commands[i + 3] << Integer.SIZE | commands[i + 4] & 0xFFFFFFFFL;
+                    glDrawElementsInstanced(commands[i + 1], commands[i + 2], GL_UNSIGNED_INT, byteOffset,
+                            commands[i + 5]);
+                    i += 6;
+                }
+                default -> throw new IllegalStateException(STR."Unknown opcode \{commands[i]} at \{i}");
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return STR."\{getClass().getSimpleName()}{drawCount=\{drawCount}, commandCount=\{commandCount}}";
+    }
+
+    /**
+     * The {@code Builder} class records the draws of a {@link RenderBundle}. Recording calls OpenGL only to upload
+     * the instances of recorded {@link Model}s, so a builder is used on the thread of the context.
+     */
+    public static final class Builder {
+        private static final int INITIAL_CAPACITY = 64;
+        private static final int UNKNOWN = -1;
+
+        private int[] commands;
+        private int size;
+        private final List<Material> materials;
+        private final Map<Material, Integer> materialIds;
+        /**
+         * The buffers bound to the indexed shader storage bindings by the recorded commands.
+         */
+        private int[] storageBindings;
+        private int vertexArray;
+        private Material material;
+        private int drawCount, commandCount;
+
+        public Builder() {
+            this.commands = new int[INITIAL_CAPACITY];
+            this.materials = new ArrayList<>();
+            this.materialIds = new IdentityHashMap<>();
+            this.storageBindings = new int[0];
+            this.vertexArray = UNKNOWN;
+        }
+
+        /**
+         * Records binding a whole buffer to an indexed binding point, which stays bound for the following draws.
+         *
+         * @param target the indexed buffer target
+         * @param index  the binding point
+         * @param buffer the buffer
+         * @return this builder
+         * @throws IllegalArgumentException if {@code index} is negative
+         */
+        @NonNull
+        public Builder bindBufferBase(int target, int index, @NonNull Buffer buffer) {
+            if (index < 0) throw new IllegalArgumentException(STR."Binding point \{index} is negative");
+            if (target == GL_SHADER_STORAGE_BUFFER) {
+                if (index >= storageBindings.length) {
+                    val previousLength = storageBindings.length;
+                    storageBindings = Arrays.copyOf(storageBindings, index + 1);
+                    Arrays.fill(storageBindings, previousLength, index + 1, UNKNOWN);
+                }
+                if (storageBindings[index] == buffer.id) return this;
+                storageBindings[index] = buffer.id;
+            }
+            append(BIND_BUFFER_BASE, target, index, buffer.id);
+            return this;
+        }
+
+        /**
+         * Records an instanced draw of unsigned integer indices from the element buffer of {@code vertexArray}.
+         * Draws without indices or instances are dropped.
+         *
+         * @param vertexArray   the vertex array holding the vertex format and the element buffer
+         * @param material      the material to draw with
+         * @param mode          the primitive mode
+         * @param indexCount    the number of indices
+         * @param byteOffset    the offset of the first index in bytes
+         * @param instanceCount the number of instances
+         * @return this builder
+         * @throws IllegalArgumentException if a count or the offset is negative
+         */
+        @NonNull
+        public Builder drawElements(@NonNull VertexArray vertexArray, @NonNull Material material, int mode,
+                                    int indexCount, long byteOffset, int instanceCount) {
+            if (indexCount < 0 || instanceCount < 0 || byteOffset < 0)
+                throw new IllegalArgumentException(STR."Invalid draw of \{indexCount} indices at byte \{byteOffset} and \{instanceCount} instances");
+            if (indexCount == 0 || instanceCount == 0) return this;
+
+            if (vertexArray.id != this.vertexArray) {
+                this.vertexArray = vertexArray.id;
+                append(BIND_VERTEX_ARRAY, vertexArray.id);
+            }
+            if (material != this.material) {
+                this.material = material;
+                append(BIND_MATERIAL, materialIds.computeIfAbsent(material, m -> {
+                    materials.add(m);
+                    return materials.size() - 1;
+                }));
+            }
+            append(DRAW_ELEMENTS, mode, indexCount, (int) (byteOffset >>> Integer.SIZE), (int) byteOffset,
+                    instanceCount);
+            drawCount++;
+            return this;
+        }
+
+        /**
+         * Records drawing a batch of a model.
+         *
+         * @param batch         the batch
+         * @param instanceCount the number of instances
+         * @return this builder
+         */
+        @NonNull
+        public Builder drawBatch(@NonNull MaterialBatch batch, int instanceCount) {
+            return drawElements(batch.getVertexArray(), batch.getMaterial(), GL_TRIANGLES, batch.getIndexCount(), 0,
+                    instanceCount);
+        }
+
+        /**
+         * Records drawing all instances of a model with one instanced draw per material. The instances are uploaded
+         * now, so their transformations are baked into the bundle. The bundle draws the finest level of detail of
+         * every material, the meshes set through {@link Model#setLodMeshes} for coarser levels are not drawn.
+         *
+         * @param model the model
+         * @return this builder
+         */
+        @NonNull
+        public Builder drawModel(@NonNull Model model) {
+            model.recordBundle(this);
+            return this;
+        }
+
+        private void append(int... command) {
+            if (size + command.length > commands.length)
+                commands = Arrays.copyOf(commands, Math.max(size + command.length, commands.length * 2));
+            System.arraycopy(command, 0, commands, size, command.length);
+            size += command.length;
+            commandCount++;
+        }
+
+        /**
+         * Creates a bundle of all recorded draws. The builder can keep recording afterwards; later draws are not
+         * part of the returned bundle.
+         *
+         * @return the bundle
+         */
+        @NonNull
+        public RenderBundle build() {
+            return new RenderBundle(Arrays.copyOf(commands, size), materials.toArray(new Material[0]), drawCount,
+                    commandCount);
+        }
+    }
+}
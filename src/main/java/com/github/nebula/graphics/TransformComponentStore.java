@@ -0,0 +1,340 @@
+package com.github.nebula.graphics;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+import lombok.Getter;
+import lombok.val;
+import org.joml.Quaternionfc;
+import org.joml.Vector3fc;
+import org.lwjgl.system.MemoryUtil;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The {@code TransformComponentStore} class stores translation, rotation and scale of many instances as a
+ * structure of arrays in off-heap memory. {@link #composeTransforms(InstanceTransformBuffer, int)} turns the
+ * components into transformation matrices and writes them straight into the staging memory of an
+ * {@link InstanceTransformBuffer}.
+ *
+ * <p>Composition is vectorized with the Vector API, processing as many instances per step as the preferred
+ * float species has lanes, and is split across a {@link ForkJoinPool} for large instance counts.
+ * Rotations are expected to be unit quaternions.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class TransformComponentStore implements AutoCloseable {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+    private static final int COMPONENTS = 10;
+    private static final int PX = 0, PY = 1, PZ = 2, QX = 3, QY = 4, QZ = 5, QW = 6, SX = 7, SY = 8, SZ = 9;
+    /**
+     * Instances per fork join task below which the work is not split any further.
+     */
+    private static final int SPLIT_THRESHOLD = 8192;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ForkJoinPool pool;
+    private final ByteBuffer[] buffers;
+    private final MemorySegment[] segments;
+    private @Getter int size;
+    private @Getter int capacity;
+
+    /**
+     * Creates an empty store that composes transforms on the common fork join pool.
+     */
+    public TransformComponentStore() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an empty store that composes transforms on the given pool.
+     *
+     * @param pool the pool used by {@link #composeTransforms(InstanceTransformBuffer, int)}
+     */
+    public TransformComponentStore(@NonNull ForkJoinPool pool) {
+        this.pool = pool;
+        this.buffers = new ByteBuffer[COMPONENTS];
+        this.segments = new MemorySegment[COMPONENTS];
+        this.size = 0;
+        this.capacity = 0;
+        reallocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Appends an instance with identity transform and returns its index.
+     *
+     * @return the index of the new instance
+     */
+    public int add() {
+        if (size == capacity) reallocate(capacity << 1);
+        val index = size++;
+        setPosition(index, 0, 0, 0);
+        setRotation(index, 0, 0, 0, 1);
+        setScale(index, 1, 1, 1);
+        return index;
+    }
+
+    /**
+     * Removes the instance with the given index by moving the last instance into its slot.
+     *
+     * @param index the index of the instance to remove
+     */
+    public void swapRemove(int index) {
+        checkIndex(index);
+        val last = --size;
+        if (index == last) return;
+        for (val segment : segments)
+            segment.setAtIndex(ValueLayout.JAVA_FLOAT, index, segment.getAtIndex(ValueLayout.JAVA_FLOAT, last));
+    }
+
+    public void setPosition(int index, float x, float y, float z) {
+        put(PX, index, x);
+        put(PY, index, y);
+        put(PZ, index, z);
+    }
+
+    public void setPosition(int index, @NonNull Vector3fc position) {
+        setPosition(index, position.x(), position.y(), position.z());
+    }
+
+    public void setRotation(int index, float x, float y, float z, float w) {
+        put(QX, index, x);
+        put(QY, index, y);
+        put(QZ, index, z);
+        put(QW, index, w);
+    }
+
+    public void setRotation(int index, @NonNull Quaternionfc rotation) {
+        setRotation(index, rotation.x(), rotation.y(), rotation.z(), rotation.w());
+    }
+
+    public void setScale(int index, float x, float y, float z) {
+        put(SX, index, x);
+        put(SY, index, y);
+        put(SZ, index, z);
+    }
+
+    public void setScale(int index, @NonNull Vector3fc scale) {
+        setScale(index, scale.x(), scale.y(), scale.z());
+    }
+
+    /**
+     * Returns the off-heap array of the positions' x components. The segments of the other components are
+     * laid out the same way, which allows simulation code to update them in bulk.
+     *
+     * @return the segment holding {@link #getCapacity()} floats
+     */
+    @NonNull
+    public MemorySegment positionsX() {
+        return segments[PX];
+    }
+
+    @NonNull
+    public MemorySegment positionsY() {
+        return segments[PY];
+    }
+
+    @NonNull
+    public MemorySegment positionsZ() {
+        return segments[PZ];
+    }
+
+    private void put(int component, int index, float value) {
+        checkIndex(index);
+        segments[component].setAtIndex(ValueLayout.JAVA_FLOAT, index, value);
+    }
+
+    /**
+     * Composes translation, rotation and scale of every instance in this store into a transformation matrix and
+     * writes the matrix of instance {@code i} into slot {@code targetOffset + i} of {@code target}.
+     * All written slots are marked dirty.
+     *
+     * @param target       the buffer to write the matrices into
+     * @param targetOffset the slot of the first instance in {@code target}
+     * @throws IndexOutOfBoundsException if {@code target} does not have enough instances
+     */
+    public void composeTransforms(@NonNull InstanceTransformBuffer target, int targetOffset) {
+        if (targetOffset < 0 || targetOffset + size > target.getSize())
+            throw new IndexOutOfBoundsException(
+                    STR."Cannot write \{size} transforms at offset \{targetOffset} into buffer of size \{target.getSize()}");
+        if (size == 0) return;
+
+        val destination = target.segment().asSlice((long) targetOffset * InstanceTransformBuffer.MATRIX_BYTES);
+        if (size <= SPLIT_THRESHOLD)
+            compose(destination, 0, size);
+        else
+            pool.invoke(new ComposeTask(destination, 0, size));
+        target.markDirty(targetOffset, targetOffset + size);
+    }
+
+    private void compose(MemorySegment destination, int from, int to) {
+        val lanes = SPECIES.length();
+        val scratch = new float[lanes * InstanceTransformBuffer.MATRIX_FLOATS];
+        val indexMap = new int[lanes];
+        for (var lane = 0; lane < lanes; lane++) {
+            indexMap[lane] = lane * InstanceTransformBuffer.MATRIX_FLOATS;
+            // The last row is constant and never touched by the scatters below
+            scratch[indexMap[lane] + 15] = 1;
+        }
+
+        final int bound = from + SPECIES.loopBound(to - from);
+        var i = from;
+        for (; i < bound; i += lanes) {
+            val offset = (long) i * Float.BYTES;
+            val qx = load(QX, offset);
+            val qy = load(QY, offset);
+            val qz = load(QZ, offset);
+            val qw = load(QW, offset);
+            val sx = load(SX, offset);
+            val sy = load(SY, offset);
+            val sz = load(SZ, offset);
+
+            val dqx = qx.add(qx);
+            val dqy = qy.add(qy);
+            val dqz = qz.add(qz);
+            val q00 = dqx.mul(qx);
+            val q11 = dqy.mul(qy);
+            val q22 = dqz.mul(qz);
+            val q01 = dqx.mul(qy);
+            val q02 = dqx.mul(qz);
+            val q03 = dqx.mul(qw);
+            val q12 = dqy.mul(qz);
+            val q13 = dqy.mul(qw);
+            val q23 = dqz.mul(qw);
+
+            sx.sub(q11.add(q22).mul(sx)).intoArray(scratch, 0, indexMap, 0);
+            q01.add(q23).mul(sx).intoArray(scratch, 1, indexMap, 0);
+            q02.sub(q13).mul(sx).intoArray(scratch, 2, indexMap, 0);
+            q01.sub(q23).mul(sy).intoArray(scratch, 4, indexMap, 0);
+            sy.sub(q22.add(q00).mul(sy)).intoArray(scratch, 5, indexMap, 0);
+            q12.add(q03).mul(sy).intoArray(scratch, 6, indexMap, 0);
+            q02.add(q13).mul(sz).intoArray(scratch, 8, indexMap, 0);
+            q12.sub(q03).mul(sz).intoArray(scratch, 9, indexMap, 0);
+            sz.sub(q11.add(q00).mul(sz)).intoArray(scratch, 10, indexMap, 0);
+            load(PX, offset).intoArray(scratch, 12, indexMap, 0);
+            load(PY, offset).intoArray(scratch, 13, indexMap, 0);
+            load(PZ, offset).intoArray(scratch, 14, indexMap, 0);
+
+            MemorySegment.copy(scratch, 0, destination, ValueLayout.JAVA_FLOAT,
+                    (long) i * InstanceTransformBuffer.MATRIX_BYTES, scratch.length);
+        }
+
+        for (; i < to; i++) composeScalar(destination, i);
+    }
+
+    private FloatVector load(int component, long offset) {
+        return FloatVector.fromMemorySegment(SPECIES, segments[component], offset, ORDER);
+    }
+
+    private void composeScalar(MemorySegment destination, int i) {
+        val qx = get(QX, i);
+        val qy = get(QY, i);
+        val qz = get(QZ, i);
+        val qw = get(QW, i);
+        val sx = get(SX, i);
+        val sy = get(SY, i);
+        val sz = get(SZ, i);
+
+        val dqx = qx + qx;
+        val dqy = qy + qy;
+        val dqz = qz + qz;
+        val q00 = dqx * qx;
+        val q11 = dqy * qy;
+        val q22 = dqz * qz;
+        val q01 = dqx * qy;
+        val q02 = dqx * qz;
+        val q03 = dqx * qw;
+        val q12 = dqy * qz;
+        val q13 = dqy * qw;
+        val q23 = dqz * qw;
+
+        val base = (long) i * InstanceTransformBuffer.MATRIX_FLOATS;
+        val layout = ValueLayout.JAVA_FLOAT;
+        destination.setAtIndex(layout, base, sx - (q11 + q22) * sx);
+        destination.setAtIndex(layout, base + 1, (q01 + q23) * sx);
+        destination.setAtIndex(layout, base + 2, (q02 - q13) * sx);
+        destination.setAtIndex(layout, base + 3, 0f);
+        destination.setAtIndex(layout, base + 4, (q01 - q23) * sy);
+        destination.setAtIndex(layout, base + 5, sy - (q22 + q00) * sy);
+        destination.setAtIndex(layout, base + 6, (q12 + q03) * sy);
+        destination.setAtIndex(layout, base + 7, 0f);
+        destination.setAtIndex(layout, base + 8, (q02 + q13) * sz);
+        destination.setAtIndex(layout, base + 9, (q12 - q03) * sz);
+        destination.setAtIndex(layout, base + 10, sz - (q11 + q00) * sz);
+        destination.setAtIndex(layout, base + 11, 0f);
+        destination.setAtIndex(layout, base + 12, get(PX, i));
+        destination.setAtIndex(layout, base + 13, get(PY, i));
+        destination.setAtIndex(layout, base + 14, get(PZ, i));
+        destination.setAtIndex(layout, base + 15, 1f);
+    }
+
+    private float get(int component, int index) {
+        return segments[component].getAtIndex(ValueLayout.JAVA_FLOAT, index);
+    }
+
+    private void reallocate(int newCapacity) {
+        for (var c = 0; c < COMPONENTS; c++) {
+            val buffer = buffers[c] == null
+                    ? MemoryUtil.memCalloc(newCapacity * Float.BYTES)
+                    : MemoryUtil.memRealloc(buffers[c], newCapacity * Float.BYTES);
+            buffers[c] = buffer;
+            segments[c] = MemorySegment.ofBuffer(buffer);
+        }
+        capacity = newCapacity;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(STR."Index \{index} out of bounds for size \{size}");
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    size=\{size},
+                    capacity=\{capacity}
+                }
+                """;
+    }
+
+    @Override
+    public void close() {
+        for (var c = 0; c < COMPONENTS; c++) {
+            MemoryUtil.memFree(buffers[c]);
+            buffers[c] = null;
+            segments[c] = null;
+        }
+        size = 0;
+        capacity = 0;
+    }
+
+    private final class ComposeTask extends RecursiveAction {
+        private final MemorySegment destination;
+        private final int from, to;
+
+        private ComposeTask(MemorySegment destination, int from, int to) {
+            this.destination = destination;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                compose(destination, from, to);
+                return;
+            }
+            // Split on a lane boundary so only the very last task runs a scalar tail
+            val mid = from + SPECIES.loopBound((to - from) >>> 1);
+            invokeAll(new ComposeTask(destination, from, mid), new ComposeTask(destination, mid, to));
+        }
+    }
+}
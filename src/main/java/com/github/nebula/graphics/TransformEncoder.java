@@ -0,0 +1,146 @@
+package com.github.nebula.graphics;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import lombok.val;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Encodes runs of column-major matrices into a {@link TransformEncoding}. The matrices are copied into a heap array
+ * and processed as many at a time as the preferred float species has lanes: every lane gathers the elements of one
+ * matrix and scatters the encoded values back, so all arithmetic runs on full vectors. Half precision values are
+ * narrowed with {@link Float#floatToFloat16(float)}, which the JIT compiles to a hardware conversion where available.
+ *
+ * <p>Instances keep their scratch arrays between calls and are not thread safe.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+final class TransformEncoder {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final int MATRIX_FLOATS = InstanceTransformBuffer.MATRIX_FLOATS;
+    /**
+     * Element offsets of the first element of consecutive matrices, used as gather index map.
+     */
+    private static final int[] MATRIX_MAP = strideMap(MATRIX_FLOATS);
+    private static final int[] AFFINE_MAP = strideMap(TransformEncoding.AFFINE.components);
+    private static final int[] QUATERNION_MAP = strideMap(TransformEncoding.QUATERNION.components);
+
+    private float[] matrices;
+    private float[] encoded;
+
+    TransformEncoder() {
+        this.matrices = new float[0];
+        this.encoded = new float[0];
+    }
+
+    private static int[] strideMap(int stride) {
+        val map = new int[LANES];
+        for (var i = 0; i < LANES; i++) map[i] = i * stride;
+        return map;
+    }
+
+    /**
+     * Encodes the matrices {@code from} to {@code to - 1} of {@code source} into the start of {@code dest}.
+     *
+     * @param encoding the encoding to use
+     * @param source   column-major matrices
+     * @param from     the first matrix to encode
+     * @param to       the index after the last matrix
+     * @param dest     receives {@code (to - from) * encoding.byteSize} bytes
+     */
+    void encode(TransformEncoding encoding, MemorySegment source, int from, int to, MemorySegment dest) {
+        val count = to - from;
+        if (count <= 0) return;
+        // Padding the scratch arrays to whole vectors removes the need for a scalar tail loop
+        val blocks = (count + LANES - 1) / LANES;
+        ensureCapacity(blocks * LANES, encoding.components);
+        MemorySegment.copy(source, ValueLayout.JAVA_FLOAT, (long) from * InstanceTransformBuffer.MATRIX_BYTES,
+                matrices, 0, count * MATRIX_FLOATS);
+
+        switch (encoding) {
+            case MAT4 -> System.arraycopy(matrices, 0, encoded, 0, count * MATRIX_FLOATS);
+            case AFFINE, AFFINE_HALF -> encodeAffine(blocks);
+            case QUATERNION, QUATERNION_HALF -> encodeQuaternion(blocks);
+        }
+
+        val values = count * encoding.components;
+        if (!encoding.half) {
+            MemorySegment.copy(encoded, 0, dest, ValueLayout.JAVA_FLOAT, 0, values);
+            return;
+        }
+        for (var i = 0; i < values; i++)
+            dest.setAtIndex(ValueLayout.JAVA_SHORT, i, Float.floatToFloat16(encoded[i]));
+    }
+
+    private void ensureCapacity(int paddedCount, int components) {
+        if (matrices.length < paddedCount * MATRIX_FLOATS) matrices = new float[paddedCount * MATRIX_FLOATS];
+        if (encoded.length < paddedCount * Math.max(components, MATRIX_FLOATS))
+            encoded = new float[paddedCount * Math.max(components, MATRIX_FLOATS)];
+    }
+
+    private FloatVector load(int block, int element) {
+        return FloatVector.fromArray(SPECIES, matrices, block * LANES * MATRIX_FLOATS + element, MATRIX_MAP, 0);
+    }
+
+    /**
+     * Transposes the upper 3x4 part of every matrix into three rows.
+     */
+    private void encodeAffine(int blocks) {
+        val components = TransformEncoding.AFFINE.components;
+        for (var b = 0; b < blocks; b++) {
+            val base = b * LANES * components;
+            for (var row = 0; row < 3; row++)
+                for (var column = 0; column < 4; column++)
+                    load(b, column * 4 + row).intoArray(encoded, base + row * 4 + column, AFFINE_MAP, 0);
+        }
+    }
+
+    /**
+     * Splits every matrix into translation, the largest axis scale and a rotation quaternion. The quaternion is
+     * computed without branches from the diagonal of the normalized rotation, taking the signs of its imaginary
+     * parts from the off-diagonal differences.
+     */
+    private void encodeQuaternion(int blocks) {
+        val components = TransformEncoding.QUATERNION.components;
+        val half = FloatVector.broadcast(SPECIES, 0.5f);
+        val one = FloatVector.broadcast(SPECIES, 1f);
+        val zero = FloatVector.zero(SPECIES);
+        for (var b = 0; b < blocks; b++) {
+            FloatVector a0 = load(b, 0), a1 = load(b, 1), a2 = load(b, 2);
+            FloatVector a4 = load(b, 4), a5 = load(b, 5), a6 = load(b, 6);
+            FloatVector a8 = load(b, 8), a9 = load(b, 9), a10 = load(b, 10);
+            val scaleX = a0.mul(a0).add(a1.mul(a1)).add(a2.mul(a2)).sqrt();
+            val scaleY = a4.mul(a4).add(a5.mul(a5)).add(a6.mul(a6)).sqrt();
+            val scaleZ = a8.mul(a8).add(a9.mul(a9)).add(a10.mul(a10)).sqrt();
+            val scale = scaleX.max(scaleY).max(scaleZ);
+
+            // Rotation matrix element r<row><column>
+            FloatVector r00 = a0.div(scaleX), r10 = a1.div(scaleX), r20 = a2.div(scaleX);
+            FloatVector r01 = a4.div(scaleY), r11 = a5.div(scaleY), r21 = a6.div(scaleY);
+            FloatVector r02 = a8.div(scaleZ), r12 = a9.div(scaleZ), r22 = a10.div(scaleZ);
+            val w = one.add(r00).add(r11).add(r22).max(zero).sqrt().mul(half);
+            val x = copySign(one.add(r00).sub(r11).sub(r22).max(zero).sqrt().mul(half), r21.sub(r12));
+            val y = copySign(one.sub(r00).add(r11).sub(r22).max(zero).sqrt().mul(half), r02.sub(r20));
+            val z = copySign(one.sub(r00).sub(r11).add(r22).max(zero).sqrt().mul(half), r10.sub(r01));
+
+            val base = b * LANES * components;
+            load(b, 12).intoArray(encoded, base, QUATERNION_MAP, 0);
+            load(b, 13).intoArray(encoded, base + 1, QUATERNION_MAP, 0);
+            load(b, 14).intoArray(encoded, base + 2, QUATERNION_MAP, 0);
+            scale.intoArray(encoded, base + 3, QUATERNION_MAP, 0);
+            x.intoArray(encoded, base + 4, QUATERNION_MAP, 0);
+            y.intoArray(encoded, base + 5, QUATERNION_MAP, 0);
+            z.intoArray(encoded, base + 6, QUATERNION_MAP, 0);
+            w.intoArray(encoded, base + 7, QUATERNION_MAP, 0);
+        }
+    }
+
+    private static FloatVector copySign(FloatVector magnitude, FloatVector sign) {
+        return magnitude.blend(magnitude.neg(), sign.compare(VectorOperators.LT, 0f));
+    }
+}
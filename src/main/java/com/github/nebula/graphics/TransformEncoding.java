@@ -0,0 +1,162 @@
+package com.github.nebula.graphics;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.val;
+import org.joml.Matrix4f;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * The {@code TransformEncoding} enum lists the layouts instance transforms can be uploaded in. Compact encodings
+ * trade precision and generality for upload bandwidth: every encoding comes with a GLSL snippet declaring the
+ * transform buffer at {@link Model#TRANSFORM_BUFFER_BINDING} and a function {@code mat4 instanceTransform(uint index)}
+ * decoding the matrix of an instance, which shaders call instead of indexing {@code transforms} directly.
+ *
+ * <p>The quaternion encodings only represent rotation, uniform scale and translation. Non-uniform scales are
+ * replaced by the largest axis scale and shears are lost. Half precision encodings store every value as a 16 bit
+ * float, so translations lose precision quickly with their distance to the origin.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public enum TransformEncoding {
+    /**
+     * The full column-major matrix, 64 bytes.
+     */
+    MAT4(16, false, STR."""
+            layout(std430, binding = \{Model.TRANSFORM_BUFFER_BINDING}) readonly buffer TransformBuffer {
+                mat4 transforms[];
+            };
+            mat4 instanceTransform(uint index) {
+                return transforms[index];
+            }
+            """),
+    /**
+     * The first three rows of the matrix, 48 bytes.
+     */
+    AFFINE(12, false, STR."""
+            layout(std430, binding = \{Model.TRANSFORM_BUFFER_BINDING}) readonly buffer TransformBuffer {
+                vec4 transforms[];
+            };
+            mat4 instanceTransform(uint index) {
+                vec4 r0 = transforms[index * 3u], r1 = transforms[index * 3u + 1u], r2 = transforms[index * 3u + 2u];
+                return mat4(r0.x, r1.x, r2.x, 0.0, r0.y, r1.y, r2.y, 0.0, r0.z, r1.z, r2.z, 0.0, r0.w, r1.w, r2.w, 1.0);
+            }
+            """),
+    /**
+     * The first three rows of the matrix in half precision, 24 bytes.
+     */
+    AFFINE_HALF(12, true, STR."""
+            layout(std430, binding = \{Model.TRANSFORM_BUFFER_BINDING}) readonly buffer TransformBuffer {
+                uvec2 transforms[];
+            };
+            vec4 unpackRow(uvec2 packed) {
+                return vec4(unpackHalf2x16(packed.x), unpackHalf2x16(packed.y));
+            }
+            mat4 instanceTransform(uint index) {
+                vec4 r0 = unpackRow(transforms[index * 3u]);
+                vec4 r1 = unpackRow(transforms[index * 3u + 1u]);
+                vec4 r2 = unpackRow(transforms[index * 3u + 2u]);
+                return mat4(r0.x, r1.x, r2.x, 0.0, r0.y, r1.y, r2.y, 0.0, r0.z, r1.z, r2.z, 0.0, r0.w, r1.w, r2.w, 1.0);
+            }
+            """),
+    /**
+     * Translation and uniform scale followed by a rotation quaternion, 32 bytes.
+     */
+    QUATERNION(8, false, STR."""
+            layout(std430, binding = \{Model.TRANSFORM_BUFFER_BINDING}) readonly buffer TransformBuffer {
+                vec4 transforms[];
+            };
+            mat4 composeTransform(vec4 t, vec4 q) {
+                vec3 q2 = q.xyz * 2.0;
+                float xx = q.x * q2.x, yy = q.y * q2.y, zz = q.z * q2.z;
+                float xy = q.x * q2.y, xz = q.x * q2.z, yz = q.y * q2.z;
+                float wx = q.w * q2.x, wy = q.w * q2.y, wz = q.w * q2.z;
+                return mat4(vec4(1.0 - (yy + zz), xy + wz, xz - wy, 0.0) * t.w,
+                            vec4(xy - wz, 1.0 - (xx + zz), yz + wx, 0.0) * t.w,
+                            vec4(xz + wy, yz - wx, 1.0 - (xx + yy), 0.0) * t.w,
+                            vec4(t.xyz, 1.0));
+            }
+            mat4 instanceTransform(uint index) {
+                return composeTransform(transforms[index * 2u], transforms[index * 2u + 1u]);
+            }
+            """),
+    /**
+     * Translation, uniform scale and rotation quaternion in half precision, 16 bytes.
+     */
+    QUATERNION_HALF(8, true, STR."""
+            layout(std430, binding = \{Model.TRANSFORM_BUFFER_BINDING}) readonly buffer TransformBuffer {
+                uvec4 transforms[];
+            };
+            mat4 composeTransform(vec4 t, vec4 q) {
+                vec3 q2 = q.xyz * 2.0;
+                float xx = q.x * q2.x, yy = q.y * q2.y, zz = q.z * q2.z;
+                float xy = q.x * q2.y, xz = q.x * q2.z, yz = q.y * q2.z;
+                float wx = q.w * q2.x, wy = q.w * q2.y, wz = q.w * q2.z;
+                return mat4(vec4(1.0 - (yy + zz), xy + wz, xz - wy, 0.0) * t.w,
+                            vec4(xy - wz, 1.0 - (xx + zz), yz + wx, 0.0) * t.w,
+                            vec4(xz + wy, yz - wx, 1.0 - (xx + yy), 0.0) * t.w,
+                            vec4(t.xyz, 1.0));
+            }
+            mat4 instanceTransform(uint index) {
+                uvec4 packed = transforms[index];
+                vec4 t = vec4(unpackHalf2x16(packed.x), unpackHalf2x16(packed.y));
+                vec4 q = vec4(unpackHalf2x16(packed.z), unpackHalf2x16(packed.w));
+                return composeTransform(t, q);
+            }
+            """);
+
+    /**
+     * The number of values stored per instance.
+     */
+    public final int components;
+    /**
+     * Whether values are stored as 16 bit floats.
+     */
+    public final boolean half;
+    /**
+     * The number of bytes uploaded per instance.
+     */
+    public final int byteSize;
+    /**
+     * The GLSL declaration of the transform buffer and the {@code instanceTransform} function.
+     */
+    public final String glslDecode;
+
+    TransformEncoding(int components, boolean half, String glslDecode) {
+        this.components = components;
+        this.half = half;
+        this.byteSize = components * (half ? Short.BYTES : Float.BYTES);
+        this.glslDecode = glslDecode;
+    }
+
+    /**
+     * Decodes the matrix of an instance the same way {@link #glslDecode} does, for example to verify an upload.
+     *
+     * @param encoded the encoded instances
+     * @param index   the index of the instance inside of {@code encoded}
+     * @param dest    receives the decoded matrix
+     * @return {@code dest}
+     */
+    @NonNull
+    public Matrix4f decode(@NonNull MemorySegment encoded, int index, @NonNull Matrix4f dest) {
+        val v = new float[components];
+        for (var i = 0; i < components; i++) {
+            val element = (long) index * components + i;
+            v[i] = half
+                    ? Float.float16ToFloat(encoded.getAtIndex(ValueLayout.JAVA_SHORT, element))
+                    : encoded.getAtIndex(ValueLayout.JAVA_FLOAT, element);
+        }
+        return switch (this) {
+            case MAT4 -> dest.set(v);
+            case AFFINE, AFFINE_HALF -> dest.set(
+                    v[0], v[4], v[8], 0,
+                    v[1], v[5], v[9], 0,
+                    v[2], v[6], v[10], 0,
+                    v[3], v[7], v[11], 1);
+            case QUATERNION, QUATERNION_HALF -> dest.translationRotateScale(v[0], v[1], v[2],
+                    v[4], v[5], v[6], v[7], v[3], v[3], v[3]);
+        };
+    }
+}
@@ -0,0 +1,302 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.data.GLDataType;
+import com.github.nebula.graphics.data.UniformAttributes;
+import com.github.nebula.graphics.data.UniformBlockLayout;
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.globjects.Shader;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.joml.*;
+import org.lwjgl.system.MemoryUtil;
+
+import java.lang.Math;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL33C.*;
+
+/**
+ * The {@code UniformBufferMaterial} class is a {@link Material} storing its uniforms in a uniform block. The values
+ * are written into an off-heap copy of the block laid out by {@link UniformBlockLayout}, and {@link #bind()} uploads
+ * the changed range of the block with a single {@code glBufferSubData} call before binding the buffer to the block's
+ * binding point. Binding a material whose values did not change since its last bind therefore issues no uploads.
+ *
+ * <p>Values can be set by name through {@link #setUniform(String, Object)}, or without lookups and boxing through
+ * the typed setters, which address members by the index returned from {@link #getUniformIndex(String)}. Samplers
+ * cannot be part of a uniform block, so sampler attributes are kept aside and uploaded as plain uniforms.
+ *
+ * <p>The binding of the buffer is context state shared with every other material using the same binding point, so
+ * this material does not {@link #getVersion() track its version} and is bound before every draw.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class UniformBufferMaterial implements Material {
+    private final @Getter Shader shader;
+    private final @Getter UniformAttributes uniformAttributes;
+    private final @Getter UniformBlockLayout blockLayout;
+    private final @Getter String blockName;
+    private final @Getter int binding;
+    private final ByteBuffer block;
+    private final Buffer ubo;
+    private final Map<String, Integer> samplers;
+    private final String[] samplerNames;
+    private final int[] samplerUnits;
+    private boolean allocated;
+    private int dirtyFrom, dirtyTo;
+
+    /**
+     * Creates a material whose values are all zero and assigns the uniform block of the shader to the given binding
+     * point.
+     *
+     * @param shader            the shader to render with
+     * @param uniformAttributes the uniforms of the material, declared by the block in the same order
+     * @param blockName         the name of the uniform block in the shader
+     * @param binding           the uniform buffer binding point to bind the block to
+     * @throws IllegalArgumentException if the shader does not declare the block or an attribute has a type that is
+     *                                  not supported in uniform blocks
+     */
+    public UniformBufferMaterial(@NonNull Shader shader, @NonNull UniformAttributes uniformAttributes,
+                                 @NonNull String blockName, int binding) {
+        this.shader = shader;
+        this.uniformAttributes = uniformAttributes;
+        this.blockLayout = new UniformBlockLayout(uniformAttributes);
+        this.blockName = blockName;
+        this.binding = binding;
+        this.samplers = new HashMap<>();
+        for (val attribute : uniformAttributes)
+            if (UniformBlockLayout.isOpaque(attribute.dataType())) samplers.put(attribute.name(), samplers.size());
+        this.samplerNames = new String[samplers.size()];
+        samplers.forEach((name, index) -> samplerNames[index] = name);
+        this.samplerUnits = new int[samplers.size()];
+
+        if (hasBlock()) {
+            val blockIndex = shader.getUniformBlockLocation(blockName);
+            if (blockIndex == GL_INVALID_INDEX)
+                throw new IllegalArgumentException(STR."Shader does not declare uniform block \{blockName}");
+            glUniformBlockBinding(shader.id, blockIndex, binding);
+        }
+        this.block = MemoryUtil.memCalloc(Math.max(blockLayout.byteSize, 1));
+        this.ubo = new Buffer(GL_UNIFORM_BUFFER);
+        this.allocated = false;
+        markDirty(0, blockLayout.byteSize);
+    }
+
+    private boolean hasBlock() {
+        return blockLayout.byteSize > 0;
+    }
+
+    /**
+     * Looks up the index of a block member for use with the typed setters.
+     *
+     * @param name the name of the uniform
+     * @return the index of the member
+     * @throws IllegalArgumentException if the block has no member with that name
+     */
+    public int getUniformIndex(@NonNull String name) {
+        val index = blockLayout.indexOf(name);
+        if (index < 0) throw new IllegalArgumentException(STR."Uniform block \{blockName} has no member \{name}");
+        return index;
+    }
+
+    private int offsetOf(int index, GLDataType type) {
+        val member = blockLayout.getMember(index);
+        if (member.dataType() != type)
+            throw new IllegalArgumentException(STR."Uniform \{member.name()} is a \{member.dataType().name}, not a \{type.name}");
+        val offset = blockLayout.getOffset(index);
+        markDirty(offset, offset + type.byteSize);
+        return offset;
+    }
+
+    private void markDirty(int from, int to) {
+        dirtyFrom = Math.min(dirtyFrom, from);
+        dirtyTo = Math.max(dirtyTo, to);
+    }
+
+    private void clearDirtyRange() {
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = 0;
+    }
+
+    public void setFloat(int index, float value) {
+        block.putFloat(offsetOf(index, GLDataType.FLOAT), value);
+    }
+
+    public void setInt(int index, int value) {
+        block.putInt(offsetOf(index, GLDataType.INT), value);
+    }
+
+    public void setVector(int index, @NonNull Vector2fc value) {
+        value.get(offsetOf(index, GLDataType.VEC2), block);
+    }
+
+    public void setVector(int index, @NonNull Vector3fc value) {
+        value.get(offsetOf(index, GLDataType.VEC3), block);
+    }
+
+    public void setVector(int index, @NonNull Vector4fc value) {
+        value.get(offsetOf(index, GLDataType.VEC4), block);
+    }
+
+    public void setVector(int index, @NonNull Vector2ic value) {
+        value.get(offsetOf(index, GLDataType.IVEC2), block);
+    }
+
+    public void setVector(int index, @NonNull Vector3ic value) {
+        value.get(offsetOf(index, GLDataType.IVEC3), block);
+    }
+
+    public void setVector(int index, @NonNull Vector4ic value) {
+        value.get(offsetOf(index, GLDataType.IVEC4), block);
+    }
+
+    public void setMatrix(int index, @NonNull Matrix2fc value) {
+        val offset = offsetOf(index, GLDataType.MAT2);
+        // Every column is padded to a vec4
+        markDirty(offset, offset + 2 * 16);
+        block.putFloat(offset, value.m00()).putFloat(offset + 4, value.m01());
+        block.putFloat(offset + 16, value.m10()).putFloat(offset + 20, value.m11());
+    }
+
+    public void setMatrix(int index, @NonNull Matrix3fc value) {
+        val offset = offsetOf(index, GLDataType.MAT3);
+        markDirty(offset, offset + 3 * 16);
+        value.get3x4(offset, block);
+    }
+
+    public void setMatrix(int index, @NonNull Matrix4fc value) {
+        value.get(offsetOf(index, GLDataType.MAT4), block);
+    }
+
+    /**
+     * Sets the texture unit a sampler uniform reads from.
+     *
+     * @param name the name of the sampler
+     * @param unit the texture unit
+     * @throws IllegalArgumentException if the material has no sampler with that name
+     */
+    public void setSampler(@NonNull String name, int unit) {
+        val index = samplers.get(name);
+        if (index == null) throw new IllegalArgumentException(STR."Material has no sampler \{name}");
+        samplerUnits[index] = unit;
+    }
+
+    @Override
+    public void setUniform(String name, Object value) {
+        if (samplers.containsKey(name)) {
+            if (!(value instanceof Integer unit))
+                throw new IllegalArgumentException(STR."Sampler \{name} expects a texture unit, got \{value}");
+            setSampler(name, unit);
+            return;
+        }
+        val index = getUniformIndex(name);
+        switch (value) {
+            case Float f -> setFloat(index, f);
+            case Integer i -> setInt(index, i);
+            case Vector2fc v -> setVector(index, v);
+            case Vector3fc v -> setVector(index, v);
+            case Vector4fc v -> setVector(index, v);
+            case Vector2ic v -> setVector(index, v);
+            case Vector3ic v -> setVector(index, v);
+            case Vector4ic v -> setVector(index, v);
+            case Matrix2fc m -> setMatrix(index, m);
+            case Matrix3fc m -> setMatrix(index, m);
+            case Matrix4fc m -> setMatrix(index, m);
+            case null, default -> throw new IllegalArgumentException(STR."Unsupported value for uniform \{name}: \{value}");
+        }
+    }
+
+    @Override
+    public Object getUniform(String name) {
+        val sampler = samplers.get(name);
+        if (sampler != null) return samplerUnits[sampler];
+        val index = getUniformIndex(name);
+        val offset = blockLayout.getOffset(index);
+        return switch (blockLayout.getMember(index).dataType()) {
+            case FLOAT -> block.getFloat(offset);
+            case INT -> block.getInt(offset);
+            case VEC2 -> new Vector2f(offset, block);
+            case VEC3 -> new Vector3f(offset, block);
+            case VEC4 -> new Vector4f(offset, block);
+            case IVEC2 -> new Vector2i(offset, block);
+            case IVEC3 -> new Vector3i(offset, block);
+            case IVEC4 -> new Vector4i(offset, block);
+            case MAT2 -> new Matrix2f(block.getFloat(offset), block.getFloat(offset + 4),
+                    block.getFloat(offset + 16), block.getFloat(offset + 20));
+            case MAT3 -> new Matrix3f(new Vector3f(offset, block), new Vector3f(offset + 16, block),
+                    new Vector3f(offset + 32, block));
+            case MAT4 -> new Matrix4f().set(offset, block);
+            default -> throw new IllegalStateException(STR."Unexpected uniform block member \{name}");
+        };
+    }
+
+    /**
+     * Uploads the part of the block that changed since the last upload.
+     */
+    private void upload() {
+        if (!hasBlock() || dirtyFrom >= dirtyTo) return;
+        if (!allocated) {
+            ubo.ndata(blockLayout.byteSize, GL_DYNAMIC_DRAW);
+            allocated = true;
+        }
+        ubo.nsubData(dirtyFrom, dirtyTo - dirtyFrom, MemoryUtil.memAddress(block) + dirtyFrom);
+        clearDirtyRange();
+    }
+
+    private void apply(Shader target) {
+        target.bind();
+        for (var i = 0; i < samplerNames.length; i++) target.uploadUniformInt(samplerNames[i], samplerUnits[i]);
+        if (!hasBlock()) return;
+        upload();
+        ubo.bindRange(binding, 0, blockLayout.byteSize);
+    }
+
+    @Override
+    public void bind() {
+        apply(shader);
+    }
+
+    @Override
+    public void bind(Shader shader) {
+        if (!isCompatible(shader))
+            throw new IllegalArgumentException(STR."Shader does not declare uniform block \{blockName}");
+        if (shader != this.shader && hasBlock())
+            glUniformBlockBinding(shader.id, shader.getUniformBlockLocation(blockName), binding);
+        apply(shader);
+    }
+
+    @Override
+    public boolean isCompatible(Shader shader) {
+        return !hasBlock() || shader.getUniformBlockLocation(blockName) != GL_INVALID_INDEX;
+    }
+
+    @Override
+    public boolean isCompatible(UniformAttributes uniformAttributes) {
+        return this.uniformAttributes.equals(uniformAttributes);
+    }
+
+    /**
+     * Frees the block and deletes the uniform buffer. The shader is not closed, as it may be shared with other
+     * materials.
+     */
+    @Override
+    public void close() {
+        MemoryUtil.memFree(block);
+        ubo.close();
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getName()} {
+                    shader=\{shader},
+                    blockName=\{blockName},
+                    binding=\{binding},
+                    blockLayout=\{blockLayout}
+                }
+                """;
+    }
+}
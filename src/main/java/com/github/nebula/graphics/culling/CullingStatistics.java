@@ -0,0 +1,40 @@
+package com.github.nebula.graphics.culling;
+
+import lombok.Getter;
+
+/**
+ * The {@code CullingStatistics} class holds the number of visible and culled instances of the last rendered frame.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+@Getter
+public final class CullingStatistics {
+    private int visibleCount;
+    private int culledCount;
+
+    /**
+     * Records the result of a culling pass, replacing the previous frame's values.
+     *
+     * @param visibleCount the number of instances that passed culling
+     * @param culledCount  the number of instances that were rejected
+     */
+    public void record(int visibleCount, int culledCount) {
+        this.visibleCount = visibleCount;
+        this.culledCount = culledCount;
+    }
+
+    public int getTotalCount() {
+        return visibleCount + culledCount;
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    visibleCount=\{visibleCount},
+                    culledCount=\{culledCount}
+                }
+                """;
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.nebula.graphics.culling;
+
+import com.github.nebula.graphics.util.Versions;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.joml.Matrix4fc;
+
+import java.util.Arrays;
+
+/**
+ * The {@code Frustum} class represents a view frustum as six planes extracted from a view projection matrix.
+ * Each plane is stored as {@code (nx, ny, nz, d)} with a normalized, inward facing normal, so a point
+ * {@code p} is inside of a plane if {@code dot(n, p) + d >= 0}.
+ *
+ * <p>The planes are kept in a flat array to allow vectorized tests over many bounding volumes.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class Frustum {
+    /**
+     * The number of planes of a frustum.
+     */
+    public static final int PLANE_COUNT = 6;
+    public static final int LEFT = 0, RIGHT = 1, BOTTOM = 2, TOP = 3, NEAR = 4, FAR = 5;
+
+    private final float[] planes;
+    /**
+     * The {@link Versions version} of the last change to the planes. Setting the same matrix again keeps it.
+     */
+    private @Getter long version;
+    private boolean changed;
+
+    /**
+     * Creates a frustum that contains everything.
+     */
+    public Frustum() {
+        this.planes = new float[PLANE_COUNT * 4];
+        for (var i = 0; i < PLANE_COUNT; i++) planes[i * 4 + 3] = Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Creates a frustum from the given view projection matrix.
+     *
+     * @param viewProjection the combined view projection matrix
+     */
+    public Frustum(@NonNull Matrix4fc viewProjection) {
+        this.planes = new float[PLANE_COUNT * 4];
+        set(viewProjection);
+    }
+
+    /**
+     * Extracts the planes of the given view projection matrix.
+     *
+     * @param m the combined view projection matrix
+     * @return this
+     */
+    @NonNull
+    public Frustum set(@NonNull Matrix4fc m) {
+        changed = false;
+        setPlane(LEFT, m.m03() + m.m00(), m.m13() + m.m10(), m.m23() + m.m20(), m.m33() + m.m30());
+        setPlane(RIGHT, m.m03() - m.m00(), m.m13() - m.m10(), m.m23() - m.m20(), m.m33() - m.m30());
+        setPlane(BOTTOM, m.m03() + m.m01(), m.m13() + m.m11(), m.m23() + m.m21(), m.m33() + m.m31());
+        setPlane(TOP, m.m03() - m.m01(), m.m13() - m.m11(), m.m23() - m.m21(), m.m33() - m.m31());
+        setPlane(NEAR, m.m03() + m.m02(), m.m13() + m.m12(), m.m23() + m.m22(), m.m33() + m.m32());
+        setPlane(FAR, m.m03() - m.m02(), m.m13() - m.m12(), m.m23() - m.m22(), m.m33() - m.m32());
+        if (changed) version = Versions.next();
+        return this;
+    }
+
+    private void setPlane(int plane, float nx, float ny, float nz, float d) {
+        val invLength = 1f / (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+        val base = plane * 4;
+        float x = nx * invLength, y = ny * invLength, z = nz * invLength, w = d * invLength;
+        if (planes[base] != x || planes[base + 1] != y || planes[base + 2] != z || planes[base + 3] != w)
+            changed = true;
+        planes[base] = x;
+        planes[base + 1] = y;
+        planes[base + 2] = z;
+        planes[base + 3] = w;
+    }
+
+    public float normalX(int plane) {
+        return planes[plane * 4];
+    }
+
+    public float normalY(int plane) {
+        return planes[plane * 4 + 1];
+    }
+
+    public float normalZ(int plane) {
+        return planes[plane * 4 + 2];
+    }
+
+    public float distance(int plane) {
+        return planes[plane * 4 + 3];
+    }
+
+    /**
+     * Copies the planes of this frustum into {@code dest}, four floats per plane.
+     *
+     * @param dest the array to copy into, at least {@code 24} floats long
+     * @return {@code dest}
+     */
+    @NonNull
+    public float[] getPlanes(@NonNull float[] dest) {
+        System.arraycopy(planes, 0, dest, 0, planes.length);
+        return dest;
+    }
+
+    /**
+     * Tests whether a sphere intersects or is inside of this frustum.
+     *
+     * @param x      the x coordinate of the center
+     * @param y      the y coordinate of the center
+     * @param z      the z coordinate of the center
+     * @param radius the radius of the sphere
+     * @return {@code true} if the sphere is at least partially inside
+     */
+    public boolean testSphere(float x, float y, float z, float radius) {
+        for (var i = 0; i < planes.length; i += 4) {
+            if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] < -radius)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tests whether an axis aligned box intersects or is inside of this frustum.
+     * The test is conservative: boxes close to a frustum corner may be reported as visible.
+     *
+     * @return {@code true} if the box is at least partially inside
+     */
+    public boolean testAabb(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        for (var i = 0; i < planes.length; i += 4) {
+            // The corner farthest along the plane normal
+            val px = planes[i] >= 0 ? maxX : minX;
+            val py = planes[i + 1] >= 0 ? maxY : minY;
+            val pz = planes[i + 2] >= 0 ? maxZ : minZ;
+            if (planes[i] * px + planes[i + 1] * py + planes[i + 2] * pz + planes[i + 3] < 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(planes, ((Frustum) o).planes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(planes);
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    planes=\{Arrays.toString(planes)}
+                }
+                """;
+    }
+}
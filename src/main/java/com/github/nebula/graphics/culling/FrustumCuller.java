@@ -0,0 +1,310 @@
+package com.github.nebula.graphics.culling;
+
+import com.github.nebula.graphics.InstanceTransformBuffer;
+import com.github.nebula.graphics.spatial.DynamicAabbTree;
+import io.reactivex.rxjava3.annotations.NonNull;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import lombok.Getter;
+import lombok.val;
+import org.joml.Vector3fc;
+import org.lwjgl.system.MemoryUtil;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.IntBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * The {@code FrustumCuller} class determines which instances of an {@link InstanceTransformBuffer} are inside of a
+ * {@link Frustum} and compacts the indices of the visible instances into an off-heap index list, ready to be uploaded
+ * to the GPU.
+ *
+ * <p>Every instance is bounded by the same local bounding sphere, which is transformed into world space using the
+ * instance's matrix. The sphere versus plane tests are vectorized with the Vector API. Large instance counts are
+ * split into chunks that are processed in parallel; each chunk writes its visible indices at its own offset and the
+ * chunks are concatenated afterwards, so the resulting order is stable.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class FrustumCuller implements AutoCloseable {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    /**
+     * Instances per parallel chunk.
+     */
+    private static final int CHUNK_SIZE = 16384;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ForkJoinPool pool;
+    private final IntConsumer collector;
+    private final float[] planes;
+    private float[] centersX, centersY, centersZ, radii;
+    private int[] chunkCounts;
+    private IntBuffer visibleIndices;
+    private @Getter int capacity;
+    /**
+     * The number of indices written by the last call to {@link #cull} or {@link #selectAll(int)}.
+     */
+    private @Getter int visibleCount;
+
+    public FrustumCuller() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a culler that processes large instance counts on the given pool.
+     *
+     * @param pool the pool to run parallel chunks on
+     */
+    public FrustumCuller(@NonNull ForkJoinPool pool) {
+        this.pool = pool;
+        this.collector = index -> visibleIndices.put(visibleCount++, index);
+        this.planes = new float[Frustum.PLANE_COUNT * 4];
+        this.chunkCounts = new int[1];
+        this.visibleIndices = MemoryUtil.memAllocInt(INITIAL_CAPACITY);
+        allocateSpheres(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Culls all instances of {@code transforms} against {@code frustum}.
+     *
+     * @param frustum      the frustum to test against
+     * @param transforms   the instance transforms
+     * @param localCenter  the center of the bounding sphere shared by all instances, in model space
+     * @param localRadius  the radius of the bounding sphere shared by all instances, in model space
+     * @return the number of visible instances
+     */
+    public int cull(@NonNull Frustum frustum, @NonNull InstanceTransformBuffer transforms,
+                    @NonNull Vector3fc localCenter, float localRadius) {
+        val count = transforms.getSize();
+        ensureCapacity(count);
+        frustum.getPlanes(planes);
+
+        val chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunkCounts.length < chunks) chunkCounts = new int[chunks];
+
+        val job = new CullJob(transforms.segment(), localCenter.x(), localCenter.y(), localCenter.z(), localRadius, count);
+        if (chunks <= 1)
+            job.cullChunk(0);
+        else
+            pool.invoke(new ChunkTask(job, 0, chunks));
+
+        // Concatenate the chunk results, the first chunk already starts at index 0
+        var write = chunks > 0 ? chunkCounts[0] : 0;
+        for (var c = 1; c < chunks; c++) {
+            visibleIndices.put(write, visibleIndices, c * CHUNK_SIZE, chunkCounts[c]);
+            write += chunkCounts[c];
+        }
+        visibleCount = write;
+        return write;
+    }
+
+    /**
+     * Culls the proxies of a spatial index against {@code frustum}, reporting the user data of every visible proxy as
+     * visible instance index. Only subtrees intersecting the frustum are visited, so the cost depends on the number
+     * of visible instances rather than the total instance count.
+     *
+     * @param frustum      the frustum to test against
+     * @param spatialIndex a tree whose proxies carry instance indices as user data
+     * @return the number of visible instances
+     */
+    public int cull(@NonNull Frustum frustum, @NonNull DynamicAabbTree spatialIndex) {
+        ensureCapacity(spatialIndex.getProxyCount());
+        visibleCount = 0;
+        spatialIndex.queryFrustum(frustum, collector);
+        return visibleCount;
+    }
+
+    /**
+     * Writes the indices {@code 0} to {@code count - 1} into the index list, marking every instance as visible.
+     *
+     * @param count the number of instances
+     * @return {@code count}
+     */
+    public int selectAll(int count) {
+        ensureCapacity(count);
+        for (var i = 0; i < count; i++) visibleIndices.put(i, i);
+        visibleCount = count;
+        return count;
+    }
+
+    /**
+     * Shrinks the index list after a later culling stage compacted it in place.
+     */
+    void setVisibleCount(int visibleCount) {
+        if (visibleCount < 0 || visibleCount > this.visibleCount)
+            throw new IllegalArgumentException(STR."Visible count \{visibleCount} exceeds \{this.visibleCount}");
+        this.visibleCount = visibleCount;
+    }
+
+    /**
+     * Returns the compacted list of visible instance indices. Only the first {@link #getVisibleCount()}
+     * entries are valid.
+     *
+     * @return the index list
+     */
+    @NonNull
+    public IntBuffer getVisibleIndices() {
+        return visibleIndices;
+    }
+
+    /**
+     * Returns the native address of the visible index list.
+     *
+     * @return the address of the first index
+     */
+    public long getVisibleIndicesAddress() {
+        return MemoryUtil.memAddress(visibleIndices);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= capacity) return;
+        var newCapacity = Math.max(capacity, INITIAL_CAPACITY);
+        while (newCapacity < required) newCapacity <<= 1;
+        visibleIndices = MemoryUtil.memRealloc(visibleIndices, newCapacity);
+        allocateSpheres(newCapacity);
+    }
+
+    private void allocateSpheres(int newCapacity) {
+        centersX = new float[newCapacity];
+        centersY = new float[newCapacity];
+        centersZ = new float[newCapacity];
+        radii = new float[newCapacity];
+        capacity = newCapacity;
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    capacity=\{capacity},
+                    visibleCount=\{visibleCount}
+                }
+                """;
+    }
+
+    @Override
+    public void close() {
+        MemoryUtil.memFree(visibleIndices);
+        capacity = 0;
+        visibleCount = 0;
+    }
+
+    /**
+     * The inputs of a single {@link #cull} call, shared by all chunks.
+     */
+    private final class CullJob {
+        private final MemorySegment matrices;
+        private final float localX, localY, localZ, localRadius;
+        private final int count;
+
+        private CullJob(MemorySegment matrices, float localX, float localY, float localZ, float localRadius, int count) {
+            this.matrices = matrices;
+            this.localX = localX;
+            this.localY = localY;
+            this.localZ = localZ;
+            this.localRadius = localRadius;
+            this.count = count;
+        }
+
+        private void cullChunk(int chunk) {
+            val from = chunk * CHUNK_SIZE;
+            val to = Math.min(from + CHUNK_SIZE, count);
+            computeWorldSpheres(from, to);
+            chunkCounts[chunk] = testSpheres(from, to);
+        }
+
+        private void computeWorldSpheres(int from, int to) {
+            val layout = ValueLayout.JAVA_FLOAT;
+            for (var i = from; i < to; i++) {
+                val base = (long) i * InstanceTransformBuffer.MATRIX_FLOATS;
+                float m00 = matrices.getAtIndex(layout, base), m01 = matrices.getAtIndex(layout, base + 1),
+                        m02 = matrices.getAtIndex(layout, base + 2);
+                float m10 = matrices.getAtIndex(layout, base + 4), m11 = matrices.getAtIndex(layout, base + 5),
+                        m12 = matrices.getAtIndex(layout, base + 6);
+                float m20 = matrices.getAtIndex(layout, base + 8), m21 = matrices.getAtIndex(layout, base + 9),
+                        m22 = matrices.getAtIndex(layout, base + 10);
+                centersX[i] = m00 * localX + m10 * localY + m20 * localZ + matrices.getAtIndex(layout, base + 12);
+                centersY[i] = m01 * localX + m11 * localY + m21 * localZ + matrices.getAtIndex(layout, base + 13);
+                centersZ[i] = m02 * localX + m12 * localY + m22 * localZ + matrices.getAtIndex(layout, base + 14);
+                // Non-uniform scales are bounded by the largest axis
+                val scaleSquared = Math.max(m00 * m00 + m01 * m01 + m02 * m02,
+                        Math.max(m10 * m10 + m11 * m11 + m12 * m12, m20 * m20 + m21 * m21 + m22 * m22));
+                radii[i] = localRadius * (float) Math.sqrt(scaleSquared);
+            }
+        }
+
+        private int testSpheres(int from, int to) {
+            val planeCount = Frustum.PLANE_COUNT;
+            val normalsX = new FloatVector[planeCount];
+            val normalsY = new FloatVector[planeCount];
+            val normalsZ = new FloatVector[planeCount];
+            val distances = new FloatVector[planeCount];
+            for (var p = 0; p < planeCount; p++) {
+                normalsX[p] = FloatVector.broadcast(SPECIES, planes[p * 4]);
+                normalsY[p] = FloatVector.broadcast(SPECIES, planes[p * 4 + 1]);
+                normalsZ[p] = FloatVector.broadcast(SPECIES, planes[p * 4 + 2]);
+                distances[p] = FloatVector.broadcast(SPECIES, planes[p * 4 + 3]);
+            }
+
+            val lanes = SPECIES.length();
+            final int bound = from + SPECIES.loopBound(to - from);
+            var write = from;
+            var i = from;
+            for (; i < bound; i += lanes) {
+                val x = FloatVector.fromArray(SPECIES, centersX, i);
+                val y = FloatVector.fromArray(SPECIES, centersY, i);
+                val z = FloatVector.fromArray(SPECIES, centersZ, i);
+                val r = FloatVector.fromArray(SPECIES, radii, i);
+                var inside = SPECIES.maskAll(true);
+                for (var p = 0; p < planeCount; p++) {
+                    val distance = x.fma(normalsX[p], y.fma(normalsY[p], z.fma(normalsZ[p], distances[p])));
+                    inside = inside.and(distance.add(r).compare(VectorOperators.GE, 0f));
+                }
+                var bits = inside.toLong();
+                while (bits != 0) {
+                    visibleIndices.put(write++, i + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            for (; i < to; i++) {
+                if (testSphere(centersX[i], centersY[i], centersZ[i], radii[i]))
+                    visibleIndices.put(write++, i);
+            }
+            return write - from;
+        }
+
+        private boolean testSphere(float x, float y, float z, float radius) {
+            for (var p = 0; p < planes.length; p += 4) {
+                if (planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3] + radius < 0)
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private final CullJob job;
+        private final int fromChunk, toChunk;
+
+        private ChunkTask(CullJob job, int fromChunk, int toChunk) {
+            this.job = job;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk == 1) {
+                job.cullChunk(fromChunk);
+                return;
+            }
+            val mid = (fromChunk + toChunk) >>> 1;
+            invokeAll(new ChunkTask(job, fromChunk, mid), new ChunkTask(job, mid, toChunk));
+        }
+    }
+}
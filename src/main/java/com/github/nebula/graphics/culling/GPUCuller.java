@@ -0,0 +1,285 @@
+package com.github.nebula.graphics.culling;
+
+import com.github.nebula.graphics.InstanceTransformBuffer;
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.globjects.ComputeShader;
+import com.github.nebula.graphics.globjects.UniformHandle;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.joml.Vector3fc;
+import org.lwjgl.system.MemoryUtil;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+/**
+ * The {@code GPUCuller} class culls instances against a {@link Frustum} in a compute shader, so visibility never has
+ * to be computed or uploaded by the CPU.
+ *
+ * <p>The culling pass reads the instance matrices from the transform shader storage buffer, tests the world space
+ * bounding sphere of every instance and appends the indices of the visible instances to a compacted index buffer.
+ * A second pass writes the visible count into the {@code instanceCount} of every {@code DrawElementsIndirectCommand}
+ * in {@link #getCommandBuffer()}, which is then consumed by {@code glMultiDrawElementsIndirect}. The visible count
+ * never travels back to the CPU, so the CPU cost of a frame does not depend on the instance count.
+ *
+ * <p>{@link #cullReference} implements the same kernel on the CPU and is used to validate the shader.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class GPUCuller implements AutoCloseable {
+    /**
+     * The number of ints of a {@code DrawElementsIndirectCommand}:
+     * {@code count, instanceCount, firstIndex, baseVertex, baseInstance}.
+     */
+    public static final int COMMAND_INTS = 5;
+    public static final int COMMAND_BYTES = COMMAND_INTS * Integer.BYTES;
+    /**
+     * The shader storage buffer binding point of the visible instance counter.
+     */
+    public static final int COUNTER_BINDING = 2;
+    /**
+     * The shader storage buffer binding point of the indirect commands.
+     */
+    public static final int COMMAND_BINDING = 3;
+    private static final int INITIAL_COMMAND_CAPACITY = 4;
+
+    static final String CULL_SOURCE = """
+            #version 430 core
+            layout(local_size_x = 256) in;
+
+            layout(std430, binding = 0) readonly buffer Transforms { mat4 transforms[]; };
+            layout(std430, binding = 1) writeonly buffer VisibleInstances { uint visibleInstances[]; };
+            layout(std430, binding = 2) buffer VisibleCount { uint visibleCount; };
+
+            uniform vec4 planes[6];
+            uniform vec4 localSphere;
+            uniform uint instanceCount;
+
+            shared uint groupCount;
+            shared uint groupBase;
+
+            void main() {
+                if (gl_LocalInvocationIndex == 0u) groupCount = 0u;
+                barrier();
+
+                uint index = gl_GlobalInvocationID.x;
+                bool visible = index < instanceCount;
+                if (visible) {
+                    mat4 m = transforms[index];
+                    vec3 center = (m * vec4(localSphere.xyz, 1.0)).xyz;
+                    // Non-uniform scales are bounded by the largest axis
+                    float scaleSquared = max(dot(m[0].xyz, m[0].xyz), max(dot(m[1].xyz, m[1].xyz), dot(m[2].xyz, m[2].xyz)));
+                    float radius = localSphere.w * sqrt(scaleSquared);
+                    for (int p = 0; p < 6; p++)
+                        visible = visible && dot(planes[p].xyz, center) + planes[p].w + radius >= 0.0;
+                }
+
+                // One global atomic per work group instead of one per visible instance
+                uint slot = 0u;
+                if (visible) slot = atomicAdd(groupCount, 1u);
+                barrier();
+                if (gl_LocalInvocationIndex == 0u) groupBase = atomicAdd(visibleCount, groupCount);
+                barrier();
+                if (visible) visibleInstances[groupBase + slot] = index;
+            }
+            """;
+
+    static final String COMMAND_SOURCE = """
+            #version 430 core
+            layout(local_size_x = 64) in;
+
+            struct DrawElementsIndirectCommand {
+                uint count;
+                uint instanceCount;
+                uint firstIndex;
+                int baseVertex;
+                uint baseInstance;
+            };
+
+            layout(std430, binding = 2) readonly buffer VisibleCount { uint visibleCount; };
+            layout(std430, binding = 3) buffer Commands { DrawElementsIndirectCommand commands[]; };
+
+            uniform uint commandCount;
+
+            void main() {
+                uint command = gl_GlobalInvocationID.x;
+                if (command < commandCount) commands[command].instanceCount = visibleCount;
+            }
+            """;
+
+    private static final int[] ZERO = {0};
+
+    private final ComputeShader cullShader;
+    private final ComputeShader commandShader;
+    private final UniformHandle planesUniform, localSphereUniform, instanceCountUniform, commandCountUniform;
+    private final @Getter Buffer commandBuffer;
+    private final Buffer counterBuffer;
+    private final float[] planes;
+    private IntBuffer commands;
+    private @Getter int commandCount;
+    private int uploadedCommandCapacity;
+    private boolean commandsDirty;
+
+    public GPUCuller() {
+        this.cullShader = new ComputeShader(CULL_SOURCE);
+        this.commandShader = new ComputeShader(COMMAND_SOURCE);
+        this.planesUniform = cullShader.getUniformHandle("planes");
+        this.localSphereUniform = cullShader.getUniformHandle("localSphere");
+        this.instanceCountUniform = cullShader.getUniformHandle("instanceCount");
+        this.commandCountUniform = commandShader.getUniformHandle("commandCount");
+        this.commandBuffer = new Buffer(GL_DRAW_INDIRECT_BUFFER);
+        this.counterBuffer = new Buffer(GL_SHADER_STORAGE_BUFFER);
+        counterBuffer.data(ZERO, GL_DYNAMIC_DRAW);
+        this.planes = new float[Frustum.PLANE_COUNT * 4];
+        this.commands = MemoryUtil.memCallocInt(INITIAL_COMMAND_CAPACITY * COMMAND_INTS);
+        this.commandCount = 0;
+        this.uploadedCommandCapacity = 0;
+    }
+
+    /**
+     * Sets the number of indirect commands. Commands past the previous count are zeroed.
+     *
+     * @param count the number of commands
+     */
+    public void setCommandCount(int count) {
+        if (count < 0) throw new IllegalArgumentException("Command count must not be negative");
+        if (count * COMMAND_INTS > commands.capacity()) {
+            val capacity = Math.max(count, commands.capacity() / COMMAND_INTS * 2);
+            commands = MemoryUtil.memRealloc(commands, capacity * COMMAND_INTS);
+        }
+        for (var i = commandCount * COMMAND_INTS; i < count * COMMAND_INTS; i++) commands.put(i, 0);
+        commandCount = count;
+        commandsDirty = true;
+    }
+
+    /**
+     * Sets the static part of an indirect command. The instance count is written by the culling pass.
+     *
+     * @param command      the index of the command
+     * @param count        the number of indices to draw
+     * @param firstIndex   the first index to draw
+     * @param baseVertex   the value added to every index
+     * @param baseInstance the value added to the instance index of instanced vertex attributes
+     */
+    public void setCommand(int command, int count, int firstIndex, int baseVertex, int baseInstance) {
+        if (command < 0 || command >= commandCount)
+            throw new IndexOutOfBoundsException(STR."Command \{command} out of bounds for count \{commandCount}");
+        val base = command * COMMAND_INTS;
+        commands.put(base, count);
+        commands.put(base + 1, 0);
+        commands.put(base + 2, firstIndex);
+        commands.put(base + 3, baseVertex);
+        commands.put(base + 4, baseInstance);
+        commandsDirty = true;
+    }
+
+    /**
+     * Culls {@code instanceCount} instances on the GPU and fills in the instance counts of all commands. The transform
+     * buffer is expected to be bound to the shader storage binding {@code 0} and the visible instance buffer, which
+     * has to hold at least {@code instanceCount} indices, to binding {@code 1}.
+     *
+     * @param frustum       the frustum to test against
+     * @param instanceCount the number of instances in the transform buffer
+     * @param localCenter   the center of the bounding sphere shared by all instances, in model space
+     * @param localRadius   the radius of the bounding sphere shared by all instances, in model space
+     */
+    public void cull(@NonNull Frustum frustum, int instanceCount, @NonNull Vector3fc localCenter, float localRadius) {
+        uploadCommands();
+        counterBuffer.subData(ZERO, 0);
+        counterBuffer.bindBase(COUNTER_BINDING);
+        commandBuffer.bindBase(GL_SHADER_STORAGE_BUFFER, COMMAND_BINDING);
+
+        cullShader.uploadUniformVec4fArray(planesUniform, frustum.getPlanes(planes));
+        cullShader.uploadUniformVec4f(localSphereUniform, localCenter.x(), localCenter.y(), localCenter.z(), localRadius);
+        cullShader.uploadUniformUInt(instanceCountUniform, instanceCount);
+        cullShader.dispatchFor(instanceCount);
+        glMemoryBarrier(GL_SHADER_STORAGE_BARRIER_BIT);
+
+        commandShader.uploadUniformUInt(commandCountUniform, commandCount);
+        commandShader.dispatchFor(commandCount);
+        glMemoryBarrier(GL_COMMAND_BARRIER_BIT | GL_SHADER_STORAGE_BARRIER_BIT);
+    }
+
+    private void uploadCommands() {
+        if (!commandsDirty) return;
+        if (uploadedCommandCapacity < commands.capacity()) {
+            commandBuffer.data(commands.clear(), GL_DYNAMIC_DRAW);
+            uploadedCommandCapacity = commands.capacity();
+        } else {
+            commandBuffer.nsubData(0, (long) commandCount * COMMAND_BYTES, MemoryUtil.memAddress(commands));
+        }
+        commandsDirty = false;
+    }
+
+    /**
+     * Runs the culling kernel on the CPU. The result matches the compute shader except for the order of the visible
+     * indices, which the shader appends in no particular order.
+     *
+     * @param planes           the six frustum planes as {@code (nx, ny, nz, d)}, see {@link Frustum#getPlanes}
+     * @param transforms       the instance matrices, laid out like the transform buffer, see
+     *                         {@link InstanceTransformBuffer#segment()}
+     * @param instanceCount    the number of instances
+     * @param localCenter      the center of the bounding sphere shared by all instances, in model space
+     * @param localRadius      the radius of the bounding sphere shared by all instances, in model space
+     * @param visibleInstances receives the indices of the visible instances
+     * @param commands         the indirect commands whose instance count is set to the visible count
+     * @param commandCount     the number of commands
+     * @return the number of visible instances
+     */
+    public static int cullReference(@NonNull float[] planes, @NonNull MemorySegment transforms, int instanceCount,
+                                    @NonNull Vector3fc localCenter, float localRadius,
+                                    @NonNull IntBuffer visibleInstances, @NonNull IntBuffer commands,
+                                    int commandCount) {
+        val layout = ValueLayout.JAVA_FLOAT;
+        float x = localCenter.x(), y = localCenter.y(), z = localCenter.z();
+        var visibleCount = 0;
+        for (var index = 0; index < instanceCount; index++) {
+            val base = (long) index * InstanceTransformBuffer.MATRIX_FLOATS;
+            float m00 = transforms.getAtIndex(layout, base), m01 = transforms.getAtIndex(layout, base + 1),
+                    m02 = transforms.getAtIndex(layout, base + 2);
+            float m10 = transforms.getAtIndex(layout, base + 4), m11 = transforms.getAtIndex(layout, base + 5),
+                    m12 = transforms.getAtIndex(layout, base + 6);
+            float m20 = transforms.getAtIndex(layout, base + 8), m21 = transforms.getAtIndex(layout, base + 9),
+                    m22 = transforms.getAtIndex(layout, base + 10);
+            val centerX = m00 * x + m10 * y + m20 * z + transforms.getAtIndex(layout, base + 12);
+            val centerY = m01 * x + m11 * y + m21 * z + transforms.getAtIndex(layout, base + 13);
+            val centerZ = m02 * x + m12 * y + m22 * z + transforms.getAtIndex(layout, base + 14);
+            val scaleSquared = Math.max(m00 * m00 + m01 * m01 + m02 * m02,
+                    Math.max(m10 * m10 + m11 * m11 + m12 * m12, m20 * m20 + m21 * m21 + m22 * m22));
+            val radius = localRadius * (float) Math.sqrt(scaleSquared);
+
+            var visible = true;
+            for (var p = 0; p < Frustum.PLANE_COUNT; p++) {
+                visible &= planes[p * 4] * centerX + planes[p * 4 + 1] * centerY + planes[p * 4 + 2] * centerZ
+                        + planes[p * 4 + 3] + radius >= 0;
+            }
+            if (visible) visibleInstances.put(visibleCount++, index);
+        }
+        for (var command = 0; command < commandCount; command++)
+            commands.put(command * COMMAND_INTS + 1, visibleCount);
+        return visibleCount;
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    commandCount=\{commandCount}
+                }
+                """;
+    }
+
+    @Override
+    public void close() {
+        cullShader.close();
+        commandShader.close();
+        commandBuffer.close();
+        counterBuffer.close();
+        MemoryUtil.memFree(commands);
+    }
+}
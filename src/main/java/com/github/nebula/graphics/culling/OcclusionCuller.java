@@ -0,0 +1,436 @@
+package com.github.nebula.graphics.culling;
+
+import com.github.nebula.graphics.InstanceTransformBuffer;
+import com.github.nebula.graphics.Mesh;
+import com.github.nebula.graphics.ReadPolicy;
+import com.github.nebula.graphics.util.Versions;
+import io.reactivex.rxjava3.annotations.NonNull;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import lombok.Getter;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import org.joml.Vector3fc;
+import org.joml.Vector4f;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The {@code OcclusionCuller} class rejects instances hidden behind occluders using a software rasterized,
+ * low resolution depth buffer.
+ *
+ * <p>Every frame, designated occluder meshes are added between {@link #begin(Matrix4fc)} and {@link #rasterize()}.
+ * Their triangles are projected and binned into screen tiles of {@link #TILE_SIZE} pixels, and the tiles are
+ * rasterized in parallel on a {@link ForkJoinPool}, each keeping the nearest occluder depth per pixel. Rows of a
+ * triangle are rasterized with the Vector API, evaluating the edge functions and the depth plane for several pixels
+ * at once. Afterwards a hierarchical max-depth pyramid is built, so a bounding volume is tested by reading at most
+ * a few texels of the level matching its screen size.
+ *
+ * <p>Depths are window space depths from {@code 0} (near) to {@code 1} (far). Triangles crossing the near plane are
+ * skipped and bounding volumes crossing it are reported visible, so the culler never hides visible instances because
+ * of clipping.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class OcclusionCuller {
+    /**
+     * The width and height of a tile in pixels.
+     */
+    public static final int TILE_SIZE = 32;
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final FloatVector LANE_OFFSETS;
+    /**
+     * Vertices with a clip space w below this are considered behind the near plane.
+     */
+    private static final float MIN_W = 1e-5f;
+    /**
+     * Three edge functions and the depth plane, {@code a * x + b * y + c} each.
+     */
+    private static final int TRIANGLE_FLOATS = 12;
+    private static final int INITIAL_TRIANGLE_CAPACITY = 256;
+
+    static {
+        val offsets = new float[SPECIES.length()];
+        for (var i = 0; i < offsets.length; i++) offsets[i] = i + 0.5f;
+        LANE_OFFSETS = FloatVector.fromArray(SPECIES, offsets, 0);
+    }
+
+    private final ForkJoinPool pool;
+    private final @Getter int width, height;
+    private final int tilesX, tilesY;
+    /**
+     * The levels of the max-depth pyramid, level {@code 0} being the depth buffer itself.
+     */
+    private final float[][] levels;
+    private final int[] levelWidths, levelHeights;
+    private final Matrix4f viewProjection, modelViewProjection;
+    private final Vector4f corner, sphere;
+    private float[] projected;
+    private float[] triangles;
+    /**
+     * The pixel bounds of every triangle as {@code minX, minY, maxX, maxY}, with exclusive maxima.
+     */
+    private int[] triangleBounds;
+    private @Getter int triangleCount;
+    /**
+     * The {@link Versions version} of the depth buffer, which changes with every {@link #rasterize()}.
+     */
+    private @Getter long version;
+    private final int[][] bins;
+    private final int[] binCounts;
+
+    public OcclusionCuller(int width, int height) {
+        this(width, height, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a culler with a depth buffer of the given resolution, rasterizing tiles on the given pool.
+     *
+     * @param width  the width of the depth buffer in pixels
+     * @param height the height of the depth buffer in pixels
+     * @param pool   the pool to rasterize tiles on
+     */
+    public OcclusionCuller(int width, int height, @NonNull ForkJoinPool pool) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException(STR."Invalid depth buffer size: \{width}x\{height}");
+        this.pool = pool;
+        this.width = width;
+        this.height = height;
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        this.tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+
+        var levelCount = 1;
+        for (int w = width, h = height; w > 1 || h > 1; w = (w + 1) >> 1, h = (h + 1) >> 1) levelCount++;
+        this.levels = new float[levelCount][];
+        this.levelWidths = new int[levelCount];
+        this.levelHeights = new int[levelCount];
+        for (int l = 0, w = width, h = height; l < levelCount; l++, w = (w + 1) >> 1, h = (h + 1) >> 1) {
+            levels[l] = new float[w * h];
+            levelWidths[l] = w;
+            levelHeights[l] = h;
+            Arrays.fill(levels[l], 1);
+        }
+
+        this.viewProjection = new Matrix4f();
+        this.modelViewProjection = new Matrix4f();
+        this.corner = new Vector4f();
+        this.sphere = new Vector4f();
+        this.projected = new float[INITIAL_TRIANGLE_CAPACITY * 4];
+        this.triangles = new float[INITIAL_TRIANGLE_CAPACITY * TRIANGLE_FLOATS];
+        this.triangleBounds = new int[INITIAL_TRIANGLE_CAPACITY * 4];
+        this.bins = new int[tilesX * tilesY][INITIAL_TRIANGLE_CAPACITY];
+        this.binCounts = new int[tilesX * tilesY];
+    }
+
+    /**
+     * Starts a new frame, discarding all occluders of the previous frame.
+     *
+     * @param viewProjection the view projection matrix of the camera
+     */
+    public void begin(@NonNull Matrix4fc viewProjection) {
+        this.viewProjection.set(viewProjection);
+        triangleCount = 0;
+        Arrays.fill(binCounts, 0);
+    }
+
+    /**
+     * Adds an occluder mesh whose vertex positions are the first three floats of every vertex.
+     *
+     * @param mesh         the occluder mesh
+     * @param vertexStride the number of floats per vertex
+     * @param transform    the model matrix of the occluder
+     */
+    public void addOccluder(@NonNull Mesh mesh, int vertexStride, @NonNull Matrix4fc transform) {
+        try (val vertices = mesh.getVertices(ReadPolicy.READ);
+             val indices = mesh.getIndices(ReadPolicy.READ)) {
+            addOccluder(vertices.buffer(), vertexStride, 0, indices.buffer(), transform);
+        }
+    }
+
+    /**
+     * Adds an occluder given as indexed triangle list.
+     *
+     * @param vertices       the vertices of the occluder
+     * @param vertexStride   the number of floats per vertex
+     * @param positionOffset the offset of the position inside of a vertex, in floats
+     * @param indices        three indices per triangle
+     * @param transform      the model matrix of the occluder
+     */
+    public void addOccluder(@NonNull FloatBuffer vertices, int vertexStride, int positionOffset,
+                            @NonNull IntBuffer indices, @NonNull Matrix4fc transform) {
+        viewProjection.mul(transform, modelViewProjection);
+        val vertexCount = vertices.limit() / vertexStride;
+        if (projected.length < vertexCount * 4) projected = new float[vertexCount * 4];
+
+        val m = modelViewProjection;
+        for (var v = 0; v < vertexCount; v++) {
+            val base = v * vertexStride + positionOffset;
+            float x = vertices.get(base), y = vertices.get(base + 1), z = vertices.get(base + 2);
+            val w = m.m03() * x + m.m13() * y + m.m23() * z + m.m33();
+            val p = v * 4;
+            // The fourth component flags vertices behind the near plane
+            projected[p + 3] = w;
+            if (w < MIN_W) continue;
+            projected[p] = ((m.m00() * x + m.m10() * y + m.m20() * z + m.m30()) / w * 0.5f + 0.5f) * width;
+            projected[p + 1] = ((m.m01() * x + m.m11() * y + m.m21() * z + m.m31()) / w * 0.5f + 0.5f) * height;
+            projected[p + 2] = (m.m02() * x + m.m12() * y + m.m22() * z + m.m32()) / w * 0.5f + 0.5f;
+        }
+
+        for (var i = 0; i + 2 < indices.limit(); i += 3)
+            setupTriangle(indices.get(i) * 4, indices.get(i + 1) * 4, indices.get(i + 2) * 4);
+    }
+
+    private void setupTriangle(int a, int b, int c) {
+        if (projected[a + 3] < MIN_W || projected[b + 3] < MIN_W || projected[c + 3] < MIN_W) return;
+        float x0 = projected[a], y0 = projected[a + 1], z0 = projected[a + 2];
+        float x1 = projected[b], y1 = projected[b + 1], z1 = projected[b + 2];
+        float x2 = projected[c], y2 = projected[c + 1], z2 = projected[c + 2];
+        var area = (x1 - x0) * (y2 - y0) - (y1 - y0) * (x2 - x0);
+        if (area == 0) return;
+        if (area < 0) {
+            // Occluders are rasterized regardless of their facing
+            float tx = x1, ty = y1, tz = z1;
+            x1 = x2; y1 = y2; z1 = z2;
+            x2 = tx; y2 = ty; z2 = tz;
+            area = -area;
+        }
+
+        val minX = Math.max(0, (int) Math.floor(Math.min(x0, Math.min(x1, x2))));
+        val minY = Math.max(0, (int) Math.floor(Math.min(y0, Math.min(y1, y2))));
+        val maxX = Math.min(width, (int) Math.ceil(Math.max(x0, Math.max(x1, x2))));
+        val maxY = Math.min(height, (int) Math.ceil(Math.max(y0, Math.max(y1, y2))));
+        if (minX >= maxX || minY >= maxY) return;
+
+        ensureTriangleCapacity(triangleCount + 1);
+        val t = triangleCount * TRIANGLE_FLOATS;
+        // Edge functions, positive inside: e(x, y) = a * x + b * y + c
+        float a01 = y0 - y1, b01 = x1 - x0, c01 = x0 * y1 - y0 * x1;
+        float a12 = y1 - y2, b12 = x2 - x1, c12 = x1 * y2 - y1 * x2;
+        float a20 = y2 - y0, b20 = x0 - x2, c20 = x2 * y0 - y2 * x0;
+        triangles[t] = a12;
+        triangles[t + 1] = b12;
+        triangles[t + 2] = c12;
+        triangles[t + 3] = a20;
+        triangles[t + 4] = b20;
+        triangles[t + 5] = c20;
+        triangles[t + 6] = a01;
+        triangles[t + 7] = b01;
+        triangles[t + 8] = c01;
+        // The edge functions are the unnormalized barycentric coordinates of the opposite vertices
+        triangles[t + 9] = (a12 * z0 + a20 * z1 + a01 * z2) / area;
+        triangles[t + 10] = (b12 * z0 + b20 * z1 + b01 * z2) / area;
+        triangles[t + 11] = (c12 * z0 + c20 * z1 + c01 * z2) / area;
+
+        val bounds = triangleCount * 4;
+        triangleBounds[bounds] = minX;
+        triangleBounds[bounds + 1] = minY;
+        triangleBounds[bounds + 2] = maxX;
+        triangleBounds[bounds + 3] = maxY;
+
+        for (var ty = minY / TILE_SIZE; ty <= (maxY - 1) / TILE_SIZE; ty++) {
+            for (var tx = minX / TILE_SIZE; tx <= (maxX - 1) / TILE_SIZE; tx++) {
+                val tile = ty * tilesX + tx;
+                if (binCounts[tile] == bins[tile].length) bins[tile] = Arrays.copyOf(bins[tile], binCounts[tile] << 1);
+                bins[tile][binCounts[tile]++] = triangleCount;
+            }
+        }
+        triangleCount++;
+    }
+
+    private void ensureTriangleCapacity(int required) {
+        if (required * 4 <= triangleBounds.length) return;
+        val capacity = Math.max(required, triangleBounds.length / 2);
+        triangles = Arrays.copyOf(triangles, capacity * TRIANGLE_FLOATS);
+        triangleBounds = Arrays.copyOf(triangleBounds, capacity * 4);
+    }
+
+    /**
+     * Rasterizes all occluders added since {@link #begin(Matrix4fc)} and rebuilds the depth pyramid.
+     */
+    public void rasterize() {
+        val tileCount = tilesX * tilesY;
+        if (tileCount == 1) rasterizeTile(0);
+        else pool.invoke(new TileTask(0, tileCount));
+
+        for (var l = 1; l < levels.length; l++) {
+            val source = levels[l - 1];
+            val target = levels[l];
+            int sourceWidth = levelWidths[l - 1], sourceHeight = levelHeights[l - 1];
+            int targetWidth = levelWidths[l], targetHeight = levelHeights[l];
+            for (var y = 0; y < targetHeight; y++) {
+                int y0 = 2 * y * sourceWidth, y1 = Math.min(2 * y + 1, sourceHeight - 1) * sourceWidth;
+                for (var x = 0; x < targetWidth; x++) {
+                    int x0 = 2 * x, x1 = Math.min(2 * x + 1, sourceWidth - 1);
+                    target[y * targetWidth + x] = Math.max(Math.max(source[y0 + x0], source[y0 + x1]),
+                            Math.max(source[y1 + x0], source[y1 + x1]));
+                }
+            }
+        }
+        version = Versions.next();
+    }
+
+    private void rasterizeTile(int tile) {
+        val depth = levels[0];
+        val tileX0 = (tile % tilesX) * TILE_SIZE;
+        val tileY0 = (tile / tilesX) * TILE_SIZE;
+        val tileX1 = Math.min(tileX0 + TILE_SIZE, width);
+        val tileY1 = Math.min(tileY0 + TILE_SIZE, height);
+        for (var y = tileY0; y < tileY1; y++) Arrays.fill(depth, y * width + tileX0, y * width + tileX1, 1);
+
+        val lanes = SPECIES.length();
+        val bin = bins[tile];
+        for (var i = 0; i < binCounts[tile]; i++) {
+            val triangle = bin[i];
+            val t = triangle * TRIANGLE_FLOATS;
+            val bounds = triangle * 4;
+            val x0 = Math.max(tileX0, triangleBounds[bounds]);
+            val y0 = Math.max(tileY0, triangleBounds[bounds + 1]);
+            val x1 = Math.min(tileX1, triangleBounds[bounds + 2]);
+            val y1 = Math.min(tileY1, triangleBounds[bounds + 3]);
+            float a0 = triangles[t], a1 = triangles[t + 3], a2 = triangles[t + 6], za = triangles[t + 9];
+
+            for (var y = y0; y < y1; y++) {
+                val sampleY = y + 0.5f;
+                val row0 = triangles[t + 1] * sampleY + triangles[t + 2];
+                val row1 = triangles[t + 4] * sampleY + triangles[t + 5];
+                val row2 = triangles[t + 7] * sampleY + triangles[t + 8];
+                val rowZ = triangles[t + 10] * sampleY + triangles[t + 11];
+                val rowBase = y * width;
+                for (var x = x0; x < x1; x += lanes) {
+                    val sampleX = LANE_OFFSETS.add(x);
+                    val inside = SPECIES.indexInRange(x, x1)
+                            .and(sampleX.fma(a0, row0).compare(VectorOperators.GE, 0))
+                            .and(sampleX.fma(a1, row1).compare(VectorOperators.GE, 0))
+                            .and(sampleX.fma(a2, row2).compare(VectorOperators.GE, 0));
+                    if (!inside.anyTrue()) continue;
+                    val z = sampleX.fma(za, rowZ);
+                    FloatVector.fromArray(SPECIES, depth, rowBase + x, inside)
+                            .min(z)
+                            .intoArray(depth, rowBase + x, inside);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the nearest occluder depth at a pixel of the depth buffer.
+     *
+     * @param x the x coordinate of the pixel
+     * @param y the y coordinate of the pixel
+     * @return the depth, {@code 1} if no occluder covers the pixel
+     */
+    public float getDepth(int x, int y) {
+        return levels[0][y * width + x];
+    }
+
+    /**
+     * Tests whether any part of a world space bounding box may be visible behind the occluders.
+     *
+     * @return {@code false} if the box is completely hidden
+     */
+    public boolean isVisible(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        float screenMinX = Float.POSITIVE_INFINITY, screenMinY = Float.POSITIVE_INFINITY;
+        float screenMaxX = Float.NEGATIVE_INFINITY, screenMaxY = Float.NEGATIVE_INFINITY;
+        var nearestDepth = Float.POSITIVE_INFINITY;
+        for (var i = 0; i < 8; i++) {
+            corner.set((i & 1) == 0 ? minX : maxX, (i & 2) == 0 ? minY : maxY, (i & 4) == 0 ? minZ : maxZ, 1);
+            viewProjection.transform(corner);
+            if (corner.w < MIN_W) return true;
+            val x = (corner.x / corner.w * 0.5f + 0.5f) * width;
+            val y = (corner.y / corner.w * 0.5f + 0.5f) * height;
+            screenMinX = Math.min(screenMinX, x);
+            screenMinY = Math.min(screenMinY, y);
+            screenMaxX = Math.max(screenMaxX, x);
+            screenMaxY = Math.max(screenMaxY, y);
+            nearestDepth = Math.min(nearestDepth, corner.z / corner.w * 0.5f + 0.5f);
+        }
+        if (screenMaxX < 0 || screenMaxY < 0 || screenMinX >= width || screenMinY >= height) return true;
+
+        val x0 = Math.max(0, (int) screenMinX);
+        val y0 = Math.max(0, (int) screenMinY);
+        val x1 = Math.min(width - 1, (int) screenMaxX);
+        val y1 = Math.min(height - 1, (int) screenMaxY);
+        // Pick the finest level where the rectangle covers at most two texels per axis
+        var level = 0;
+        while (level < levels.length - 1 && ((x1 >> level) - (x0 >> level) > 1 || (y1 >> level) - (y0 >> level) > 1))
+            level++;
+
+        val texels = levels[level];
+        val levelWidth = levelWidths[level];
+        for (var y = y0 >> level; y <= y1 >> level; y++) {
+            for (var x = x0 >> level; x <= x1 >> level; x++) {
+                if (nearestDepth <= texels[y * levelWidth + x]) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tests whether any part of a world space bounding sphere may be visible behind the occluders.
+     *
+     * @return {@code false} if the sphere is completely hidden
+     */
+    public boolean isVisible(float x, float y, float z, float radius) {
+        return isVisible(x - radius, y - radius, z - radius, x + radius, y + radius, z + radius);
+    }
+
+    /**
+     * Removes all occluded instances from the visible indices of {@code culler}, keeping their order.
+     *
+     * @param culler      a culler holding the instances that passed the previous culling stages
+     * @param transforms  the instance transforms
+     * @param localCenter the center of the bounding sphere shared by all instances, in model space
+     * @param localRadius the radius of the bounding sphere shared by all instances, in model space
+     * @return the number of remaining instances
+     */
+    public int cull(@NonNull FrustumCuller culler, @NonNull InstanceTransformBuffer transforms,
+                    @NonNull Vector3fc localCenter, float localRadius) {
+        val indices = culler.getVisibleIndices();
+        val count = culler.getVisibleCount();
+        var write = 0;
+        for (var i = 0; i < count; i++) {
+            val index = indices.get(i);
+            transforms.transformSphere(index, localCenter, localRadius, sphere);
+            if (isVisible(sphere.x, sphere.y, sphere.z, sphere.w)) indices.put(write++, index);
+        }
+        culler.setVisibleCount(write);
+        return write;
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    width=\{width},
+                    height=\{height},
+                    triangleCount=\{triangleCount}
+                }
+                """;
+    }
+
+    private final class TileTask extends RecursiveAction {
+        private final int from, to;
+
+        private TileTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                rasterizeTile(from);
+                return;
+            }
+            val mid = (from + to) >>> 1;
+            invokeAll(new TileTask(from, mid), new TileTask(mid, to));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.nebula.graphics.data;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code UniformBlockLayout} class computes the {@code std140} layout of a uniform block declaring the given
+ * {@link UniformAttributes} in order. Samplers cannot be part of a uniform block and are skipped; they are reported by
+ * {@link #isOpaque(GLDataType)} so callers can upload them as plain uniforms.
+ *
+ * <p>Under {@code std140} scalars are aligned to 4 bytes, two component vectors to 8 and three or four component
+ * vectors to 16. Matrices are stored as arrays of column vectors padded to 16 bytes each, as are the elements of
+ * arrays, which {@link com.github.nebula.graphics.util.ShaderUtil} reports as one attribute per element. The block
+ * size is rounded up to 16 bytes.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class UniformBlockLayout {
+    private static final int VEC4_BYTES = 16;
+
+    private final UniformAttribute[] members;
+    private final int[] offsets;
+    private final Map<String, Integer> indices;
+    /**
+     * The size of the block in bytes.
+     */
+    public final int byteSize;
+
+    /**
+     * Computes the layout of a block declaring all non-opaque attributes in order.
+     *
+     * @param attributes the uniforms of the block
+     * @throws IllegalArgumentException if an attribute has a type that is not supported in uniform blocks
+     */
+    public UniformBlockLayout(@NonNull UniformAttributes attributes) {
+        val members = new ArrayList<UniformAttribute>();
+        for (val attribute : attributes)
+            if (!isOpaque(attribute.dataType())) members.add(attribute);
+        this.members = members.toArray(new UniformAttribute[0]);
+        this.offsets = new int[this.members.length];
+        this.indices = new HashMap<>();
+
+        var offset = 0;
+        for (var i = 0; i < this.members.length; i++) {
+            val type = this.members[i].dataType();
+            // Array elements, reported as name[index], are padded to a vec4 each
+            val element = this.members[i].name().endsWith("]");
+            offset = align(offset, element ? VEC4_BYTES : alignmentOf(type));
+            offsets[i] = offset;
+            offset += element ? align(sizeOf(type), VEC4_BYTES) : sizeOf(type);
+            indices.put(this.members[i].name(), i);
+        }
+        this.byteSize = align(offset, VEC4_BYTES);
+    }
+
+    /**
+     * Checks whether values of a type are opaque handles, which can only be set as plain uniforms.
+     *
+     * @param type the type to check
+     * @return {@code true} for sampler types
+     */
+    public static boolean isOpaque(@NonNull GLDataType type) {
+        return type.name.startsWith("sampler");
+    }
+
+    private static int alignmentOf(GLDataType type) {
+        return switch (type) {
+            case FLOAT, INT -> 4;
+            case VEC2, IVEC2 -> 8;
+            case VEC3, VEC4, IVEC3, IVEC4, MAT2, MAT3, MAT4 -> VEC4_BYTES;
+            default -> throw new IllegalArgumentException(STR."Unsupported uniform block member type \{type.name}");
+        };
+    }
+
+    private static int sizeOf(GLDataType type) {
+        return switch (type) {
+            case MAT2 -> 2 * VEC4_BYTES;
+            case MAT3 -> 3 * VEC4_BYTES;
+            default -> type.byteSize;
+        };
+    }
+
+    private static int align(int offset, int alignment) {
+        return (offset + alignment - 1) / alignment * alignment;
+    }
+
+    /**
+     * Returns the number of members of the block.
+     *
+     * @return the member count
+     */
+    public int getMemberCount() {
+        return members.length;
+    }
+
+    /**
+     * Returns the member with the given index.
+     *
+     * @param index the index of the member
+     * @return the member
+     */
+    @NonNull
+    public UniformAttribute getMember(int index) {
+        return members[index];
+    }
+
+    /**
+     * Returns the byte offset of a member inside the block.
+     *
+     * @param index the index of the member
+     * @return the offset in bytes
+     */
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Looks up the index of a member by name.
+     *
+     * @param name the name of the member
+     * @return the index, or {@code -1} if the block has no member with that name
+     */
+    public int indexOf(@NonNull String name) {
+        return indices.getOrDefault(name, -1);
+    }
+
+    @Override
+    public String toString() {
+        val builder = new StringBuilder(getClass().getSimpleName()).append("{\n");
+        for (var i = 0; i < members.length; i++)
+            builder.append(STR."    \{members[i].dataType().name} \{members[i].name()} @ \{offsets[i]},\n");
+        return builder.append(STR."    byteSize=\{byteSize}\n}\n").toString();
+    }
+}
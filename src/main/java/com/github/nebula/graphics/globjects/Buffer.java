@@ -32,17 +32,49 @@ public class Buffer extends OpenGLObject {
     }
 
     /**
-     * Binds the buffer, making it the current buffer of the specified type.
+     * Binds the buffer, making it the current buffer of the specified type. The call is skipped if the buffer is
+     * bound already, as tracked by the {@link GLStateCache}.
      */
     public void bind() {
-        glBindBuffer(bufferType, id);
+        GLStateCache.current().bindBuffer(bufferType, id);
     }
 
     /**
      * Unbinds the buffer, switching back to the default buffer for the specified type.
      */
     public void unbind() {
-        glBindBuffer(bufferType, 0);
+        GLStateCache.current().bindBuffer(bufferType, 0);
+    }
+
+    /**
+     * Binds the whole buffer to an indexed binding point of its own type.
+     *
+     * @param index The binding point.
+     */
+    public void bindBase(int index) {
+        bindBase(bufferType, index);
+    }
+
+    /**
+     * Binds the whole buffer to an indexed binding point, such as a shader storage binding of a buffer that is
+     * otherwise used as draw indirect buffer.
+     *
+     * @param target The indexed buffer target.
+     * @param index  The binding point.
+     */
+    public void bindBase(int target, int index) {
+        GLStateCache.current().bindBufferBase(target, index, id);
+    }
+
+    /**
+     * Binds a range of the buffer to an indexed binding point of its own type.
+     *
+     * @param index      The binding point.
+     * @param byteOffset The offset of the range, in bytes.
+     * @param byteSize   The size of the range, in bytes.
+     */
+    public void bindRange(int index, long byteOffset, long byteSize) {
+        GLStateCache.current().bindBufferRange(bufferType, index, id, byteOffset, byteSize);
     }
 
     /**
@@ -94,6 +126,17 @@ public class Buffer extends OpenGLObject {
         glBufferData(bufferType, data * dataType.byteSize, usage);
     }
 
+    /**
+     * Allocates uninitialized storage for the buffer.
+     *
+     * @param byteSize The size of the storage, in bytes.
+     * @param usage    The buffer usage pattern indicating how the data will be accessed and modified.
+     */
+    public void ndata(long byteSize, int usage) {
+        bind();
+        glBufferData(bufferType, byteSize, usage);
+    }
+
     public void subData(float[] data, long offset) {
         bind();
         glBufferSubData(bufferType, offset * Float.BYTES, data);
@@ -114,6 +157,18 @@ public class Buffer extends OpenGLObject {
         glBufferSubData(bufferType, offset * Integer.BYTES, data);
     }
 
+    /**
+     * Updates a range of the buffer with data read directly from native memory.
+     *
+     * @param byteOffset The offset into the buffer, in bytes.
+     * @param byteSize   The number of bytes to upload.
+     * @param address    The native address of the data to upload.
+     */
+    public void nsubData(long byteOffset, long byteSize, long address) {
+        bind();
+        nglBufferSubData(bufferType, byteOffset, byteSize, address);
+    }
+
     public ByteBuffer map(int readPolicy) {
         bind();
         return glMapBuffer(bufferType, readPolicy);
@@ -141,5 +196,6 @@ public class Buffer extends OpenGLObject {
     @Override
     public void close() {
         glDeleteBuffers(id);
+        GLStateCache.current().onBufferDeleted(id);
     }
 }
\ No newline at end of file
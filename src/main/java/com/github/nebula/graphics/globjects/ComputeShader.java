@@ -0,0 +1,210 @@
+package com.github.nebula.graphics.globjects;
+
+import com.github.nebula.graphics.globjects.exceptions.ShaderCompileException;
+import com.github.nebula.graphics.globjects.exceptions.ShaderLinkageException;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.lwjgl.system.MemoryStack;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+/**
+ * <br>
+ * <h2>ComputeShader</h2>
+ * <br>
+ * The ComputeShader class represents an OpenGL program consisting of a single compute shader.
+ * <p>
+ * This class encapsulates compiling and linking the compute shader, dispatching work groups and setting the
+ * uniforms the compute passes of this library need. The local work group size is queried from the linked program,
+ * so {@link #dispatchFor(int)} can derive the number of work groups from an invocation count.
+ * </p>
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public class ComputeShader extends OpenGLObject {
+    private final UniformHandles uniformHandles;
+    private final @Getter String source;
+    private final @Getter int localSizeX, localSizeY, localSizeZ;
+    /**
+     * The active resources of the program, queried once it is linked.
+     */
+    private final @Getter ProgramInterface programInterface;
+
+    /**
+     * Creates a new ComputeShader from the given source.
+     *
+     * @param source the source code of the compute shader
+     */
+    public ComputeShader(@NonNull String source) {
+        super(glCreateProgram());
+        this.source = source;
+        this.uniformHandles = new UniformHandles(this);
+
+        val shader = glCreateShader(GL_COMPUTE_SHADER);
+        glShaderSource(shader, source);
+        glCompileShader(shader);
+        if (glGetShaderi(shader, GL_COMPILE_STATUS) == GL_FALSE) {
+            val log = glGetShaderInfoLog(shader);
+            glDeleteShader(shader);
+            throw new ShaderCompileException("Compute Shader: " + log);
+        }
+
+        glAttachShader(id, shader);
+        glLinkProgram(id);
+        glDeleteShader(shader);
+        if (glGetProgrami(id, GL_LINK_STATUS) == GL_FALSE)
+            throw new ShaderLinkageException(glGetProgramInfoLog(id));
+        this.programInterface = new ProgramInterface(id);
+        uniformHandles.reflect(programInterface);
+
+        try (val stack = MemoryStack.stackPush()) {
+            val localSize = stack.mallocInt(3);
+            glGetProgramiv(id, GL_COMPUTE_WORK_GROUP_SIZE, localSize);
+            this.localSizeX = localSize.get(0);
+            this.localSizeY = localSize.get(1);
+            this.localSizeZ = localSize.get(2);
+        }
+    }
+
+    /**
+     * Makes this program the current program, skipping the call if it is current already.
+     */
+    @Override
+    public void bind() {
+        GLStateCache.current().useProgram(id);
+    }
+
+    @Override
+    public void unbind() {
+        if (GLStateCache.current().getProgram() == id)
+            GLStateCache.current().useProgram(0);
+    }
+
+    /**
+     * Binds this program and dispatches the given number of work groups.
+     *
+     * @param groupsX the number of work groups in x direction
+     * @param groupsY the number of work groups in y direction
+     * @param groupsZ the number of work groups in z direction
+     */
+    public void dispatch(int groupsX, int groupsY, int groupsZ) {
+        bind();
+        glDispatchCompute(groupsX, groupsY, groupsZ);
+    }
+
+    /**
+     * Binds this program and dispatches enough one dimensional work groups to cover {@code invocations} invocations.
+     * The shader is responsible for ignoring the invocations past the end.
+     *
+     * @param invocations the minimum number of invocations
+     */
+    public void dispatchFor(int invocations) {
+        if (invocations <= 0) return;
+        dispatch((invocations + localSizeX - 1) / localSizeX, 1, 1);
+    }
+
+    /**
+     * Resolves the specified uniform variable into a {@link UniformHandle}. The handles of all active uniforms are
+     * resolved from the {@link ProgramInterface} when the program is linked, so this is a map lookup; per frame
+     * callers should still keep the handle and pass it to the upload methods.
+     *
+     * @param uniformName the name of the uniform variable
+     * @return the handle of the uniform variable
+     */
+    public UniformHandle getUniformHandle(@NonNull String uniformName) {
+        return uniformHandles.get(uniformName);
+    }
+
+    /**
+     * Retrieves the location of the specified uniform variable.
+     *
+     * @param uniformName the name of the uniform variable
+     * @return the location of the uniform variable, or {@code -1} if it is not active
+     */
+    public int getUniformLocation(@NonNull String uniformName) {
+        return getUniformHandle(uniformName).getLocation();
+    }
+
+    /**
+     * Binds this program for an upload to the specified uniform and returns its location.
+     */
+    private int prepareUpload(UniformHandle uniform) {
+        if (uniform.getProgram() != this)
+            throw new IllegalArgumentException(STR."Uniform \{uniform.getName()} belongs to another program");
+        bind();
+        return uniform.getLocation();
+    }
+
+    public void uploadUniformInt(@NonNull String uniformName, int value) {
+        uploadUniformInt(getUniformHandle(uniformName), value);
+    }
+
+    public void uploadUniformInt(@NonNull UniformHandle uniform, int value) {
+        glUniform1i(prepareUpload(uniform), value);
+    }
+
+    public void uploadUniformUInt(@NonNull String uniformName, int value) {
+        uploadUniformUInt(getUniformHandle(uniformName), value);
+    }
+
+    public void uploadUniformUInt(@NonNull UniformHandle uniform, int value) {
+        glUniform1ui(prepareUpload(uniform), value);
+    }
+
+    public void uploadUniformFloat(@NonNull String uniformName, float value) {
+        uploadUniformFloat(getUniformHandle(uniformName), value);
+    }
+
+    public void uploadUniformFloat(@NonNull UniformHandle uniform, float value) {
+        glUniform1f(prepareUpload(uniform), value);
+    }
+
+    public void uploadUniformVec4f(@NonNull String uniformName, float x, float y, float z, float w) {
+        uploadUniformVec4f(getUniformHandle(uniformName), x, y, z, w);
+    }
+
+    public void uploadUniformVec4f(@NonNull UniformHandle uniform, float x, float y, float z, float w) {
+        glUniform4f(prepareUpload(uniform), x, y, z, w);
+    }
+
+    /**
+     * Uploads an array of {@code vec4}s, packed as four consecutive floats each.
+     *
+     * @param uniformName the name of the uniform array
+     * @param values      the packed vectors
+     */
+    public void uploadUniformVec4fArray(@NonNull String uniformName, @NonNull float[] values) {
+        uploadUniformVec4fArray(getUniformHandle(uniformName), values);
+    }
+
+    /**
+     * Uploads an array of {@code vec4}s, packed as four consecutive floats each.
+     *
+     * @param uniform the handle of the uniform array
+     * @param values  the packed vectors
+     */
+    public void uploadUniformVec4fArray(@NonNull UniformHandle uniform, @NonNull float[] values) {
+        glUniform4fv(prepareUpload(uniform), values);
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    id=\{id},
+                    localSize=(\{localSizeX}, \{localSizeY}, \{localSizeZ})
+                }
+                """;
+    }
+
+    /**
+     * Releases associated OpenGL resources by deleting the program.
+     */
+    @Override
+    public void close() {
+        glDeleteProgram(id);
+        GLStateCache.current().onProgramDeleted(id);
+    }
+}
@@ -84,14 +84,14 @@ public class FrameBuffer extends OpenGLObject {
      * Binds the framebuffer to the OpenGL context.
      */
     public void bind() {
-        glBindFramebuffer(GL_FRAMEBUFFER, id);
+        GLStateCache.current().bindFramebuffer(GL_FRAMEBUFFER, id);
     }
 
     /**
      * Unbinds the framebuffer from the OpenGL context.
      */
     public void unbind() {
-        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        GLStateCache.current().bindFramebuffer(GL_FRAMEBUFFER, 0);
     }
 
     /**
@@ -100,5 +100,6 @@ public class FrameBuffer extends OpenGLObject {
     @Override
     public void close() {
         glDeleteFramebuffers(id);
+        GLStateCache.current().onFramebufferDeleted(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,508 @@
+package com.github.nebula.graphics.globjects;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+/**
+ * The {@code GLStateCache} class tracks the binding and fixed function state of an OpenGL context, so that calls
+ * which would not change the state can be skipped. All wrappers of this package route their binds through the cache
+ * of the context current on the calling thread, which is installed by
+ * {@link com.github.nebula.graphics.window.Window#createGLCapabilities()}.
+ *
+ * <p>The cache covers
+ * <ul>
+ *     <li>the buffer targets, including the indexed uniform, shader storage, atomic counter and transform feedback
+ *     bindings,</li>
+ *     <li>the active texture unit and the textures bound to every unit,</li>
+ *     <li>the vertex array, the program, the draw and read framebuffers and the renderbuffer,</li>
+ *     <li>the viewport, blending and depth testing.</li>
+ * </ul>
+ * State the cache does not know yet, because it was never set through the cache or was changed behind its back, is
+ * unknown, and the next call setting it is always issued. Code that calls OpenGL directly has to
+ * {@link #invalidate()} the cache afterward.
+ *
+ * <p>How effective the cache is can be read from the number of {@link #getIssuedCalls() issued} and
+ * {@link #getAvoidedCalls() avoided} calls.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class GLStateCache {
+    private static final ThreadLocal<GLStateCache> CURRENT = ThreadLocal.withInitial(GLStateCache::new);
+    /**
+     * The value of state that has to be set before it can be compared.
+     */
+    private static final int UNKNOWN = -1;
+    private static final int[] BUFFER_TARGETS = {
+            GL_ARRAY_BUFFER, GL_ELEMENT_ARRAY_BUFFER, GL_UNIFORM_BUFFER, GL_SHADER_STORAGE_BUFFER,
+            GL_DRAW_INDIRECT_BUFFER, GL_DISPATCH_INDIRECT_BUFFER, GL_COPY_READ_BUFFER, GL_COPY_WRITE_BUFFER,
+            GL_PIXEL_PACK_BUFFER, GL_PIXEL_UNPACK_BUFFER, GL_TEXTURE_BUFFER, GL_ATOMIC_COUNTER_BUFFER,
+            GL_TRANSFORM_FEEDBACK_BUFFER
+    };
+    private static final int[] INDEXED_BUFFER_TARGETS = {
+            GL_UNIFORM_BUFFER, GL_SHADER_STORAGE_BUFFER, GL_ATOMIC_COUNTER_BUFFER, GL_TRANSFORM_FEEDBACK_BUFFER
+    };
+    private static final int[] TEXTURE_TARGETS = {
+            GL_TEXTURE_2D, GL_TEXTURE_2D_ARRAY, GL_TEXTURE_3D, GL_TEXTURE_CUBE_MAP, GL_TEXTURE_2D_MULTISAMPLE,
+            GL_TEXTURE_1D, GL_TEXTURE_RECTANGLE, GL_TEXTURE_BUFFER
+    };
+
+    private final int[] buffers;
+    /**
+     * The indexed bindings per indexed target, each binding stored as buffer, offset and size. A size of {@code -1}
+     * marks a binding of the whole buffer.
+     */
+    private final int[][] indexedBuffers;
+    private final long[][] indexedRanges;
+    private int activeTexture;
+    /**
+     * The texture bound to each target of each unit, one row of {@link #TEXTURE_TARGETS} per unit.
+     */
+    private int[] textures;
+    private @Getter int vertexArray, program, drawFramebuffer, readFramebuffer, renderbuffer;
+    private int viewportX, viewportY, viewportWidth, viewportHeight;
+    private int blend, depthTest, depthMask;
+    private int blendSourceRgb, blendDestinationRgb, blendSourceAlpha, blendDestinationAlpha;
+    private int depthFunc;
+    /**
+     * The number of calls forwarded to OpenGL since the counters were reset.
+     */
+    private @Getter long issuedCalls;
+    /**
+     * The number of calls skipped because they would not have changed the state since the counters were reset.
+     */
+    private @Getter long avoidedCalls;
+
+    /**
+     * Creates a cache for a context whose state is entirely unknown.
+     */
+    public GLStateCache() {
+        this.buffers = new int[BUFFER_TARGETS.length];
+        this.indexedBuffers = new int[INDEXED_BUFFER_TARGETS.length][0];
+        this.indexedRanges = new long[INDEXED_BUFFER_TARGETS.length][0];
+        this.textures = new int[0];
+        invalidate();
+    }
+
+    /**
+     * Returns the cache of the context current on the calling thread. Threads that never had a cache installed get
+     * their own.
+     *
+     * @return the cache of the current context
+     */
+    @NonNull
+    public static GLStateCache current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Installs the cache of the context that was just made current on the calling thread.
+     *
+     * @param cache the cache of the current context
+     */
+    public static void makeCurrent(@NonNull GLStateCache cache) {
+        CURRENT.set(cache);
+    }
+
+    /**
+     * Forgets all state, so that the next call setting any state is issued. Has to be called after OpenGL was used
+     * without going through the cache.
+     */
+    public void invalidate() {
+        Arrays.fill(buffers, UNKNOWN);
+        for (val bindings : indexedBuffers) Arrays.fill(bindings, UNKNOWN);
+        activeTexture = UNKNOWN;
+        Arrays.fill(textures, UNKNOWN);
+        vertexArray = program = drawFramebuffer = readFramebuffer = renderbuffer = UNKNOWN;
+        viewportX = viewportY = viewportWidth = viewportHeight = UNKNOWN;
+        blend = depthTest = depthMask = UNKNOWN;
+        blendSourceRgb = blendDestinationRgb = blendSourceAlpha = blendDestinationAlpha = UNKNOWN;
+        depthFunc = UNKNOWN;
+    }
+
+    /**
+     * Resets the counters of issued and avoided calls to zero.
+     */
+    public void resetCounters() {
+        issuedCalls = 0;
+        avoidedCalls = 0;
+    }
+
+    private boolean changes(int cached, int value) {
+        if (cached == value) {
+            avoidedCalls++;
+            return false;
+        }
+        issuedCalls++;
+        return true;
+    }
+
+    /**
+     * Binds a buffer to a target, as {@code glBindBuffer}.
+     *
+     * @param target the buffer target
+     * @param buffer the buffer, or {@code 0}
+     */
+    public void bindBuffer(int target, int buffer) {
+        val slot = indexOf(BUFFER_TARGETS, target);
+        if (slot < 0) {
+            issuedCalls++;
+            glBindBuffer(target, buffer);
+            return;
+        }
+        if (!changes(buffers[slot], buffer)) return;
+        glBindBuffer(target, buffer);
+        buffers[slot] = buffer;
+    }
+
+    /**
+     * Binds a whole buffer to an indexed binding point, as {@code glBindBufferBase}. Like OpenGL, this also binds the
+     * buffer to the target itself.
+     *
+     * @param target the indexed buffer target
+     * @param index  the binding point
+     * @param buffer the buffer, or {@code 0}
+     */
+    public void bindBufferBase(int target, int index, int buffer) {
+        bindIndexed(target, index, buffer, 0, -1);
+    }
+
+    /**
+     * Binds a range of a buffer to an indexed binding point, as {@code glBindBufferRange}. Like OpenGL, this also
+     * binds the buffer to the target itself.
+     *
+     * @param target the indexed buffer target
+     * @param index  the binding point
+     * @param buffer the buffer
+     * @param offset the offset of the range in bytes
+     * @param size   the size of the range in bytes
+     */
+    public void bindBufferRange(int target, int index, int buffer, long offset, long size) {
+        bindIndexed(target, index, buffer, offset, size);
+    }
+
+    private void bindIndexed(int target, int index, int buffer, long offset, long size) {
+        val slot = indexOf(INDEXED_BUFFER_TARGETS, target);
+        if (slot >= 0 && index < indexedBuffers[slot].length && indexedBuffers[slot][index] == buffer
+                && indexedRanges[slot][index * 2] == offset && indexedRanges[slot][index * 2 + 1] == size) {
+            avoidedCalls++;
+            return;
+        }
+        issuedCalls++;
+        if (size < 0) glBindBufferBase(target, index, buffer);
+        else glBindBufferRange(target, index, buffer, offset, size);
+
+        val genericSlot = indexOf(BUFFER_TARGETS, target);
+        if (genericSlot >= 0) buffers[genericSlot] = buffer;
+        if (slot < 0) return;
+        if (index >= indexedBuffers[slot].length) {
+            val oldLength = indexedBuffers[slot].length;
+            indexedBuffers[slot] = Arrays.copyOf(indexedBuffers[slot], Math.max(index + 1, oldLength * 2));
+            Arrays.fill(indexedBuffers[slot], oldLength, indexedBuffers[slot].length, UNKNOWN);
+            indexedRanges[slot] = Arrays.copyOf(indexedRanges[slot], indexedBuffers[slot].length * 2);
+        }
+        indexedBuffers[slot][index] = buffer;
+        indexedRanges[slot][index * 2] = offset;
+        indexedRanges[slot][index * 2 + 1] = size;
+    }
+
+    /**
+     * Returns the buffer bound to a target.
+     *
+     * @param target the buffer target
+     * @return the bound buffer, or {@code -1} if it is not known
+     */
+    public int getBuffer(int target) {
+        val slot = indexOf(BUFFER_TARGETS, target);
+        return slot < 0 ? UNKNOWN : buffers[slot];
+    }
+
+    /**
+     * Forgets every binding of a buffer that is being deleted. OpenGL resets those bindings, and the name may be
+     * reused by a new buffer.
+     *
+     * @param buffer the deleted buffer
+     */
+    public void onBufferDeleted(int buffer) {
+        for (var i = 0; i < buffers.length; i++) if (buffers[i] == buffer) buffers[i] = UNKNOWN;
+        for (val bindings : indexedBuffers)
+            for (var i = 0; i < bindings.length; i++) if (bindings[i] == buffer) bindings[i] = UNKNOWN;
+    }
+
+    /**
+     * Selects the active texture unit, as {@code glActiveTexture}.
+     *
+     * @param unit the index of the unit, starting at {@code 0} for {@code GL_TEXTURE0}
+     */
+    public void activeTexture(int unit) {
+        if (!changes(activeTexture, unit)) return;
+        glActiveTexture(GL_TEXTURE0 + unit);
+        activeTexture = unit;
+    }
+
+    /**
+     * Binds a texture to a target of the active unit, as {@code glBindTexture}.
+     *
+     * @param target  the texture target
+     * @param texture the texture, or {@code 0}
+     */
+    public void bindTexture(int target, int texture) {
+        val slot = indexOf(TEXTURE_TARGETS, target);
+        if (activeTexture == UNKNOWN || slot < 0) {
+            issuedCalls++;
+            glBindTexture(target, texture);
+            return;
+        }
+        val index = textureIndex(activeTexture, slot);
+        if (!changes(textures[index], texture)) return;
+        glBindTexture(target, texture);
+        textures[index] = texture;
+    }
+
+    /**
+     * Binds a texture to a target of the given unit. The active unit is only changed if the texture is not bound to
+     * the unit already.
+     *
+     * @param unit    the index of the unit, starting at {@code 0} for {@code GL_TEXTURE0}
+     * @param target  the texture target
+     * @param texture the texture, or {@code 0}
+     */
+    public void bindTextureUnit(int unit, int target, int texture) {
+        val slot = indexOf(TEXTURE_TARGETS, target);
+        if (slot >= 0 && textures[textureIndex(unit, slot)] == texture) {
+            avoidedCalls++;
+            return;
+        }
+        activeTexture(unit);
+        bindTexture(target, texture);
+    }
+
+    /**
+     * Forgets every binding of a texture that is being deleted.
+     *
+     * @param texture the deleted texture
+     */
+    public void onTextureDeleted(int texture) {
+        for (var i = 0; i < textures.length; i++) if (textures[i] == texture) textures[i] = UNKNOWN;
+    }
+
+    /**
+     * Returns the index of a texture binding, growing the bindings to hold the unit.
+     */
+    private int textureIndex(int unit, int slot) {
+        val index = unit * TEXTURE_TARGETS.length + slot;
+        if (index >= textures.length) {
+            val oldLength = textures.length;
+            textures = Arrays.copyOf(textures, Math.max((unit + 1) * TEXTURE_TARGETS.length, oldLength * 2));
+            Arrays.fill(textures, oldLength, textures.length, UNKNOWN);
+        }
+        return index;
+    }
+
+    /**
+     * Binds a vertex array, as {@code glBindVertexArray}. The element array buffer binding is part of the vertex
+     * array, so it becomes unknown when the vertex array changes.
+     *
+     * @param vertexArray the vertex array, or {@code 0}
+     */
+    public void bindVertexArray(int vertexArray) {
+        if (!changes(this.vertexArray, vertexArray)) return;
+        glBindVertexArray(vertexArray);
+        this.vertexArray = vertexArray;
+        buffers[indexOf(BUFFER_TARGETS, GL_ELEMENT_ARRAY_BUFFER)] = UNKNOWN;
+    }
+
+    /**
+     * Forgets a vertex array that is being deleted.
+     *
+     * @param vertexArray the deleted vertex array
+     */
+    public void onVertexArrayDeleted(int vertexArray) {
+        if (this.vertexArray == vertexArray) {
+            this.vertexArray = UNKNOWN;
+            buffers[indexOf(BUFFER_TARGETS, GL_ELEMENT_ARRAY_BUFFER)] = UNKNOWN;
+        }
+    }
+
+    /**
+     * Makes a program current, as {@code glUseProgram}.
+     *
+     * @param program the program, or {@code 0}
+     */
+    public void useProgram(int program) {
+        if (!changes(this.program, program)) return;
+        glUseProgram(program);
+        this.program = program;
+    }
+
+    /**
+     * Forgets a program that is being deleted.
+     *
+     * @param program the deleted program
+     */
+    public void onProgramDeleted(int program) {
+        if (this.program == program) this.program = UNKNOWN;
+    }
+
+    /**
+     * Binds a framebuffer, as {@code glBindFramebuffer}. {@code GL_FRAMEBUFFER} binds both the draw and the read
+     * framebuffer.
+     *
+     * @param target      {@code GL_FRAMEBUFFER}, {@code GL_DRAW_FRAMEBUFFER} or {@code GL_READ_FRAMEBUFFER}
+     * @param framebuffer the framebuffer, or {@code 0} for the default framebuffer
+     */
+    public void bindFramebuffer(int target, int framebuffer) {
+        val draw = target != GL_READ_FRAMEBUFFER;
+        val read = target != GL_DRAW_FRAMEBUFFER;
+        if ((!draw || drawFramebuffer == framebuffer) && (!read || readFramebuffer == framebuffer)) {
+            avoidedCalls++;
+            return;
+        }
+        issuedCalls++;
+        glBindFramebuffer(target, framebuffer);
+        if (draw) drawFramebuffer = framebuffer;
+        if (read) readFramebuffer = framebuffer;
+    }
+
+    /**
+     * Forgets a framebuffer that is being deleted.
+     *
+     * @param framebuffer the deleted framebuffer
+     */
+    public void onFramebufferDeleted(int framebuffer) {
+        if (drawFramebuffer == framebuffer) drawFramebuffer = UNKNOWN;
+        if (readFramebuffer == framebuffer) readFramebuffer = UNKNOWN;
+    }
+
+    /**
+     * Binds a renderbuffer, as {@code glBindRenderbuffer}.
+     *
+     * @param renderbuffer the renderbuffer, or {@code 0}
+     */
+    public void bindRenderbuffer(int renderbuffer) {
+        if (!changes(this.renderbuffer, renderbuffer)) return;
+        glBindRenderbuffer(GL_RENDERBUFFER, renderbuffer);
+        this.renderbuffer = renderbuffer;
+    }
+
+    /**
+     * Forgets a renderbuffer that is being deleted.
+     *
+     * @param renderbuffer the deleted renderbuffer
+     */
+    public void onRenderbufferDeleted(int renderbuffer) {
+        if (this.renderbuffer == renderbuffer) this.renderbuffer = UNKNOWN;
+    }
+
+    /**
+     * Sets the viewport, as {@code glViewport}.
+     *
+     * @param x      the left edge of the viewport
+     * @param y      the bottom edge of the viewport
+     * @param width  the width of the viewport
+     * @param height the height of the viewport
+     */
+    public void viewport(int x, int y, int width, int height) {
+        if (viewportX == x && viewportY == y && viewportWidth == width && viewportHeight == height) {
+            avoidedCalls++;
+            return;
+        }
+        issuedCalls++;
+        glViewport(x, y, width, height);
+        viewportX = x;
+        viewportY = y;
+        viewportWidth = width;
+        viewportHeight = height;
+    }
+
+    /**
+     * Enables or disables blending, as {@code glEnable(GL_BLEND)} or {@code glDisable(GL_BLEND)}.
+     *
+     * @param enabled whether blending is enabled
+     */
+    public void setBlend(boolean enabled) {
+        blend = setCapability(GL_BLEND, blend, enabled);
+    }
+
+    /**
+     * Sets the blend factors for color and alpha, as {@code glBlendFunc}.
+     *
+     * @param source      the source factor
+     * @param destination the destination factor
+     */
+    public void blendFunc(int source, int destination) {
+        blendFuncSeparate(source, destination, source, destination);
+    }
+
+    /**
+     * Sets the blend factors for color and alpha separately, as {@code glBlendFuncSeparate}.
+     *
+     * @param sourceRgb        the source factor of the color
+     * @param destinationRgb   the destination factor of the color
+     * @param sourceAlpha      the source factor of the alpha
+     * @param destinationAlpha the destination factor of the alpha
+     */
+    public void blendFuncSeparate(int sourceRgb, int destinationRgb, int sourceAlpha, int destinationAlpha) {
+        if (blendSourceRgb == sourceRgb && blendDestinationRgb == destinationRgb
+                && blendSourceAlpha == sourceAlpha && blendDestinationAlpha == destinationAlpha) {
+            avoidedCalls++;
+            return;
+        }
+        issuedCalls++;
+        glBlendFuncSeparate(sourceRgb, destinationRgb, sourceAlpha, destinationAlpha);
+        blendSourceRgb = sourceRgb;
+        blendDestinationRgb = destinationRgb;
+        blendSourceAlpha = sourceAlpha;
+        blendDestinationAlpha = destinationAlpha;
+    }
+
+    /**
+     * Enables or disables depth testing, as {@code glEnable(GL_DEPTH_TEST)} or {@code glDisable(GL_DEPTH_TEST)}.
+     *
+     * @param enabled whether depth testing is enabled
+     */
+    public void setDepthTest(boolean enabled) {
+        depthTest = setCapability(GL_DEPTH_TEST, depthTest, enabled);
+    }
+
+    /**
+     * Sets the depth comparison, as {@code glDepthFunc}.
+     *
+     * @param func the comparison function
+     */
+    public void depthFunc(int func) {
+        if (!changes(depthFunc, func)) return;
+        glDepthFunc(func);
+        depthFunc = func;
+    }
+
+    /**
+     * Enables or disables writing to the depth buffer, as {@code glDepthMask}.
+     *
+     * @param enabled whether depth values are written
+     */
+    public void depthMask(boolean enabled) {
+        val value = enabled ? GL_TRUE : GL_FALSE;
+        if (!changes(depthMask, value)) return;
+        glDepthMask(enabled);
+        depthMask = value;
+    }
+
+    private int setCapability(int capability, int cached, boolean enabled) {
+        val value = enabled ? GL_TRUE : GL_FALSE;
+        if (!changes(cached, value)) return cached;
+        if (enabled) glEnable(capability);
+        else glDisable(capability);
+        return value;
+    }
+
+    private static int indexOf(int[] targets, int target) {
+        for (var i = 0; i < targets.length; i++) if (targets[i] == target) return i;
+        return -1;
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.nebula.graphics.globjects;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.lwjgl.opengl.GL41C.*;
+
+/**
+ * The {@code ProgramBinaryCache} class stores linked programs in a directory using {@code glGetProgramBinary}, so
+ * later runs can load them with {@code glProgramBinary} instead of compiling, linking and validating their sources.
+ *
+ * <p>Entries are keyed by a SHA-256 hash of the sources of all stages together with the vendor, renderer and version
+ * strings of the driver, as binaries are only valid for the driver that produced them. A driver may still reject a
+ * binary, for example after an update that kept its version string; such entries are deleted and the caller falls back
+ * to compiling. Hits, misses and rejected binaries are counted for diagnostics.
+ *
+ * <p>A cache may be shared by any number of programs and threads. Its methods must be called with a current context.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class ProgramBinaryCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgramBinaryCache.class);
+    private static final String EXTENSION = ".bin";
+    /**
+     * Magic number at the start of every entry, followed by the binary format and the binary itself.
+     */
+    private static final int MAGIC = 0x4E425043;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final @Getter Path directory;
+    private final AtomicLong hits, misses, rejected;
+    private volatile String driver;
+    private volatile Boolean supported;
+
+    /**
+     * Creates a cache storing its entries in the given directory, which is created when the first entry is stored.
+     *
+     * @param directory the cache directory
+     */
+    public ProgramBinaryCache(@NonNull Path directory) {
+        this.directory = directory;
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.rejected = new AtomicLong();
+    }
+
+    /**
+     * Computes the key of a program for the current driver.
+     *
+     * @param sources the sources of all stages of the program, in a fixed order
+     * @return the key of the program
+     */
+    @NonNull
+    public String keyOf(@NonNull String @NonNull ... sources) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(driver().getBytes(StandardCharsets.UTF_8));
+        for (val source : sources) {
+            // Separates the stages, so moving code from one stage into another changes the key
+            digest.update((byte) 0);
+            digest.update(source.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String driver() {
+        var driver = this.driver;
+        if (driver == null) {
+            driver = STR."\{glGetString(GL_VENDOR)}\n\{glGetString(GL_RENDERER)}\n\{glGetString(GL_VERSION)}";
+            this.driver = driver;
+        }
+        return driver;
+    }
+
+    /**
+     * Checks whether the driver supports at least one program binary format. Without one, every lookup is a miss and
+     * nothing is stored.
+     *
+     * @return {@code true} if program binaries are supported
+     */
+    public boolean isSupported() {
+        var supported = this.supported;
+        if (supported == null) {
+            supported = glGetInteger(GL_NUM_PROGRAM_BINARY_FORMATS) > 0;
+            this.supported = supported;
+        }
+        return supported;
+    }
+
+    private Path pathOf(String key) {
+        return directory.resolve(key + EXTENSION);
+    }
+
+    /**
+     * Tries to load the binary stored under a key into a program.
+     *
+     * @param program the program to load the binary into
+     * @param key     the key of the program
+     * @return {@code true} if the program was loaded and linked successfully
+     */
+    public boolean load(int program, @NonNull String key) {
+        if (!isSupported()) {
+            misses.incrementAndGet();
+            return false;
+        }
+        val path = pathOf(key);
+        ByteBuffer entry = null;
+        try (val channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            val size = channel.size();
+            if (size <= HEADER_BYTES || size > Integer.MAX_VALUE) return reject(path);
+            entry = MemoryUtil.memAlloc((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            while (entry.hasRemaining())
+                if (channel.read(entry) < 0) return reject(path);
+            entry.flip();
+            if (entry.getInt() != MAGIC) return reject(path);
+            val format = entry.getInt();
+            glProgramBinary(program, format, entry);
+            if (glGetProgrami(program, GL_LINK_STATUS) == GL_FALSE) return reject(path);
+            hits.incrementAndGet();
+            return true;
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return false;
+        } catch (IOException e) {
+            LOGGER.warn("Could not read program binary {}", path, e);
+            misses.incrementAndGet();
+            return false;
+        } finally {
+            MemoryUtil.memFree(entry);
+        }
+    }
+
+    private boolean reject(Path path) {
+        rejected.incrementAndGet();
+        misses.incrementAndGet();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete rejected program binary {}", path, e);
+        }
+        return false;
+    }
+
+    /**
+     * Asks the driver to keep the binary of a program retrievable. Has to be called before the program is linked.
+     *
+     * @param program the program that will be stored
+     */
+    public void prepare(int program) {
+        if (isSupported()) glProgramParameteri(program, GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL_TRUE);
+    }
+
+    /**
+     * Stores the binary of a linked program under a key. Failures are logged and otherwise ignored, as the cache
+     * only speeds up later runs.
+     *
+     * @param program the linked program
+     * @param key     the key of the program
+     */
+    public void store(int program, @NonNull String key) {
+        if (!isSupported()) return;
+        val length = glGetProgrami(program, GL_PROGRAM_BINARY_LENGTH);
+        if (length <= 0) return;
+
+        val path = pathOf(key);
+        val entry = MemoryUtil.memAlloc(HEADER_BYTES + length).order(ByteOrder.LITTLE_ENDIAN);
+        try (val stack = MemoryStack.stackPush()) {
+            val format = stack.mallocInt(1);
+            glGetProgramBinary(program, null, format, entry.position(HEADER_BYTES));
+            entry.putInt(0, MAGIC).putInt(Integer.BYTES, format.get(0)).position(0);
+
+            Files.createDirectories(directory);
+            // Writing to a temporary file first keeps concurrent readers from seeing partial entries
+            val temporary = Files.createTempFile(directory, key, ".tmp");
+            try {
+                try (val channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    while (entry.hasRemaining()) channel.write(entry);
+                }
+                move(temporary, path);
+            } finally {
+                // Only left behind if writing or moving failed
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not write program binary {}", path, e);
+        } finally {
+            MemoryUtil.memFree(entry);
+        }
+    }
+
+    /**
+     * Replaces the entry at {@code target} with {@code source}, atomically if the file system supports it. Otherwise
+     * readers may see a partial entry, which {@link #load} rejects.
+     */
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the number of programs loaded from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of programs that had to be compiled, including those whose binary was rejected.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of stored binaries that were corrupt or rejected by the driver.
+     *
+     * @return the number of rejected binaries
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public String toString() {
+        return STR."\{getClass().getSimpleName()}{directory=\{directory}, hits=\{getHits()}, misses=\{getMisses()}, rejected=\{getRejected()}}";
+    }
+}
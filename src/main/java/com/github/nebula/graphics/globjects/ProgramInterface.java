@@ -0,0 +1,205 @@
+package com.github.nebula.graphics.globjects;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.val;
+import org.lwjgl.system.MemoryStack;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+/**
+ * The {@code ProgramInterface} class holds the active resources of a linked program, as reported by
+ * {@code glGetProgramInterfaceiv} and {@code glGetProgramResource*}. Unlike the declarations parsed from the sources,
+ * these are the resources the linker actually kept, with the locations, offsets and strides it assigned.
+ *
+ * <p>Every interface is queried once, when the program has been linked, and stored in flat arrays. Looking up a
+ * resource by name is meant for setup code; hot paths keep the index and read its properties by
+ * {@link Resources#get(int, Property) index}.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class ProgramInterface {
+    /**
+     * The active vertex inputs.
+     */
+    public final Resources inputs;
+    /**
+     * The active uniforms, both of the default block and of uniform blocks.
+     */
+    public final Resources uniforms;
+    /**
+     * The active uniform blocks. The index of a block is its uniform block index.
+     */
+    public final Resources uniformBlocks;
+    /**
+     * The active shader storage blocks. The index of a block is its shader storage block index.
+     */
+    public final Resources storageBlocks;
+    /**
+     * The active members of shader storage blocks.
+     */
+    public final Resources bufferVariables;
+
+    /**
+     * A property of a program resource, which is available on the interfaces listed with each constant.
+     */
+    public enum Property {
+        /**
+         * The data type as OpenGL enum, such as {@code GL_FLOAT_VEC3}; inputs, uniforms and buffer variables.
+         */
+        TYPE(GL_TYPE),
+        /**
+         * The number of array elements, or {@code 1} for variables that are no arrays; inputs, uniforms and buffer
+         * variables.
+         */
+        ARRAY_SIZE(GL_ARRAY_SIZE),
+        /**
+         * The location, or {@code -1} for uniforms in blocks; inputs and uniforms.
+         */
+        LOCATION(GL_LOCATION),
+        /**
+         * The index of the enclosing block, or {@code -1} for uniforms of the default block; uniforms and buffer
+         * variables.
+         */
+        BLOCK_INDEX(GL_BLOCK_INDEX),
+        /**
+         * The byte offset within the enclosing block; uniforms and buffer variables.
+         */
+        OFFSET(GL_OFFSET),
+        /**
+         * The bytes between array elements; uniforms and buffer variables.
+         */
+        ARRAY_STRIDE(GL_ARRAY_STRIDE),
+        /**
+         * The bytes between matrix columns; uniforms and buffer variables.
+         */
+        MATRIX_STRIDE(GL_MATRIX_STRIDE),
+        /**
+         * The buffer binding point; uniform and shader storage blocks.
+         */
+        BUFFER_BINDING(GL_BUFFER_BINDING),
+        /**
+         * The minimum size in bytes of a buffer backing the block; uniform and shader storage blocks.
+         */
+        BUFFER_DATA_SIZE(GL_BUFFER_DATA_SIZE);
+
+        private final int glProperty;
+
+        Property(int glProperty) {
+            this.glProperty = glProperty;
+        }
+    }
+
+    /**
+     * Queries the active resources of a program.
+     *
+     * @param program the id of a successfully linked program
+     */
+    public ProgramInterface(int program) {
+        this.inputs = new Resources(program, GL_PROGRAM_INPUT,
+                Property.TYPE, Property.ARRAY_SIZE, Property.LOCATION);
+        this.uniforms = new Resources(program, GL_UNIFORM,
+                Property.TYPE, Property.ARRAY_SIZE, Property.LOCATION, Property.BLOCK_INDEX, Property.OFFSET,
+                Property.ARRAY_STRIDE, Property.MATRIX_STRIDE);
+        this.uniformBlocks = new Resources(program, GL_UNIFORM_BLOCK,
+                Property.BUFFER_BINDING, Property.BUFFER_DATA_SIZE);
+        this.storageBlocks = new Resources(program, GL_SHADER_STORAGE_BLOCK,
+                Property.BUFFER_BINDING, Property.BUFFER_DATA_SIZE);
+        this.bufferVariables = new Resources(program, GL_BUFFER_VARIABLE,
+                Property.TYPE, Property.ARRAY_SIZE, Property.BLOCK_INDEX, Property.OFFSET, Property.ARRAY_STRIDE,
+                Property.MATRIX_STRIDE);
+    }
+
+    /**
+     * The active resources of one program interface. The properties of all resources are stored in a single array,
+     * one row per resource.
+     */
+    public static final class Resources {
+        private final String[] names;
+        private final int[] values;
+        private final int propertyCount;
+        /**
+         * The column of each {@link Property} by ordinal, or {@code -1} if it was not queried for this interface.
+         */
+        private final int[] columns;
+        private final Map<String, Integer> indices;
+
+        private Resources(int program, int programInterface, Property... properties) {
+            this.propertyCount = properties.length;
+            this.columns = new int[Property.values().length];
+            Arrays.fill(columns, -1);
+            for (var i = 0; i < properties.length; i++) columns[properties[i].ordinal()] = i;
+
+            val count = glGetProgramInterfacei(program, programInterface, GL_ACTIVE_RESOURCES);
+            this.names = new String[count];
+            this.values = new int[count * properties.length];
+            this.indices = new HashMap<>();
+            try (val stack = MemoryStack.stackPush()) {
+                val props = stack.mallocInt(properties.length);
+                for (val property : properties) props.put(property.glProperty);
+                props.flip();
+                val params = stack.mallocInt(properties.length);
+                for (var index = 0; index < count; index++) {
+                    names[index] = glGetProgramResourceName(program, programInterface, index);
+                    glGetProgramResourceiv(program, programInterface, index, props, null, params);
+                    params.get(0, values, index * properties.length, properties.length);
+                    indices.put(names[index], index);
+                }
+            }
+            // Arrays of basic types are reported as name[0], but are commonly referred to by their plain name
+            for (var index = 0; index < count; index++)
+                if (names[index].endsWith("[0]"))
+                    indices.putIfAbsent(names[index].substring(0, names[index].length() - 3), index);
+        }
+
+        /**
+         * Returns the number of active resources.
+         *
+         * @return the number of resources
+         */
+        public int size() {
+            return names.length;
+        }
+
+        /**
+         * Returns the name of a resource. Arrays of basic types are named after their first element, as in
+         * {@code weights[0]}.
+         *
+         * @param index the index of the resource
+         * @return the name of the resource
+         */
+        @NonNull
+        public String getName(int index) {
+            return names[index];
+        }
+
+        /**
+         * Looks up a resource by name. Arrays of basic types may be looked up with or without {@code [0]}.
+         *
+         * @param name the name of the resource
+         * @return the index of the resource, or {@code -1} if there is no active resource with that name
+         */
+        public int indexOf(@NonNull String name) {
+            val index = indices.get(name);
+            return index == null ? -1 : index;
+        }
+
+        /**
+         * Reads a property of a resource.
+         *
+         * @param index    the index of the resource
+         * @param property the property to read
+         * @return the value of the property
+         * @throws IllegalArgumentException if the property is not available on this interface
+         */
+        public int get(int index, @NonNull Property property) {
+            val column = columns[property.ordinal()];
+            if (column < 0) throw new IllegalArgumentException(STR."Property \{property} is not available");
+            return values[index * propertyCount + column];
+        }
+    }
+}
@@ -77,7 +77,7 @@ public final class RenderBuffer extends OpenGLObject implements FrameBufferAttac
      */
     @Override
     public void bind() {
-        glBindRenderbuffer(GL_RENDERBUFFER, id);
+        GLStateCache.current().bindRenderbuffer(id);
     }
 
     /**
@@ -85,7 +85,7 @@ public final class RenderBuffer extends OpenGLObject implements FrameBufferAttac
      */
     @Override
     public void unbind() {
-        glBindRenderbuffer(GL_RENDERBUFFER, 0);
+        GLStateCache.current().bindRenderbuffer(0);
     }
 
     /**
@@ -94,5 +94,6 @@ public final class RenderBuffer extends OpenGLObject implements FrameBufferAttac
     @Override
     public void close() {
         glDeleteRenderbuffers(id);
+        GLStateCache.current().onRenderbufferDeleted(id);
     }
 }
\ No newline at end of file
@@ -9,8 +9,7 @@ import com.github.nebula.graphics.util.ShaderUtil;
 import lombok.Getter;
 import lombok.val;
 import org.joml.*;
-
-import java.util.HashMap;
+import org.lwjgl.system.MemoryStack;
 
 import static org.lwjgl.opengl.GL33C.*;
 
@@ -39,12 +38,20 @@ import static org.lwjgl.opengl.GL33C.*;
  * @since 07.03.2024
  */
 public class Shader extends OpenGLObject {
-    private static @Getter Shader currentlyBoundShader;
-    private final HashMap<String, Integer> uniformLocations;
-    private final HashMap<String, Integer> uniformBlockLocations;
+    private final UniformHandles uniformHandles;
     private final @Getter String vertexSource, fragmentSource;
     private final @Getter VertexAttributes vertexAttributes;
     private final @Getter UniformAttributes uniformAttributes;
+    /**
+     * The object whose uniform values this program holds, and that object's version at the time of the upload.
+     */
+    private Object uniformOwner;
+    private long uniformOwnerVersion;
+    private ShaderCompiler.Compilation pendingCompilation;
+    /**
+     * The active resources of the program, queried once it is linked.
+     */
+    private ProgramInterface programInterface;
 
     /**
      * Creates a new Shader with specified vertex and fragment shader sources.
@@ -53,78 +60,201 @@ public class Shader extends OpenGLObject {
      * @param fragmentSource the source code for the fragment shader
      */
     public Shader(final String vertexSource, final String fragmentSource) {
-        super(glCreateProgram());
-        this.vertexSource = vertexSource;
-        this.fragmentSource = fragmentSource;
-        this.vertexAttributes = ShaderUtil.parseVertexAttributes(vertexSource);
-        this.uniformAttributes = ShaderUtil.parseUniformAttributes(vertexSource, fragmentSource);
-        this.uniformLocations = new HashMap<>();
-        this.uniformBlockLocations = new HashMap<>();
+        this(vertexSource, fragmentSource, null);
+    }
+
+    /**
+     * Creates a new Shader with specified vertex and fragment shader sources, loading the linked program from a
+     * {@link ProgramBinaryCache} if it holds a binary for the sources. Otherwise the sources are compiled and the
+     * resulting program is stored in the cache.
+     *
+     * @param vertexSource   the source code for the vertex shader
+     * @param fragmentSource the source code for the fragment shader
+     * @param binaryCache    the cache to load the program from, or {@code null} to always compile
+     */
+    public Shader(final String vertexSource, final String fragmentSource, final ProgramBinaryCache binaryCache) {
+        this(glCreateProgram(), vertexSource, fragmentSource);
+
+        final String binaryKey = binaryCache == null ? null : binaryCache.keyOf(vertexSource, fragmentSource);
+        // A cached binary was validated before it was stored
+        if (binaryKey != null && binaryCache.load(id, binaryKey)) {
+            reflect();
+            return;
+        }
 
         final int vertexShader = glCreateShader(GL_VERTEX_SHADER);
         final int fragmentShader = glCreateShader(GL_FRAGMENT_SHADER);
 
         compile(vertexShader, fragmentShader);
+        checkCompileStatus(vertexShader, fragmentShader);
+        if (binaryKey != null)
+            binaryCache.prepare(id);
         link(vertexShader, fragmentShader);
+        checkLinkStatus();
 
         glDeleteShader(vertexShader);
         glDeleteShader(fragmentShader);
 
-        glValidateProgram(id);
+        validate();
+        reflect();
 
-        if (glGetProgrami(id, GL_VALIDATE_STATUS) == GL_FALSE)
-            throw new ShaderValidationException(glGetProgramInfoLog(id));
+        if (binaryKey != null)
+            binaryCache.store(id, binaryKey);
+    }
+
+    /**
+     * Wraps a program whose stages are compiled and linked by the caller, as done by {@link ShaderCompiler}.
+     *
+     * @param program        the program object
+     * @param vertexSource   the source code for the vertex shader
+     * @param fragmentSource the source code for the fragment shader
+     */
+    Shader(final int program, final String vertexSource, final String fragmentSource) {
+        super(program);
+        this.vertexSource = vertexSource;
+        this.fragmentSource = fragmentSource;
+        this.vertexAttributes = ShaderUtil.parseVertexAttributes(vertexSource);
+        this.uniformAttributes = ShaderUtil.parseUniformAttributes(vertexSource, fragmentSource);
+        this.uniformHandles = new UniformHandles(this);
     }
 
-    private void compile(int vertexShader, int fragmentShader) {
+    /**
+     * Starts compiling both stages without waiting for the results.
+     */
+    void compile(int vertexShader, int fragmentShader) {
         glShaderSource(vertexShader, vertexSource);
         glShaderSource(fragmentShader, fragmentSource);
 
         glCompileShader(vertexShader);
         glCompileShader(fragmentShader);
+    }
 
+    static void checkCompileStatus(int vertexShader, int fragmentShader) {
         if (glGetShaderi(vertexShader, GL_COMPILE_STATUS) == GL_FALSE)
             throw new ShaderCompileException("Vertex Shader: " + glGetShaderInfoLog(vertexShader));
         if (glGetShaderi(fragmentShader, GL_COMPILE_STATUS) == GL_FALSE)
             throw new ShaderCompileException("Fragment Shader: " + glGetShaderInfoLog(fragmentShader));
     }
 
-    private void link(int vertexShader, int fragmentShader) {
+    /**
+     * Starts linking the program without waiting for the result.
+     */
+    void link(int vertexShader, int fragmentShader) {
         glAttachShader(id, vertexShader);
         glAttachShader(id, fragmentShader);
 
         glLinkProgram(id);
+    }
 
+    void checkLinkStatus() {
         if (glGetProgrami(id, GL_LINK_STATUS) == GL_FALSE)
             throw new ShaderLinkageException(glGetProgramInfoLog(id));
     }
 
+    void validate() {
+        glValidateProgram(id);
+
+        if (glGetProgrami(id, GL_VALIDATE_STATUS) == GL_FALSE)
+            throw new ShaderValidationException(glGetProgramInfoLog(id));
+    }
+
+    /**
+     * Queries the active resources of the linked program and resolves a {@link UniformHandle} for every active
+     * uniform, so that no location has to be looked up later.
+     */
+    void reflect() {
+        programInterface = new ProgramInterface(id);
+        uniformHandles.reflect(programInterface);
+    }
+
+    /**
+     * Returns the active resources of the program, as kept by the linker. If the program is still being compiled
+     * by a {@link ShaderCompiler}, the compilation is finished first, which throws if it failed.
+     *
+     * @return the program interface
+     */
+    public ProgramInterface getProgramInterface() {
+        if (pendingCompilation != null)
+            pendingCompilation.finish();
+        return programInterface;
+    }
+
+    /**
+     * Attaches the pending compilation of this program, which is finished when the shader is first bound.
+     */
+    void setPendingCompilation(ShaderCompiler.Compilation pendingCompilation) {
+        this.pendingCompilation = pendingCompilation;
+    }
+
+    /**
+     * Checks whether the program is still being compiled by a {@link ShaderCompiler}. Binding the shader waits for
+     * the compilation to finish.
+     *
+     * @return {@code true} if the compilation has not been finished yet
+     */
+    public boolean isCompilationPending() {
+        return pendingCompilation != null;
+    }
+
     /**
      * Binds the shader for use in rendering.
      * <p>
      * This method sets the current OpenGL shader program to the one represented by this Shader object.
+     * If the program is still being compiled by a {@link ShaderCompiler}, the compilation is finished first, which
+     * throws if it failed.
      * </p>
      */
     public void bind() {
-        if (currentlyBoundShader != this) {
-            glUseProgram(id);
-            currentlyBoundShader = this;
-        }
+        if (pendingCompilation != null)
+            pendingCompilation.finish();
+        GLStateCache.current().useProgram(id);
     }
 
     /**
      * Unbinds the shader from use in rendering.
      * <p>
-     * This method sets the current OpenGL shader program to 0.
+     * This method sets the current OpenGL shader program to 0 if this shader is the current program of the
+     * calling thread's context.
      * </p>
      */
     public void unbind() {
-        if (currentlyBoundShader == this) {
-            glUseProgram(0);
-            currentlyBoundShader = null;
+        if (isBound()) {
+            GLStateCache.current().useProgram(0);
         }
     }
 
+    /**
+     * Checks if this shader is the current program, as tracked by the {@link GLStateCache} of the calling thread.
+     *
+     * @return {@code true} if this shader is bound; {@code false} otherwise.
+     */
+    private boolean isBound() {
+        return GLStateCache.current().getProgram() == id;
+    }
+
+    /**
+     * Checks whether the uniforms of this program still hold the values uploaded by {@code owner} at
+     * {@code version}, which is the case until any other uniform is uploaded through this class.
+     *
+     * @param owner   the object that uploaded the uniforms, usually a {@link com.github.nebula.graphics.Material}
+     * @param version the version of the owner
+     * @return {@code true} if uploading the owner's uniforms again would be redundant
+     */
+    public boolean holdsUniformsOf(Object owner, long version) {
+        return owner != null && uniformOwner == owner && uniformOwnerVersion == version;
+    }
+
+    /**
+     * Records that the current uniform values of this program were uploaded by {@code owner} at {@code version}.
+     *
+     * @param owner   the object that uploaded the uniforms
+     * @param version the version of the owner
+     */
+    public void setUniformOwner(Object owner, long version) {
+        uniformOwner = owner;
+        uniformOwnerVersion = version;
+    }
+
     /**
      * Retrieves the location of the specified uniform variable.
      *
@@ -132,11 +262,43 @@ public class Shader extends OpenGLObject {
      * @return the location of the uniform variable
      */
     public int getUniformLocation(final String uniformName) {
-        return glGetUniformLocation(id, uniformName);
+        return getUniformHandle(uniformName).getLocation();
     }
 
+    /**
+     * Retrieves the index of the specified uniform block.
+     *
+     * @param blockName the name of the uniform block
+     * @return the index of the uniform block, or {@code GL_INVALID_INDEX} if the program has no such active block
+     */
     public int getUniformBlockLocation(String blockName) {
-        return glGetUniformBlockIndex(id, blockName);
+        val index = getProgramInterface().uniformBlocks.indexOf(blockName);
+        return index < 0 ? GL_INVALID_INDEX : index;
+    }
+
+    /**
+     * Resolves the specified uniform variable into a {@link UniformHandle}. The handles of all active uniforms are
+     * resolved from the {@link ProgramInterface} when the program is linked, so this is a map lookup; hot paths
+     * should still keep the handle and pass it to the upload methods.
+     *
+     * @param uniformName the name of the uniform variable
+     * @return the handle of the uniform variable
+     */
+    public UniformHandle getUniformHandle(final String uniformName) {
+        if (pendingCompilation != null)
+            pendingCompilation.finish();
+        return uniformHandles.get(uniformName);
+    }
+
+    /**
+     * Binds this shader for an upload to the specified uniform and returns its location.
+     */
+    private int prepareUpload(final UniformHandle uniform) {
+        if (uniform.getProgram() != this)
+            throw new IllegalArgumentException(STR."Uniform \{uniform.getName()} belongs to another shader");
+        bind();
+        uniformOwner = null;
+        return uniform.getLocation();
     }
 
     /**
@@ -146,12 +308,17 @@ public class Shader extends OpenGLObject {
      * @param value       the float value to upload
      */
     public void uploadUniformFloat(final String uniformName, final float value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformFloat(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniform1f(uniformLoc, value);
+    /**
+     * Uploads a float value to the specified uniform variable.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the float value to upload
+     */
+    public void uploadUniformFloat(final UniformHandle uniform, final float value) {
+        glUniform1f(prepareUpload(uniform), value);
     }
 
     /**
@@ -161,12 +328,17 @@ public class Shader extends OpenGLObject {
      * @param value       the integer value to upload
      */
     public void uploadUniformInt(final String uniformName, final int value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformInt(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniform1i(uniformLoc, value);
+    /**
+     * Uploads an integer value to the specified uniform variable.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the integer value to upload
+     */
+    public void uploadUniformInt(final UniformHandle uniform, final int value) {
+        glUniform1i(prepareUpload(uniform), value);
     }
 
     /**
@@ -176,12 +348,17 @@ public class Shader extends OpenGLObject {
      * @param value       the Vector2f value to upload
      */
     public void uploadUniformVec2f(final String uniformName, final Vector2f value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformVec2f(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniform2f(uniformLoc, value.x, value.y);
+    /**
+     * Uploads a 2D vector (Vec2f) to the specified uniform variable.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the vector to upload
+     */
+    public void uploadUniformVec2f(final UniformHandle uniform, final Vector2fc value) {
+        glUniform2f(prepareUpload(uniform), value.x(), value.y());
     }
 
     /**
@@ -191,12 +368,17 @@ public class Shader extends OpenGLObject {
      * @param value       the Vector3f value to upload
      */
     public void uploadUniformVec3f(final String uniformName, final Vector3f value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformVec3f(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniform3f(uniformLoc, value.x, value.y, value.z);
+    /**
+     * Uploads a 3D vector (Vec3f) to the specified uniform variable.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the vector to upload
+     */
+    public void uploadUniformVec3f(final UniformHandle uniform, final Vector3fc value) {
+        glUniform3f(prepareUpload(uniform), value.x(), value.y(), value.z());
     }
 
     /**
@@ -206,12 +388,17 @@ public class Shader extends OpenGLObject {
      * @param value       the Vector4f value to upload
      */
     public void uploadUniformVec4f(final String uniformName, final Vector4f value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformVec4f(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniform4f(uniformLoc, value.x, value.y, value.z, value.w);
+    /**
+     * Uploads a 4D vector (Vec4f) to the specified uniform variable.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the vector to upload
+     */
+    public void uploadUniformVec4f(final UniformHandle uniform, final Vector4fc value) {
+        glUniform4f(prepareUpload(uniform), value.x(), value.y(), value.z(), value.w());
     }
 
     /**
@@ -221,12 +408,17 @@ public class Shader extends OpenGLObject {
      * @param value       the boolean value to upload
      */
     public void uploadUniformBool(final String uniformName, final boolean value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformBool(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniform1i(uniformLoc, value ? 1 : 0);
+    /**
+     * Uploads a boolean value to the specified uniform variable.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the boolean value to upload
+     */
+    public void uploadUniformBool(final UniformHandle uniform, final boolean value) {
+        glUniform1i(prepareUpload(uniform), value ? 1 : 0);
     }
 
     /**
@@ -236,12 +428,17 @@ public class Shader extends OpenGLObject {
      * @param value       the Vector2i value to upload
      */
     public void uploadUniformVec2i(final String uniformName, final Vector2i value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformVec2i(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniform2i(uniformLoc, value.x, value.y);
+    /**
+     * Uploads a 2D vector (Vec2i) to the specified uniform variable.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the vector to upload
+     */
+    public void uploadUniformVec2i(final UniformHandle uniform, final Vector2ic value) {
+        glUniform2i(prepareUpload(uniform), value.x(), value.y());
     }
 
     /**
@@ -251,12 +448,17 @@ public class Shader extends OpenGLObject {
      * @param value       the Vector3i value to upload
      */
     public void uploadUniformVec3i(final String uniformName, final Vector3i value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformVec3i(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniform3i(uniformLoc, value.x, value.y, value.z);
+    /**
+     * Uploads a 3D vector (Vec3i) to the specified uniform variable.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the vector to upload
+     */
+    public void uploadUniformVec3i(final UniformHandle uniform, final Vector3ic value) {
+        glUniform3i(prepareUpload(uniform), value.x(), value.y(), value.z());
     }
 
     /**
@@ -266,12 +468,17 @@ public class Shader extends OpenGLObject {
      * @param value       the Vector4i value to upload
      */
     public void uploadUniformVec4i(final String uniformName, final Vector4i value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformVec4i(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniform4i(uniformLoc, value.x, value.y, value.z, value.w);
+    /**
+     * Uploads a 4D vector (Vec4i) to the specified uniform variable.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the vector to upload
+     */
+    public void uploadUniformVec4i(final UniformHandle uniform, final Vector4ic value) {
+        glUniform4i(prepareUpload(uniform), value.x(), value.y(), value.z(), value.w());
     }
 
     /**
@@ -281,12 +488,21 @@ public class Shader extends OpenGLObject {
      * @param value       the Matrix2f value to upload
      */
     public void uploadUniformMat2f(final String uniformName, final Matrix2f value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformMat2f(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniformMatrix2fv(uniformLoc, false, value.get(new float[4]));
+    /**
+     * Uploads a 2x2 matrix (Mat2f) to the specified uniform variable. The matrix is passed to OpenGL through the
+     * thread's {@link MemoryStack}, so no garbage is produced.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the matrix to upload
+     */
+    public void uploadUniformMat2f(final UniformHandle uniform, final Matrix2fc value) {
+        val location = prepareUpload(uniform);
+        try (val stack = MemoryStack.stackPush()) {
+            glUniformMatrix2fv(location, false, value.get(stack.mallocFloat(4)));
+        }
     }
 
     /**
@@ -296,12 +512,21 @@ public class Shader extends OpenGLObject {
      * @param value       the Matrix3f value to upload
      */
     public void uploadUniformMat3f(final String uniformName, final Matrix3f value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformMat3f(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniformMatrix3fv(uniformLoc, false, value.get(new float[9]));
+    /**
+     * Uploads a 3x3 matrix (Mat3f) to the specified uniform variable. The matrix is passed to OpenGL through the
+     * thread's {@link MemoryStack}, so no garbage is produced.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the matrix to upload
+     */
+    public void uploadUniformMat3f(final UniformHandle uniform, final Matrix3fc value) {
+        val location = prepareUpload(uniform);
+        try (val stack = MemoryStack.stackPush()) {
+            glUniformMatrix3fv(location, false, value.get(stack.mallocFloat(9)));
+        }
     }
 
     /**
@@ -311,34 +536,36 @@ public class Shader extends OpenGLObject {
      * @param value       the Matrix4f value to upload
      */
     public void uploadUniformMat4f(final String uniformName, final Matrix4f value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformMat4f(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniformMatrix4fv(uniformLoc, false, value.get(new float[16]));
+    /**
+     * Uploads a 4x4 matrix (Mat4f) to the specified uniform variable. The matrix is passed to OpenGL through the
+     * thread's {@link MemoryStack}, so no garbage is produced.
+     *
+     * @param uniform the handle of the uniform variable
+     * @param value   the matrix to upload
+     */
+    public void uploadUniformMat4f(final UniformHandle uniform, final Matrix4fc value) {
+        val location = prepareUpload(uniform);
+        try (val stack = MemoryStack.stackPush()) {
+            glUniformMatrix4fv(location, false, value.get(stack.mallocFloat(16)));
+        }
     }
 
     public void uploadUniformIntArray(String uniformName, int[] value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
+        uploadUniformIntArray(getUniformHandle(uniformName), value);
+    }
 
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        glUniform1iv(uniformLoc, value);
+    public void uploadUniformIntArray(UniformHandle uniform, int[] value) {
+        glUniform1iv(prepareUpload(uniform), value);
     }
 
     public void uploadUniformShaderStorageBuffer(String uniformName, String blockName, Buffer value) {
-        if (!uniformLocations.containsKey(uniformName))
-            uniformLocations.put(uniformName, getUniformLocation(uniformName));
-        if (!uniformBlockLocations.containsKey(blockName))
-            uniformBlockLocations.put(blockName, getUniformBlockLocation(blockName));
-
-        bind();
-        val uniformLoc = uniformLocations.get(uniformName);
-        val blockIndex = uniformBlockLocations.get(blockName);
+        val blockIndex = getUniformBlockLocation(blockName);
+        val uniformLoc = prepareUpload(getUniformHandle(uniformName));
         glUniformBlockBinding(id, blockIndex, uniformLoc);
-        glBindBufferBase(GL_UNIFORM_BUFFER, uniformLoc, value.id);
+        value.bindBase(GL_UNIFORM_BUFFER, uniformLoc);
     }
 
     /**
@@ -372,5 +599,6 @@ public class Shader extends OpenGLObject {
     @Override
     public void close() {
         glDeleteProgram(id);
+        GLStateCache.current().onProgramDeleted(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.github.nebula.graphics.globjects;
+
+import lombok.Getter;
+import lombok.val;
+import org.lwjgl.opengl.ARBParallelShaderCompile;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.KHRParallelShaderCompile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.lwjgl.opengl.GL33C.*;
+
+/**
+ * The {@code ShaderCompiler} class compiles many {@link Shader shaders} at once. Every {@link #submit(String, String)}
+ * only issues the compile and link commands and returns a future, so the driver can compile all submitted programs
+ * on its own threads while the caller keeps loading.
+ *
+ * <p>Whether a program is done is only asked with {@code GL_COMPLETION_STATUS} of
+ * {@code GL_KHR_parallel_shader_compile} or {@code GL_ARB_parallel_shader_compile}, which never blocks. Without
+ * either extension every submission compiles synchronously, like the {@link Shader} constructor.
+ *
+ * <p>A submission is finished, checking its status and completing its {@link Compilation}, by the first of
+ * <ul>
+ *     <li>{@link #poll()}, once the driver reports it complete,</li>
+ *     <li>{@link #finishAll()}, which waits for the driver,</li>
+ *     <li>the first {@link Shader#bind() bind} of its shader.</li>
+ * </ul>
+ * All methods, including the callbacks of the futures, run on the thread of the context. Joining a future on that
+ * thread without finishing its submission never returns.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class ShaderCompiler {
+    private static final int COMPLETION_STATUS = KHRParallelShaderCompile.GL_COMPLETION_STATUS_KHR;
+    /**
+     * Lets the driver choose the number of compiler threads.
+     */
+    private static final int DRIVER_THREADS = 0xFFFFFFFF;
+
+    private final @Getter ProgramBinaryCache binaryCache;
+    /**
+     * Whether the driver compiles in the background and reports the progress through {@link #COMPLETION_STATUS}.
+     */
+    private final @Getter boolean parallel;
+    private final List<Compilation> pending;
+
+    /**
+     * Creates a compiler for the current context, which stores compiled programs in a cache.
+     *
+     * @param binaryCache the cache to load programs from, or {@code null} to always compile
+     */
+    public ShaderCompiler(ProgramBinaryCache binaryCache) {
+        this.binaryCache = binaryCache;
+        this.pending = new ArrayList<>();
+        val capabilities = GL.getCapabilities();
+        if (capabilities.GL_KHR_parallel_shader_compile) {
+            KHRParallelShaderCompile.glMaxShaderCompilerThreadsKHR(DRIVER_THREADS);
+            parallel = true;
+        } else if (capabilities.GL_ARB_parallel_shader_compile) {
+            ARBParallelShaderCompile.glMaxShaderCompilerThreadsARB(DRIVER_THREADS);
+            parallel = true;
+        } else {
+            parallel = false;
+        }
+    }
+
+    /**
+     * Creates a compiler for the current context without a binary cache.
+     */
+    public ShaderCompiler() {
+        this(null);
+    }
+
+    /**
+     * Starts compiling a program. The returned future completes with the shader, or exceptionally with the
+     * {@link com.github.nebula.graphics.globjects.exceptions.ShaderCompileException compile},
+     * {@link com.github.nebula.graphics.globjects.exceptions.ShaderLinkageException linkage} or
+     * {@link com.github.nebula.graphics.globjects.exceptions.ShaderValidationException validation} error.
+     *
+     * @param vertexSource   the source code for the vertex shader
+     * @param fragmentSource the source code for the fragment shader
+     * @return the future shader
+     */
+    public Compilation submit(String vertexSource, String fragmentSource) {
+        if (!parallel) {
+            try {
+                return Compilation.finished(new Shader(vertexSource, fragmentSource, binaryCache));
+            } catch (RuntimeException e) {
+                return Compilation.failed(e);
+            }
+        }
+
+        val shader = new Shader(glCreateProgram(), vertexSource, fragmentSource);
+        val binaryKey = binaryCache == null ? null : binaryCache.keyOf(vertexSource, fragmentSource);
+        if (binaryKey != null && binaryCache.load(shader.id, binaryKey)) {
+            shader.reflect();
+            return Compilation.finished(shader);
+        }
+
+        val compilation = new Compilation(shader, glCreateShader(GL_VERTEX_SHADER),
+                glCreateShader(GL_FRAGMENT_SHADER), binaryCache, binaryKey);
+        shader.compile(compilation.vertexShader, compilation.fragmentShader);
+        if (binaryKey != null)
+            binaryCache.prepare(shader.id);
+        shader.link(compilation.vertexShader, compilation.fragmentShader);
+        shader.setPendingCompilation(compilation);
+        pending.add(compilation);
+        return compilation;
+    }
+
+    /**
+     * Finishes all submissions the driver reports complete, without blocking.
+     *
+     * @return the number of submissions still pending
+     */
+    public int poll() {
+        pending.removeIf(compilation -> {
+            if (!compilation.finished && glGetProgrami(compilation.shader.id, COMPLETION_STATUS) == GL_FALSE)
+                return false;
+            compilation.tryFinish();
+            return true;
+        });
+        return pending.size();
+    }
+
+    /**
+     * Finishes all pending submissions, waiting for the driver where necessary.
+     */
+    public void finishAll() {
+        for (val compilation : pending) compilation.tryFinish();
+        pending.clear();
+    }
+
+    /**
+     * Returns the number of submissions that have not been finished yet.
+     *
+     * @return the number of pending submissions
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * The future result of a {@link #submit(String, String) submission}. The shader is available through
+     * {@link #getShader()} before the compilation is finished, so it can be handed to materials right away; binding it
+     * finishes the compilation.
+     */
+    public static final class Compilation extends CompletableFuture<Shader> {
+        /**
+         * The compiled shader, or {@code null} if a synchronous compilation failed.
+         */
+        private final @Getter Shader shader;
+        private final int vertexShader, fragmentShader;
+        private final ProgramBinaryCache binaryCache;
+        private final String binaryKey;
+        private boolean finished;
+        private RuntimeException failure;
+
+        private Compilation(Shader shader, int vertexShader, int fragmentShader,
+                            ProgramBinaryCache binaryCache, String binaryKey) {
+            this.shader = shader;
+            this.vertexShader = vertexShader;
+            this.fragmentShader = fragmentShader;
+            this.binaryCache = binaryCache;
+            this.binaryKey = binaryKey;
+        }
+
+        private static Compilation finished(Shader shader) {
+            val compilation = new Compilation(shader, 0, 0, null, null);
+            compilation.finished = true;
+            compilation.complete(shader);
+            return compilation;
+        }
+
+        private static Compilation failed(RuntimeException failure) {
+            val compilation = new Compilation(null, 0, 0, null, null);
+            compilation.finished = true;
+            compilation.failure = failure;
+            compilation.completeExceptionally(failure);
+            return compilation;
+        }
+
+        private void tryFinish() {
+            try {
+                finish();
+            } catch (RuntimeException ignored) {
+                // Reported through the future
+            }
+        }
+
+        /**
+         * Checks the status of the compilation, waiting for the driver if it is not complete yet.
+         *
+         * @throws RuntimeException the error the compilation failed with
+         */
+        void finish() {
+            if (!finished) {
+                finished = true;
+                try {
+                    Shader.checkCompileStatus(vertexShader, fragmentShader);
+                    shader.checkLinkStatus();
+                    shader.validate();
+                    shader.reflect();
+                    if (binaryKey != null)
+                        binaryCache.store(shader.id, binaryKey);
+                    shader.setPendingCompilation(null);
+                } catch (RuntimeException e) {
+                    failure = e;
+                } finally {
+                    glDeleteShader(vertexShader);
+                    glDeleteShader(fragmentShader);
+                }
+                if (failure == null) complete(shader);
+                else completeExceptionally(failure);
+            }
+            if (failure != null) throw failure;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.github.nebula.graphics.globjects;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code ShaderLibrary} class holds the variants of one vertex and fragment source, also called permutations.
+ * A variant is selected by a set of feature keywords, each of which is {@code #define}d at the top of both sources,
+ * so the sources can enable features with {@code #ifdef}. The keyword sets are encoded as bitmasks, with bit
+ * {@code i} standing for the {@code i}-th keyword given to the constructor.
+ *
+ * <p>Variants are compiled on first request and kept in a map bounded by the capacity of the library. Once the map
+ * is full, the least recently used variant is closed to make room. Looking up a variant that is already compiled
+ * takes no lock; only compiling a new variant does.
+ *
+ * <p>Compiling and closing shaders requires the thread of the context the library was created on.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class ShaderLibrary implements AutoCloseable {
+    /**
+     * The maximum number of keywords, one per bit of a key.
+     */
+    public static final int MAX_KEYWORDS = Long.SIZE;
+
+    private final @Getter String vertexSource, fragmentSource;
+    private final @Getter List<String> keywords;
+    private final @Getter int capacity;
+    private final ShaderCompiler compiler;
+    private final Map<Long, Variant> variants;
+    /**
+     * Counts the requests, so that the variant with the oldest stamp is the least recently used.
+     */
+    private final AtomicLong clock;
+
+    /**
+     * Creates a library compiling its variants with the given compiler.
+     *
+     * @param vertexSource   the source code for the vertex shader
+     * @param fragmentSource the source code for the fragment shader
+     * @param keywords       the feature keywords, at most {@link #MAX_KEYWORDS}
+     * @param capacity       the maximum number of variants kept compiled
+     * @param compiler       the compiler to submit variants to
+     * @throws IllegalArgumentException if a keyword is no identifier or given twice, if there are too many keywords or
+     *                                  if the capacity is not positive
+     */
+    public ShaderLibrary(@NonNull String vertexSource, @NonNull String fragmentSource, @NonNull List<String> keywords,
+                         int capacity, @NonNull ShaderCompiler compiler) {
+        if (keywords.size() > MAX_KEYWORDS)
+            throw new IllegalArgumentException(STR."At most \{MAX_KEYWORDS} keywords are supported");
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive");
+        for (var i = 0; i < keywords.size(); i++) {
+            val keyword = keywords.get(i);
+            if (!isIdentifier(keyword))
+                throw new IllegalArgumentException(STR."Keyword \{keyword} is no identifier");
+            if (keywords.indexOf(keyword) != i)
+                throw new IllegalArgumentException(STR."Keyword \{keyword} is given twice");
+        }
+        this.vertexSource = vertexSource;
+        this.fragmentSource = fragmentSource;
+        this.keywords = List.copyOf(keywords);
+        this.capacity = capacity;
+        this.compiler = compiler;
+        this.variants = new ConcurrentHashMap<>(capacity);
+        this.clock = new AtomicLong();
+    }
+
+    /**
+     * Creates a library for the current context, compiling its variants without a binary cache.
+     *
+     * @param vertexSource   the source code for the vertex shader
+     * @param fragmentSource the source code for the fragment shader
+     * @param keywords       the feature keywords, at most {@link #MAX_KEYWORDS}
+     * @param capacity       the maximum number of variants kept compiled
+     * @throws IllegalArgumentException if a keyword is no identifier or given twice, if there are too many keywords or
+     *                                  if the capacity is not positive
+     */
+    public ShaderLibrary(@NonNull String vertexSource, @NonNull String fragmentSource, @NonNull List<String> keywords,
+                         int capacity) {
+        this(vertexSource, fragmentSource, keywords, capacity, new ShaderCompiler());
+    }
+
+    /**
+     * Encodes a set of keywords as a key.
+     *
+     * @param keywords the enabled keywords, in any order
+     * @return the key with the bits of the keywords set
+     * @throws IllegalArgumentException if a keyword is not known to this library
+     */
+    public long keyOf(@NonNull String... keywords) {
+        var key = 0L;
+        for (val keyword : keywords) {
+            val index = this.keywords.indexOf(keyword);
+            if (index < 0) throw new IllegalArgumentException(STR."Unknown keyword \{keyword}");
+            key |= 1L << index;
+        }
+        return key;
+    }
+
+    /**
+     * Returns the compiled variant with the given keywords enabled, compiling it if necessary.
+     *
+     * @param keywords the enabled keywords
+     * @return the variant
+     * @throws IllegalArgumentException if a keyword is not known to this library
+     * @throws RuntimeException         the error the variant failed to compile with
+     * @see #getShader(long)
+     */
+    @NonNull
+    public Shader getShader(@NonNull String... keywords) {
+        return getShader(keyOf(keywords));
+    }
+
+    /**
+     * Returns the compiled variant with the given key, compiling it if necessary and waiting for the driver to finish.
+     * The shader stays owned by the library and is closed when it is evicted or the library is closed.
+     *
+     * @param key the bitmask of enabled keywords
+     * @return the variant
+     * @throws IllegalArgumentException if the key has bits without a keyword set
+     * @throws RuntimeException         the error the variant failed to compile with
+     */
+    @NonNull
+    public Shader getShader(long key) {
+        val compilation = request(key);
+        compilation.finish();
+        return compilation.getShader();
+    }
+
+    /**
+     * Returns the compilation of the variant with the given key, submitting it to the compiler if it was not
+     * requested before. Unlike {@link #getShader(long)}, this does not wait for the driver, so variants that will be
+     * needed soon can be compiled in the background. The compilation is finished by
+     * {@link ShaderCompiler#poll() polling} the compiler or by binding its shader.
+     *
+     * @param key the bitmask of enabled keywords
+     * @return the compilation of the variant
+     * @throws IllegalArgumentException if the key has bits without a keyword set
+     */
+    @NonNull
+    public ShaderCompiler.Compilation request(long key) {
+        val variant = variants.get(key);
+        if (variant != null) {
+            variant.lastUse = clock.incrementAndGet();
+            return variant.compilation;
+        }
+        return compile(key);
+    }
+
+    /**
+     * Checks whether the variant with the given key is held by this library.
+     *
+     * @param key the bitmask of enabled keywords
+     * @return {@code true} if the variant was requested and not evicted since
+     */
+    public boolean contains(long key) {
+        return variants.containsKey(key);
+    }
+
+    /**
+     * Returns the number of variants held by this library.
+     *
+     * @return the number of variants
+     */
+    public int size() {
+        return variants.size();
+    }
+
+    private synchronized ShaderCompiler.Compilation compile(long key) {
+        // Another thread may have compiled the variant while this one waited for the lock
+        val existing = variants.get(key);
+        if (existing != null) {
+            existing.lastUse = clock.incrementAndGet();
+            return existing.compilation;
+        }
+        if (keywords.size() < MAX_KEYWORDS && key >>> keywords.size() != 0)
+            throw new IllegalArgumentException(STR."Key \{Long.toBinaryString(key)} has bits without a keyword");
+
+        if (variants.size() >= capacity) evictLeastRecentlyUsed();
+        val defines = new StringBuilder();
+        for (var i = 0; i < keywords.size(); i++)
+            if ((key & 1L << i) != 0) defines.append("#define ").append(keywords.get(i)).append('\n');
+        val compilation = compiler.submit(variantSource(vertexSource, defines), variantSource(fragmentSource, defines));
+        variants.put(key, new Variant(compilation, clock.incrementAndGet()));
+        return compilation;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Map.Entry<Long, Variant> oldest = null;
+        for (val entry : variants.entrySet())
+            if (oldest == null || entry.getValue().lastUse < oldest.getValue().lastUse) oldest = entry;
+        if (oldest == null) return;
+        variants.remove(oldest.getKey());
+        oldest.getValue().close();
+    }
+
+    /**
+     * Inserts defines into a source, after its {@code #version} directive if it has one.
+     *
+     * @param source  the GLSL source
+     * @param defines the {@code #define} lines to insert
+     * @return the source of the variant
+     */
+    static String variantSource(String source, CharSequence defines) {
+        if (defines.isEmpty()) return source;
+        val version = source.indexOf("#version");
+        if (version < 0) return defines + source;
+        val lineEnd = source.indexOf('\n', version);
+        if (lineEnd < 0) return STR."\{source}\n\{defines}";
+        return STR."\{source.substring(0, lineEnd + 1)}\{defines}\{source.substring(lineEnd + 1)}";
+    }
+
+    private static boolean isIdentifier(String keyword) {
+        if (keyword.isEmpty() || !(Character.isLetter(keyword.charAt(0)) || keyword.charAt(0) == '_')) return false;
+        for (var i = 1; i < keyword.length(); i++)
+            if (!(Character.isLetterOrDigit(keyword.charAt(i)) || keyword.charAt(i) == '_')) return false;
+        return true;
+    }
+
+    /**
+     * Closes all variants held by this library.
+     */
+    @Override
+    public synchronized void close() {
+        for (val variant : variants.values()) variant.close();
+        variants.clear();
+    }
+
+    private static final class Variant {
+        private final ShaderCompiler.Compilation compilation;
+        private volatile long lastUse;
+
+        private Variant(ShaderCompiler.Compilation compilation, long lastUse) {
+            this.compilation = compilation;
+            this.lastUse = lastUse;
+        }
+
+        private void close() {
+            val shader = compilation.getShader();
+            if (shader == null) return;
+            // The driver may still be compiling; finishing first keeps the compiler from querying a deleted program
+            try {
+                compilation.finish();
+            } catch (RuntimeException ignored) {
+                // Reported through the future
+            }
+            shader.close();
+        }
+    }
+}
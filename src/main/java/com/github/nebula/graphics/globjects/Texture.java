@@ -83,7 +83,7 @@ public final class Texture extends OpenGLObject implements FrameBufferAttachment
      */
     public Texture(final ByteBufferedImage image, TextureFilter filter, TextureConfig config) {
         super(glGenTextures());
-        glBindTexture(GL_TEXTURE_2D, id);
+        bind();
 
         this.filter = filter;
         this.config = config;
@@ -113,7 +113,7 @@ public final class Texture extends OpenGLObject implements FrameBufferAttachment
      * Binds the texture to the OpenGL context.
      */
     public void bind() {
-        glBindTexture(GL_TEXTURE_2D, id);
+        GLStateCache.current().bindTexture(GL_TEXTURE_2D, id);
     }
 
     /**
@@ -122,8 +122,7 @@ public final class Texture extends OpenGLObject implements FrameBufferAttachment
      * @param slot The texture unit slot to bind the texture to.
      */
     public void bindToSlot(int slot) {
-        glActiveTexture(GL_TEXTURE0 + slot);
-        glBindTexture(GL_TEXTURE_2D, id);
+        GLStateCache.current().bindTextureUnit(slot, GL_TEXTURE_2D, id);
     }
 
     /**
@@ -132,12 +131,13 @@ public final class Texture extends OpenGLObject implements FrameBufferAttachment
     @Override
     public void close() {
         glDeleteTextures(id);
+        GLStateCache.current().onTextureDeleted(id);
     }
 
     /**
      * Unbinds the texture from the OpenGL context.
      */
     public void unbind() {
-        glBindTexture(GL_TEXTURE_2D, 0);
+        GLStateCache.current().bindTexture(GL_TEXTURE_2D, 0);
     }
 }
\ No newline at end of file
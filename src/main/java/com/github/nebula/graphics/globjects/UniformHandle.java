@@ -0,0 +1,46 @@
+package com.github.nebula.graphics.globjects;
+
+import lombok.Getter;
+
+/**
+ * The {@code UniformHandle} class is a uniform of a {@link Shader} or {@link ComputeShader} whose location has been
+ * resolved. Passing a handle instead of a name to the upload methods of the program skips the name lookup, so handles
+ * are meant to be obtained once through {@link Shader#getUniformHandle(String)} or
+ * {@link ComputeShader#getUniformHandle(String)} and kept for the lifetime of the program.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+@Getter
+public final class UniformHandle {
+    /**
+     * The program the uniform belongs to.
+     */
+    private final OpenGLObject program;
+    private final String name;
+    /**
+     * The location of the uniform, or {@code -1} if the program has no active uniform with the name.
+     */
+    private final int location;
+
+    UniformHandle(OpenGLObject program, String name, int location) {
+        this.program = program;
+        this.name = name;
+        this.location = location;
+    }
+
+    /**
+     * Checks whether the program has an active uniform with the name of this handle. Uploads to inactive uniforms
+     * are silently ignored by OpenGL.
+     *
+     * @return {@code true} if the uniform is active
+     */
+    public boolean isActive() {
+        return location != -1;
+    }
+
+    @Override
+    public String toString() {
+        return STR."\{getClass().getSimpleName()}{name=\{name}, location=\{location}, program=\{program.id}}";
+    }
+}
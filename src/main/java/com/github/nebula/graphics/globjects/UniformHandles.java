@@ -0,0 +1,86 @@
+package com.github.nebula.graphics.globjects;
+
+import lombok.val;
+
+import java.util.HashMap;
+
+/**
+ * The {@code UniformHandles} class resolves the {@link UniformHandle}s of a linked program from its
+ * {@link ProgramInterface}. It is shared by {@link Shader} and {@link ComputeShader}, so both programs look up
+ * uniforms the same way.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+final class UniformHandles {
+    private final OpenGLObject program;
+    private final HashMap<String, UniformHandle> handles;
+    private ProgramInterface programInterface;
+
+    UniformHandles(OpenGLObject program) {
+        this.program = program;
+        this.handles = new HashMap<>();
+    }
+
+    /**
+     * Resolves a handle for every active uniform of the given program interface, replacing the handles resolved
+     * before.
+     *
+     * @param programInterface the active resources of the linked program
+     */
+    void reflect(ProgramInterface programInterface) {
+        this.programInterface = programInterface;
+        handles.clear();
+        val uniforms = programInterface.uniforms;
+        for (var i = 0; i < uniforms.size(); i++) {
+            val location = uniforms.get(i, ProgramInterface.Property.LOCATION);
+            if (location < 0) continue;
+            val name = uniforms.getName(i);
+            handles.put(name, new UniformHandle(program, name, location));
+            // Arrays of basic types can be uploaded to by their plain name as well
+            if (name.endsWith("[0]")) {
+                val arrayName = name.substring(0, name.length() - 3);
+                handles.put(arrayName, new UniformHandle(program, arrayName, location));
+            }
+        }
+    }
+
+    /**
+     * Returns the handle of the specified uniform, resolving elements of arrays on first use. Names without an
+     * active uniform get an inactive handle.
+     *
+     * @param uniformName the name of the uniform variable
+     * @return the handle of the uniform variable
+     */
+    UniformHandle get(String uniformName) {
+        var handle = handles.get(uniformName);
+        if (handle == null) {
+            handle = new UniformHandle(program, uniformName, arrayElementLocation(uniformName));
+            handles.put(uniformName, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Derives the location of an element of an array of basic types, such as {@code weights[2]}, which the linker
+     * only reports as {@code weights[0]}. Consecutive elements have consecutive locations.
+     *
+     * @return the location of the element, or {@code -1} if it is not active
+     */
+    private int arrayElementLocation(String uniformName) {
+        val open = uniformName.lastIndexOf('[');
+        if (open < 0 || !uniformName.endsWith("]")) return -1;
+        final int element;
+        try {
+            element = Integer.parseInt(uniformName.substring(open + 1, uniformName.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        val uniforms = programInterface.uniforms;
+        val index = uniforms.indexOf(STR."\{uniformName.substring(0, open)}[0]");
+        if (index < 0 || element < 0 || element >= uniforms.get(index, ProgramInterface.Property.ARRAY_SIZE))
+            return -1;
+        val location = uniforms.get(index, ProgramInterface.Property.LOCATION);
+        return location < 0 ? -1 : location + element;
+    }
+}
@@ -18,12 +18,6 @@ import static org.lwjgl.opengl.GL33C.*;
  */
 public class VertexArray extends OpenGLObject {
 
-    /**
-     * The currently bound VertexArray, used to avoid redundant OpenGL API calls.
-     */
-    private static VertexArray current;
-
-
     /**
      * Constructs a new VertexArray and generates an OpenGL Vertex Array Object (VAO).
      */
@@ -35,10 +29,7 @@ public class VertexArray extends OpenGLObject {
      * Binds the VertexArray, making it the active VAO for subsequent OpenGL operations.
      */
     public void bind() {
-        if (!isBound()) {
-            glBindVertexArray(id);
-            current = this;
-        }
+        GLStateCache.current().bindVertexArray(id);
     }
 
     /**
@@ -46,7 +37,7 @@ public class VertexArray extends OpenGLObject {
      */
     public void unbind() {
         if (isBound()) {
-            glBindVertexArray(0);
+            GLStateCache.current().bindVertexArray(0);
         }
     }
 
@@ -93,6 +84,37 @@ public class VertexArray extends OpenGLObject {
         enableVertexAttributeArray(index);
     }
 
+    /**
+     * Specifies the location and data format of an integer vertex attribute in the VAO and links that attribute to a
+     * buffer. Unlike {@link #vertexAttribPointer(Buffer, int, int, int, int, int)}, the values are not converted to
+     * floats, so the attribute can be declared as {@code int} or {@code uint} in the shader.
+     *
+     * @param buffer   The buffer which will be linked to the attribute.
+     * @param index    The attribute index.
+     * @param size     The number of components per attribute.
+     * @param dataType The integer data type of each component.
+     * @param stride   The byte offset between consecutive generic vertex attributes.
+     * @param pointer  The offset of the first component of the first generic vertex attribute.
+     */
+    public void vertexAttribIPointer(Buffer buffer, int index, int size, int dataType, int stride, int pointer) {
+        bind();
+        buffer.bind();
+        glVertexAttribIPointer(index, size, dataType, stride, pointer);
+        enableVertexAttributeArray(index);
+    }
+
+    /**
+     * Sets the number of instances that share a value of the vertex attribute at the specified index.
+     * A divisor of {@code 0} advances the attribute per vertex.
+     *
+     * @param index   The attribute index.
+     * @param divisor The number of instances per attribute value.
+     */
+    public void vertexAttribDivisor(int index, int divisor) {
+        bind();
+        glVertexAttribDivisor(index, divisor);
+    }
+
     /**
      * Disables the vertex attribute array at the specified position.
      *
@@ -109,7 +131,7 @@ public class VertexArray extends OpenGLObject {
      * @return {@code true} if this VertexArray is bound; {@code false} otherwise.
      */
     private boolean isBound() {
-        return current == this;
+        return GLStateCache.current().getVertexArray() == id;
     }
 
     /**
@@ -118,5 +140,6 @@ public class VertexArray extends OpenGLObject {
     @Override
     public void close() {
         glDeleteVertexArrays(id);
+        GLStateCache.current().onVertexArrayDeleted(id);
     }
 }
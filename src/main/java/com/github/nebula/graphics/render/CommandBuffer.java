@@ -0,0 +1,496 @@
+package com.github.nebula.graphics.render;
+
+import com.github.nebula.graphics.Material;
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.globjects.GLStateCache;
+import com.github.nebula.graphics.globjects.Shader;
+import com.github.nebula.graphics.globjects.Texture;
+import com.github.nebula.graphics.globjects.UniformHandle;
+import com.github.nebula.graphics.globjects.VertexArray;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import org.joml.Vector4f;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+/**
+ * The {@code CommandBuffer} class records draw and state commands without calling OpenGL, so that any thread can
+ * prepare the commands of a frame. Every command is encoded as an opcode followed by its arguments into an off-heap
+ * buffer; objects that are not OpenGL names, such as materials and uniform handles, are kept in a reference table and
+ * encoded as their index. {@link #execute()} replays the commands on the thread of the context, through its
+ * {@link GLStateCache}, so commands that would not change the state cost no OpenGL call.
+ *
+ * <p>A command buffer is written by one thread at a time and executed after the writing thread is done, usually
+ * through a {@link CommandRecorder}. Objects referenced by recorded commands must stay alive until the buffer has
+ * been executed or {@link #reset()}.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class CommandBuffer implements AutoCloseable {
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int INITIAL_REFERENCES = 64;
+
+    private static final int BIND_VERTEX_ARRAY = 1;
+    private static final int BIND_SHADER = 2;
+    private static final int BIND_MATERIAL = 3;
+    private static final int BIND_BUFFER = 4;
+    private static final int BIND_BUFFER_BASE = 5;
+    private static final int BIND_BUFFER_RANGE = 6;
+    private static final int BIND_TEXTURE = 7;
+    private static final int VIEWPORT = 8;
+    private static final int BLEND = 9;
+    private static final int BLEND_FUNC = 10;
+    private static final int DEPTH_TEST = 11;
+    private static final int DEPTH_FUNC = 12;
+    private static final int DEPTH_MASK = 13;
+    private static final int UNIFORM_FLOAT = 14;
+    private static final int UNIFORM_INT = 15;
+    private static final int UNIFORM_VEC4 = 16;
+    private static final int UNIFORM_MAT4 = 17;
+    private static final int DRAW_ARRAYS = 18;
+    private static final int DRAW_ELEMENTS = 19;
+    private static final int DRAW_ELEMENTS_INDIRECT = 20;
+    private static final int DRAW_ITEM = 21;
+
+    private ByteBuffer data;
+    private Object[] references;
+    private int position, referenceCount;
+    /**
+     * The number of commands recorded since the last {@link #reset()}.
+     */
+    private @Getter int commandCount;
+    /**
+     * Receive vector and matrix uniforms during {@link #execute()}, which only runs on the thread of the context.
+     */
+    private final Vector4f vector;
+    private final Matrix4f matrix;
+
+    /**
+     * Creates an empty command buffer.
+     */
+    public CommandBuffer() {
+        this.data = MemoryUtil.memAlloc(INITIAL_CAPACITY);
+        this.references = new Object[INITIAL_REFERENCES];
+        this.vector = new Vector4f();
+        this.matrix = new Matrix4f();
+    }
+
+    /**
+     * Returns the number of bytes the recorded commands occupy.
+     *
+     * @return the size of the recorded commands in bytes
+     */
+    public int getByteSize() {
+        return position;
+    }
+
+    /**
+     * Removes all recorded commands, keeping the allocated memory.
+     */
+    public void reset() {
+        Arrays.fill(references, 0, referenceCount, null);
+        position = 0;
+        referenceCount = 0;
+        commandCount = 0;
+    }
+
+    private void begin(int opcode, int argumentBytes) {
+        val required = position + Integer.BYTES + argumentBytes;
+        if (required > data.capacity())
+            data = MemoryUtil.memRealloc(data, Math.max(required, data.capacity() * 2));
+        data.putInt(position, opcode);
+        position += Integer.BYTES;
+        commandCount++;
+    }
+
+    private void putInt(int value) {
+        data.putInt(position, value);
+        position += Integer.BYTES;
+    }
+
+    private void putLong(long value) {
+        data.putLong(position, value);
+        position += Long.BYTES;
+    }
+
+    private void putFloat(float value) {
+        data.putFloat(position, value);
+        position += Float.BYTES;
+    }
+
+    private void putReference(Object reference) {
+        if (referenceCount == references.length) references = Arrays.copyOf(references, referenceCount * 2);
+        references[referenceCount] = reference;
+        putInt(referenceCount++);
+    }
+
+    private void putUniform(UniformHandle uniform) {
+        // Only draws are recorded, so the uniform has to belong to a render program
+        if (!(uniform.getProgram() instanceof Shader))
+            throw new IllegalArgumentException(STR."Uniform \{uniform.getName()} does not belong to a Shader");
+        putReference(uniform);
+    }
+
+    /**
+     * Records binding a vertex array.
+     *
+     * @param vertexArray the vertex array
+     */
+    public void bindVertexArray(@NonNull VertexArray vertexArray) {
+        begin(BIND_VERTEX_ARRAY, Integer.BYTES);
+        putInt(vertexArray.id);
+    }
+
+    /**
+     * Records binding a shader. Binding finishes the shader's compilation if it is still pending.
+     *
+     * @param shader the shader
+     */
+    public void bindShader(@NonNull Shader shader) {
+        begin(BIND_SHADER, Integer.BYTES);
+        putReference(shader);
+    }
+
+    /**
+     * Records applying a material for the following draws, as {@link Material#bindForDraw()}.
+     *
+     * @param material the material
+     */
+    public void bindMaterial(@NonNull Material material) {
+        begin(BIND_MATERIAL, Integer.BYTES);
+        putReference(material);
+    }
+
+    /**
+     * Records binding a buffer to a target.
+     *
+     * @param target the buffer target
+     * @param buffer the buffer
+     */
+    public void bindBuffer(int target, @NonNull Buffer buffer) {
+        begin(BIND_BUFFER, Integer.BYTES * 2);
+        putInt(target);
+        putInt(buffer.id);
+    }
+
+    /**
+     * Records binding a whole buffer to an indexed binding point.
+     *
+     * @param target the indexed buffer target
+     * @param index  the binding point
+     * @param buffer the buffer
+     */
+    public void bindBufferBase(int target, int index, @NonNull Buffer buffer) {
+        begin(BIND_BUFFER_BASE, Integer.BYTES * 3);
+        putInt(target);
+        putInt(index);
+        putInt(buffer.id);
+    }
+
+    /**
+     * Records binding a range of a buffer to an indexed binding point.
+     *
+     * @param target     the indexed buffer target
+     * @param index      the binding point
+     * @param buffer     the buffer
+     * @param byteOffset the offset of the range in bytes
+     * @param byteSize   the size of the range in bytes
+     */
+    public void bindBufferRange(int target, int index, @NonNull Buffer buffer, long byteOffset, long byteSize) {
+        begin(BIND_BUFFER_RANGE, Integer.BYTES * 3 + Long.BYTES * 2);
+        putInt(target);
+        putInt(index);
+        putInt(buffer.id);
+        putLong(byteOffset);
+        putLong(byteSize);
+    }
+
+    /**
+     * Records binding a texture to a texture unit.
+     *
+     * @param unit    the index of the unit, starting at {@code 0} for {@code GL_TEXTURE0}
+     * @param texture the texture
+     */
+    public void bindTexture(int unit, @NonNull Texture texture) {
+        begin(BIND_TEXTURE, Integer.BYTES * 2);
+        putInt(unit);
+        putInt(texture.id);
+    }
+
+    /**
+     * Records setting the viewport.
+     *
+     * @param x      the left edge of the viewport
+     * @param y      the bottom edge of the viewport
+     * @param width  the width of the viewport
+     * @param height the height of the viewport
+     */
+    public void viewport(int x, int y, int width, int height) {
+        begin(VIEWPORT, Integer.BYTES * 4);
+        putInt(x);
+        putInt(y);
+        putInt(width);
+        putInt(height);
+    }
+
+    /**
+     * Records enabling or disabling blending.
+     *
+     * @param enabled whether blending is enabled
+     */
+    public void setBlend(boolean enabled) {
+        begin(BLEND, Integer.BYTES);
+        putInt(enabled ? 1 : 0);
+    }
+
+    /**
+     * Records setting the blend factors.
+     *
+     * @param source      the source factor
+     * @param destination the destination factor
+     */
+    public void blendFunc(int source, int destination) {
+        begin(BLEND_FUNC, Integer.BYTES * 2);
+        putInt(source);
+        putInt(destination);
+    }
+
+    /**
+     * Records enabling or disabling depth testing.
+     *
+     * @param enabled whether depth testing is enabled
+     */
+    public void setDepthTest(boolean enabled) {
+        begin(DEPTH_TEST, Integer.BYTES);
+        putInt(enabled ? 1 : 0);
+    }
+
+    /**
+     * Records setting the depth comparison.
+     *
+     * @param func the comparison function
+     */
+    public void depthFunc(int func) {
+        begin(DEPTH_FUNC, Integer.BYTES);
+        putInt(func);
+    }
+
+    /**
+     * Records enabling or disabling depth writes.
+     *
+     * @param enabled whether depth values are written
+     */
+    public void depthMask(boolean enabled) {
+        begin(DEPTH_MASK, Integer.BYTES);
+        putInt(enabled ? 1 : 0);
+    }
+
+    /**
+     * Records uploading a float uniform.
+     *
+     * @param uniform the handle of the uniform
+     * @param value   the value
+     */
+    public void uniformFloat(@NonNull UniformHandle uniform, float value) {
+        begin(UNIFORM_FLOAT, Integer.BYTES + Float.BYTES);
+        putUniform(uniform);
+        putFloat(value);
+    }
+
+    /**
+     * Records uploading an integer uniform.
+     *
+     * @param uniform the handle of the uniform
+     * @param value   the value
+     */
+    public void uniformInt(@NonNull UniformHandle uniform, int value) {
+        begin(UNIFORM_INT, Integer.BYTES * 2);
+        putUniform(uniform);
+        putInt(value);
+    }
+
+    /**
+     * Records uploading a four component vector uniform.
+     *
+     * @param uniform the handle of the uniform
+     * @param x       the first component
+     * @param y       the second component
+     * @param z       the third component
+     * @param w       the fourth component
+     */
+    public void uniformVec4f(@NonNull UniformHandle uniform, float x, float y, float z, float w) {
+        begin(UNIFORM_VEC4, Integer.BYTES + Float.BYTES * 4);
+        putUniform(uniform);
+        putFloat(x);
+        putFloat(y);
+        putFloat(z);
+        putFloat(w);
+    }
+
+    /**
+     * Records uploading a 4x4 matrix uniform. The matrix is copied, so it may change after the call.
+     *
+     * @param uniform the handle of the uniform
+     * @param value   the matrix
+     */
+    public void uniformMat4f(@NonNull UniformHandle uniform, @NonNull Matrix4fc value) {
+        begin(UNIFORM_MAT4, Integer.BYTES + Float.BYTES * 16);
+        putUniform(uniform);
+        value.get(position, data);
+        position += Float.BYTES * 16;
+    }
+
+    /**
+     * Records an instanced non-indexed draw.
+     *
+     * @param mode          the primitive mode
+     * @param first         the first vertex
+     * @param count         the number of vertices
+     * @param instanceCount the number of instances
+     */
+    public void drawArraysInstanced(int mode, int first, int count, int instanceCount) {
+        begin(DRAW_ARRAYS, Integer.BYTES * 4);
+        putInt(mode);
+        putInt(first);
+        putInt(count);
+        putInt(instanceCount);
+    }
+
+    /**
+     * Records an instanced draw of unsigned integer indices from the element buffer of the bound vertex array.
+     *
+     * @param mode          the primitive mode
+     * @param count         the number of indices
+     * @param byteOffset    the offset of the first index in bytes
+     * @param instanceCount the number of instances
+     */
+    public void drawElementsInstanced(int mode, int count, long byteOffset, int instanceCount) {
+        begin(DRAW_ELEMENTS, Integer.BYTES * 3 + Long.BYTES);
+        putInt(mode);
+        putInt(count);
+        putLong(byteOffset);
+        putInt(instanceCount);
+    }
+
+    /**
+     * Records executing consecutive {@code DrawElementsIndirectCommand}s with unsigned integer indices.
+     *
+     * @param mode       the primitive mode
+     * @param commands   a buffer holding the commands
+     * @param byteOffset the offset of the first command in bytes
+     * @param drawCount  the number of commands
+     */
+    public void multiDrawElementsIndirect(int mode, @NonNull Buffer commands, long byteOffset, int drawCount) {
+        begin(DRAW_ELEMENTS_INDIRECT, Integer.BYTES * 3 + Long.BYTES);
+        putInt(mode);
+        putInt(commands.id);
+        putLong(byteOffset);
+        putInt(drawCount);
+    }
+
+    /**
+     * Records applying the material of an item and drawing it.
+     *
+     * @param item the item
+     */
+    public void drawItem(@NonNull RenderItem item) {
+        begin(DRAW_ITEM, Integer.BYTES);
+        putReference(item);
+    }
+
+    /**
+     * Replays the recorded commands. Has to be called on the thread of the context, after the recording thread is
+     * done. The commands are kept, so a buffer can be executed again until it is {@link #reset()}.
+     */
+    public void execute() {
+        val cache = GLStateCache.current();
+        var read = 0;
+        while (read < position) {
+            val opcode = data.getInt(read);
+            read += Integer.BYTES;
+            switch (opcode) {
+                case BIND_VERTEX_ARRAY -> cache.bindVertexArray(data.getInt(read));
+                case BIND_SHADER -> ((Shader) references[data.getInt(read)]).bind();
+                case BIND_MATERIAL -> ((Material) references[data.getInt(read)]).bindForDraw();
+                case BIND_BUFFER -> cache.bindBuffer(data.getInt(read), data.getInt(read + 4));
+                case BIND_BUFFER_BASE ->
+                        cache.bindBufferBase(data.getInt(read), data.getInt(read + 4), data.getInt(read + 8));
+                case BIND_BUFFER_RANGE -> cache.bindBufferRange(data.getInt(read), data.getInt(read + 4),
+                        data.getInt(read + 8), data.getLong(read + 12), data.getLong(read + 20));
+                case BIND_TEXTURE -> cache.bindTextureUnit(data.getInt(read), GL_TEXTURE_2D, data.getInt(read + 4));
+                case VIEWPORT -> cache.viewport(data.getInt(read), data.getInt(read + 4), data.getInt(read + 8),
+                        data.getInt(read + 12));
+                case BLEND -> cache.setBlend(data.getInt(read) != 0);
+                case BLEND_FUNC -> cache.blendFunc(data.getInt(read), data.getInt(read + 4));
+                case DEPTH_TEST -> cache.setDepthTest(data.getInt(read) != 0);
+                case DEPTH_FUNC -> cache.depthFunc(data.getInt(read));
+                case DEPTH_MASK -> cache.depthMask(data.getInt(read) != 0);
+                case UNIFORM_FLOAT -> {
+                    val uniform = (UniformHandle) references[data.getInt(read)];
+                    ((Shader) uniform.getProgram()).uploadUniformFloat(uniform, data.getFloat(read + 4));
+                }
+                case UNIFORM_INT -> {
+                    val uniform = (UniformHandle) references[data.getInt(read)];
+                    ((Shader) uniform.getProgram()).uploadUniformInt(uniform, data.getInt(read + 4));
+                }
+                case UNIFORM_VEC4 -> {
+                    val uniform = (UniformHandle) references[data.getInt(read)];
+                    ((Shader) uniform.getProgram()).uploadUniformVec4f(uniform, vector.set(data.getFloat(read + 4),
+                            data.getFloat(read + 8), data.getFloat(read + 12), data.getFloat(read + 16)));
+                }
+                case UNIFORM_MAT4 -> {
+                    val uniform = (UniformHandle) references[data.getInt(read)];
+                    ((Shader) uniform.getProgram()).uploadUniformMat4f(uniform, matrix.set(read + 4, data));
+                }
+                case DRAW_ARRAYS -> glDrawArraysInstanced(data.getInt(read), data.getInt(read + 4),
+                        data.getInt(read + 8), data.getInt(read + 12));
+                case DRAW_ELEMENTS -> glDrawElementsInstanced(data.getInt(read), data.getInt(read + 4),
+                        GL_UNSIGNED_INT, data.getLong(read + 8), data.getInt(read + 16));
+                case DRAW_ELEMENTS_INDIRECT -> {
+                    cache.bindBuffer(GL_DRAW_INDIRECT_BUFFER, data.getInt(read + 4));
+                    glMultiDrawElementsIndirect(data.getInt(read), GL_UNSIGNED_INT, data.getLong(read + 8),
+                            data.getInt(read + 16), 0);
+                }
+                case DRAW_ITEM -> {
+                    val item = (RenderItem) references[data.getInt(read)];
+                    item.getMaterial().bindForDraw();
+                    item.draw();
+                }
+                default -> throw new IllegalStateException(STR."Unknown opcode \{opcode} at byte \{read - 4}");
+            }
+            read += argumentBytes(opcode);
+        }
+    }
+
+    private static int argumentBytes(int opcode) {
+        return switch (opcode) {
+            case BIND_VERTEX_ARRAY, BIND_SHADER, BIND_MATERIAL, BLEND, DEPTH_TEST, DEPTH_FUNC, DEPTH_MASK, DRAW_ITEM ->
+                    Integer.BYTES;
+            case BIND_BUFFER, BIND_TEXTURE, BLEND_FUNC, UNIFORM_FLOAT, UNIFORM_INT -> Integer.BYTES * 2;
+            case BIND_BUFFER_BASE -> Integer.BYTES * 3;
+            case BIND_BUFFER_RANGE -> Integer.BYTES * 3 + Long.BYTES * 2;
+            case VIEWPORT, DRAW_ARRAYS -> Integer.BYTES * 4;
+            case UNIFORM_VEC4 -> Integer.BYTES + Float.BYTES * 4;
+            case UNIFORM_MAT4 -> Integer.BYTES + Float.BYTES * 16;
+            case DRAW_ELEMENTS, DRAW_ELEMENTS_INDIRECT -> Integer.BYTES * 3 + Long.BYTES;
+            default -> throw new IllegalStateException(STR."Unknown opcode \{opcode}");
+        };
+    }
+
+    /**
+     * Frees the memory of the recorded commands.
+     */
+    @Override
+    public void close() {
+        MemoryUtil.memFree(data);
+        Arrays.fill(references, null);
+    }
+}
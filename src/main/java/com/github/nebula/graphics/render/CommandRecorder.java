@@ -0,0 +1,137 @@
+package com.github.nebula.graphics.render;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The {@code CommandRecorder} class records the commands of a frame on a pool of worker threads and submits them on
+ * the thread of the context. Recording is split into tasks, for example one per chunk of visible objects; every task
+ * records into its own {@link CommandBuffer}, so the workers never share a buffer and need no locks. The buffers are
+ * executed in the order of their task indices, so the submitted commands are the same no matter which worker
+ * recorded which task or in which order the tasks finished.
+ *
+ * <p>The command buffers are kept between frames, so once the recorder has seen its largest frame, recording does not
+ * allocate.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class CommandRecorder implements AutoCloseable {
+    private final ForkJoinPool pool;
+    private final List<CommandBuffer> buffers;
+    private int bufferCount;
+
+    /**
+     * Records one task of a frame.
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Records the commands of a task. Called on a worker thread, concurrently with other tasks, so it must not
+         * call OpenGL.
+         *
+         * @param index  the index of the task, from {@code 0} to the task count
+         * @param buffer the empty buffer to record into
+         */
+        void record(int index, @NonNull CommandBuffer buffer);
+    }
+
+    public CommandRecorder() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a recorder that records tasks on the given pool.
+     *
+     * @param pool the pool to run the tasks on
+     */
+    public CommandRecorder(@NonNull ForkJoinPool pool) {
+        this.pool = pool;
+        this.buffers = new ArrayList<>();
+    }
+
+    /**
+     * Records the commands of a frame, replacing those of the previous frame. Returns once all tasks are recorded.
+     *
+     * @param taskCount the number of tasks
+     * @param task      records a single task
+     * @throws IllegalArgumentException if {@code taskCount} is negative
+     */
+    public void record(int taskCount, @NonNull Task task) {
+        if (taskCount < 0) throw new IllegalArgumentException(STR."Task count \{taskCount} is negative");
+        while (buffers.size() < taskCount) buffers.add(new CommandBuffer());
+        for (var i = 0; i < taskCount; i++) buffers.get(i).reset();
+        bufferCount = taskCount;
+
+        if (taskCount == 1)
+            task.record(0, buffers.getFirst());
+        else if (taskCount > 1)
+            pool.invoke(new RecordTask(task, 0, taskCount));
+    }
+
+    /**
+     * Executes the recorded buffers in the order of their task indices. Has to be called on the thread of the
+     * context. The commands are kept, so the same frame can be submitted again until the next {@link #record}.
+     */
+    public void submit() {
+        for (var i = 0; i < bufferCount; i++) buffers.get(i).execute();
+    }
+
+    /**
+     * Returns the buffer a task of the last frame was recorded into.
+     *
+     * @param index the index of the task
+     * @return the command buffer
+     */
+    @NonNull
+    public CommandBuffer getBuffer(int index) {
+        if (index < 0 || index >= bufferCount)
+            throw new IndexOutOfBoundsException(STR."Index \{index} is out of bounds for \{bufferCount} buffers");
+        return buffers.get(index);
+    }
+
+    /**
+     * Returns the number of tasks recorded in the last frame.
+     *
+     * @return the number of buffers
+     */
+    public int getBufferCount() {
+        return bufferCount;
+    }
+
+    /**
+     * Frees all command buffers.
+     */
+    @Override
+    public void close() {
+        for (val buffer : buffers) buffer.close();
+        buffers.clear();
+        bufferCount = 0;
+    }
+
+    private final class RecordTask extends RecursiveAction {
+        private final Task task;
+        private final int from, to;
+
+        private RecordTask(Task task, int from, int to) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                task.record(from, buffers.get(from));
+                return;
+            }
+            val mid = (from + to) >>> 1;
+            invokeAll(new RecordTask(task, from, mid), new RecordTask(task, mid, to));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.nebula.graphics.render;
+
+import com.github.nebula.graphics.Material;
+
+/**
+ * The {@code RenderItem} interface is a draw submitted to a {@link RenderQueue}. The queue applies the material of an
+ * item only when it differs from the material of the previous item, so {@link #draw()} binds nothing but the geometry
+ * and issues the draw call.
+ *
+ * <p>Items are meant to be created once and submitted every frame, so filling the queue does not allocate.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public interface RenderItem {
+    /**
+     * Returns the material this item is drawn with.
+     *
+     * @return the material of the item
+     */
+    Material getMaterial();
+
+    /**
+     * Issues the draw call of this item. The material has been applied by the queue.
+     */
+    void draw();
+}
@@ -0,0 +1,208 @@
+package com.github.nebula.graphics.render;
+
+import com.github.nebula.graphics.Material;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.val;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The {@code RenderQueue} class orders the draws of a frame by their {@link SortKey sort keys} before issuing them,
+ * so draws sharing a shader, material or texture are issued one after another no matter in which order they were
+ * added. The keys are sorted as unsigned integers with a least significant digit radix sort of eight 8-bit digits,
+ * which is stable and skips every digit all keys agree on.
+ *
+ * <p>Submitting applies the material of an item only when it differs from the previous one and reports every change
+ * of the {@link SortKey#pass(long) pass} to the {@link #setPassListener(IntConsumer) pass listener}, which can set
+ * the blend and depth state of the pass. Apart from growing its arrays while the number of items exceeds all previous
+ * frames, the queue does not allocate.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class RenderQueue {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int DIGITS = Long.SIZE / DIGIT_BITS;
+
+    /**
+     * The keys and the item indices, as pairs in the same positions. Sorting moves the pairs, not the items.
+     */
+    private long[] keys, scratchKeys;
+    private int[] indices, scratchIndices;
+    private RenderItem[] items;
+    private final int[] histograms;
+    private int size;
+    private boolean sorted;
+    /**
+     * Called with the pass of the next item whenever the pass changes during {@link #submit()}.
+     */
+    private @Setter IntConsumer passListener;
+    /**
+     * The number of times the material changed during the last {@link #submit()}.
+     */
+    private @Getter int materialChanges;
+    /**
+     * The number of times the shader changed during the last {@link #submit()}.
+     */
+    private @Getter int shaderChanges;
+
+    /**
+     * Creates an empty queue.
+     */
+    public RenderQueue() {
+        this.keys = new long[INITIAL_CAPACITY];
+        this.scratchKeys = new long[INITIAL_CAPACITY];
+        this.indices = new int[INITIAL_CAPACITY];
+        this.scratchIndices = new int[INITIAL_CAPACITY];
+        this.items = new RenderItem[INITIAL_CAPACITY];
+        this.histograms = new int[DIGITS * RADIX];
+        this.sorted = true;
+    }
+
+    /**
+     * Adds a draw to the queue.
+     *
+     * @param key  the sort key of the draw, usually packed by {@link SortKey}
+     * @param item the draw
+     */
+    public void add(long key, @NonNull RenderItem item) {
+        if (size == keys.length) grow();
+        keys[size] = key;
+        indices[size] = size;
+        items[size] = item;
+        size++;
+        sorted = false;
+    }
+
+    private void grow() {
+        val capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        scratchKeys = new long[capacity];
+        indices = Arrays.copyOf(indices, capacity);
+        scratchIndices = new int[capacity];
+        items = Arrays.copyOf(items, capacity);
+    }
+
+    /**
+     * Sorts the queued draws by their keys, keeping draws with equal keys in the order they were added.
+     */
+    public void sort() {
+        if (sorted) return;
+        Arrays.fill(histograms, 0);
+        for (var i = 0; i < size; i++) {
+            val key = keys[i];
+            for (var digit = 0; digit < DIGITS; digit++)
+                histograms[digit * RADIX + (int) (key >>> digit * DIGIT_BITS & RADIX - 1)]++;
+        }
+
+        for (var digit = 0; digit < DIGITS; digit++) {
+            val offset = digit * RADIX;
+            // A digit all keys agree on would not move any key
+            if (histograms[offset + (int) (keys[0] >>> digit * DIGIT_BITS & RADIX - 1)] == size) continue;
+
+            var sum = 0;
+            for (var bucket = offset; bucket < offset + RADIX; bucket++) {
+                val count = histograms[bucket];
+                histograms[bucket] = sum;
+                sum += count;
+            }
+            val shift = digit * DIGIT_BITS;
+            for (var i = 0; i < size; i++) {
+                val key = keys[i];
+                val target = histograms[offset + (int) (key >>> shift & RADIX - 1)]++;
+                scratchKeys[target] = key;
+                scratchIndices[target] = indices[i];
+            }
+            val swappedKeys = keys;
+            keys = scratchKeys;
+            scratchKeys = swappedKeys;
+            val swappedIndices = indices;
+            indices = scratchIndices;
+            scratchIndices = swappedIndices;
+        }
+        sorted = true;
+    }
+
+    /**
+     * Sorts the queue and issues all draws in order. The queue keeps its items, so it has to be {@link #clear()
+     * cleared} before the draws of the next frame are added.
+     */
+    public void submit() {
+        sort();
+        materialChanges = 0;
+        shaderChanges = 0;
+        Material currentMaterial = null;
+        Object currentShader = null;
+        var currentPass = -1;
+        for (var i = 0; i < size; i++) {
+            val pass = SortKey.pass(keys[i]);
+            if (pass != currentPass) {
+                currentPass = pass;
+                if (passListener != null) passListener.accept(pass);
+            }
+            val item = items[indices[i]];
+            val material = item.getMaterial();
+            if (material != currentMaterial) {
+                material.bindForDraw();
+                currentMaterial = material;
+                materialChanges++;
+                if (material.getShader() != currentShader) {
+                    currentShader = material.getShader();
+                    shaderChanges++;
+                }
+            }
+            item.draw();
+        }
+    }
+
+    /**
+     * Removes all draws, keeping the capacity of the queue.
+     */
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        sorted = true;
+    }
+
+    /**
+     * Returns the number of queued draws.
+     *
+     * @return the number of draws
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the key at a position of the queue, which is the order of submission once the queue is sorted.
+     *
+     * @param position the position in the queue
+     * @return the sort key
+     */
+    public long getKey(int position) {
+        checkPosition(position);
+        return keys[position];
+    }
+
+    /**
+     * Returns the draw at a position of the queue, which is the order of submission once the queue is sorted.
+     *
+     * @param position the position in the queue
+     * @return the draw
+     */
+    @NonNull
+    public RenderItem getItem(int position) {
+        checkPosition(position);
+        return items[indices[position]];
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= size)
+            throw new IndexOutOfBoundsException(STR."Position \{position} is out of bounds for size \{size}");
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.nebula.graphics.render;
+
+import lombok.val;
+
+/**
+ * The {@code SortKey} class packs the state a draw needs into a 64-bit key, so that sorting the keys as unsigned
+ * integers groups draws by their state. From the most significant bits down, opaque keys hold
+ * <pre>
+ * | pass (4) | layer (4) | shader (12) | material (12) | texture (12) | depth (20) |
+ * </pre>
+ * so draws are grouped by shader, then material, then texture, and drawn front-to-back within a group to make the most
+ * of early depth testing. Transparent keys move the depth right after the layer and invert it,
+ * <pre>
+ * | pass (4) | layer (4) | inverted depth (20) | shader (12) | material (12) | texture (12) |
+ * </pre>
+ * so transparent draws are blended back-to-front, sharing state only between draws at the same depth.
+ *
+ * <p>Passes and layers order everything else: all draws of pass {@code 0} come before those of pass {@code 1}, and
+ * within a pass, layer {@code 0} comes first. Shader, material and texture are small ids, such as indices into a
+ * registry, rather than OpenGL names.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class SortKey {
+    public static final int PASS_BITS = 4;
+    public static final int LAYER_BITS = 4;
+    public static final int ID_BITS = 12;
+    public static final int DEPTH_BITS = 20;
+    /**
+     * The largest shader, material or texture id.
+     */
+    public static final int MAX_ID = (1 << ID_BITS) - 1;
+    /**
+     * The largest quantized depth.
+     */
+    public static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
+    private static final int PASS_SHIFT = Long.SIZE - PASS_BITS;
+    private static final int LAYER_SHIFT = PASS_SHIFT - LAYER_BITS;
+
+    private SortKey() {
+    }
+
+    /**
+     * Packs the key of an opaque draw, which sorts by state and then front-to-back.
+     *
+     * @param pass     the pass, less than {@code 2^PASS_BITS}
+     * @param layer    the layer within the pass, less than {@code 2^LAYER_BITS}
+     * @param shader   the id of the shader, at most {@link #MAX_ID}
+     * @param material the id of the material, at most {@link #MAX_ID}
+     * @param texture  the id of the texture, at most {@link #MAX_ID}
+     * @param depth    the {@link #quantizeDepth(float, float, float) quantized} depth, at most {@link #MAX_DEPTH}
+     * @return the sort key
+     * @throws IllegalArgumentException if a field does not fit into its bits
+     */
+    public static long opaque(int pass, int layer, int shader, int material, int texture, int depth) {
+        return header(pass, layer)
+                | (long) checkId(shader, "Shader") << (ID_BITS * 2 + DEPTH_BITS)
+                | (long) checkId(material, "Material") << (ID_BITS + DEPTH_BITS)
+                | (long) checkId(texture, "Texture") << DEPTH_BITS
+                | checkDepth(depth);
+    }
+
+    /**
+     * Packs the key of a transparent draw, which sorts back-to-front and then by state.
+     *
+     * @param pass     the pass, less than {@code 2^PASS_BITS}
+     * @param layer    the layer within the pass, less than {@code 2^LAYER_BITS}
+     * @param shader   the id of the shader, at most {@link #MAX_ID}
+     * @param material the id of the material, at most {@link #MAX_ID}
+     * @param texture  the id of the texture, at most {@link #MAX_ID}
+     * @param depth    the {@link #quantizeDepth(float, float, float) quantized} depth, at most {@link #MAX_DEPTH}
+     * @return the sort key
+     * @throws IllegalArgumentException if a field does not fit into its bits
+     */
+    public static long transparent(int pass, int layer, int shader, int material, int texture, int depth) {
+        return header(pass, layer)
+                | (long) (MAX_DEPTH - checkDepth(depth)) << (ID_BITS * 3)
+                | (long) checkId(shader, "Shader") << (ID_BITS * 2)
+                | (long) checkId(material, "Material") << ID_BITS
+                | checkId(texture, "Texture");
+    }
+
+    /**
+     * Maps a view space distance linearly to the range of a quantized depth. Distances outside of the clip planes
+     * are clamped.
+     *
+     * @param distance the distance from the camera
+     * @param near     the distance of the near plane
+     * @param far      the distance of the far plane
+     * @return the quantized depth, {@code 0} at the near plane and {@link #MAX_DEPTH} at the far plane
+     */
+    public static int quantizeDepth(float distance, float near, float far) {
+        val normalized = (distance - near) / (far - near);
+        if (!(normalized > 0)) return 0;
+        if (normalized >= 1) return MAX_DEPTH;
+        return (int) (normalized * MAX_DEPTH);
+    }
+
+    /**
+     * Extracts the pass of a key.
+     *
+     * @param key the sort key
+     * @return the pass
+     */
+    public static int pass(long key) {
+        return (int) (key >>> PASS_SHIFT);
+    }
+
+    /**
+     * Extracts the layer of a key.
+     *
+     * @param key the sort key
+     * @return the layer within the pass
+     */
+    public static int layer(long key) {
+        return (int) (key >>> LAYER_SHIFT) & ((1 << LAYER_BITS) - 1);
+    }
+
+    private static long header(int pass, int layer) {
+        if (pass < 0 || pass >= 1 << PASS_BITS)
+            throw new IllegalArgumentException(STR."Pass \{pass} does not fit into \{PASS_BITS} bits");
+        if (layer < 0 || layer >= 1 << LAYER_BITS)
+            throw new IllegalArgumentException(STR."Layer \{layer} does not fit into \{LAYER_BITS} bits");
+        return (long) pass << PASS_SHIFT | (long) layer << LAYER_SHIFT;
+    }
+
+    private static int checkId(int id, String kind) {
+        if (id < 0 || id > MAX_ID)
+            throw new IllegalArgumentException(STR."\{kind} id \{id} does not fit into \{ID_BITS} bits");
+        return id;
+    }
+
+    private static int checkDepth(int depth) {
+        if (depth < 0 || depth > MAX_DEPTH)
+            throw new IllegalArgumentException(STR."Depth \{depth} does not fit into \{DEPTH_BITS} bits");
+        return depth;
+    }
+}
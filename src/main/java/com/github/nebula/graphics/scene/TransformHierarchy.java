@@ -0,0 +1,365 @@
+package com.github.nebula.graphics.scene;
+
+import com.github.nebula.graphics.ModelInstance;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The {@code TransformHierarchy} class is a scene graph of transforms. Each node has a local transform relative to its
+ * parent and a world transform, which is the product of all local transforms from the root down to the node.
+ *
+ * <p>Nodes are stored in depth-first order in flat arrays, so every subtree occupies a contiguous range of slots and
+ * parents always come before their children. {@link #update()} recomputes world transforms in a single linear pass,
+ * skipping subtrees without changes and recomputing only subtrees below a changed node. Large dirty subtrees are split
+ * by child subtree across a {@link ForkJoinPool}.
+ *
+ * <p>A node can be bound to a {@link ModelInstance}; its world transform is then written into the instance's model
+ * transform buffer whenever it changes.
+ *
+ * <p>Node ids returned by {@link #createNode(int)} are stable, while slots change as nodes are inserted and removed.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class TransformHierarchy {
+    /**
+     * The id used for "no node", for example as parent of root nodes.
+     */
+    public static final int NULL_NODE = -1;
+    private static final int MATRIX_FLOATS = 16;
+    /**
+     * Dirty subtrees with at least this many nodes are split across the pool.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final float[] IDENTITY = new Matrix4f().get(new float[MATRIX_FLOATS]);
+
+    private final ForkJoinPool pool;
+    private final List<ForkJoinTask<?>> forked;
+    // Slot indexed
+    private int[] parentSlots;
+    private int[] subtreeSizes;
+    private int[] slotNodes;
+    private float[] locals;
+    private float[] worlds;
+    private boolean[] localDirty;
+    private boolean[] dirtyBelow;
+    private ModelInstance[] instances;
+    // Node indexed
+    private int[] nodeSlots;
+    private int[] freeNodes;
+    private int freeNodeCount;
+    private int nodeIdCount;
+    private @Getter int size;
+    /**
+     * Slots of the roots of all subtrees recomputed by the current update.
+     */
+    private int[] dirtyRoots;
+    private int dirtyRootCount;
+
+    public TransformHierarchy() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an empty hierarchy that updates large subtrees on the given pool.
+     *
+     * @param pool the pool to split updates across
+     */
+    public TransformHierarchy(@NonNull ForkJoinPool pool) {
+        this.pool = pool;
+        this.forked = new ArrayList<>();
+        this.parentSlots = new int[INITIAL_CAPACITY];
+        this.subtreeSizes = new int[INITIAL_CAPACITY];
+        this.slotNodes = new int[INITIAL_CAPACITY];
+        this.locals = new float[INITIAL_CAPACITY * MATRIX_FLOATS];
+        this.worlds = new float[INITIAL_CAPACITY * MATRIX_FLOATS];
+        this.localDirty = new boolean[INITIAL_CAPACITY];
+        this.dirtyBelow = new boolean[INITIAL_CAPACITY];
+        this.instances = new ModelInstance[INITIAL_CAPACITY];
+        this.nodeSlots = new int[INITIAL_CAPACITY];
+        this.freeNodes = new int[INITIAL_CAPACITY];
+        this.dirtyRoots = new int[INITIAL_CAPACITY];
+        this.freeNodeCount = 0;
+        this.nodeIdCount = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Creates a node with an identity local transform as last child of {@code parent}.
+     *
+     * @param parent the parent node, or {@link #NULL_NODE} to create a root
+     * @return the id of the new node
+     */
+    public int createNode(int parent) {
+        val parentSlot = parent == NULL_NODE ? -1 : slotOf(parent);
+        val slot = parentSlot < 0 ? size : parentSlot + subtreeSizes[parentSlot];
+        ensureCapacity(size + 1);
+        shiftSlots(slot, 1);
+
+        val node = allocateNodeId();
+        nodeSlots[node] = slot;
+        slotNodes[slot] = node;
+        parentSlots[slot] = parentSlot;
+        subtreeSizes[slot] = 1;
+        System.arraycopy(IDENTITY, 0, locals, slot * MATRIX_FLOATS, MATRIX_FLOATS);
+        instances[slot] = null;
+        localDirty[slot] = true;
+        dirtyBelow[slot] = false;
+        for (var ancestor = parentSlot; ancestor >= 0; ancestor = parentSlots[ancestor])
+            subtreeSizes[ancestor]++;
+        markAncestors(slot);
+        return node;
+    }
+
+    /**
+     * Removes a node and all of its descendants. Bound instances are left untouched.
+     *
+     * @param node the node to remove
+     */
+    public void destroyNode(int node) {
+        val slot = slotOf(node);
+        val count = subtreeSizes[slot];
+        for (var i = slot; i < slot + count; i++) {
+            nodeSlots[slotNodes[i]] = -1;
+            freeNodes[freeNodeCount++] = slotNodes[i];
+        }
+        for (var ancestor = parentSlots[slot]; ancestor >= 0; ancestor = parentSlots[ancestor])
+            subtreeSizes[ancestor] -= count;
+        shiftSlots(slot + count, -count);
+    }
+
+    /**
+     * Moves all slots from {@code from} on by {@code delta} and fixes the slot references of the moved nodes.
+     */
+    private void shiftSlots(int from, int delta) {
+        val moved = size - from;
+        val to = from + delta;
+        if (moved > 0) {
+            System.arraycopy(parentSlots, from, parentSlots, to, moved);
+            System.arraycopy(subtreeSizes, from, subtreeSizes, to, moved);
+            System.arraycopy(slotNodes, from, slotNodes, to, moved);
+            System.arraycopy(locals, from * MATRIX_FLOATS, locals, to * MATRIX_FLOATS, moved * MATRIX_FLOATS);
+            System.arraycopy(worlds, from * MATRIX_FLOATS, worlds, to * MATRIX_FLOATS, moved * MATRIX_FLOATS);
+            System.arraycopy(localDirty, from, localDirty, to, moved);
+            System.arraycopy(dirtyBelow, from, dirtyBelow, to, moved);
+            System.arraycopy(instances, from, instances, to, moved);
+        }
+        size += delta;
+        if (delta < 0) Arrays.fill(instances, size, size - delta, null);
+        // Parents before the shifted range keep their slot, parents inside of it move along
+        for (var i = to; i < size; i++) {
+            nodeSlots[slotNodes[i]] = i;
+            if (parentSlots[i] >= from) parentSlots[i] += delta;
+        }
+    }
+
+    private int allocateNodeId() {
+        if (freeNodeCount > 0) return freeNodes[--freeNodeCount];
+        if (nodeIdCount == nodeSlots.length) {
+            nodeSlots = Arrays.copyOf(nodeSlots, nodeIdCount << 1);
+            freeNodes = Arrays.copyOf(freeNodes, nodeIdCount << 1);
+        }
+        return nodeIdCount++;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= parentSlots.length) return;
+        val capacity = Math.max(required, parentSlots.length << 1);
+        parentSlots = Arrays.copyOf(parentSlots, capacity);
+        subtreeSizes = Arrays.copyOf(subtreeSizes, capacity);
+        slotNodes = Arrays.copyOf(slotNodes, capacity);
+        locals = Arrays.copyOf(locals, capacity * MATRIX_FLOATS);
+        worlds = Arrays.copyOf(worlds, capacity * MATRIX_FLOATS);
+        localDirty = Arrays.copyOf(localDirty, capacity);
+        dirtyBelow = Arrays.copyOf(dirtyBelow, capacity);
+        instances = Arrays.copyOf(instances, capacity);
+    }
+
+    private int slotOf(int node) {
+        if (node < 0 || node >= nodeIdCount || nodeSlots[node] < 0)
+            throw new IllegalArgumentException(STR."Invalid node id: \{node}");
+        return nodeSlots[node];
+    }
+
+    /**
+     * Flags all ancestors of a slot as having a changed descendant, stopping at the first one already flagged.
+     */
+    private void markAncestors(int slot) {
+        for (var ancestor = parentSlots[slot]; ancestor >= 0 && !dirtyBelow[ancestor]; ancestor = parentSlots[ancestor])
+            dirtyBelow[ancestor] = true;
+    }
+
+    public int getParent(int node) {
+        val parentSlot = parentSlots[slotOf(node)];
+        return parentSlot < 0 ? NULL_NODE : slotNodes[parentSlot];
+    }
+
+    /**
+     * Sets the transform of a node relative to its parent.
+     *
+     * @param node      the node
+     * @param transform the new local transform
+     */
+    public void setLocalTransform(int node, @NonNull Matrix4fc transform) {
+        val slot = slotOf(node);
+        transform.get(locals, slot * MATRIX_FLOATS);
+        localDirty[slot] = true;
+        markAncestors(slot);
+    }
+
+    @NonNull
+    public Matrix4f getLocalTransform(int node, @NonNull Matrix4f dest) {
+        return dest.set(locals, slotOf(node) * MATRIX_FLOATS);
+    }
+
+    /**
+     * Reads the world transform of a node as computed by the last {@link #update()}.
+     *
+     * @param node the node
+     * @param dest the matrix to store the transform in
+     * @return {@code dest}
+     */
+    @NonNull
+    public Matrix4f getWorldTransform(int node, @NonNull Matrix4f dest) {
+        return dest.set(worlds, slotOf(node) * MATRIX_FLOATS);
+    }
+
+    /**
+     * Binds a node to a model instance, so the node's world transform becomes the instance's transformation matrix.
+     *
+     * @param node     the node
+     * @param instance the instance to drive, or {@code null} to unbind
+     */
+    public void bindInstance(int node, ModelInstance instance) {
+        val slot = slotOf(node);
+        instances[slot] = instance;
+        // Push the current transform on the next update
+        localDirty[slot] = true;
+        markAncestors(slot);
+    }
+
+    /**
+     * Recomputes the world transforms of all nodes below changed nodes and writes them into the bound instances.
+     */
+    public void update() {
+        dirtyRootCount = 0;
+        var slot = 0;
+        while (slot < size) {
+            if (localDirty[slot]) {
+                addDirtyRoot(slot);
+                slot += subtreeSizes[slot];
+            } else if (dirtyBelow[slot]) {
+                dirtyBelow[slot] = false;
+                slot++;
+            } else {
+                slot += subtreeSizes[slot];
+            }
+        }
+        if (dirtyRootCount == 0) return;
+
+        var dirtyNodes = 0;
+        for (var i = 0; i < dirtyRootCount; i++) dirtyNodes += subtreeSizes[dirtyRoots[i]];
+        if (dirtyNodes < PARALLEL_THRESHOLD) {
+            for (var i = 0; i < dirtyRootCount; i++) recompute(dirtyRoots[i], dirtyRoots[i] + subtreeSizes[dirtyRoots[i]]);
+        } else {
+            forked.clear();
+            for (var i = 0; i < dirtyRootCount; i++) forked.add(new SubtreeTask(dirtyRoots[i]));
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(forked);
+                }
+            });
+        }
+
+        // Instance buffers track changes in shared bit sets, so they are written from a single thread
+        for (var i = 0; i < dirtyRootCount; i++) {
+            val root = dirtyRoots[i];
+            for (var s = root; s < root + subtreeSizes[root]; s++) {
+                localDirty[s] = false;
+                dirtyBelow[s] = false;
+                val instance = instances[s];
+                if (instance != null) instance.setTransformationMatrix(worlds, s * MATRIX_FLOATS);
+            }
+        }
+    }
+
+    private void addDirtyRoot(int slot) {
+        if (dirtyRootCount == dirtyRoots.length) dirtyRoots = Arrays.copyOf(dirtyRoots, dirtyRootCount << 1);
+        dirtyRoots[dirtyRootCount++] = slot;
+    }
+
+    /**
+     * Recomputes the world transforms of the slots {@code from} to {@code to}, whose parents are either inside of the
+     * range or already up to date.
+     */
+    private void recompute(int from, int to) {
+        for (var slot = from; slot < to; slot++) {
+            val parent = parentSlots[slot];
+            if (parent < 0)
+                System.arraycopy(locals, slot * MATRIX_FLOATS, worlds, slot * MATRIX_FLOATS, MATRIX_FLOATS);
+            else
+                multiply(worlds, parent * MATRIX_FLOATS, locals, slot * MATRIX_FLOATS, worlds, slot * MATRIX_FLOATS);
+        }
+    }
+
+    /**
+     * Multiplies two column-major 4x4 matrices stored in arrays, {@code dest = a * b}.
+     * {@code dest} must not overlap {@code a} or {@code b}.
+     */
+    private static void multiply(float[] a, int ao, float[] b, int bo, float[] dest, int d) {
+        for (var column = 0; column < 4; column++) {
+            float b0 = b[bo + column * 4], b1 = b[bo + column * 4 + 1],
+                    b2 = b[bo + column * 4 + 2], b3 = b[bo + column * 4 + 3];
+            for (var row = 0; row < 4; row++) {
+                dest[d + column * 4 + row] = a[ao + row] * b0 + a[ao + 4 + row] * b1
+                        + a[ao + 8 + row] * b2 + a[ao + 12 + row] * b3;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    size=\{size}
+                }
+                """;
+    }
+
+    /**
+     * Recomputes a dirty subtree, forking one task per child subtree for large subtrees.
+     */
+    private final class SubtreeTask extends RecursiveAction {
+        private final int root;
+
+        private SubtreeTask(int root) {
+            this.root = root;
+        }
+
+        @Override
+        protected void compute() {
+            val end = root + subtreeSizes[root];
+            if (subtreeSizes[root] < PARALLEL_THRESHOLD) {
+                recompute(root, end);
+                return;
+            }
+            recompute(root, root + 1);
+            val children = new ArrayList<SubtreeTask>();
+            for (var child = root + 1; child < end; child += subtreeSizes[child])
+                children.add(new SubtreeTask(child));
+            invokeAll(children);
+        }
+    }
+}
@@ -0,0 +1,559 @@
+package com.github.nebula.graphics.spatial;
+
+import com.github.nebula.graphics.culling.Frustum;
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.Getter;
+import lombok.val;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The {@code DynamicAabbTree} class is an incrementally updated bounding volume hierarchy over axis aligned
+ * bounding boxes. Each leaf is a proxy carrying an integer of user data, for example the index of a model instance.
+ *
+ * <p>Leaves store "fat" bounding boxes that are enlarged by a margin, so objects that move slightly do not have to
+ * be reinserted. Insertion picks the sibling using a surface area heuristic and the tree is kept balanced with
+ * AVL-style rotations.
+ *
+ * <p>Nodes are not objects: all node data lives in flat primitive arrays indexed by node id, and freed nodes are
+ * recycled through a free list. Proxy ids are node ids and stay stable for the lifetime of the proxy.
+ *
+ * <p>Instances are not thread safe. Queries reuse an internal traversal stack and must not be nested.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class DynamicAabbTree {
+    /**
+     * The id used for "no node".
+     */
+    public static final int NULL_NODE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int BOUNDS = 6;
+    private static final int MIN_X = 0, MIN_Y = 1, MIN_Z = 2, MAX_X = 3, MAX_Y = 4, MAX_Z = 5;
+
+    /**
+     * The margin the bounds of every proxy are enlarged by.
+     */
+    private final @Getter float margin;
+    private final float[] planes;
+    private float[] bounds;
+    /**
+     * Parent of a node, or the next free node for nodes in the free list.
+     */
+    private int[] parents;
+    private int[] children1;
+    private int[] children2;
+    /**
+     * Height of a node, leaves have a height of {@code 0} and free nodes {@code -1}.
+     */
+    private int[] heights;
+    private int[] userData;
+    private int[] stack;
+    private int root;
+    private int freeList;
+    private @Getter int nodeCount;
+    private @Getter int proxyCount;
+
+    /**
+     * Creates an empty tree with a margin of {@code 0.1}.
+     */
+    public DynamicAabbTree() {
+        this(0.1f);
+    }
+
+    /**
+     * Creates an empty tree.
+     *
+     * @param margin the margin the bounds of every proxy are enlarged by
+     */
+    public DynamicAabbTree(float margin) {
+        if (margin < 0) throw new IllegalArgumentException("Margin must not be negative");
+        this.margin = margin;
+        this.planes = new float[Frustum.PLANE_COUNT * 4];
+        this.bounds = new float[0];
+        this.parents = new int[0];
+        this.children1 = new int[0];
+        this.children2 = new int[0];
+        this.heights = new int[0];
+        this.userData = new int[0];
+        this.stack = new int[64];
+        this.root = NULL_NODE;
+        this.freeList = NULL_NODE;
+        this.nodeCount = 0;
+        this.proxyCount = 0;
+        grow(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a proxy for the given bounds.
+     *
+     * @param userData the user data reported by queries for this proxy
+     * @return the id of the new proxy
+     */
+    public int createProxy(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int userData) {
+        val proxy = allocateNode();
+        setFatBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+        this.userData[proxy] = userData;
+        heights[proxy] = 0;
+        insertLeaf(proxy);
+        proxyCount++;
+        return proxy;
+    }
+
+    /**
+     * Removes a proxy from the tree. The id may be reused by later proxies.
+     *
+     * @param proxy the id of the proxy
+     */
+    public void destroyProxy(int proxy) {
+        checkProxy(proxy);
+        removeLeaf(proxy);
+        freeNode(proxy);
+        proxyCount--;
+    }
+
+    /**
+     * Updates the bounds of a proxy. The proxy is only reinserted if the new bounds are not contained in its
+     * current fat bounds.
+     *
+     * @param proxy the id of the proxy
+     * @return {@code true} if the proxy has been reinserted
+     */
+    public boolean moveProxy(int proxy, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        checkProxy(proxy);
+        val b = proxy * BOUNDS;
+        if (bounds[b + MIN_X] <= minX && bounds[b + MIN_Y] <= minY && bounds[b + MIN_Z] <= minZ
+                && bounds[b + MAX_X] >= maxX && bounds[b + MAX_Y] >= maxY && bounds[b + MAX_Z] >= maxZ)
+            return false;
+
+        removeLeaf(proxy);
+        setFatBounds(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+        insertLeaf(proxy);
+        return true;
+    }
+
+    public int getUserData(int proxy) {
+        checkProxy(proxy);
+        return userData[proxy];
+    }
+
+    public void setUserData(int proxy, int data) {
+        checkProxy(proxy);
+        userData[proxy] = data;
+    }
+
+    /**
+     * Copies the fat bounds of a node into {@code dest} as {@code minX, minY, minZ, maxX, maxY, maxZ}.
+     *
+     * @param node the id of the node
+     * @param dest the array to copy into
+     * @return {@code dest}
+     */
+    @NonNull
+    public float[] getFatBounds(int node, @NonNull float[] dest) {
+        System.arraycopy(bounds, node * BOUNDS, dest, 0, BOUNDS);
+        return dest;
+    }
+
+    /**
+     * Returns the height of the tree, which is {@code 0} for an empty tree or a tree with a single proxy.
+     *
+     * @return the height of the root node
+     */
+    public int getHeight() {
+        return root == NULL_NODE ? 0 : heights[root];
+    }
+
+    /**
+     * Reports the user data of every proxy whose fat bounds overlap the given box.
+     *
+     * @param consumer receives the user data of overlapping proxies
+     */
+    public void queryBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+                         @NonNull IntConsumer consumer) {
+        if (root == NULL_NODE) return;
+        var top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            val node = stack[--top];
+            val b = node * BOUNDS;
+            if (bounds[b + MIN_X] > maxX || bounds[b + MAX_X] < minX
+                    || bounds[b + MIN_Y] > maxY || bounds[b + MAX_Y] < minY
+                    || bounds[b + MIN_Z] > maxZ || bounds[b + MAX_Z] < minZ)
+                continue;
+            if (isLeaf(node)) {
+                consumer.accept(userData[node]);
+            } else {
+                top = push(top, children1[node]);
+                top = push(top, children2[node]);
+            }
+        }
+    }
+
+    /**
+     * Reports the user data of every proxy whose fat bounds are at least partially inside the frustum.
+     * Subtrees that are completely inside are reported without testing their leaves.
+     *
+     * @param frustum  the frustum to test against
+     * @param consumer receives the user data of visible proxies
+     */
+    public void queryFrustum(@NonNull Frustum frustum, @NonNull IntConsumer consumer) {
+        if (root == NULL_NODE) return;
+        frustum.getPlanes(planes);
+        var top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            val node = stack[--top];
+            val classification = classify(node);
+            if (classification < 0) continue;
+            if (classification > 0) {
+                reportSubtree(top, node, consumer);
+            } else if (isLeaf(node)) {
+                consumer.accept(userData[node]);
+            } else {
+                top = push(top, children1[node]);
+                top = push(top, children2[node]);
+            }
+        }
+    }
+
+    /**
+     * Classifies the bounds of a node against the planes of the current frustum query.
+     *
+     * @return {@code -1} if outside, {@code 1} if completely inside and {@code 0} if intersecting
+     */
+    private int classify(int node) {
+        val b = node * BOUNDS;
+        var inside = true;
+        for (var p = 0; p < planes.length; p += 4) {
+            float nx = planes[p], ny = planes[p + 1], nz = planes[p + 2], d = planes[p + 3];
+            // Corners farthest along and against the plane normal
+            val far = nx * bounds[b + (nx >= 0 ? MAX_X : MIN_X)] + ny * bounds[b + (ny >= 0 ? MAX_Y : MIN_Y)]
+                    + nz * bounds[b + (nz >= 0 ? MAX_Z : MIN_Z)] + d;
+            if (far < 0) return -1;
+            val near = nx * bounds[b + (nx >= 0 ? MIN_X : MAX_X)] + ny * bounds[b + (ny >= 0 ? MIN_Y : MAX_Y)]
+                    + nz * bounds[b + (nz >= 0 ? MIN_Z : MAX_Z)] + d;
+            if (near < 0) inside = false;
+        }
+        return inside ? 1 : 0;
+    }
+
+    /**
+     * Reports all leaves below {@code subtree}, using the traversal stack above {@code base}.
+     * The entries below {@code base} are left untouched.
+     */
+    private void reportSubtree(int base, int subtree, IntConsumer consumer) {
+        var top = push(base, subtree);
+        while (top > base) {
+            val node = stack[--top];
+            if (isLeaf(node)) {
+                consumer.accept(userData[node]);
+            } else {
+                top = push(top, children1[node]);
+                top = push(top, children2[node]);
+            }
+        }
+    }
+
+    /**
+     * Casts a ray through the tree and reports every proxy whose fat bounds are hit.
+     *
+     * @param originX     the x coordinate of the ray origin
+     * @param originY     the y coordinate of the ray origin
+     * @param originZ     the z coordinate of the ray origin
+     * @param directionX  the x component of the ray direction
+     * @param directionY  the y component of the ray direction
+     * @param directionZ  the z component of the ray direction
+     * @param maxDistance the maximum distance along the ray, in multiples of the direction
+     * @param callback    receives the hit proxies and controls the rest of the cast
+     */
+    public void raycast(float originX, float originY, float originZ,
+                        float directionX, float directionY, float directionZ,
+                        float maxDistance, @NonNull RaycastCallback callback) {
+        if (root == NULL_NODE) return;
+        float invX = 1f / directionX, invY = 1f / directionY, invZ = 1f / directionZ;
+        var max = maxDistance;
+        var top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            val node = stack[--top];
+            val entry = intersectRay(node, originX, originY, originZ, invX, invY, invZ, max);
+            if (entry < 0) continue;
+            if (isLeaf(node)) {
+                val result = callback.hit(userData[node], entry);
+                if (result == 0) return;
+                if (result > 0) max = result;
+            } else {
+                top = push(top, children1[node]);
+                top = push(top, children2[node]);
+            }
+        }
+    }
+
+    /**
+     * Slab test of a ray against the bounds of a node.
+     *
+     * @return the entry distance, or {@code -1} if the ray misses the bounds within {@code max}
+     */
+    private float intersectRay(int node, float ox, float oy, float oz, float invX, float invY, float invZ, float max) {
+        val b = node * BOUNDS;
+        float tx1 = (bounds[b + MIN_X] - ox) * invX, tx2 = (bounds[b + MAX_X] - ox) * invX;
+        float ty1 = (bounds[b + MIN_Y] - oy) * invY, ty2 = (bounds[b + MAX_Y] - oy) * invY;
+        float tz1 = (bounds[b + MIN_Z] - oz) * invZ, tz2 = (bounds[b + MAX_Z] - oz) * invZ;
+        val tMin = Math.max(Math.max(Math.min(tx1, tx2), Math.min(ty1, ty2)), Math.max(Math.min(tz1, tz2), 0f));
+        val tMax = Math.min(Math.min(Math.max(tx1, tx2), Math.max(ty1, ty2)), Math.min(Math.max(tz1, tz2), max));
+        return tMin <= tMax ? tMin : -1;
+    }
+
+    private int push(int top, int node) {
+        if (top == stack.length) stack = Arrays.copyOf(stack, stack.length << 1);
+        stack[top] = node;
+        return top + 1;
+    }
+
+    private boolean isLeaf(int node) {
+        return children1[node] == NULL_NODE;
+    }
+
+    private void checkProxy(int proxy) {
+        if (proxy < 0 || proxy >= heights.length || heights[proxy] != 0)
+            throw new IllegalArgumentException(STR."Invalid proxy id: \{proxy}");
+    }
+
+    private void setFatBounds(int node, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        val b = node * BOUNDS;
+        bounds[b + MIN_X] = minX - margin;
+        bounds[b + MIN_Y] = minY - margin;
+        bounds[b + MIN_Z] = minZ - margin;
+        bounds[b + MAX_X] = maxX + margin;
+        bounds[b + MAX_Y] = maxY + margin;
+        bounds[b + MAX_Z] = maxZ + margin;
+    }
+
+    private void setUnion(int node, int a, int c) {
+        int n = node * BOUNDS, ba = a * BOUNDS, bc = c * BOUNDS;
+        for (var i = 0; i < 3; i++) {
+            bounds[n + i] = Math.min(bounds[ba + i], bounds[bc + i]);
+            bounds[n + 3 + i] = Math.max(bounds[ba + 3 + i], bounds[bc + 3 + i]);
+        }
+    }
+
+    private float area(int node) {
+        val b = node * BOUNDS;
+        return surfaceArea(bounds[b + MAX_X] - bounds[b + MIN_X], bounds[b + MAX_Y] - bounds[b + MIN_Y],
+                bounds[b + MAX_Z] - bounds[b + MIN_Z]);
+    }
+
+    private float unionArea(int a, int c) {
+        int ba = a * BOUNDS, bc = c * BOUNDS;
+        return surfaceArea(
+                Math.max(bounds[ba + MAX_X], bounds[bc + MAX_X]) - Math.min(bounds[ba + MIN_X], bounds[bc + MIN_X]),
+                Math.max(bounds[ba + MAX_Y], bounds[bc + MAX_Y]) - Math.min(bounds[ba + MIN_Y], bounds[bc + MIN_Y]),
+                Math.max(bounds[ba + MAX_Z], bounds[bc + MAX_Z]) - Math.min(bounds[ba + MIN_Z], bounds[bc + MIN_Z]));
+    }
+
+    private static float surfaceArea(float width, float height, float depth) {
+        return 2 * (width * height + height * depth + depth * width);
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL_NODE) grow(heights.length << 1);
+        val node = freeList;
+        freeList = parents[node];
+        parents[node] = NULL_NODE;
+        children1[node] = NULL_NODE;
+        children2[node] = NULL_NODE;
+        heights[node] = 0;
+        userData[node] = 0;
+        nodeCount++;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parents[node] = freeList;
+        heights[node] = -1;
+        freeList = node;
+        nodeCount--;
+    }
+
+    private void grow(int capacity) {
+        val oldCapacity = heights.length;
+        bounds = Arrays.copyOf(bounds, capacity * BOUNDS);
+        parents = Arrays.copyOf(parents, capacity);
+        children1 = Arrays.copyOf(children1, capacity);
+        children2 = Arrays.copyOf(children2, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        userData = Arrays.copyOf(userData, capacity);
+        // Link the new nodes into the free list
+        for (var i = capacity - 1; i >= oldCapacity; i--) {
+            parents[i] = freeList;
+            heights[i] = -1;
+            freeList = i;
+        }
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL_NODE) {
+            root = leaf;
+            parents[leaf] = NULL_NODE;
+            return;
+        }
+
+        // Find the best sibling using the surface area heuristic
+        var index = root;
+        while (!isLeaf(index)) {
+            val child1 = children1[index];
+            val child2 = children2[index];
+            val area = area(index);
+            val combinedArea = unionArea(index, leaf);
+            // Cost of creating a new parent for this node and the new leaf
+            val cost = 2 * combinedArea;
+            // Minimum cost of pushing the leaf further down the tree
+            val inheritanceCost = 2 * (combinedArea - area);
+            val cost1 = descendCost(child1, leaf) + inheritanceCost;
+            val cost2 = descendCost(child2, leaf) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) break;
+            index = cost1 < cost2 ? child1 : child2;
+        }
+        val sibling = index;
+
+        val oldParent = parents[sibling];
+        val newParent = allocateNode();
+        parents[newParent] = oldParent;
+        userData[newParent] = 0;
+        setUnion(newParent, leaf, sibling);
+        heights[newParent] = heights[sibling] + 1;
+        children1[newParent] = sibling;
+        children2[newParent] = leaf;
+        parents[sibling] = newParent;
+        parents[leaf] = newParent;
+
+        if (oldParent == NULL_NODE) {
+            root = newParent;
+        } else if (children1[oldParent] == sibling) {
+            children1[oldParent] = newParent;
+        } else {
+            children2[oldParent] = newParent;
+        }
+
+        refit(parents[leaf]);
+    }
+
+    private float descendCost(int child, int leaf) {
+        if (isLeaf(child)) return unionArea(child, leaf);
+        return unionArea(child, leaf) - area(child);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL_NODE;
+            return;
+        }
+
+        val parent = parents[leaf];
+        val grandParent = parents[parent];
+        val sibling = children1[parent] == leaf ? children2[parent] : children1[parent];
+
+        if (grandParent == NULL_NODE) {
+            root = sibling;
+            parents[sibling] = NULL_NODE;
+            freeNode(parent);
+            return;
+        }
+
+        if (children1[grandParent] == parent) {
+            children1[grandParent] = sibling;
+        } else {
+            children2[grandParent] = sibling;
+        }
+        parents[sibling] = grandParent;
+        freeNode(parent);
+        refit(grandParent);
+    }
+
+    /**
+     * Walks from {@code index} up to the root, rebalancing and recomputing bounds and heights.
+     */
+    private void refit(int index) {
+        while (index != NULL_NODE) {
+            index = balance(index);
+            val child1 = children1[index];
+            val child2 = children2[index];
+            heights[index] = 1 + Math.max(heights[child1], heights[child2]);
+            setUnion(index, child1, child2);
+            index = parents[index];
+        }
+    }
+
+    /**
+     * Performs a left or right rotation if node {@code a} is imbalanced.
+     *
+     * @return the new root of the subtree
+     */
+    private int balance(int a) {
+        if (isLeaf(a) || heights[a] < 2) return a;
+
+        val b = children1[a];
+        val c = children2[a];
+        val balance = heights[c] - heights[b];
+
+        if (balance > 1) return rotateUp(a, c, b, true);
+        if (balance < -1) return rotateUp(a, b, c, false);
+        return a;
+    }
+
+    /**
+     * Rotates {@code child} above {@code a}. {@code other} is the child of {@code a} that stays in place.
+     *
+     * @param childIsSecond whether {@code child} is the second child of {@code a}
+     * @return {@code child}, the new root of the subtree
+     */
+    private int rotateUp(int a, int child, int other, boolean childIsSecond) {
+        val f = children1[child];
+        val g = children2[child];
+
+        // Swap a and child
+        children1[child] = a;
+        parents[child] = parents[a];
+        parents[a] = child;
+
+        val parent = parents[child];
+        if (parent == NULL_NODE) {
+            root = child;
+        } else if (children1[parent] == a) {
+            children1[parent] = child;
+        } else {
+            children2[parent] = child;
+        }
+
+        // The taller grandchild stays below child, the shorter one moves to a
+        val keep = heights[f] > heights[g] ? f : g;
+        val move = keep == f ? g : f;
+        children2[child] = keep;
+        if (childIsSecond) {
+            children2[a] = move;
+        } else {
+            children1[a] = move;
+        }
+        parents[move] = a;
+
+        setUnion(a, other, move);
+        setUnion(child, a, keep);
+        heights[a] = 1 + Math.max(heights[other], heights[move]);
+        heights[child] = 1 + Math.max(heights[a], heights[keep]);
+        return child;
+    }
+
+    @Override
+    public String toString() {
+        return STR."""
+                \{getClass().getSimpleName()}{
+                    proxyCount=\{proxyCount},
+                    nodeCount=\{nodeCount},
+                    height=\{getHeight()}
+                }
+                """;
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.nebula.graphics.spatial;
+
+/**
+ * Receives the proxies hit by a ray cast through a {@link DynamicAabbTree}.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+@FunctionalInterface
+public interface RaycastCallback {
+    /**
+     * Called for every proxy whose bounds are hit by the ray within the current maximum distance.
+     * The return value controls the rest of the cast:
+     * <ul>
+     *     <li>{@code 0} terminates the cast,</li>
+     *     <li>a positive value clips the ray to that distance,</li>
+     *     <li>a negative value continues without clipping.</li>
+     * </ul>
+     *
+     * @param userData the user data of the hit proxy
+     * @param distance the distance along the ray at which the proxy's bounds are entered
+     * @return the new maximum distance of the ray
+     */
+    float hit(int userData, float distance);
+}
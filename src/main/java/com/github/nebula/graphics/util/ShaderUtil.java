@@ -1,30 +1,69 @@
 package com.github.nebula.graphics.util;
 
 import com.github.nebula.graphics.data.*;
+import com.github.nebula.graphics.util.glsl.GlslReflection;
 import io.reactivex.rxjava3.annotations.NonNull;
 import lombok.val;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.regex.Pattern;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Utility class providing methods for shader-related operations.
  * This class assists in parsing vertex layout declarations from vertex shader source code.
+ * Sources are tokenized and preprocessed by {@link com.github.nebula.graphics.util.glsl.GlslPreprocessor}, so
+ * comments, conditional blocks and multiple declarators per declaration are handled like the compiler does.
  *
  * @author Anton Schoenfeld
  * @since 21.03.2024
  */
 public class ShaderUtil {
 
-    private static final Pattern VERTEX_LAYOUT_DECL =
-            Pattern.compile("\\blayout\\s*\\(\\s*location\\s*=\\s*(\\d+)\\s*\\)\\s*in\\s+(\\w+)\\s+(\\w+)\\s*;");
-    private static final Pattern UNIFORM_LAYOUT_DECL_REGEX =
-            Pattern.compile("\\s*\\buniform\\s+(\\w+)\\s+(\\w+)\\s*;");
+    /**
+     * The maximum number of sources whose reflections are kept.
+     */
+    static final int REFLECTION_CACHE_SIZE = 256;
+    /**
+     * Reflections of the most recently parsed sources, keyed by the source itself. Strings cache their hash, so
+     * looking up a source that is parsed again, as when constructing many shaders from the same source, costs a
+     * single hash table probe. The least recently used source is evicted once {@link #REFLECTION_CACHE_SIZE} is
+     * exceeded, so applications generating sources at runtime do not grow the cache without bound.
+     */
+    private static final Map<String, GlslReflection> REFLECTIONS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GlslReflection> eldest) {
+            return size() > REFLECTION_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Preprocesses a shader source and collects its {@code in}, {@code uniform} and {@code buffer} declarations.
+     * The result is memoized for the most recently reflected sources.
+     *
+     * @param source The source code of a shader stage.
+     * @return The declarations of the source.
+     * @throws IllegalArgumentException If the source cannot be preprocessed, for example because it includes files.
+     */
+    @NonNull
+    public static GlslReflection reflect(@NonNull String source) {
+        synchronized (REFLECTIONS) {
+            val cached = REFLECTIONS.get(source);
+            if (cached != null) return cached;
+        }
+        // Parsed outside of the lock, so threads reflecting different sources do not wait for each other
+        val reflection = GlslReflection.reflect(source, null);
+        synchronized (REFLECTIONS) {
+            val raced = REFLECTIONS.putIfAbsent(source, reflection);
+            return raced != null ? raced : reflection;
+        }
+    }
 
     /**
      * Parses the vertex layout declarations from the provided vertex shader source code.
      * Each declaration specifies the layout of a vertex attribute within the vertex shader.
+     * Only inputs with an explicit location are part of the layout, and array inputs occupy one location per element.
      *
      * @param vertexSource The source code of the vertex shader.
      * @return The vertex layout extracted from the shader source.
@@ -32,51 +71,56 @@ public class ShaderUtil {
      */
     @NonNull
     public static VertexAttributes parseVertexAttributes(@NonNull String vertexSource) {
-        val vertexSourceLines = vertexSource.split("\n");
-
-        // Gets all lines where a vertex attribute is declared
-        // Example:     layout(location = 0) in vec2 vPos;
-        // Example 2:   layout (location= 1) in vec4  vCol;
-
         val vertexAttribList = new ArrayList<VertexAttribute>();
-        for (val line : vertexSourceLines) {
-            val matcher = VERTEX_LAYOUT_DECL.matcher(line);
-            if (matcher.matches()) {
-                val loc = Integer.parseInt(matcher.group(1));
-                val dataType = matcher.group(2);
-                val attribName = matcher.group(3);
-                try {
-                    vertexAttribList.add(new VertexAttribute(GLDataType.valueOf(dataType.toUpperCase()), attribName, loc));
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException(STR."Unrecognized vertex attribute data type: \{dataType}");
-                }
+        for (val input : reflect(vertexSource).inputs()) {
+            if (input.location() < 0) continue;
+            val dataType = dataTypeOf(input.type(), "vertex attribute");
+            if (!input.isArray()) {
+                vertexAttribList.add(new VertexAttribute(dataType, input.name(), input.location()));
+                continue;
             }
+            for (var i = 0; i < Math.max(input.arraySize(), 1); i++)
+                vertexAttribList.add(new VertexAttribute(dataType, STR."\{input.name()}[\{i}]", input.location() + i));
         }
+        vertexAttribList.sort(Comparator.comparingInt(VertexAttribute::location));
 
         return new VertexAttributes(vertexAttribList.toArray(new VertexAttribute[0]));
     }
 
+    /**
+     * Parses the uniforms declared outside of blocks by the stages of a program. Uniforms declared by several stages
+     * are only reported once, and the elements of arrays are reported individually as {@code name[index]}.
+     *
+     * @param shaders The source code of all stages.
+     * @return The uniforms of the program.
+     * @throws IllegalArgumentException If a shader source code is invalid or contains unrecognized data types.
+     */
     @NonNull
     public static UniformAttributes parseUniformAttributes(@NonNull String @NonNull ... shaders) {
-        val lines = new ArrayList<String>();
-        for (val shader : shaders)
-            lines.addAll(Arrays.asList(shader.split("\n")));
-
-        val uniformAttribList = new ArrayList<UniformAttribute>();
+        val uniformAttribs = new LinkedHashMap<String, UniformAttribute>();
 
-        for (val line : lines) {
-            val matcher = UNIFORM_LAYOUT_DECL_REGEX.matcher(line);
-            if (matcher.matches()) {
-                val dataType = matcher.group(1);
-                val attribName = matcher.group(2);
-                try {
-                    uniformAttribList.add(new UniformAttribute(GLDataType.valueOf(dataType.toUpperCase()), attribName));
-                } catch (IllegalArgumentException e) {
-                    throw new IllegalArgumentException(STR."Unrecognized uniform attribute data type: \{dataType}");
+        for (val shader : shaders) {
+            for (val uniform : reflect(shader).uniforms()) {
+                val dataType = dataTypeOf(uniform.type(), "uniform attribute");
+                if (!uniform.isArray()) {
+                    uniformAttribs.putIfAbsent(uniform.name(), new UniformAttribute(dataType, uniform.name()));
+                    continue;
+                }
+                for (var i = 0; i < Math.max(uniform.arraySize(), 1); i++) {
+                    val name = STR."\{uniform.name()}[\{i}]";
+                    uniformAttribs.putIfAbsent(name, new UniformAttribute(dataType, name));
                 }
             }
         }
 
-        return new UniformAttributes(uniformAttribList.toArray(new UniformAttribute[0]));
+        return new UniformAttributes(uniformAttribs.values().toArray(new UniformAttribute[0]));
+    }
+
+    private static GLDataType dataTypeOf(String type, String kind) {
+        try {
+            return GLDataType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(STR."Unrecognized \{kind} data type: \{type}");
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.github.nebula.graphics.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code Versions} class hands out versions from a single global counter. Mutable objects store a new version
+ * whenever they change, so a consumer can remember the largest version it has seen and detect changes of many
+ * objects by comparing their versions against that one value.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class Versions {
+    /**
+     * The version of objects that have not changed since they were created.
+     */
+    public static final long INITIAL = 0;
+    private static final AtomicLong COUNTER = new AtomicLong(INITIAL);
+
+    private Versions() {
+    }
+
+    /**
+     * Returns a version larger than all versions returned before.
+     *
+     * @return the new version
+     */
+    public static long next() {
+        return COUNTER.incrementAndGet();
+    }
+
+    /**
+     * Returns the largest version handed out so far.
+     *
+     * @return the current version
+     */
+    public static long current() {
+        return COUNTER.get();
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.nebula.graphics.util.glsl;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.val;
+
+/**
+ * The {@code GlslLexer} class splits GLSL source into {@link GlslToken tokens}, one token per call to
+ * {@link #next()}. Comments and line continuations are skipped, line breaks are reported as
+ * {@link GlslToken.Type#NEWLINE} tokens so preprocessor directives can be delimited, and a {@code #} is reported as
+ * {@link GlslToken.Type#DIRECTIVE} when it is the first token of a line.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class GlslLexer {
+    private static final String[] PUNCTUATORS = {
+            "<<=", ">>=", "++", "--", "<<", ">>", "<=", ">=", "==", "!=", "&&", "||", "^^",
+            "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^=", "##"
+    };
+
+    private final CharSequence source;
+    private int position;
+    private int line;
+    private boolean lineStart;
+
+    /**
+     * Creates a lexer reading the given source from its start.
+     *
+     * @param source the GLSL source
+     */
+    public GlslLexer(@NonNull CharSequence source) {
+        this.source = source;
+        this.position = 0;
+        this.line = 1;
+        this.lineStart = true;
+    }
+
+    /**
+     * Reads the next token.
+     *
+     * @return the next token, or a token of type {@link GlslToken.Type#END} once the source is exhausted
+     * @throws IllegalArgumentException if a comment or string is not terminated
+     */
+    @NonNull
+    public GlslToken next() {
+        val spaceBefore = skipWhitespace();
+        val startLine = line;
+        if (position >= source.length()) return new GlslToken(GlslToken.Type.END, "", startLine, spaceBefore);
+
+        val start = position;
+        val c = source.charAt(position);
+        if (c == '\n') {
+            position++;
+            line++;
+            lineStart = true;
+            return new GlslToken(GlslToken.Type.NEWLINE, "\n", startLine, spaceBefore);
+        }
+
+        val first = lineStart;
+        lineStart = false;
+        if (c == '#' && first && !startsWith("##")) {
+            position++;
+            return new GlslToken(GlslToken.Type.DIRECTIVE, "#", startLine, spaceBefore);
+        }
+        if (Character.isLetter(c) || c == '_') {
+            while (position < source.length() && isIdentifierPart(source.charAt(position))) position++;
+            return new GlslToken(GlslToken.Type.IDENTIFIER, source.subSequence(start, position).toString(),
+                    startLine, spaceBefore);
+        }
+        if (Character.isDigit(c) || (c == '.' && position + 1 < source.length()
+                && Character.isDigit(source.charAt(position + 1)))) {
+            readNumber();
+            return new GlslToken(GlslToken.Type.NUMBER, source.subSequence(start, position).toString(),
+                    startLine, spaceBefore);
+        }
+        if (c == '"') {
+            val end = indexOf('"', position + 1);
+            if (end < 0) throw new IllegalArgumentException(STR."Unterminated string at line \{startLine}");
+            position = end + 1;
+            return new GlslToken(GlslToken.Type.STRING, source.subSequence(start + 1, end).toString(),
+                    startLine, spaceBefore);
+        }
+        for (val punctuator : PUNCTUATORS) {
+            if (startsWith(punctuator)) {
+                position += punctuator.length();
+                return new GlslToken(GlslToken.Type.PUNCTUATOR, punctuator, startLine, spaceBefore);
+            }
+        }
+        position++;
+        return new GlslToken(GlslToken.Type.PUNCTUATOR, String.valueOf(c), startLine, spaceBefore);
+    }
+
+    /**
+     * Skips whitespace other than line breaks, comments and line continuations.
+     *
+     * @return whether anything was skipped
+     */
+    private boolean skipWhitespace() {
+        val start = position;
+        while (position < source.length()) {
+            val c = source.charAt(position);
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\f' || c == 0x0B) {
+                position++;
+            } else if (c == '\\' && position + 1 < source.length() && isLineBreak(position + 1)) {
+                position = skipLineBreak(position + 1);
+                line++;
+            } else if (startsWith("//")) {
+                while (position < source.length() && source.charAt(position) != '\n') position++;
+            } else if (startsWith("/*")) {
+                val end = indexOf("*/", position + 2);
+                if (end < 0) throw new IllegalArgumentException(STR."Unterminated comment at line \{line}");
+                for (var i = position; i < end; i++) if (source.charAt(i) == '\n') line++;
+                position = end + 2;
+            } else {
+                break;
+            }
+        }
+        return position != start;
+    }
+
+    private boolean isLineBreak(int index) {
+        val c = source.charAt(index);
+        return c == '\n' || (c == '\r' && index + 1 < source.length() && source.charAt(index + 1) == '\n');
+    }
+
+    private int skipLineBreak(int index) {
+        return source.charAt(index) == '\r' ? index + 2 : index + 1;
+    }
+
+    private void readNumber() {
+        val hex = startsWith("0x") || startsWith("0X");
+        if (hex) position += 2;
+        while (position < source.length()) {
+            val c = source.charAt(position);
+            if (isIdentifierPart(c) || c == '.') {
+                position++;
+            } else if ((c == '+' || c == '-') && !hex && (source.charAt(position - 1) == 'e'
+                    || source.charAt(position - 1) == 'E')) {
+                position++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private boolean startsWith(String text) {
+        if (position + text.length() > source.length()) return false;
+        for (var i = 0; i < text.length(); i++)
+            if (source.charAt(position + i) != text.charAt(i)) return false;
+        return true;
+    }
+
+    private int indexOf(char c, int from) {
+        for (var i = from; i < source.length(); i++) {
+            if (source.charAt(i) == c) return i;
+            if (source.charAt(i) == '\n') return -1;
+        }
+        return -1;
+    }
+
+    private int indexOf(String text, int from) {
+        for (var i = from; i + text.length() <= source.length(); i++) {
+            var found = true;
+            for (var j = 0; j < text.length() && found; j++) found = source.charAt(i + j) == text.charAt(j);
+            if (found) return i;
+        }
+        return -1;
+    }
+}
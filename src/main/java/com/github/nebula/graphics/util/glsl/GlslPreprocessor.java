@@ -0,0 +1,558 @@
+package com.github.nebula.graphics.util.glsl;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.val;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The {@code GlslPreprocessor} class runs the GLSL preprocessor over a {@link GlslLexer} and hands out the resulting
+ * tokens one at a time through {@link #next()}, so consumers see the source as the compiler would without the
+ * expanded source ever being built.
+ *
+ * <p>Supported are object-like and function-like {@code #define}s, {@code #undef}, the conditionals {@code #if},
+ * {@code #ifdef}, {@code #ifndef}, {@code #elif}, {@code #else} and {@code #endif} with the full integer expression
+ * syntax including {@code defined}, {@code #include} through an include resolver and {@code #error}. {@code #version}
+ * defines {@code __VERSION__}; all other directives are skipped. Line breaks are not reported.
+ *
+ * <p>A preprocessor processes a single source and is not thread safe.
+ *
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public final class GlslPreprocessor {
+    private static final int MAX_INCLUDE_DEPTH = 32;
+
+    private final Function<String, String> includeResolver;
+    private final Map<String, Macro> macros;
+    private final Deque<GlslLexer> lexers;
+    /**
+     * Tokens produced by macro expansion, which are handed out before reading further source.
+     */
+    private final Deque<GlslToken> expanded;
+    private final Deque<Conditional> conditionals;
+    /**
+     * A token read while looking for the arguments of a function-like macro that turned out to have none.
+     */
+    private GlslToken readAhead;
+
+    /**
+     * Creates a preprocessor for a source.
+     *
+     * @param source          the GLSL source
+     * @param includeResolver returns the source of an included file by its name, or {@code null} if it does not
+     *                        exist; may be {@code null} if the source does not include files
+     */
+    public GlslPreprocessor(@NonNull String source, Function<String, String> includeResolver) {
+        this.includeResolver = includeResolver;
+        this.macros = new HashMap<>();
+        this.lexers = new ArrayDeque<>();
+        this.expanded = new ArrayDeque<>();
+        this.conditionals = new ArrayDeque<>();
+        lexers.push(new GlslLexer(source));
+    }
+
+    /**
+     * Defines an object-like macro before the source is processed, as a {@code #define} at its start would.
+     *
+     * @param name  the name of the macro
+     * @param value the replacement of the macro
+     * @return this preprocessor
+     */
+    @NonNull
+    public GlslPreprocessor define(@NonNull String name, @NonNull String value) {
+        val body = new ArrayList<GlslToken>();
+        val lexer = new GlslLexer(value);
+        for (var token = lexer.next(); token.type() != GlslToken.Type.END; token = lexer.next())
+            if (token.type() != GlslToken.Type.NEWLINE) body.add(token);
+        macros.put(name, new Macro(null, body));
+        return this;
+    }
+
+    /**
+     * Checks whether a macro is currently defined.
+     *
+     * @param name the name of the macro
+     * @return {@code true} if the macro is defined
+     */
+    public boolean isDefined(@NonNull String name) {
+        return macros.containsKey(name);
+    }
+
+    /**
+     * Returns the next token of the preprocessed source.
+     *
+     * @return the next token, or a token of type {@link GlslToken.Type#END} at the end of the source
+     * @throws IllegalArgumentException if a directive is malformed, an include cannot be resolved or an
+     *                                  {@code #error} is reached
+     */
+    @NonNull
+    public GlslToken next() {
+        while (true) {
+            if (!expanded.isEmpty()) return expanded.poll();
+            val token = read();
+            switch (token.type()) {
+                case END -> {
+                    if (lexers.size() > 1) {
+                        lexers.pop();
+                        continue;
+                    }
+                    if (!conditionals.isEmpty())
+                        throw new IllegalArgumentException("Missing #endif at end of source");
+                    return token;
+                }
+                case NEWLINE -> {
+                }
+                case DIRECTIVE -> directive(token);
+                default -> {
+                    if (!isActive()) continue;
+                    if (token.type() == GlslToken.Type.IDENTIFIER && macros.containsKey(token.text())) {
+                        expandFromSource(token);
+                        continue;
+                    }
+                    return token;
+                }
+            }
+        }
+    }
+
+    private GlslToken read() {
+        if (readAhead == null) return lexers.peek().next();
+        val token = readAhead;
+        readAhead = null;
+        return token;
+    }
+
+    private boolean isActive() {
+        return conditionals.isEmpty() || conditionals.peek().active;
+    }
+
+    /**
+     * Reads the remaining tokens of the directive's line.
+     */
+    private List<GlslToken> readLine() {
+        val tokens = new ArrayList<GlslToken>();
+        for (var token = read(); token.type() != GlslToken.Type.NEWLINE && token.type() != GlslToken.Type.END;
+             token = read())
+            tokens.add(token);
+        return tokens;
+    }
+
+    private void directive(GlslToken hash) {
+        val line = readLine();
+        if (line.isEmpty()) return;
+        val name = line.getFirst().text();
+        val arguments = line.subList(1, line.size());
+        switch (name) {
+            case "if" -> pushConditional(isActive() && evaluate(arguments, hash.line()) != 0);
+            case "ifdef" -> pushConditional(isActive() && macros.containsKey(identifier(arguments, hash)));
+            case "ifndef" -> pushConditional(isActive() && !macros.containsKey(identifier(arguments, hash)));
+            case "elif" -> {
+                val conditional = conditional(hash);
+                if (conditional.hadElse) throw error("#elif after #else", hash.line());
+                conditional.active = conditional.parentActive && !conditional.taken
+                        && evaluate(arguments, hash.line()) != 0;
+                conditional.taken |= conditional.active;
+            }
+            case "else" -> {
+                val conditional = conditional(hash);
+                if (conditional.hadElse) throw error("Duplicate #else", hash.line());
+                conditional.hadElse = true;
+                conditional.active = conditional.parentActive && !conditional.taken;
+                conditional.taken = true;
+            }
+            case "endif" -> {
+                conditional(hash);
+                conditionals.pop();
+            }
+            default -> {
+                if (isActive()) activeDirective(name, arguments, hash);
+            }
+        }
+    }
+
+    private void activeDirective(String name, List<GlslToken> arguments, GlslToken hash) {
+        switch (name) {
+            case "define" -> define(arguments, hash);
+            case "undef" -> macros.remove(identifier(arguments, hash));
+            case "include" -> include(arguments, hash);
+            case "version" -> {
+                if (!arguments.isEmpty()) macros.put("__VERSION__", new Macro(null, List.of(arguments.getFirst())));
+            }
+            case "error" -> throw error(STR."#error \{join(arguments)}", hash.line());
+            default -> {
+                // #extension, #pragma and #line do not affect the tokens
+            }
+        }
+    }
+
+    private void pushConditional(boolean active) {
+        val parentActive = isActive();
+        conditionals.push(new Conditional(parentActive, active));
+    }
+
+    private Conditional conditional(GlslToken hash) {
+        if (conditionals.isEmpty()) throw error("Conditional directive without #if", hash.line());
+        return conditionals.peek();
+    }
+
+    private static String identifier(List<GlslToken> arguments, GlslToken hash) {
+        if (arguments.isEmpty() || arguments.getFirst().type() != GlslToken.Type.IDENTIFIER)
+            throw error("Expected a macro name", hash.line());
+        return arguments.getFirst().text();
+    }
+
+    private void define(List<GlslToken> arguments, GlslToken hash) {
+        val name = identifier(arguments, hash);
+        List<String> parameters = null;
+        var bodyStart = 1;
+        // A parenthesis directly after the name starts a parameter list
+        if (arguments.size() > 1 && arguments.get(1).is("(") && !arguments.get(1).spaceBefore()) {
+            parameters = new ArrayList<>();
+            var i = 2;
+            while (i < arguments.size() && !arguments.get(i).is(")")) {
+                val parameter = arguments.get(i);
+                if (parameter.type() == GlslToken.Type.IDENTIFIER) parameters.add(parameter.text());
+                else if (!parameter.is(",")) throw error(STR."Unexpected \{parameter.text()} in parameters of \{name}", hash.line());
+                i++;
+            }
+            if (i == arguments.size()) throw error(STR."Unterminated parameters of \{name}", hash.line());
+            bodyStart = i + 1;
+        }
+        macros.put(name, new Macro(parameters, List.copyOf(arguments.subList(bodyStart, arguments.size()))));
+    }
+
+    private void include(List<GlslToken> arguments, GlslToken hash) {
+        final String path;
+        if (arguments.size() == 1 && arguments.getFirst().type() == GlslToken.Type.STRING) {
+            path = arguments.getFirst().text();
+        } else if (arguments.size() > 2 && arguments.getFirst().is("<") && arguments.getLast().is(">")) {
+            path = join(arguments.subList(1, arguments.size() - 1)).replace(" ", "");
+        } else {
+            throw error("Expected \"file\" or <file> after #include", hash.line());
+        }
+        if (lexers.size() > MAX_INCLUDE_DEPTH)
+            throw error(STR."Includes nested deeper than \{MAX_INCLUDE_DEPTH}, probably a cycle including \{path}", hash.line());
+        val source = includeResolver == null ? null : includeResolver.apply(path);
+        if (source == null) throw error(STR."Could not resolve include \{path}", hash.line());
+        lexers.push(new GlslLexer(source));
+    }
+
+    /**
+     * Expands a macro whose name was read from the source, reading the arguments of function-like macros from the
+     * source as well.
+     */
+    private void expandFromSource(GlslToken name) {
+        var pending = name;
+        while (pending != null) {
+            val macro = macros.get(pending.text());
+            List<List<GlslToken>> arguments = null;
+            if (macro.parameters != null) {
+                var next = read();
+                while (next.type() == GlslToken.Type.NEWLINE) next = read();
+                if (!next.is("(")) {
+                    // A function-like macro name without arguments is not expanded
+                    expanded.add(pending);
+                    readAhead = next;
+                    return;
+                }
+                arguments = readArguments(this::read, pending);
+            }
+            val result = expand(pending, macro, arguments, new HashSet<>());
+            // An expansion ending in a function-like macro takes its arguments from the source that follows
+            pending = null;
+            if (!result.isEmpty() && isFunctionLike(result.getLast())) pending = result.removeLast();
+            expanded.addAll(result);
+        }
+    }
+
+    private boolean isFunctionLike(GlslToken token) {
+        val macro = token.type() == GlslToken.Type.IDENTIFIER ? macros.get(token.text()) : null;
+        return macro != null && macro.parameters != null;
+    }
+
+    /**
+     * Reads the comma separated arguments of a function-like macro after the opening parenthesis.
+     */
+    private static List<List<GlslToken>> readArguments(TokenSource source, GlslToken name) {
+        val arguments = new ArrayList<List<GlslToken>>();
+        var argument = new ArrayList<GlslToken>();
+        var depth = 0;
+        while (true) {
+            val token = source.next();
+            if (token.type() == GlslToken.Type.END)
+                throw error(STR."Unterminated arguments of \{name.text()}", name.line());
+            if (token.type() == GlslToken.Type.NEWLINE) continue;
+            if (depth == 0 && (token.is(",") || token.is(")"))) {
+                arguments.add(argument);
+                if (token.is(")")) return arguments;
+                argument = new ArrayList<>();
+                continue;
+            }
+            if (token.is("(")) depth++;
+            else if (token.is(")")) depth--;
+            argument.add(token);
+        }
+    }
+
+    /**
+     * Substitutes the arguments into the body of a macro and expands the result, except for macros that are being
+     * expanded already.
+     */
+    private List<GlslToken> expand(GlslToken name, Macro macro, List<List<GlslToken>> arguments, Set<String> disabled) {
+        List<GlslToken> body = macro.body;
+        if (macro.parameters != null) {
+            if (arguments.size() == 1 && arguments.getFirst().isEmpty() && macro.parameters.isEmpty())
+                arguments = List.of();
+            if (arguments.size() != macro.parameters.size())
+                throw error(STR."\{name.text()} expects \{macro.parameters.size()} arguments but got \{arguments.size()}", name.line());
+            body = new ArrayList<>();
+            for (val token : macro.body) {
+                val parameter = token.type() == GlslToken.Type.IDENTIFIER ? macro.parameters.indexOf(token.text()) : -1;
+                if (parameter < 0) body.add(token);
+                else body.addAll(expandAll(arguments.get(parameter), disabled));
+            }
+        }
+        disabled.add(name.text());
+        val result = expandAll(body, disabled);
+        disabled.remove(name.text());
+        return result;
+    }
+
+    private List<GlslToken> expandAll(List<GlslToken> tokens, Set<String> disabled) {
+        val result = new ArrayList<GlslToken>(tokens.size());
+        val source = new ListTokenSource(tokens);
+        for (var token = source.next(); token.type() != GlslToken.Type.END; token = source.next()) {
+            val macro = token.type() == GlslToken.Type.IDENTIFIER && !disabled.contains(token.text())
+                    ? macros.get(token.text()) : null;
+            if (macro == null) {
+                result.add(token);
+            } else if (macro.parameters == null) {
+                result.addAll(expand(token, macro, null, disabled));
+            } else if (source.peek().is("(")) {
+                source.next();
+                result.addAll(expand(token, macro, readArguments(source, token), disabled));
+            } else {
+                result.add(token);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the expression of an {@code #if} or {@code #elif}.
+     */
+    private long evaluate(List<GlslToken> expression, int line) {
+        // defined has to be resolved before expansion, as its operand must not be expanded
+        val resolved = new ArrayList<GlslToken>(expression.size());
+        for (var i = 0; i < expression.size(); i++) {
+            val token = expression.get(i);
+            if (!token.is("defined")) {
+                resolved.add(token);
+                continue;
+            }
+            val parenthesized = i + 1 < expression.size() && expression.get(i + 1).is("(");
+            val operand = i + (parenthesized ? 2 : 1);
+            if (operand >= expression.size() || expression.get(operand).type() != GlslToken.Type.IDENTIFIER)
+                throw error("Expected a macro name after defined", line);
+            val defined = macros.containsKey(expression.get(operand).text());
+            resolved.add(new GlslToken(GlslToken.Type.NUMBER, defined ? "1" : "0", line, true));
+            i = operand + (parenthesized ? 1 : 0);
+        }
+        return new ExpressionParser(expandAll(resolved, new HashSet<>()), line).parse();
+    }
+
+    private static String join(List<GlslToken> tokens) {
+        val builder = new StringBuilder();
+        for (val token : tokens) {
+            if (!builder.isEmpty() && token.spaceBefore()) builder.append(' ');
+            builder.append(token.text());
+        }
+        return builder.toString();
+    }
+
+    private static IllegalArgumentException error(String message, int line) {
+        return new IllegalArgumentException(STR."\{message} at line \{line}");
+    }
+
+    @FunctionalInterface
+    private interface TokenSource {
+        GlslToken next();
+    }
+
+    private static final class ListTokenSource implements TokenSource {
+        private static final GlslToken END = new GlslToken(GlslToken.Type.END, "", 0, false);
+        private final List<GlslToken> tokens;
+        private int index;
+
+        private ListTokenSource(List<GlslToken> tokens) {
+            this.tokens = tokens;
+        }
+
+        @Override
+        public GlslToken next() {
+            return index < tokens.size() ? tokens.get(index++) : END;
+        }
+
+        private GlslToken peek() {
+            return index < tokens.size() ? tokens.get(index) : END;
+        }
+    }
+
+    /**
+     * A macro; {@code parameters} is {@code null} for object-like macros.
+     */
+    private record Macro(List<String> parameters, List<GlslToken> body) {
+    }
+
+    private static final class Conditional {
+        private final boolean parentActive;
+        private boolean active, taken, hadElse;
+
+        private Conditional(boolean parentActive, boolean active) {
+            this.parentActive = parentActive;
+            this.active = active;
+            this.taken = active;
+        }
+    }
+
+    /**
+     * Evaluates preprocessor expressions by precedence climbing. Identifiers left after macro expansion are 0.
+     */
+    private static final class ExpressionParser {
+        private static final String[][] BINARY_PRECEDENCE = {
+                {"||"}, {"&&"}, {"|"}, {"^"}, {"&"}, {"==", "!="}, {"<", ">", "<=", ">="}, {"<<", ">>"},
+                {"+", "-"}, {"*", "/", "%"}
+        };
+
+        private final List<GlslToken> tokens;
+        private final int line;
+        private int index;
+
+        private ExpressionParser(List<GlslToken> tokens, int line) {
+            this.tokens = tokens;
+            this.line = line;
+        }
+
+        private long parse() {
+            if (tokens.isEmpty()) throw error("Expected an expression", line);
+            val value = conditional();
+            if (index != tokens.size()) throw error(STR."Unexpected \{tokens.get(index).text()} in expression", line);
+            return value;
+        }
+
+        private boolean accept(String text) {
+            if (index < tokens.size() && tokens.get(index).is(text)) {
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        private long conditional() {
+            val condition = binary(0);
+            if (!accept("?")) return condition;
+            val whenTrue = conditional();
+            if (!accept(":")) throw error("Expected : in conditional expression", line);
+            val whenFalse = conditional();
+            return condition != 0 ? whenTrue : whenFalse;
+        }
+
+        private long binary(int level) {
+            if (level == BINARY_PRECEDENCE.length) return unary();
+            var left = binary(level + 1);
+            outer:
+            while (index < tokens.size()) {
+                for (val operator : BINARY_PRECEDENCE[level]) {
+                    if (accept(operator)) {
+                        left = apply(operator, left, binary(level + 1));
+                        continue outer;
+                    }
+                }
+                break;
+            }
+            return left;
+        }
+
+        private long apply(String operator, long left, long right) {
+            return switch (operator) {
+                case "||" -> left != 0 || right != 0 ? 1 : 0;
+                case "&&" -> left != 0 && right != 0 ? 1 : 0;
+                case "|" -> left | right;
+                case "^" -> left ^ right;
+                case "&" -> left & right;
+                case "==" -> left == right ? 1 : 0;
+                case "!=" -> left != right ? 1 : 0;
+                case "<" -> left < right ? 1 : 0;
+                case ">" -> left > right ? 1 : 0;
+                case "<=" -> left <= right ? 1 : 0;
+                case ">=" -> left >= right ? 1 : 0;
+                case "<<" -> left << right;
+                case ">>" -> left >> right;
+                case "+" -> left + right;
+                case "-" -> left - right;
+                case "*" -> left * right;
+                case "/", "%" -> {
+                    if (right == 0) throw error("Division by zero in expression", line);
+                    yield operator.equals("/") ? left / right : left % right;
+                }
+                default -> throw new IllegalStateException(operator);
+            };
+        }
+
+        private long unary() {
+            if (accept("+")) return unary();
+            if (accept("-")) return -unary();
+            if (accept("!")) return unary() == 0 ? 1 : 0;
+            if (accept("~")) return ~unary();
+            if (accept("(")) {
+                val value = conditional();
+                if (!accept(")")) throw error("Expected ) in expression", line);
+                return value;
+            }
+            if (index >= tokens.size()) throw error("Unexpected end of expression", line);
+            val token = tokens.get(index++);
+            return switch (token.type()) {
+                case NUMBER -> parseInteger(token.text(), line);
+                case IDENTIFIER -> 0;
+                default -> throw error(STR."Unexpected \{token.text()} in expression", line);
+            };
+        }
+    }
+
+    /**
+     * Evaluates an integer constant expression made of literals and operators, such as an expanded array size.
+     *
+     * @param expression the tokens of the expression
+     * @return the value, or {@code null} if the expression contains identifiers or is malformed
+     */
+    static Long evaluateConstant(List<GlslToken> expression) {
+        for (val token : expression)
+            if (token.type() == GlslToken.Type.IDENTIFIER || token.type() == GlslToken.Type.STRING) return null;
+        try {
+            return new ExpressionParser(expression, expression.isEmpty() ? 0 : expression.getFirst().line()).parse();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a decimal, octal or hexadecimal integer literal with an optional unsigned suffix.
+     *
+     * @param literal the literal
+     * @param line    the line of the literal, for error messages
+     * @return the value of the literal
+     */
+    static long parseInteger(String literal, int line) {
+        var text = literal;
+        if (text.endsWith("u") || text.endsWith("U")) text = text.substring(0, text.length() - 1);
+        try {
+            if (text.startsWith("0x") || text.startsWith("0X")) return Long.parseLong(text.substring(2), 16);
+            if (text.length() > 1 && text.startsWith("0")) return Long.parseLong(text.substring(1), 8);
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw error(STR."Expected an integer but found \{literal}", line);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.github.nebula.graphics.util.glsl;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The {@code GlslReflection} class describes the global {@code in}, {@code uniform} and {@code buffer} declarations
+ * of a GLSL source, as found by a single pass over the tokens of a {@link GlslPreprocessor}. Declarations in
+ * inactive conditional blocks are therefore ignored, and every declarator of declarations such as
+ * {@code uniform float a, b[4];} is reported.
+ *
+ * @param inputs   the global {@code in} and {@code attribute} variables, in declaration order
+ * @param uniforms the uniforms declared outside of blocks, in declaration order
+ * @param blocks   the uniform and shader storage blocks, in declaration order
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public record GlslReflection(@NonNull List<Declaration> inputs, @NonNull List<Declaration> uniforms,
+                             @NonNull List<Block> blocks) {
+    /**
+     * The array size of declarations whose size depends on constants declared in the source.
+     */
+    public static final int UNKNOWN_SIZE = -1;
+    private static final Set<String> QUALIFIERS = Set.of(
+            "const", "in", "out", "inout", "attribute", "varying", "uniform", "buffer", "shared",
+            "centroid", "sample", "patch", "flat", "smooth", "noperspective", "invariant", "precise",
+            "highp", "mediump", "lowp", "coherent", "volatile", "restrict", "readonly", "writeonly"
+    );
+
+    /**
+     * A declared variable or block member.
+     *
+     * @param type      the name of the type
+     * @param name      the name of the variable
+     * @param arraySize the number of elements, {@code 1} for variables that are no arrays, {@code 0} for arrays
+     *                  without a size and {@link #UNKNOWN_SIZE} for sizes depending on constants declared
+     *                  in the source
+     * @param location  the location set by a layout qualifier, or {@code -1}
+     */
+    public record Declaration(@NonNull String type, @NonNull String name, int arraySize, int location) {
+        /**
+         * Checks whether the variable is declared as an array.
+         *
+         * @return {@code true} if the variable is an array
+         */
+        public boolean isArray() {
+            return arraySize != 1;
+        }
+    }
+
+    /**
+     * A uniform or shader storage block.
+     *
+     * @param storage      {@code uniform} or {@code buffer}
+     * @param name         the name of the block
+     * @param instanceName the name of the block instance, or {@code null} if its members are global
+     * @param binding      the binding set by a layout qualifier, or {@code -1}
+     * @param members      the members of the block
+     */
+    public record Block(@NonNull String storage, @NonNull String name, String instanceName, int binding,
+                        @NonNull List<Declaration> members) {
+    }
+
+    /**
+     * Preprocesses and reflects a source.
+     *
+     * @param source          the GLSL source
+     * @param includeResolver resolves {@code #include} directives, may be {@code null}
+     * @return the declarations of the source
+     * @throws IllegalArgumentException if the source cannot be preprocessed
+     */
+    @NonNull
+    public static GlslReflection reflect(@NonNull String source, Function<String, String> includeResolver) {
+        return new Parser(new GlslPreprocessor(source, includeResolver)).parse();
+    }
+
+    /**
+     * Collects the declarations of the global scope. Tokens are gathered per statement; statements ending in a
+     * block body are either interface blocks or skipped as functions and struct definitions.
+     */
+    private static final class Parser {
+        private final GlslPreprocessor tokens;
+        private final List<Declaration> inputs, uniforms;
+        private final List<Block> blocks;
+
+        private Parser(GlslPreprocessor tokens) {
+            this.tokens = tokens;
+            this.inputs = new ArrayList<>();
+            this.uniforms = new ArrayList<>();
+            this.blocks = new ArrayList<>();
+        }
+
+        private GlslReflection parse() {
+            var statement = new ArrayList<GlslToken>();
+            for (var token = tokens.next(); token.type() != GlslToken.Type.END; token = tokens.next()) {
+                if (token.is(";")) {
+                    declaration(statement);
+                    statement = new ArrayList<>();
+                } else if (token.is("{")) {
+                    val storage = storageOf(statement);
+                    if (storage != null && (storage.equals("uniform") || storage.equals("buffer"))) {
+                        block(statement, storage);
+                    } else {
+                        skipBody();
+                        // Function definitions end with their body; struct definitions continue to their ';'
+                        if (!statement.isEmpty() && statement.getFirst().is("struct")) {
+                            statement.clear();
+                            statement.add(token);
+                            continue;
+                        }
+                    }
+                    statement = new ArrayList<>();
+                } else {
+                    statement.add(token);
+                }
+            }
+            return new GlslReflection(List.copyOf(inputs), List.copyOf(uniforms), List.copyOf(blocks));
+        }
+
+        private void skipBody() {
+            var depth = 1;
+            while (depth > 0) {
+                val token = tokens.next();
+                if (token.type() == GlslToken.Type.END) throw new IllegalArgumentException("Unterminated block");
+                if (token.is("{")) depth++;
+                else if (token.is("}")) depth--;
+            }
+        }
+
+        private void declaration(List<GlslToken> statement) {
+            val storage = storageOf(statement);
+            if (storage == null) return;
+            val layout = new HashMap<String, Integer>();
+            var index = layout(statement, layout);
+            while (index < statement.size() && QUALIFIERS.contains(statement.get(index).text())) index++;
+            // A storage qualifier alone, such as "layout(local_size_x = 64) in;", declares nothing
+            if (index >= statement.size()) return;
+            val type = statement.get(index++).text();
+            val declarations = storage.equals("uniform") ? uniforms : storage.equals("buffer") ? null : inputs;
+            if (declarations == null) return;
+            declarators(statement, index, type, layout.getOrDefault("location", -1), declarations);
+        }
+
+        private void block(List<GlslToken> header, String storage) {
+            val layout = new HashMap<String, Integer>();
+            var index = layout(header, layout);
+            while (index < header.size() && QUALIFIERS.contains(header.get(index).text())) index++;
+            if (index >= header.size()) throw new IllegalArgumentException(STR."Unnamed \{storage} block");
+            val name = header.get(index).text();
+
+            val members = new ArrayList<Declaration>();
+            var member = new ArrayList<GlslToken>();
+            for (var token = tokens.next(); !token.is("}"); token = tokens.next()) {
+                if (token.type() == GlslToken.Type.END)
+                    throw new IllegalArgumentException(STR."Unterminated block \{name}");
+                if (!token.is(";")) {
+                    member.add(token);
+                    continue;
+                }
+                var memberIndex = layout(member, new HashMap<>());
+                while (memberIndex < member.size() && QUALIFIERS.contains(member.get(memberIndex).text()))
+                    memberIndex++;
+                if (memberIndex < member.size())
+                    declarators(member, memberIndex + 1, member.get(memberIndex).text(), -1, members);
+                member = new ArrayList<>();
+            }
+
+            String instanceName = null;
+            for (var token = tokens.next(); !token.is(";") && token.type() != GlslToken.Type.END; token = tokens.next())
+                if (instanceName == null && token.type() == GlslToken.Type.IDENTIFIER) instanceName = token.text();
+            blocks.add(new Block(storage, name, instanceName, layout.getOrDefault("binding", -1), List.copyOf(members)));
+        }
+
+        /**
+         * Finds the storage qualifier of a statement, skipping its layout qualifier.
+         */
+        private static String storageOf(List<GlslToken> statement) {
+            for (var index = layout(statement, new HashMap<>()); index < statement.size(); index++) {
+                val text = statement.get(index).text();
+                switch (text) {
+                    case "in", "attribute" -> {
+                        return "in";
+                    }
+                    case "uniform", "buffer" -> {
+                        return text;
+                    }
+                    default -> {
+                        if (!QUALIFIERS.contains(text)) return null;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Reads a leading layout qualifier into {@code layout}, with qualifiers without a value mapped to {@code 1}.
+         *
+         * @return the index of the first token after the qualifier
+         */
+        private static int layout(List<GlslToken> statement, Map<String, Integer> layout) {
+            if (statement.size() < 2 || !statement.getFirst().is("layout") || !statement.get(1).is("("))
+                return 0;
+            var index = 2;
+            while (index < statement.size() && !statement.get(index).is(")")) {
+                val key = statement.get(index++);
+                if (index + 1 < statement.size() && statement.get(index).is("=")) {
+                    val value = statement.get(index + 1);
+                    layout.put(key.text(), value.type() == GlslToken.Type.NUMBER
+                            ? (int) GlslPreprocessor.parseInteger(value.text(), value.line()) : -1);
+                    index += 2;
+                } else if (key.type() == GlslToken.Type.IDENTIFIER) {
+                    layout.put(key.text(), 1);
+                }
+                if (index < statement.size() && statement.get(index).is(",")) index++;
+            }
+            return index + 1;
+        }
+
+        /**
+         * Reads a comma separated list of declarators, such as {@code a, b[4], c = 1.0}.
+         */
+        private static void declarators(List<GlslToken> statement, int index, String type, int location,
+                                        List<Declaration> declarations) {
+            // Arrays may also be declared on the type, as in "float[4] weights"
+            var typeArraySize = 1;
+            if (index < statement.size() && statement.get(index).is("[")) {
+                typeArraySize = arraySize(statement, index);
+                index = skipBrackets(statement, index);
+            }
+            while (index < statement.size()) {
+                val name = statement.get(index++);
+                if (name.type() != GlslToken.Type.IDENTIFIER)
+                    throw new IllegalArgumentException(STR."Expected a variable name but found \{name}");
+                var arraySize = typeArraySize;
+                if (index < statement.size() && statement.get(index).is("[")) {
+                    arraySize = arraySize(statement, index);
+                    index = skipBrackets(statement, index);
+                }
+                declarations.add(new Declaration(type, name.text(), arraySize, location));
+                if (location >= 0) location += Math.max(arraySize, 1);
+
+                // Skips an initializer up to the next declarator
+                var depth = 0;
+                while (index < statement.size() && !(depth == 0 && statement.get(index).is(","))) {
+                    val token = statement.get(index++);
+                    if (token.is("(") || token.is("[") || token.is("{")) depth++;
+                    else if (token.is(")") || token.is("]") || token.is("}")) depth--;
+                }
+                index++;
+            }
+        }
+
+        private static int arraySize(List<GlslToken> statement, int open) {
+            val close = matchingBracket(statement, open);
+            if (close == open + 1) return 0;
+            val size = GlslPreprocessor.evaluateConstant(statement.subList(open + 1, close));
+            return size == null ? UNKNOWN_SIZE : size.intValue();
+        }
+
+        /**
+         * Skips all array dimensions starting at {@code open}.
+         *
+         * @return the index after the last closing bracket
+         */
+        private static int skipBrackets(List<GlslToken> statement, int open) {
+            var index = open;
+            while (index < statement.size() && statement.get(index).is("["))
+                index = Math.min(matchingBracket(statement, index) + 1, statement.size());
+            return index;
+        }
+
+        private static int matchingBracket(List<GlslToken> statement, int open) {
+            var depth = 0;
+            for (var index = open; index < statement.size(); index++) {
+                if (statement.get(index).is("[")) depth++;
+                else if (statement.get(index).is("]") && --depth == 0) return index;
+            }
+            return statement.size();
+        }
+    }
+}
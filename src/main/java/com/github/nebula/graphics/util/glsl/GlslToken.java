@@ -0,0 +1,44 @@
+package com.github.nebula.graphics.util.glsl;
+
+import io.reactivex.rxjava3.annotations.NonNull;
+
+/**
+ * A single token of GLSL source, produced by {@link GlslLexer}.
+ *
+ * @param type        the kind of the token
+ * @param text        the text of the token; string tokens are stored without their quotes
+ * @param line        the line the token starts on, counting from 1
+ * @param spaceBefore whether whitespace or a comment precedes the token, which distinguishes function-like from
+ *                    object-like macro definitions
+ * @author Anton Schoenfeld
+ * @since 18.10.2026
+ */
+public record GlslToken(@NonNull Type type, @NonNull String text, int line, boolean spaceBefore) {
+    public enum Type {
+        IDENTIFIER,
+        NUMBER,
+        STRING,
+        PUNCTUATOR,
+        /**
+         * A {@code #} starting a preprocessor directive, which is only recognized as the first token of a line.
+         */
+        DIRECTIVE,
+        NEWLINE,
+        END
+    }
+
+    /**
+     * Checks whether this token is a punctuator or identifier with the given text.
+     *
+     * @param text the text to compare against
+     * @return {@code true} if the token has the text and is not a string
+     */
+    public boolean is(@NonNull String text) {
+        return type != Type.STRING && this.text.equals(text);
+    }
+
+    @Override
+    public String toString() {
+        return STR."\{type} '\{text}' at line \{line}";
+    }
+}
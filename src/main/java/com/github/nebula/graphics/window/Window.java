@@ -2,6 +2,7 @@ package com.github.nebula.graphics.window;
 
 import com.github.nebula.graphics.OpenGLDebugLogger;
 import com.github.nebula.graphics.data.ByteBufferedImage;
+import com.github.nebula.graphics.globjects.GLStateCache;
 import io.reactivex.rxjava3.annotations.NonNull;
 import lombok.Getter;
 import lombok.Setter;
@@ -34,6 +35,10 @@ public class Window implements AutoCloseable {
     private GLFWErrorCallback errorCallback;
     private ByteBufferedImage currentIcon;
     private @Getter String title;
+    /**
+     * The state cache of the context of this window, installed by {@link #createGLCapabilities()}.
+     */
+    private @Getter GLStateCache stateCache;
 
     public Window(@NonNull WindowHints windowHints, @NonNull String title, int x, int y, int width, int height) {
         if (!glfwInit())
@@ -110,6 +115,9 @@ public class Window implements AutoCloseable {
     @NonNull
     public GLCapabilities createGLCapabilities() {
         val capabilities = GL.createCapabilities();
+        // A new context starts with unknown state, even if the thread used another context before
+        stateCache = new GLStateCache();
+        GLStateCache.makeCurrent(stateCache);
         if (Objects.equals(System.getProperty("-debug"), Boolean.TRUE.toString())) {
             glEnable(GL43C.GL_DEBUG_OUTPUT);
             GL43C.glDebugMessageCallback(new OpenGLDebugLogger(), 0);
@@ -127,7 +135,7 @@ public class Window implements AutoCloseable {
             getSize(size);
             glfwSwapBuffers(windowObject);
             glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
-            glViewport(0, 0, size.x, size.y);
+            stateCache.viewport(0, 0, size.x, size.y);
             glClearColor(0, 0, 0, 1);
 
             renderListener.run();
@@ -1,16 +1,22 @@
 module com.github.nebula.graphics {
     exports com.github.nebula.graphics;
+    exports com.github.nebula.graphics.culling;
+    exports com.github.nebula.graphics.spatial;
+    exports com.github.nebula.graphics.scene;
+    exports com.github.nebula.graphics.render;
     exports com.github.nebula.graphics.globjects;
     exports com.github.nebula.graphics.globjects.texture;
     exports com.github.nebula.graphics.globjects.exceptions;
     exports com.github.nebula.graphics.data;
     exports com.github.nebula.graphics.util;
+    exports com.github.nebula.graphics.util.glsl;
     exports com.github.nebula.graphics.window;
 
     requires transitive lombok;
     requires transitive io.reactivex.rxjava3;
     requires transitive java.logging;
 
+    requires jdk.incubator.vector;
     requires org.joml;
     requires org.lwjgl;
     requires org.lwjgl.opengl;
@@ -0,0 +1,85 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.data.GLDataType;
+import com.github.nebula.graphics.data.VertexAttribute;
+import com.github.nebula.graphics.data.VertexAttributes;
+import lombok.val;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InstanceAttributeBufferTest {
+    private static final int TINT = 0, FRAME = 1, MATERIAL = 2, UV_OFFSET = 3;
+
+    private InstanceAttributeBuffer attributes;
+
+    @BeforeEach
+    public void setup() {
+        attributes = new InstanceAttributeBuffer(new VertexAttributes(
+                new VertexAttribute(GLDataType.VEC3, "tint", TINT),
+                new VertexAttribute(GLDataType.FLOAT, "frame", FRAME),
+                new VertexAttribute(GLDataType.INT, "material", MATERIAL),
+                new VertexAttribute(GLDataType.VEC2, "uvOffset", UV_OFFSET)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        attributes.close();
+    }
+
+    @Test
+    public void constructor_given_Std430Layout() {
+        // The float fills the padding after the vec3, the vec2 is aligned to 8 bytes
+        Assertions.assertEquals(0, attributes.getOffset(TINT));
+        Assertions.assertEquals(12, attributes.getOffset(FRAME));
+        Assertions.assertEquals(16, attributes.getOffset(MATERIAL));
+        Assertions.assertEquals(24, attributes.getOffset(UV_OFFSET));
+        Assertions.assertEquals(32, attributes.getStride());
+    }
+
+    @Test
+    public void constructor_given_UnsupportedType() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new InstanceAttributeBuffer(
+                new VertexAttributes(new VertexAttribute(GLDataType.MAT3, "normalMatrix", 0))));
+    }
+
+    @Test
+    public void set_given_Attributes() {
+        attributes.add(2);
+        attributes.setVector(1, TINT, new Vector3f(0.25f, 0.5f, 1));
+        attributes.setFloat(1, FRAME, 7);
+        attributes.setInt(1, MATERIAL, 3);
+        attributes.setFloats(1, UV_OFFSET, 0.5f, 0.75f);
+
+        Assertions.assertEquals(0.5f, attributes.getFloat(1, TINT, 1));
+        Assertions.assertEquals(7, attributes.getFloat(1, FRAME, 0));
+        Assertions.assertEquals(3, attributes.getInt(1, MATERIAL, 0));
+        Assertions.assertEquals(0.75f, attributes.getFloat(1, UV_OFFSET, 1));
+        Assertions.assertEquals(0, attributes.getFloat(0, FRAME, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> attributes.setVector(0, TINT, new Vector2f()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> attributes.setFloats(0, TINT, 1, 2));
+    }
+
+    @Test
+    public void swapRemove_given_FirstInstance() {
+        attributes.add(3);
+        for (var i = 0; i < 3; i++) attributes.setInt(i, MATERIAL, i + 10);
+
+        attributes.swapRemove(0);
+        Assertions.assertEquals(2, attributes.getSize());
+        Assertions.assertEquals(12, attributes.getInt(0, MATERIAL, 0));
+        Assertions.assertEquals(11, attributes.getInt(1, MATERIAL, 0));
+    }
+
+    @Test
+    public void getGlslDeclaration_given_Layout() {
+        val declaration = attributes.getGlslDeclaration(Model.INSTANCE_ATTRIBUTE_BUFFER_BINDING);
+        Assertions.assertTrue(declaration.contains("struct InstanceAttributes {"));
+        Assertions.assertTrue(declaration.contains("    vec3 tint;\n    float frame;\n    int material;\n    vec2 uvOffset;\n"));
+        Assertions.assertTrue(declaration.contains("layout(std430, binding = 4) readonly buffer InstanceAttributesBuffer {"));
+        Assertions.assertTrue(declaration.contains("    InstanceAttributes instanceAttributes[];"));
+    }
+}
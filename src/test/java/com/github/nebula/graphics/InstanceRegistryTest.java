@@ -0,0 +1,79 @@
+package com.github.nebula.graphics;
+
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+class InstanceRegistryTest {
+    private InstanceRegistry registry;
+
+    @BeforeEach
+    public void setup() {
+        registry = new InstanceRegistry();
+    }
+
+    @Test
+    public void create_given_Bulk() {
+        val handles = new long[1000];
+        registry.create(handles, 0, handles.length);
+
+        Assertions.assertEquals(handles.length, registry.getSize());
+        val distinct = new HashSet<Long>();
+        for (var i = 0; i < handles.length; i++) {
+            Assertions.assertNotEquals(InstanceRegistry.NULL_HANDLE, handles[i]);
+            Assertions.assertEquals(i, registry.indexOf(handles[i]));
+            Assertions.assertEquals(handles[i], registry.handleAt(i));
+            distinct.add(handles[i]);
+        }
+        Assertions.assertEquals(handles.length, distinct.size());
+        Assertions.assertFalse(registry.isAlive(InstanceRegistry.NULL_HANDLE));
+    }
+
+    @Test
+    public void destroy_given_MiddleInstance() {
+        val a = registry.create();
+        val b = registry.create();
+        val c = registry.create();
+
+        Assertions.assertEquals(0, registry.destroy(a));
+        Assertions.assertEquals(2, registry.getSize());
+        // The last instance moved into the freed index, its handle stays valid
+        Assertions.assertEquals(0, registry.indexOf(c));
+        Assertions.assertEquals(1, registry.indexOf(b));
+        Assertions.assertEquals(c, registry.handleAt(0));
+        Assertions.assertFalse(registry.isAlive(a));
+        Assertions.assertEquals(-1, registry.destroy(a));
+    }
+
+    @Test
+    public void create_given_ReusedSlot() {
+        val a = registry.create();
+        registry.destroy(a);
+        val b = registry.create();
+
+        Assertions.assertEquals((int) a, (int) b);
+        Assertions.assertNotEquals(a, b);
+        Assertions.assertFalse(registry.isAlive(a));
+        Assertions.assertEquals(0, registry.indexOf(b));
+    }
+
+    @Test
+    public void destroy_given_AllInstances() {
+        val handles = new long[100];
+        registry.create(handles, 0, handles.length);
+        for (var i = 0; i < handles.length; i += 2)
+            registry.destroy(handles[i]);
+
+        Assertions.assertEquals(50, registry.getSize());
+        for (var i = 0; i < handles.length; i++) {
+            Assertions.assertEquals(i % 2 == 1, registry.isAlive(handles[i]));
+            if (i % 2 == 1) Assertions.assertEquals(handles[i], registry.handleAt(registry.indexOf(handles[i])));
+        }
+        for (var i = 1; i < handles.length; i += 2)
+            registry.destroy(handles[i]);
+        Assertions.assertEquals(0, registry.getSize());
+    }
+}
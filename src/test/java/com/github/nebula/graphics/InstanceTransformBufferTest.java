@@ -0,0 +1,115 @@
+package com.github.nebula.graphics;
+
+import lombok.val;
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.List;
+
+class InstanceTransformBufferTest {
+    private static final int COUNT = 200;
+
+    private InstanceTransformBuffer transforms;
+
+    @BeforeEach
+    public void setup() {
+        transforms = new InstanceTransformBuffer();
+        transforms.add(COUNT);
+        for (var i = 0; i < COUNT; i++) transforms.set(i, new Matrix4f().translation(i, 0, 0));
+        transforms.clearDirty();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transforms.close();
+    }
+
+    private List<Integer> dirtyIndices() {
+        val indices = new ArrayList<Integer>();
+        transforms.forEachDirty(indices::add);
+        return indices;
+    }
+
+    private List<List<Integer>> dirtyRuns() {
+        val runs = new ArrayList<List<Integer>>();
+        transforms.forEachDirtyRun((from, to) -> runs.add(List.of(from, to)));
+        return runs;
+    }
+
+    private float translationX(int index) {
+        return transforms.segment().getAtIndex(ValueLayout.JAVA_FLOAT, (long) index * InstanceTransformBuffer.MATRIX_FLOATS + 12);
+    }
+
+    @Test
+    public void markDirty_given_WordBoundaries() {
+        // Within a single word
+        transforms.markDirty(3, 5);
+        Assertions.assertEquals(List.of(3, 4), dirtyIndices());
+
+        // Ending exactly at a word boundary, where the last mask covers the whole word
+        transforms.clearDirty();
+        transforms.markDirty(62, 128);
+        val indices = dirtyIndices();
+        Assertions.assertEquals(66, indices.size());
+        Assertions.assertEquals(62, indices.getFirst());
+        Assertions.assertEquals(127, indices.getLast());
+
+        // Spanning a partial first word, a full word and a partial last word
+        transforms.clearDirty();
+        transforms.markDirty(63, 130);
+        Assertions.assertEquals(List.of(List.of(63, 130)), dirtyRuns());
+        Assertions.assertFalse(dirtyIndices().contains(62));
+        Assertions.assertFalse(dirtyIndices().contains(130));
+
+        transforms.clearDirty();
+        transforms.markDirty(10, 10);
+        Assertions.assertTrue(dirtyIndices().isEmpty());
+    }
+
+    @Test
+    public void forEachDirtyRun_given_SmallAndLargeGaps() {
+        transforms.markDirty(10);
+        // A gap of 8 clean instances is coalesced
+        transforms.markDirty(19);
+        // A gap of 9 clean instances starts a new run
+        transforms.markDirty(29);
+        transforms.markDirty(63);
+        transforms.markDirty(64);
+
+        Assertions.assertEquals(List.of(List.of(10, 20), List.of(29, 30), List.of(63, 65)), dirtyRuns());
+        // Reporting runs keeps the dirty bits
+        Assertions.assertEquals(List.of(10, 19, 29, 63, 64), dirtyIndices());
+    }
+
+    @Test
+    public void swapRemove_given_MiddleAndLastIndex() {
+        transforms.swapRemove(5);
+        Assertions.assertEquals(COUNT - 1, transforms.getSize());
+        Assertions.assertEquals(List.of(5), dirtyIndices());
+        Assertions.assertEquals(COUNT - 1, translationX(5));
+
+        // Removing the last instance moves nothing, so nothing has to be uploaded again
+        transforms.clearDirty();
+        transforms.swapRemove(transforms.getSize() - 1);
+        Assertions.assertTrue(dirtyIndices().isEmpty());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> transforms.swapRemove(COUNT));
+    }
+
+    @Test
+    public void remove_given_MiddleIndex() {
+        val version = transforms.getVersion();
+        transforms.remove(150);
+
+        Assertions.assertEquals(COUNT - 1, transforms.getSize());
+        Assertions.assertEquals(151, translationX(150));
+        Assertions.assertEquals(COUNT - 1, translationX(COUNT - 2));
+        // Every moved instance is dirty, the former last slot is beyond the size
+        Assertions.assertEquals(List.of(List.of(150, COUNT - 1)), dirtyRuns());
+        Assertions.assertTrue(transforms.getVersion() > version);
+    }
+}
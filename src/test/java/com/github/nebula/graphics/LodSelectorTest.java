@@ -0,0 +1,133 @@
+package com.github.nebula.graphics;
+
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.IntBuffer;
+
+class LodSelectorTest {
+    private LodSelector lodSelector;
+    private InstanceTransformBuffer transforms;
+    private IntBuffer visible;
+
+    @BeforeEach
+    public void setup() {
+        // With a 90° field of view the screen size of a unit sphere is 1 / distance
+        lodSelector = new LodSelector(4);
+        lodSelector.setThresholds(0.5f, 0.1f);
+        lodSelector.setHysteresis(0.2f);
+        lodSelector.setCamera(new Vector3f(), (float) Math.toRadians(90));
+        transforms = new InstanceTransformBuffer();
+        visible = MemoryUtil.memAllocInt(16);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        lodSelector.close();
+        transforms.close();
+        MemoryUtil.memFree(visible);
+    }
+
+    private void addInstance(float distance) {
+        val index = transforms.add();
+        lodSelector.add(1);
+        transforms.set(index, new Matrix4f().translation(0, 0, -distance));
+        visible.put(index, index);
+    }
+
+    private void moveInstance(int index, float distance) {
+        transforms.set(index, new Matrix4f().translation(0, 0, -distance));
+    }
+
+    private void select() {
+        lodSelector.select(visible, transforms.getSize(), transforms, new Vector3f(), 1);
+    }
+
+    @Test
+    public void select_given_Thresholds() {
+        addInstance(1.5f);
+        addInstance(50);
+        addInstance(5);
+        addInstance(20);
+        select();
+
+        Assertions.assertEquals(3, lodSelector.getLevelCount());
+        Assertions.assertEquals(0, lodSelector.getLevel(0));
+        Assertions.assertEquals(2, lodSelector.getLevel(1));
+        Assertions.assertEquals(1, lodSelector.getLevel(2));
+        Assertions.assertEquals(2, lodSelector.getLevel(3));
+        Assertions.assertEquals(Float.POSITIVE_INFINITY, lodSelector.getScreenSize(0, 0, 0.5f, 1));
+    }
+
+    @Test
+    public void select_given_Buckets() {
+        addInstance(1.5f);
+        addInstance(50);
+        addInstance(5);
+        addInstance(20);
+        select();
+
+        Assertions.assertEquals(0, lodSelector.getBucketOffset(0));
+        Assertions.assertEquals(4, lodSelector.getBucketOffset(1));
+        Assertions.assertEquals(8, lodSelector.getBucketOffset(2));
+        Assertions.assertEquals(12, lodSelector.getBucketedSize());
+        Assertions.assertEquals(1, lodSelector.getBucketCount(0));
+        Assertions.assertEquals(1, lodSelector.getBucketCount(1));
+        Assertions.assertEquals(2, lodSelector.getBucketCount(2));
+
+        val bucketed = lodSelector.getBucketedIndices();
+        Assertions.assertEquals(0, bucketed.get(0));
+        Assertions.assertEquals(2, bucketed.get(4));
+        Assertions.assertEquals(1, bucketed.get(8));
+        Assertions.assertEquals(3, bucketed.get(9));
+    }
+
+    @Test
+    public void select_given_Hysteresis() {
+        addInstance(1.5f);
+        select();
+        Assertions.assertEquals(0, lodSelector.getLevel(0));
+
+        // Just below the threshold, but within the hysteresis band
+        moveInstance(0, 2.2f);
+        select();
+        Assertions.assertEquals(0, lodSelector.getLevel(0));
+
+        moveInstance(0, 2.6f);
+        select();
+        Assertions.assertEquals(1, lodSelector.getLevel(0));
+
+        // Just above the threshold again, which is not enough to switch back
+        moveInstance(0, 1.8f);
+        select();
+        Assertions.assertEquals(1, lodSelector.getLevel(0));
+
+        moveInstance(0, 1.6f);
+        select();
+        Assertions.assertEquals(0, lodSelector.getLevel(0));
+    }
+
+    @Test
+    public void swapRemove_given_MiddleInstance() {
+        addInstance(1.5f);
+        addInstance(5);
+        addInstance(50);
+        select();
+
+        lodSelector.swapRemove(1);
+        Assertions.assertEquals(0, lodSelector.getLevel(0));
+        Assertions.assertEquals(2, lodSelector.getLevel(1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> lodSelector.getLevel(2));
+    }
+
+    @Test
+    public void setThresholds_given_IncreasingThresholds() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> lodSelector.setThresholds(0.1f, 0.5f));
+    }
+}
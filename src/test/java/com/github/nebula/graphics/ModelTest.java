@@ -0,0 +1,136 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.culling.OcclusionCuller;
+import com.github.nebula.graphics.globjects.Shader;
+import com.github.nebula.graphics.util.BufferUtil;
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class ModelTest {
+    private static final String VERTEX_SOURCE = """
+            #version 430 core
+            layout(location = 0) in vec2 position;
+            void main() {
+                gl_Position = vec4(position, 0, 1);
+            }
+            """;
+    private static final String FRAGMENT_SOURCE = """
+            #version 430 core
+            out vec4 color;
+            void main() {
+                color = vec4(1);
+            }
+            """;
+
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private Shader shader;
+    private ShaderMaterial material;
+    private NativeMesh mesh;
+    private Model model;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+        shader = new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE);
+        material = new ShaderMaterial(shader);
+        mesh = ShaderMaterial.triangles(1);
+        model = new Model(Map.of(material, List.of(mesh)));
+        model.createInstance();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        model.close();
+        shader.close();
+        contextHolder.close();
+    }
+
+    @Test
+    public void renderInstances_given_UnchangedMeshes() {
+        model.renderInstances();
+        val batch = model.getBatch(material);
+        Assertions.assertNotNull(batch);
+        Assertions.assertEquals(3, batch.getIndexCount());
+
+        model.renderInstances();
+        // Reading a mesh does not change it
+        try (val vertices = mesh.getVertices(ReadPolicy.READ)) {
+            Assertions.assertEquals(6, vertices.buffer().limit());
+        }
+        model.renderInstances();
+        Assertions.assertSame(batch, model.getBatch(material));
+        Assertions.assertEquals(3, material.binds);
+    }
+
+    @Test
+    public void renderInstances_given_ChangedMeshMaterialMap() {
+        model.renderInstances();
+        val batch = model.getBatch(material);
+
+        model.setMeshes(material, List.of(mesh, ShaderMaterial.triangles(2)));
+        // Batches are rebuilt lazily on the next render
+        Assertions.assertSame(batch, model.getBatch(material));
+        model.renderInstances();
+        val rebuilt = model.getBatch(material);
+        Assertions.assertNotSame(batch, rebuilt);
+        Assertions.assertEquals(9, rebuilt.getIndexCount());
+
+        model.renderInstances();
+        Assertions.assertSame(rebuilt, model.getBatch(material));
+    }
+
+    @Test
+    public void renderInstances_given_ChangedMeshContents() {
+        model.renderInstances();
+        val batch = model.getBatch(material);
+
+        mesh.setVerticesRange(0, BufferUtil.newNativeFloatBuffer(new float[]{5, 5}));
+        model.renderInstances();
+        Assertions.assertNotSame(batch, model.getBatch(material));
+    }
+
+    @Test
+    public void equals_given_SameInstanceCountAndDifferentTransforms() {
+        try (val other = new Model(Map.of(material, List.of(ShaderMaterial.triangles(1))))) {
+            val instance = other.createInstance();
+            Assertions.assertEquals(model, other);
+            Assertions.assertEquals(model.hashCode(), other.hashCode());
+
+            instance.setTransformationMatrix(new Matrix4f().translation(1, 0, 0));
+            Assertions.assertNotEquals(model, other);
+        }
+    }
+
+    @Test
+    public void setGpuCullingEnabled_given_UnsupportedCombinations() {
+        val occlusionCuller = new OcclusionCuller(64, 64);
+        model.setOcclusionCuller(occlusionCuller);
+        Assertions.assertThrows(IllegalStateException.class, () -> model.setGpuCullingEnabled(true));
+        model.setOcclusionCuller(null);
+
+        model.getLodSelector().setThresholds(0.5f);
+        Assertions.assertThrows(IllegalStateException.class, () -> model.setGpuCullingEnabled(true));
+        model.getLodSelector().setThresholds();
+
+        model.setGpuCullingEnabled(true);
+        Assertions.assertThrows(IllegalStateException.class, () -> model.setOcclusionCuller(occlusionCuller));
+        Assertions.assertTrue(model.isGpuCullingEnabled());
+        model.setGpuCullingEnabled(false);
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.culling.GPUCuller;
+import com.github.nebula.graphics.data.GLDataType;
+import com.github.nebula.graphics.data.VertexAttribute;
+import com.github.nebula.graphics.data.VertexAttributes;
+import com.github.nebula.graphics.globjects.Shader;
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL43C.GL_DRAW_INDIRECT_BUFFER;
+import static org.lwjgl.opengl.GL43C.glGetBufferSubData;
+
+class MultiDrawBatcherTest {
+    private static final String VERTEX_SOURCE = """
+            #version 430 core
+            layout(location = 0) in vec2 position;
+            in uint instanceIndex;
+            layout(std430, binding = 0) readonly buffer Transforms { mat4 transforms[]; };
+            void main() {
+                gl_Position = transforms[instanceIndex] * vec4(position, 0, 1);
+            }
+            """;
+    private static final String FRAGMENT_SOURCE = """
+            #version 430 core
+            out vec4 color;
+            void main() {
+                color = vec4(1);
+            }
+            """;
+
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private Shader shader, otherShader;
+    private ShaderMaterial material, otherMaterial;
+    private List<Model> models;
+    private MultiDrawBatcher batcher;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+        shader = new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE);
+        otherShader = new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE);
+        material = new ShaderMaterial(shader);
+        otherMaterial = new ShaderMaterial(otherShader);
+        models = new ArrayList<>();
+        batcher = new MultiDrawBatcher();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        batcher.close();
+        for (val model : models) model.close();
+        otherShader.close();
+        shader.close();
+        contextHolder.close();
+    }
+
+    private Model createModel(Map<Material, List<Mesh>> meshMaterialMap, int instances) {
+        val model = new Model(meshMaterialMap);
+        for (var i = 0; i < instances; i++) model.createInstance();
+        models.add(model);
+        batcher.add(model);
+        return model;
+    }
+
+    private static int[] readCommands(int commandCount) {
+        val commands = new int[commandCount * GPUCuller.COMMAND_INTS];
+        // A group leaves its command buffer bound after drawing
+        glGetBufferSubData(GL_DRAW_INDIRECT_BUFFER, 0, commands);
+        return commands;
+    }
+
+    @Test
+    public void getGroupCount_given_SharedAndDistinctMaterials() {
+        createModel(Map.of(material, List.of(ShaderMaterial.triangles(1))), 1);
+        createModel(Map.of(material, List.of(ShaderMaterial.triangles(2))), 1);
+        Assertions.assertEquals(1, batcher.getGroupCount());
+
+        val other = createModel(Map.of(otherMaterial, List.of(ShaderMaterial.triangles(1))), 1);
+        Assertions.assertEquals(2, batcher.getGroupCount());
+
+        Assertions.assertTrue(batcher.remove(other));
+        Assertions.assertFalse(batcher.remove(other));
+        Assertions.assertEquals(1, batcher.getGroupCount());
+
+        // A model with two materials joins one group per material
+        createModel(Map.of(material, List.of(ShaderMaterial.triangles(1)),
+                otherMaterial, List.of(ShaderMaterial.triangles(1))), 1);
+        Assertions.assertEquals(2, batcher.getGroupCount());
+    }
+
+    @Test
+    public void render_given_ModelsSharingMaterial() {
+        val first = createModel(Map.of(material, List.of(ShaderMaterial.triangles(1))), 2);
+        createModel(Map.of(material, List.of(ShaderMaterial.triangles(2))), 3);
+
+        batcher.render();
+        Assertions.assertEquals(2, batcher.getCommandCount());
+        Assertions.assertEquals(1, material.binds);
+        // count, instanceCount, firstIndex, baseVertex, baseInstance
+        Assertions.assertArrayEquals(new int[]{3, 2, 0, 0, 0, 6, 3, 3, 0, 2}, readCommands(2));
+
+        // Changing the meshes of a model moves the indices of the models behind it
+        first.setMeshes(material, List.of(ShaderMaterial.triangles(3)));
+        first.createInstance();
+        batcher.render();
+        Assertions.assertArrayEquals(new int[]{9, 3, 0, 0, 0, 6, 3, 9, 0, 3}, readCommands(2));
+    }
+
+    @Test
+    public void add_given_InstanceAttributes() {
+        val attributes = new VertexAttributes(new VertexAttribute(GLDataType.VEC4, "tint", 0));
+        val model = new Model(Map.of(material, List.of(ShaderMaterial.triangles(1))));
+        models.add(model);
+        model.setInstanceAttributeLayout(attributes);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> batcher.add(model));
+        Assertions.assertEquals(0, batcher.getGroupCount());
+
+        // Setting the layout after adding the model is detected when rendering
+        val late = createModel(Map.of(material, List.of(ShaderMaterial.triangles(1))), 1);
+        late.setInstanceAttributeLayout(attributes);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> batcher.render());
+    }
+}
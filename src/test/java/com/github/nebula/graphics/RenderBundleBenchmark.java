@@ -0,0 +1,183 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.data.UniformAttributes;
+import com.github.nebula.graphics.globjects.Shader;
+import com.github.nebula.graphics.globjects.VertexArray;
+import com.github.nebula.graphics.util.BufferUtil;
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+public class RenderBundleBenchmark {
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(StaticScene.DRAWS)
+    @State(Scope.Thread)
+    public static class StaticScene {
+        static final int DRAWS = 1024;
+        private static final int MESHES = 64;
+        private static final int MATERIALS = 8;
+        private static final String VERTEX_SOURCE = """
+                #version 430 core
+                layout(location = 0) in vec2 position;
+                uniform float scale;
+                void main() {
+                    gl_Position = vec4(position * scale, 0, 1);
+                }
+                """;
+        private static final String FRAGMENT_SOURCE = """
+                #version 430 core
+                out vec4 color;
+                void main() {
+                    color = vec4(1);
+                }
+                """;
+
+        /**
+         * Uploads its uniform on every bind, like a material without versioning.
+         */
+        private static final class ScaleMaterial implements Material {
+            private final Shader shader;
+            private final float scale;
+
+            private ScaleMaterial(Shader shader, float scale) {
+                this.shader = shader;
+                this.scale = scale;
+            }
+
+            @Override
+            public void bind() {
+                shader.uploadUniformFloat("scale", scale);
+            }
+
+            @Override
+            public void bind(Shader shader) {
+                bind();
+            }
+
+            @Override
+            public boolean isCompatible(Shader shader) {
+                return shader == this.shader;
+            }
+
+            @Override
+            public boolean isCompatible(UniformAttributes uniformAttributes) {
+                return true;
+            }
+
+            @Override
+            public void setUniform(String name, Object value) {
+            }
+
+            @Override
+            public Shader getShader() {
+                return shader;
+            }
+
+            @Override
+            public Object getUniform(String name) {
+                return scale;
+            }
+
+            @Override
+            public void close() {
+            }
+        }
+
+        // Exists just for the OpenGL context
+        private Window contextHolder;
+        private Shader shader;
+        private GPUMesh[] meshes;
+        private VertexArray[] vertexArrays;
+        private Material[] materials;
+        private RenderBundle bundle;
+
+        public static void main(String[] args) throws IOException {
+            String[] jmhArgs = {
+                    "-f", "1", // Forks
+                    "-wi", "10", // Warmup iterations
+                    "-i", "20", // Measurement iterations
+                    "-w", "100ms", // Warmup time
+                    "-r", "100ms", // Measurement time
+                    "-t", "1", // Threads, the context is only current on the setup thread
+                    "-tu", "ns", // Time unit
+                    ".*RenderBundleBenchmark.StaticScene.*" // Regex to match your benchmark class
+            };
+
+            Main.main(jmhArgs);
+        }
+
+        @Setup(Level.Trial)
+        public void setup() {
+            var windowHints = new WindowHints().defaultHints();
+            windowHints.windowHint(WindowHint.VISIBLE, false);
+            contextHolder = new Window(windowHints, getClass().getName());
+            contextHolder.createGLCapabilities();
+            shader = new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE);
+
+            meshes = new GPUMesh[MESHES];
+            vertexArrays = new VertexArray[MESHES];
+            for (var i = 0; i < MESHES; i++) {
+                meshes[i] = new GPUMesh();
+                meshes[i].setVertices(BufferUtil.newNativeFloatBuffer(new float[]{-1, -1, 1, -1, 0, 1}));
+                meshes[i].setIndices(BufferUtil.newNativeIntBuffer(new int[]{0, 1, 2}));
+                vertexArrays[i] = new VertexArray();
+                shader.getVertexAttributes().format(vertexArrays[i], meshes[i].getVbo());
+                vertexArrays[i].bind();
+                meshes[i].getEbo().bind();
+            }
+            materials = new Material[MATERIALS];
+            for (var i = 0; i < MATERIALS; i++) materials[i] = new ScaleMaterial(shader, 1f / (i + 1));
+            bundle = record();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            for (var i = 0; i < MESHES; i++) {
+                vertexArrays[i].close();
+                meshes[i].close();
+            }
+            shader.close();
+            contextHolder.close();
+        }
+
+        /**
+         * Draws grouped by material, as the batches of the models of a static scene.
+         */
+        private Material materialOf(int draw) {
+            return materials[draw * MATERIALS / DRAWS];
+        }
+
+        /**
+         * The draws as {@link MaterialBatch#draw(int)} issues them, walking the batches every frame.
+         */
+        @Benchmark
+        public void immediate() {
+            for (var draw = 0; draw < DRAWS; draw++) {
+                vertexArrays[draw % MESHES].bind();
+                materialOf(draw).bindForDraw();
+                glDrawElementsInstanced(GL_TRIANGLES, 3, GL_UNSIGNED_INT, 0L, 1);
+            }
+        }
+
+        @Benchmark
+        public RenderBundle record() {
+            var builder = new RenderBundle.Builder();
+            for (var draw = 0; draw < DRAWS; draw++)
+                builder.drawElements(vertexArrays[draw % MESHES], materialOf(draw), GL_TRIANGLES, 3, 0, 1);
+            return builder.build();
+        }
+
+        @Benchmark
+        public void replay() {
+            bundle.execute();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.data.UniformAttributes;
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.globjects.GLStateCache;
+import com.github.nebula.graphics.globjects.Shader;
+import com.github.nebula.graphics.globjects.VertexArray;
+import com.github.nebula.graphics.util.BufferUtil;
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+class RenderBundleTest {
+    private static final String VERTEX_SOURCE = """
+            #version 430 core
+            layout(location = 0) in vec2 position;
+            void main() {
+                gl_Position = vec4(position, 0, 1);
+            }
+            """;
+    private static final String FRAGMENT_SOURCE = """
+            #version 430 core
+            out vec4 color;
+            void main() {
+                color = vec4(1);
+            }
+            """;
+
+    /**
+     * Binds its shader and counts its binds.
+     */
+    private static final class CountingMaterial implements Material {
+        private final Shader shader;
+        private int binds;
+
+        private CountingMaterial(Shader shader) {
+            this.shader = shader;
+        }
+
+        @Override
+        public void bind() {
+            shader.bind();
+            binds++;
+        }
+
+        @Override
+        public void bind(Shader shader) {
+            bind();
+        }
+
+        @Override
+        public boolean isCompatible(Shader shader) {
+            return shader == this.shader;
+        }
+
+        @Override
+        public boolean isCompatible(UniformAttributes uniformAttributes) {
+            return true;
+        }
+
+        @Override
+        public void setUniform(String name, Object value) {
+        }
+
+        @Override
+        public Shader getShader() {
+            return shader;
+        }
+
+        @Override
+        public Object getUniform(String name) {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private Shader shader;
+    private GPUMesh mesh;
+    private VertexArray vertexArray;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+        shader = new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE);
+        mesh = new GPUMesh();
+        mesh.setVertices(BufferUtil.newNativeFloatBuffer(new float[]{-1, -1, 1, -1, 0, 1, 1, 1}));
+        mesh.setIndices(BufferUtil.newNativeIntBuffer(new int[]{0, 1, 2, 1, 3, 2}));
+        vertexArray = new VertexArray();
+        shader.getVertexAttributes().format(vertexArray, mesh.getVbo());
+        vertexArray.bind();
+        mesh.getEbo().bind();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        vertexArray.close();
+        mesh.close();
+        shader.close();
+        contextHolder.close();
+    }
+
+    @Test
+    public void build_given_RedundantBinds() {
+        val first = new CountingMaterial(shader);
+        val second = new CountingMaterial(shader);
+        val bundle = new RenderBundle.Builder()
+                .drawElements(vertexArray, first, GL_TRIANGLES, 3, 0, 1)
+                .drawElements(vertexArray, first, GL_TRIANGLES, 3, 3 * Integer.BYTES, 2)
+                // Empty draws are dropped
+                .drawElements(vertexArray, second, GL_TRIANGLES, 0, 0, 1)
+                .drawElements(vertexArray, second, GL_TRIANGLES, 6, 0, 1)
+                .build();
+
+        // One vertex array bind, two material binds and three draws
+        Assertions.assertEquals(3, bundle.getDrawCount());
+        Assertions.assertEquals(6, bundle.getCommandCount());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new RenderBundle.Builder().drawElements(vertexArray, first, GL_TRIANGLES, -1, 0, 1));
+    }
+
+    @Test
+    public void execute_given_RecordedDraws() {
+        val material = new CountingMaterial(shader);
+        try (val storage = new Buffer(GL_SHADER_STORAGE_BUFFER)) {
+            storage.ndata(64, GL_STATIC_DRAW);
+            val bundle = new RenderBundle.Builder()
+                    .bindBufferBase(GL_SHADER_STORAGE_BUFFER, 2, storage)
+                    .bindBufferBase(GL_SHADER_STORAGE_BUFFER, 2, storage)
+                    .drawElements(vertexArray, material, GL_TRIANGLES, 3, 0, 1)
+                    .drawElements(vertexArray, material, GL_TRIANGLES, 6, 0, 3)
+                    .build();
+            Assertions.assertEquals(5, bundle.getCommandCount());
+
+            GLStateCache.current().bindVertexArray(0);
+            val query = glGenQueries();
+            glBeginQuery(GL_PRIMITIVES_GENERATED, query);
+            bundle.execute();
+            bundle.execute();
+            glEndQuery(GL_PRIMITIVES_GENERATED);
+
+            // (1 + 2 * 3) triangles per execution
+            Assertions.assertEquals(14, glGetQueryObjecti(query, GL_QUERY_RESULT));
+            glDeleteQueries(query);
+            Assertions.assertEquals(2, material.binds);
+            Assertions.assertEquals(vertexArray.id, glGetInteger(GL_VERTEX_ARRAY_BINDING));
+            Assertions.assertEquals(storage.id, glGetIntegeri(GL_SHADER_STORAGE_BUFFER_BINDING, 2));
+        }
+    }
+
+    @Test
+    public void drawModel_given_SpatialIndexAndMovedInstance() {
+        val material = new CountingMaterial(shader);
+        try (val model = new Model(Map.of(material, List.of(ShaderMaterial.triangles(1))))) {
+            model.setBoundingSphere(new Vector3f(), 1);
+            model.setSpatialIndexEnabled(true);
+            val instance = model.createInstance();
+            instance.setTransformationMatrix(new Matrix4f().translation(100, 0, 0));
+
+            val bundle = new RenderBundle.Builder().drawModel(model).build();
+            Assertions.assertEquals(1, bundle.getDrawCount());
+
+            // Recording uploads the moved instance, which has to move its proxy as well
+            val found = new ArrayList<Integer>();
+            model.getSpatialIndex().queryBox(99, -1, -1, 101, 1, 1, found::add);
+            Assertions.assertEquals(List.of(instance.getIndex()), found);
+            found.clear();
+            model.getSpatialIndex().queryBox(-1, -1, -1, 1, 1, 1, found::add);
+            Assertions.assertTrue(found.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.nebula.graphics;
+
+import com.github.nebula.graphics.data.UniformAttributes;
+import com.github.nebula.graphics.globjects.Shader;
+import com.github.nebula.graphics.util.BufferUtil;
+
+/**
+ * A material without uniforms that binds its shader and counts its binds. Closing it does not close the shader.
+ */
+final class ShaderMaterial implements Material {
+    private final Shader shader;
+    int binds;
+
+    ShaderMaterial(Shader shader) {
+        this.shader = shader;
+    }
+
+    /**
+     * Creates a mesh of {@code triangles} triangles with two dimensional positions.
+     */
+    static NativeMesh triangles(int triangles) {
+        var vertices = new float[triangles * 6];
+        var indices = new int[triangles * 3];
+        for (var i = 0; i < triangles * 3; i++) {
+            vertices[i * 2] = i;
+            vertices[i * 2 + 1] = i % 3;
+            indices[i] = i;
+        }
+        var mesh = new NativeMesh();
+        mesh.setVertices(BufferUtil.newNativeFloatBuffer(vertices));
+        mesh.setIndices(BufferUtil.newNativeIntBuffer(indices));
+        return mesh;
+    }
+
+    @Override
+    public void bind() {
+        shader.bind();
+        binds++;
+    }
+
+    @Override
+    public void bind(Shader shader) {
+        bind();
+    }
+
+    @Override
+    public boolean isCompatible(Shader shader) {
+        return shader == this.shader;
+    }
+
+    @Override
+    public boolean isCompatible(UniformAttributes uniformAttributes) {
+        return true;
+    }
+
+    @Override
+    public void setUniform(String name, Object value) {
+    }
+
+    @Override
+    public Shader getShader() {
+        return shader;
+    }
+
+    @Override
+    public Object getUniform(String name) {
+        return null;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.nebula.graphics;
+
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class TransformComponentStoreTest implements AutoCloseable {
+    private static final float EPSILON = 1e-5f;
+
+    private TransformComponentStore store;
+    private InstanceTransformBuffer transforms;
+
+    @BeforeEach
+    public void setup() {
+        store = new TransformComponentStore();
+        transforms = new InstanceTransformBuffer();
+    }
+
+    private void fill(int count, Matrix4f[] expected) {
+        val random = new Random(42);
+        for (var i = 0; i < count; i++) {
+            store.add();
+            transforms.add();
+            val rotation = new Quaternionf().rotateXYZ(random.nextFloat() * 6, random.nextFloat() * 6, random.nextFloat() * 6);
+            float px = random.nextFloat() * 100, py = random.nextFloat() * 100, pz = random.nextFloat() * 100;
+            float sx = random.nextFloat() + 0.5f, sy = random.nextFloat() + 0.5f, sz = random.nextFloat() + 0.5f;
+            store.setPosition(i, px, py, pz);
+            store.setRotation(i, rotation);
+            store.setScale(i, sx, sy, sz);
+            expected[i] = new Matrix4f().translationRotateScale(px, py, pz,
+                    rotation.x, rotation.y, rotation.z, rotation.w, sx, sy, sz);
+        }
+    }
+
+    private void assertComposed(Matrix4f[] expected, int offset) {
+        val actual = new Matrix4f();
+        for (var i = 0; i < expected.length; i++) {
+            transforms.get(offset + i, actual);
+            Assertions.assertTrue(expected[i].equals(actual, EPSILON), STR."Instance \{i}: \{actual} != \{expected[i]}");
+        }
+    }
+
+    @Test
+    public void composeTransforms_given_SmallCount() {
+        // Not a multiple of any vector length, so the scalar tail is exercised as well
+        val expected = new Matrix4f[37];
+        fill(expected.length, expected);
+        store.composeTransforms(transforms, 0);
+        assertComposed(expected, 0);
+    }
+
+    @Test
+    public void composeTransforms_given_ParallelCount() {
+        val expected = new Matrix4f[50_003];
+        fill(expected.length, expected);
+        store.composeTransforms(transforms, 0);
+        assertComposed(expected, 0);
+    }
+
+    @Test
+    public void composeTransforms_given_Offset() {
+        transforms.add();
+        transforms.add();
+        val expected = new Matrix4f[20];
+        fill(expected.length, expected);
+        store.composeTransforms(transforms, 2);
+        assertComposed(expected, 2);
+        Assertions.assertTrue(new Matrix4f().equals(transforms.get(0, new Matrix4f()), 0));
+    }
+
+    @Test
+    public void composeTransforms_given_TooSmallTarget() {
+        store.add();
+        store.add();
+        transforms.add();
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> store.composeTransforms(transforms, 0));
+    }
+
+    @Override
+    @AfterEach
+    public void close() {
+        store.close();
+        transforms.close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.nebula.graphics;
+
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Random;
+
+class TransformEncoderTest {
+    // Not a multiple of any vector length, so the padded tail is exercised
+    private static final int COUNT = 37;
+    private static final int OFFSET = 3;
+
+    private InstanceTransformBuffer transforms;
+    private Matrix4f[] expected;
+
+    @BeforeEach
+    public void setup() {
+        transforms = new InstanceTransformBuffer();
+        expected = new Matrix4f[COUNT];
+        val random = new Random(7);
+        for (var i = 0; i < COUNT; i++) {
+            val rotation = new Quaternionf().rotateXYZ(random.nextFloat() * 6, random.nextFloat() * 6, random.nextFloat() * 6);
+            val scale = random.nextFloat() * 2 + 0.5f;
+            expected[i] = new Matrix4f().translationRotateScale(random.nextFloat() * 10, random.nextFloat() * 10,
+                    random.nextFloat() * 10, rotation.x, rotation.y, rotation.z, rotation.w, scale, scale, scale);
+            transforms.add();
+            transforms.set(i, expected[i]);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        transforms.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransformEncoding.class)
+    public void encode_given_UniformScaleTransforms(TransformEncoding encoding) {
+        val tolerance = encoding.half ? 2e-2f : 1e-3f;
+        try (val arena = Arena.ofConfined()) {
+            MemorySegment encoded = arena.allocate((long) COUNT * encoding.byteSize, Float.BYTES);
+            new TransformEncoder().encode(encoding, transforms.segment(), OFFSET, COUNT, encoded);
+
+            val decoded = new Matrix4f();
+            for (var i = OFFSET; i < COUNT; i++) {
+                encoding.decode(encoded, i - OFFSET, decoded);
+                Assertions.assertTrue(decoded.equals(expected[i], tolerance),
+                        STR."\{encoding} instance \{i}: expected \{expected[i]} but was \{decoded}");
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransformEncoding.class)
+    public void byteSize_given_Encoding(TransformEncoding encoding) {
+        val expectedSizes = new int[]{64, 48, 24, 32, 16};
+        Assertions.assertEquals(expectedSizes[encoding.ordinal()], encoding.byteSize);
+        Assertions.assertTrue(encoding.glslDecode.contains("mat4 instanceTransform(uint index)"));
+    }
+}
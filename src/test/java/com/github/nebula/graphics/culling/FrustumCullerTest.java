@@ -0,0 +1,123 @@
+package com.github.nebula.graphics.culling;
+
+import com.github.nebula.graphics.InstanceTransformBuffer;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class FrustumCullerTest {
+    private static final Vector3f CENTER = new Vector3f();
+    // Instances sit on integer positions, so no sphere touches one of the planes at +-10 exactly
+    private static final float RADIUS = 0.25f;
+
+    private Frustum frustum;
+    private InstanceTransformBuffer transforms;
+    private ForkJoinPool pool;
+    private FrustumCuller culler;
+
+    @BeforeEach
+    public void setup() {
+        frustum = new Frustum(new Matrix4f().ortho(-10, 10, -10, 10, -10, 10));
+        transforms = new InstanceTransformBuffer();
+        pool = new ForkJoinPool(4);
+        culler = new FrustumCuller(pool);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        culler.close();
+        pool.shutdown();
+        transforms.close();
+    }
+
+    private void addRandomInstances(int count, long seed) {
+        val random = new Random(seed);
+        val matrix = new Matrix4f();
+        val first = transforms.add(count);
+        for (var i = first; i < first + count; i++)
+            transforms.set(i, matrix.translation(random.nextInt(31) - 15, random.nextInt(31) - 15, random.nextInt(31) - 15));
+    }
+
+    private List<Integer> expectedVisible() {
+        val expected = new ArrayList<Integer>();
+        val sphere = new Vector4f();
+        for (var i = 0; i < transforms.getSize(); i++) {
+            transforms.transformSphere(i, CENTER, RADIUS, sphere);
+            if (frustum.testSphere(sphere.x, sphere.y, sphere.z, sphere.w)) expected.add(i);
+        }
+        return expected;
+    }
+
+    private List<Integer> actualVisible(int visibleCount) {
+        val actual = new ArrayList<Integer>();
+        for (var i = 0; i < visibleCount; i++) actual.add(culler.getVisibleIndices().get(i));
+        return actual;
+    }
+
+    @ParameterizedTest
+    // Covers counts below, at and between multiples of every vector length, so the scalar tail is exercised
+    @ValueSource(ints = {1, 3, 8, 15, 16, 17, 37, 100})
+    public void cull_given_CountsAroundLaneMultiples(int count) {
+        addRandomInstances(count, count);
+        val visibleCount = culler.cull(frustum, transforms, CENTER, RADIUS);
+
+        Assertions.assertEquals(expectedVisible(), actualVisible(visibleCount));
+        Assertions.assertEquals(visibleCount, culler.getVisibleCount());
+    }
+
+    @Test
+    public void cull_given_ParallelChunks() {
+        // Three full chunks and a partial one
+        addRandomInstances(3 * 16384 + 1234, 5);
+        val visibleCount = culler.cull(frustum, transforms, CENTER, RADIUS);
+
+        val actual = actualVisible(visibleCount);
+        // Visible instances are found in the last, partial chunk as well
+        Assertions.assertTrue(actual.getLast() >= 3 * 16384);
+        // The chunks are concatenated in order, so the indices stay sorted
+        Assertions.assertEquals(expectedVisible(), actual);
+        for (var i = 1; i < actual.size(); i++) Assertions.assertTrue(actual.get(i - 1) < actual.get(i));
+    }
+
+    @Test
+    public void cull_given_StraddlingSpheres() {
+        val positions = new float[][]{
+                {-10.5f, 0, 0}, // Center outside of the left plane, reaching inside
+                {-11.5f, 0, 0}, // Entirely outside of the left plane
+                {10.5f, 10.5f, 0}, // Outside of the right and top planes, reaching into the corner
+                {0, 0, 10.9f}, // Center outside of the near plane, reaching inside
+                {0, 0, 0},
+        };
+        transforms.add(positions.length);
+        for (var i = 0; i < positions.length; i++)
+            transforms.set(i, new Matrix4f().translation(positions[i][0], positions[i][1], positions[i][2]));
+
+        val visibleCount = culler.cull(frustum, transforms, CENTER, 1);
+        Assertions.assertEquals(List.of(0, 2, 3, 4), actualVisible(visibleCount));
+        Assertions.assertTrue(frustum.testSphere(-10.5f, 0, 0, 1));
+        Assertions.assertFalse(frustum.testSphere(-11.5f, 0, 0, 1));
+    }
+
+    @Test
+    public void selectAll_given_Count() {
+        Assertions.assertEquals(1000, culler.selectAll(1000));
+        Assertions.assertEquals(1000, culler.getVisibleCount());
+        Assertions.assertTrue(culler.getCapacity() >= 1000);
+        for (var i = 0; i < 1000; i++) Assertions.assertEquals(i, culler.getVisibleIndices().get(i));
+
+        Assertions.assertEquals(0, culler.selectAll(0));
+        Assertions.assertEquals(0, culler.getVisibleCount());
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.nebula.graphics.culling;
+
+import com.github.nebula.graphics.InstanceTransformBuffer;
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.BufferUtils;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+class GPUCullerTest {
+    // Not a multiple of the work group size, so the last group is partially filled
+    private static final int INSTANCES = 1000;
+    private static final Vector3f CENTER = new Vector3f();
+    // Instances sit on integer positions, so no sphere touches one of the planes at +-10 exactly
+    private static final float RADIUS = 0.25f;
+
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private InstanceTransformBuffer transforms;
+    private Buffer transformSsbo;
+    private Buffer visibleSsbo;
+    private GPUCuller culler;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+
+        transforms = new InstanceTransformBuffer();
+        val random = new Random(7);
+        val matrix = new Matrix4f();
+        transforms.add(INSTANCES);
+        for (var i = 0; i < INSTANCES; i++) {
+            matrix.translation(random.nextInt(31) - 15, random.nextInt(31) - 15, random.nextInt(31) - 15)
+                    .scale(1 + random.nextInt(3), 1, 1);
+            transforms.set(i, matrix);
+        }
+
+        transformSsbo = new Buffer(GL_SHADER_STORAGE_BUFFER);
+        transforms.upload(transformSsbo);
+        transformSsbo.bindBase(0);
+        visibleSsbo = new Buffer(GL_SHADER_STORAGE_BUFFER);
+        visibleSsbo.ndata((long) INSTANCES * Integer.BYTES, GL_DYNAMIC_COPY);
+        visibleSsbo.bindBase(1);
+        culler = new GPUCuller();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        culler.close();
+        visibleSsbo.close();
+        transformSsbo.close();
+        transforms.close();
+        contextHolder.close();
+    }
+
+    private static IntBuffer readBack(Buffer buffer, int target, int ints) {
+        val data = BufferUtils.createIntBuffer(ints);
+        buffer.bind();
+        glGetBufferSubData(target, 0, data);
+        return data;
+    }
+
+    private static int[] sorted(IntBuffer indices, int count) {
+        val sorted = new int[count];
+        indices.get(0, sorted);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Culls on the GPU and on the CPU and compares the visible indices, regardless of their order, and the commands.
+     */
+    private void assertCullMatchesReference(Frustum frustum, int[][] commands) {
+        culler.setCommandCount(commands.length);
+        for (var i = 0; i < commands.length; i++)
+            culler.setCommand(i, commands[i][0], commands[i][1], commands[i][2], commands[i][3]);
+        culler.cull(frustum, INSTANCES, CENTER, RADIUS);
+
+        val expectedVisible = IntBuffer.allocate(INSTANCES);
+        val expectedCommands = IntBuffer.allocate(commands.length * GPUCuller.COMMAND_INTS);
+        val visibleCount = GPUCuller.cullReference(frustum.getPlanes(new float[Frustum.PLANE_COUNT * 4]),
+                transforms.segment(), INSTANCES, CENTER, RADIUS, expectedVisible, expectedCommands, commands.length);
+        Assertions.assertTrue(visibleCount > 0 && visibleCount < INSTANCES);
+
+        val actualCommands = readBack(culler.getCommandBuffer(), GL_DRAW_INDIRECT_BUFFER,
+                commands.length * GPUCuller.COMMAND_INTS);
+        for (var i = 0; i < commands.length; i++) {
+            val base = i * GPUCuller.COMMAND_INTS;
+            Assertions.assertEquals(commands[i][0], actualCommands.get(base));
+            Assertions.assertEquals(expectedCommands.get(base + 1), actualCommands.get(base + 1));
+            Assertions.assertEquals(commands[i][1], actualCommands.get(base + 2));
+            Assertions.assertEquals(commands[i][2], actualCommands.get(base + 3));
+            Assertions.assertEquals(commands[i][3], actualCommands.get(base + 4));
+        }
+
+        val actualVisible = readBack(visibleSsbo, GL_SHADER_STORAGE_BUFFER, visibleCount);
+        Assertions.assertArrayEquals(sorted(expectedVisible, visibleCount), sorted(actualVisible, visibleCount));
+    }
+
+    @Test
+    public void cull_given_RandomInstances() {
+        assertCullMatchesReference(new Frustum(new Matrix4f().ortho(-10, 10, -10, 10, -10, 10)),
+                new int[][]{{36, 0, 0, 0}, {6, 36, 24, 0}, {3, 42, 28, 0}});
+    }
+
+    @Test
+    public void cull_given_ChangedFrustumAndGrownCommands() {
+        assertCullMatchesReference(new Frustum(new Matrix4f().ortho(-10, 10, -10, 10, -10, 10)),
+                new int[][]{{36, 0, 0, 0}});
+        // More commands than the initial capacity, so the command buffer is reallocated
+        assertCullMatchesReference(new Frustum(new Matrix4f().ortho(-4, 12, -6, 2, -10, 10)),
+                new int[][]{{36, 0, 0, 0}, {6, 36, 24, 0}, {3, 42, 28, 0}, {3, 45, 31, 0}, {12, 48, 34, 0},
+                        {6, 60, 40, 0}});
+    }
+}
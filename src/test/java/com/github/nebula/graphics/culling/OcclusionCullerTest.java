@@ -0,0 +1,78 @@
+package com.github.nebula.graphics.culling;
+
+import com.github.nebula.graphics.InstanceTransformBuffer;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+class OcclusionCullerTest {
+    private static final int WIDTH = 256, HEIGHT = 128;
+
+    private OcclusionCuller occlusionCuller;
+
+    @BeforeEach
+    public void setup() {
+        // The camera sits at the origin looking down -z, a wall at z = -10 covers the center of the screen
+        occlusionCuller = new OcclusionCuller(WIDTH, HEIGHT);
+        occlusionCuller.begin(new Matrix4f().perspective((float) Math.toRadians(60), (float) WIDTH / HEIGHT, 0.1f, 100));
+        val vertices = FloatBuffer.wrap(new float[]{-4, -3, -10, 4, -3, -10, 4, 3, -10, -4, 3, -10});
+        val indices = IntBuffer.wrap(new int[]{0, 1, 2, 0, 2, 3});
+        occlusionCuller.addOccluder(vertices, 3, 0, indices, new Matrix4f());
+        occlusionCuller.rasterize();
+    }
+
+    @Test
+    public void rasterize_given_Wall() {
+        Assertions.assertEquals(2, occlusionCuller.getTriangleCount());
+        Assertions.assertEquals(1, occlusionCuller.getDepth(0, 0));
+        Assertions.assertEquals(1, occlusionCuller.getDepth(WIDTH - 1, HEIGHT - 1));
+        val expectedDepth = new Matrix4f().perspective((float) Math.toRadians(60), (float) WIDTH / HEIGHT, 0.1f, 100)
+                .transformProject(new Vector3f(0, 0, -10)).z * 0.5f + 0.5f;
+        Assertions.assertEquals(expectedDepth, occlusionCuller.getDepth(WIDTH / 2, HEIGHT / 2), 1e-5f);
+
+        // The wall spans 8 / (2 * 10 * tan(30°)) of the width and 6 / (2 * 10 * tan(30°)) of the height
+        var covered = 0;
+        for (var y = 0; y < HEIGHT; y++)
+            for (var x = 0; x < WIDTH; x++)
+                if (occlusionCuller.getDepth(x, y) < 1) covered++;
+        val tan = Math.tan(Math.toRadians(30));
+        val expected = (8 / (20 * tan * 2) * WIDTH) * (6 / (20 * tan) * HEIGHT);
+        Assertions.assertEquals(expected, covered, expected * 0.05);
+    }
+
+    @Test
+    public void isVisible_given_SpheresAroundWall() {
+        Assertions.assertFalse(occlusionCuller.isVisible(0, 0, -20, 1));
+        Assertions.assertFalse(occlusionCuller.isVisible(0, 0, -30, 5));
+        Assertions.assertTrue(occlusionCuller.isVisible(0, 0, -5, 1));
+        Assertions.assertTrue(occlusionCuller.isVisible(30, 0, -20, 1));
+        // Sticks out behind the right edge of the wall
+        Assertions.assertTrue(occlusionCuller.isVisible(7.5f, 0, -20, 1));
+        // Crosses the near plane
+        Assertions.assertTrue(occlusionCuller.isVisible(0, 0, 0, 1));
+    }
+
+    @Test
+    public void cull_given_FrustumCullerResult() {
+        try (val transforms = new InstanceTransformBuffer();
+             val culler = new FrustumCuller()) {
+            val positions = new float[][]{{0, 0, -20}, {0, 0, -5}, {30, 0, -20}, {1, 1, -40}};
+            for (var i = 0; i < positions.length; i++) {
+                transforms.add();
+                transforms.set(i, new Matrix4f().translation(positions[i][0], positions[i][1], positions[i][2]));
+            }
+            culler.selectAll(positions.length);
+
+            Assertions.assertEquals(2, occlusionCuller.cull(culler, transforms, new Vector3f(), 1));
+            Assertions.assertEquals(2, culler.getVisibleCount());
+            Assertions.assertEquals(1, culler.getVisibleIndices().get(0));
+            Assertions.assertEquals(2, culler.getVisibleIndices().get(1));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.nebula.graphics.data;
+
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class UniformBlockLayoutTest {
+
+    @Test
+    public void getOffset_given_MixedMembers() {
+        val layout = new UniformBlockLayout(new UniformAttributes(
+                new UniformAttribute(GLDataType.FLOAT, "roughness"),
+                new UniformAttribute(GLDataType.VEC3, "albedo"),
+                new UniformAttribute(GLDataType.FLOAT, "metallic"),
+                new UniformAttribute(GLDataType.VEC2, "tiling"),
+                new UniformAttribute(GLDataType.MAT3, "normalMatrix"),
+                new UniformAttribute(GLDataType.INT, "flags"),
+                new UniformAttribute(GLDataType.MAT4, "model")
+        ));
+
+        Assertions.assertEquals(7, layout.getMemberCount());
+        Assertions.assertEquals(0, layout.getOffset(0));
+        Assertions.assertEquals(16, layout.getOffset(1));
+        // A scalar may fill the padding after a vec3
+        Assertions.assertEquals(28, layout.getOffset(2));
+        Assertions.assertEquals(32, layout.getOffset(3));
+        Assertions.assertEquals(48, layout.getOffset(4));
+        // mat3 occupies three vec4 columns
+        Assertions.assertEquals(96, layout.getOffset(5));
+        Assertions.assertEquals(112, layout.getOffset(6));
+        Assertions.assertEquals(176, layout.byteSize);
+    }
+
+    @Test
+    public void byteSize_given_TrailingScalar() {
+        val layout = new UniformBlockLayout(new UniformAttributes(
+                new UniformAttribute(GLDataType.VEC4, "color"),
+                new UniformAttribute(GLDataType.FLOAT, "alpha")
+        ));
+
+        Assertions.assertEquals(32, layout.byteSize);
+    }
+
+    @Test
+    public void getOffset_given_ArrayElements() {
+        val layout = new UniformBlockLayout(new UniformAttributes(
+                new UniformAttribute(GLDataType.FLOAT, "weights[0]"),
+                new UniformAttribute(GLDataType.FLOAT, "weights[1]"),
+                new UniformAttribute(GLDataType.FLOAT, "bias")
+        ));
+
+        Assertions.assertEquals(0, layout.getOffset(0));
+        Assertions.assertEquals(16, layout.getOffset(1));
+        Assertions.assertEquals(32, layout.getOffset(2));
+        Assertions.assertEquals(48, layout.byteSize);
+    }
+
+    @Test
+    public void indexOf_given_Samplers() {
+        val layout = new UniformBlockLayout(new UniformAttributes(
+                new UniformAttribute(GLDataType.SAMPLER2D, "albedoMap"),
+                new UniformAttribute(GLDataType.VEC4, "color"),
+                new UniformAttribute(GLDataType.SAMPLERCUBE, "environment")
+        ));
+
+        Assertions.assertEquals(1, layout.getMemberCount());
+        Assertions.assertEquals(0, layout.indexOf("color"));
+        Assertions.assertEquals(-1, layout.indexOf("albedoMap"));
+        Assertions.assertTrue(UniformBlockLayout.isOpaque(GLDataType.SAMPLER2D));
+        Assertions.assertFalse(UniformBlockLayout.isOpaque(GLDataType.INT));
+    }
+
+    @Test
+    public void constructor_given_DoubleMember() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new UniformBlockLayout(new UniformAttributes(
+                new UniformAttribute(GLDataType.DOUBLE, "time")
+        )));
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.nebula.graphics.globjects;
+
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+class GLStateCacheTest {
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private GLStateCache cache;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+        cache = GLStateCache.current();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        contextHolder.close();
+    }
+
+    @Test
+    public void current_given_NewContext() {
+        Assertions.assertSame(contextHolder.getStateCache(), cache);
+        Assertions.assertEquals(0, cache.getIssuedCalls());
+        Assertions.assertEquals(-1, cache.getProgram());
+    }
+
+    @Test
+    public void bind_given_RepeatedBuffers() {
+        try (val buffer = new Buffer(GL_ARRAY_BUFFER)) {
+            buffer.ndata(64, GL_STATIC_DRAW);
+            cache.resetCounters();
+            buffer.subData(new float[]{1, 2}, 0);
+            buffer.subData(new float[]{3, 4}, 2);
+            buffer.bind();
+
+            Assertions.assertEquals(0, cache.getIssuedCalls());
+            Assertions.assertEquals(3, cache.getAvoidedCalls());
+            Assertions.assertEquals(buffer.id, glGetInteger(GL_ARRAY_BUFFER_BINDING));
+        }
+        // Deleting a buffer makes its bindings unknown
+        Assertions.assertEquals(-1, cache.getBuffer(GL_ARRAY_BUFFER));
+    }
+
+    @Test
+    public void bindBase_given_IndexedBindings() {
+        try (val first = new Buffer(GL_SHADER_STORAGE_BUFFER); val second = new Buffer(GL_SHADER_STORAGE_BUFFER)) {
+            first.ndata(256, GL_STATIC_DRAW);
+            second.ndata(256, GL_STATIC_DRAW);
+            cache.resetCounters();
+
+            first.bindBase(0);
+            first.bindBase(0);
+            second.bindBase(1);
+            first.bindRange(0, 0, 64);
+            first.bindRange(0, 0, 64);
+
+            Assertions.assertEquals(3, cache.getIssuedCalls());
+            Assertions.assertEquals(2, cache.getAvoidedCalls());
+            Assertions.assertEquals(first.id, glGetIntegeri(GL_SHADER_STORAGE_BUFFER_BINDING, 0));
+            Assertions.assertEquals(second.id, glGetIntegeri(GL_SHADER_STORAGE_BUFFER_BINDING, 1));
+            Assertions.assertEquals(64, glGetInteger64i(GL_SHADER_STORAGE_BUFFER_SIZE, 0));
+        }
+    }
+
+    @Test
+    public void bindVertexArray_given_ElementBuffer() {
+        try (val first = new VertexArray(); val second = new VertexArray();
+             val elements = new Buffer(GL_ELEMENT_ARRAY_BUFFER)) {
+            first.bind();
+            elements.bind();
+            second.bind();
+            // The element buffer binding belongs to the vertex array, so it has to be bound again
+            Assertions.assertEquals(-1, cache.getBuffer(GL_ELEMENT_ARRAY_BUFFER));
+            elements.bind();
+            Assertions.assertEquals(elements.id, glGetInteger(GL_ELEMENT_ARRAY_BUFFER_BINDING));
+        }
+    }
+
+    @Test
+    public void bindTextureUnit_given_BoundTexture() {
+        cache.bindTextureUnit(3, GL_TEXTURE_2D, 0);
+        cache.activeTexture(0);
+        cache.resetCounters();
+
+        cache.bindTextureUnit(3, GL_TEXTURE_2D, 0);
+        // The texture is bound to unit 3 already, so the active unit stays unchanged
+        Assertions.assertEquals(0, cache.getIssuedCalls());
+        Assertions.assertEquals(GL_TEXTURE0, glGetInteger(GL_ACTIVE_TEXTURE));
+    }
+
+    @Test
+    public void viewport_given_FixedFunctionState() {
+        cache.viewport(0, 0, 32, 32);
+        cache.setBlend(true);
+        cache.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        cache.setDepthTest(true);
+        cache.depthFunc(GL_LEQUAL);
+        cache.depthMask(false);
+        cache.resetCounters();
+
+        cache.viewport(0, 0, 32, 32);
+        cache.setBlend(true);
+        cache.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        cache.setDepthTest(true);
+        cache.depthFunc(GL_LEQUAL);
+        cache.depthMask(false);
+        Assertions.assertEquals(0, cache.getIssuedCalls());
+        Assertions.assertEquals(6, cache.getAvoidedCalls());
+        Assertions.assertTrue(glIsEnabled(GL_BLEND));
+        Assertions.assertFalse(glGetBoolean(GL_DEPTH_WRITEMASK));
+
+        cache.invalidate();
+        cache.setBlend(true);
+        Assertions.assertEquals(1, cache.getIssuedCalls());
+    }
+}
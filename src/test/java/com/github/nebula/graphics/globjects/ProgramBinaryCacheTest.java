@@ -0,0 +1,103 @@
+package com.github.nebula.graphics.globjects;
+
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class ProgramBinaryCacheTest {
+    private static final String VERTEX_SOURCE = """
+            #version 330 core
+            layout(location = 0) in vec3 position;
+            uniform float scale;
+            void main() {
+                gl_Position = vec4(position * scale, 1);
+            }
+            """;
+    private static final String FRAGMENT_SOURCE = """
+            #version 330 core
+            out vec4 color;
+            void main() {
+                color = vec4(1);
+            }
+            """;
+
+    @TempDir
+    private Path directory;
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private ProgramBinaryCache cache;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+        cache = new ProgramBinaryCache(directory);
+        Assumptions.assumeTrue(cache.isSupported(), "Driver does not support program binaries");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        contextHolder.close();
+    }
+
+    @Test
+    public void load_given_StoredProgram() {
+        new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE, cache).close();
+        Assertions.assertEquals(0, cache.getHits());
+        Assertions.assertEquals(1, cache.getMisses());
+        Assertions.assertTrue(Files.exists(directory.resolve(cache.keyOf(VERTEX_SOURCE, FRAGMENT_SOURCE) + ".bin")));
+
+        try (val shader = new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE, cache)) {
+            Assertions.assertEquals(1, cache.getHits());
+            Assertions.assertTrue(shader.getUniformHandle("scale").isActive());
+        }
+    }
+
+    @Test
+    public void store_given_FailingMove() throws IOException {
+        // A non-empty directory cannot be replaced by the entry
+        val path = directory.resolve(cache.keyOf(VERTEX_SOURCE, FRAGMENT_SOURCE) + ".bin");
+        Files.createDirectories(path.resolve("blocker"));
+        new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE, cache).close();
+
+        try (val files = Files.list(directory)) {
+            Assertions.assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+        }
+        Assertions.assertTrue(Files.isDirectory(path));
+    }
+
+    @Test
+    public void load_given_CorruptEntry() throws IOException {
+        val path = directory.resolve(cache.keyOf(VERTEX_SOURCE, FRAGMENT_SOURCE) + ".bin");
+        Files.write(path, new byte[]{0x43, 0x50, 0x42, 0x4E, 1, 2, 3, 4, 5, 6, 7, 8});
+
+        new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE, cache).close();
+        Assertions.assertEquals(1, cache.getRejected());
+        Assertions.assertEquals(1, cache.getMisses());
+        // The rejected entry is replaced by the freshly compiled program
+        new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE, cache).close();
+        Assertions.assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void keyOf_given_DifferentStages() {
+        Assertions.assertNotEquals(cache.keyOf(VERTEX_SOURCE, FRAGMENT_SOURCE), cache.keyOf(FRAGMENT_SOURCE, VERTEX_SOURCE));
+        Assertions.assertNotEquals(cache.keyOf("ab", "c"), cache.keyOf("a", "bc"));
+        Assertions.assertEquals(cache.keyOf(VERTEX_SOURCE, FRAGMENT_SOURCE), cache.keyOf(VERTEX_SOURCE, FRAGMENT_SOURCE));
+    }
+}
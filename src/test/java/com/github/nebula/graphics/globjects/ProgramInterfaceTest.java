@@ -0,0 +1,110 @@
+package com.github.nebula.graphics.globjects;
+
+import com.github.nebula.graphics.globjects.ProgramInterface.Property;
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+class ProgramInterfaceTest {
+    private static final String VERTEX_SOURCE = """
+            #version 430 core
+            layout(location = 0) in vec3 position;
+            layout(location = 3) in vec2 unusedUv;
+            uniform mat4 model;
+            void main() {
+                gl_Position = model * vec4(position, 1);
+            }
+            """;
+    private static final String FRAGMENT_SOURCE = """
+            #version 430 core
+            layout(std140, binding = 2) uniform Material {
+                vec3 albedo;
+                float roughness;
+            };
+            layout(std430, binding = 5) buffer Lights {
+                vec4 lightColors[];
+            };
+            uniform float weights[4];
+            uniform float unused;
+            out vec4 color;
+            void main() {
+                color = vec4(albedo * roughness * weights[3], 1) + lightColors[0];
+            }
+            """;
+
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private Shader shader;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+        shader = new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        shader.close();
+        contextHolder.close();
+    }
+
+    @Test
+    public void inputs_given_UnusedInput() {
+        val inputs = shader.getProgramInterface().inputs;
+
+        // The linker drops inputs the shader never reads
+        Assertions.assertEquals(-1, inputs.indexOf("unusedUv"));
+        val position = inputs.indexOf("position");
+        Assertions.assertEquals(0, inputs.get(position, Property.LOCATION));
+        Assertions.assertEquals(GL_FLOAT_VEC3, inputs.get(position, Property.TYPE));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> inputs.get(position, Property.OFFSET));
+    }
+
+    @Test
+    public void uniforms_given_BlocksAndArrays() {
+        val programInterface = shader.getProgramInterface();
+        val uniforms = programInterface.uniforms;
+
+        Assertions.assertEquals(-1, uniforms.indexOf("unused"));
+        val weights = uniforms.indexOf("weights");
+        Assertions.assertEquals("weights[0]", uniforms.getName(weights));
+        Assertions.assertEquals(4, uniforms.get(weights, Property.ARRAY_SIZE));
+        Assertions.assertEquals(-1, uniforms.get(weights, Property.BLOCK_INDEX));
+
+        val block = programInterface.uniformBlocks.indexOf("Material");
+        Assertions.assertEquals(2, programInterface.uniformBlocks.get(block, Property.BUFFER_BINDING));
+        Assertions.assertEquals(16, programInterface.uniformBlocks.get(block, Property.BUFFER_DATA_SIZE));
+        val roughness = uniforms.indexOf("roughness");
+        Assertions.assertEquals(block, uniforms.get(roughness, Property.BLOCK_INDEX));
+        Assertions.assertEquals(12, uniforms.get(roughness, Property.OFFSET));
+        Assertions.assertEquals(-1, uniforms.get(roughness, Property.LOCATION));
+
+        val storageBlock = programInterface.storageBlocks.indexOf("Lights");
+        Assertions.assertEquals(5, programInterface.storageBlocks.get(storageBlock, Property.BUFFER_BINDING));
+        val lightColors = programInterface.bufferVariables.indexOf("lightColors");
+        Assertions.assertEquals(16, programInterface.bufferVariables.get(lightColors, Property.ARRAY_STRIDE));
+    }
+
+    @Test
+    public void getUniformHandle_given_ReflectedUniforms() {
+        val weights = shader.getUniformHandle("weights");
+        Assertions.assertTrue(weights.isActive());
+        Assertions.assertSame(weights, shader.getUniformHandle("weights"));
+        Assertions.assertEquals(glGetUniformLocation(shader.id, "weights[2]"), shader.getUniformLocation("weights[2]"));
+        Assertions.assertEquals(-1, shader.getUniformLocation("weights[4]"));
+        Assertions.assertFalse(shader.getUniformHandle("unused").isActive());
+        Assertions.assertEquals(GL_INVALID_INDEX, shader.getUniformBlockLocation("Missing"));
+    }
+}
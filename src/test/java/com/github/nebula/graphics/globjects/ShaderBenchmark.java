@@ -0,0 +1,112 @@
+package com.github.nebula.graphics.globjects;
+
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import org.joml.Matrix4f;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.lwjgl.opengl.GL20C.glUniformMatrix4fv;
+
+public class ShaderBenchmark {
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @State(Scope.Thread)
+    public static class uploadUniform {
+        private static final String VERTEX_SOURCE = """
+                #version 330 core
+                layout(location = 0) in vec3 position;
+                uniform mat4 model;
+                uniform float scale;
+                void main() {
+                    gl_Position = model * vec4(position * scale, 1);
+                }
+                """;
+        private static final String FRAGMENT_SOURCE = """
+                #version 330 core
+                out vec4 color;
+                void main() {
+                    color = vec4(1);
+                }
+                """;
+
+        // Exists just for the OpenGL context
+        private Window contextHolder;
+        private Shader shader;
+        private UniformHandle model;
+        private UniformHandle scale;
+        private Matrix4f matrix;
+        private HashMap<String, Integer> locations;
+
+        public static void main(String[] args) throws IOException {
+            String[] jmhArgs = {
+                    "-f", "1", // Forks
+                    "-wi", "10", // Warmup iterations
+                    "-i", "20", // Measurement iterations
+                    "-w", "100ms", // Warmup time
+                    "-r", "100ms", // Measurement time
+                    "-t", "1", // Threads, the context is only current on the setup thread
+                    "-tu", "ns", // Time unit
+                    "-prof", "gc", // Reports the bytes allocated per upload
+                    ".*ShaderBenchmark.uploadUniform.*" // Regex to match your benchmark class
+            };
+
+            Main.main(jmhArgs);
+        }
+
+        @Setup(Level.Trial)
+        public void setup() {
+            var windowHints = new WindowHints().defaultHints();
+            windowHints.windowHint(WindowHint.VISIBLE, false);
+            contextHolder = new Window(windowHints, getClass().getName());
+            contextHolder.createGLCapabilities();
+            shader = new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE);
+            model = shader.getUniformHandle("model");
+            scale = shader.getUniformHandle("scale");
+            matrix = new Matrix4f().perspective(1, 1, 0.1f, 100);
+            locations = new HashMap<>();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            shader.close();
+            contextHolder.close();
+        }
+
+        /**
+         * The upload as it was done before handles existed: a boxed location map and a fresh array per call.
+         */
+        @Benchmark
+        public void mat4ByNameWithArray() {
+            if (!locations.containsKey("model"))
+                locations.put("model", shader.getUniformLocation("model"));
+            shader.bind();
+            glUniformMatrix4fv(locations.get("model"), false, matrix.get(new float[16]));
+        }
+
+        @Benchmark
+        public void mat4ByName() {
+            shader.uploadUniformMat4f("model", matrix);
+        }
+
+        @Benchmark
+        public void mat4ByHandle() {
+            shader.uploadUniformMat4f(model, matrix);
+        }
+
+        @Benchmark
+        public void floatByName() {
+            shader.uploadUniformFloat("scale", 2);
+        }
+
+        @Benchmark
+        public void floatByHandle() {
+            shader.uploadUniformFloat(scale, 2);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.nebula.graphics.globjects;
+
+import com.github.nebula.graphics.globjects.exceptions.ShaderCompileException;
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletionException;
+
+class ShaderCompilerTest {
+    private static final String FRAGMENT_SOURCE = """
+            #version 330 core
+            out vec4 color;
+            void main() {
+                color = vec4(1);
+            }
+            """;
+
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private ShaderCompiler compiler;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+        compiler = new ShaderCompiler();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        contextHolder.close();
+    }
+
+    private static String vertexSource(int variant) {
+        return STR."""
+                #version 330 core
+                layout(location = 0) in vec3 position;
+                void main() {
+                    gl_Position = vec4(position * \{variant + 1}.0, 1);
+                }
+                """;
+    }
+
+    @Test
+    public void finishAll_given_ManySubmissions() {
+        val futures = new ArrayList<ShaderCompiler.Compilation>();
+        for (var i = 0; i < 16; i++) futures.add(compiler.submit(vertexSource(i), FRAGMENT_SOURCE));
+
+        compiler.finishAll();
+        Assertions.assertEquals(0, compiler.getPendingCount());
+        for (val future : futures) {
+            Assertions.assertTrue(future.isDone());
+            val shader = future.join();
+            Assertions.assertFalse(shader.isCompilationPending());
+            shader.close();
+        }
+    }
+
+    @Test
+    public void poll_given_ManySubmissions() {
+        val futures = new ArrayList<ShaderCompiler.Compilation>();
+        for (var i = 0; i < 16; i++) futures.add(compiler.submit(vertexSource(i), FRAGMENT_SOURCE));
+
+        while (compiler.poll() > 0) Thread.onSpinWait();
+        for (val future : futures) future.join().close();
+    }
+
+    @Test
+    public void bind_given_PendingSubmission() {
+        val compilation = compiler.submit(vertexSource(0), FRAGMENT_SOURCE);
+
+        // Binding finishes the compilation without a poll
+        try (val shader = compilation.getShader()) {
+            shader.bind();
+            Assertions.assertFalse(shader.isCompilationPending());
+            Assertions.assertTrue(compilation.isDone());
+            Assertions.assertSame(shader, compilation.join());
+        }
+        Assertions.assertEquals(0, compiler.poll());
+    }
+
+    @Test
+    public void submit_given_InvalidSource() {
+        val future = compiler.submit(vertexSource(0).replace("vec4(", "vec5("), FRAGMENT_SOURCE);
+        compiler.finishAll();
+
+        val exception = Assertions.assertThrows(CompletionException.class, future::join);
+        Assertions.assertInstanceOf(ShaderCompileException.class, exception.getCause());
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.nebula.graphics.globjects;
+
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class ShaderLibraryTest {
+    private static final String VERTEX_SOURCE = """
+            #version 330 core
+            layout(location = 0) in vec3 position;
+            void main() {
+                gl_Position = vec4(position, 1);
+            }
+            """;
+    private static final String FRAGMENT_SOURCE = """
+            #version 330 core
+            #ifdef TINT
+            uniform vec4 tint;
+            #endif
+            #ifdef FOG
+            uniform float fogDensity;
+            #endif
+            out vec4 color;
+            void main() {
+                color = vec4(1);
+            #ifdef TINT
+                color *= tint;
+            #endif
+            #ifdef FOG
+                color.a *= fogDensity;
+            #endif
+            }
+            """;
+
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private ShaderLibrary library;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+        library = new ShaderLibrary(VERTEX_SOURCE, FRAGMENT_SOURCE, List.of("TINT", "FOG", "SHADOWS"), 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        library.close();
+        contextHolder.close();
+    }
+
+    private static boolean hasUniform(Shader shader, String name) {
+        for (val uniform : shader.getUniformAttributes())
+            if (uniform.name().equals(name)) return true;
+        return false;
+    }
+
+    @Test
+    public void keyOf_given_Keywords() {
+        Assertions.assertEquals(0, library.keyOf());
+        Assertions.assertEquals(0b101, library.keyOf("SHADOWS", "TINT"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> library.keyOf("BLOOM"));
+    }
+
+    @Test
+    public void getShader_given_SameKeywords() {
+        val tinted = library.getShader("TINT");
+        Assertions.assertSame(tinted, library.getShader("TINT"));
+        Assertions.assertTrue(hasUniform(tinted, "tint"));
+        Assertions.assertFalse(hasUniform(tinted, "fogDensity"));
+
+        val both = library.getShader(library.keyOf("TINT", "FOG"));
+        Assertions.assertNotSame(tinted, both);
+        Assertions.assertTrue(hasUniform(both, "fogDensity"));
+        Assertions.assertEquals(2, library.size());
+    }
+
+    @Test
+    public void getShader_given_FullLibrary() {
+        library.getShader();
+        library.getShader("TINT");
+        // Touching the plain variant makes the tinted one the least recently used
+        library.getShader();
+        library.getShader("FOG");
+
+        Assertions.assertEquals(2, library.size());
+        Assertions.assertTrue(library.contains(0));
+        Assertions.assertFalse(library.contains(library.keyOf("TINT")));
+        Assertions.assertTrue(library.contains(library.keyOf("FOG")));
+    }
+
+    @Test
+    public void request_given_UnusedBits() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> library.request(0b1000));
+    }
+
+    @Test
+    public void constructor_given_InvalidKeywords() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ShaderLibrary(VERTEX_SOURCE, FRAGMENT_SOURCE, List.of("TINT", "TINT"), 1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ShaderLibrary(VERTEX_SOURCE, FRAGMENT_SOURCE, List.of("1TINT"), 1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ShaderLibrary(VERTEX_SOURCE, FRAGMENT_SOURCE, List.of("TINT"), 0));
+    }
+
+    @Test
+    public void variantSource_given_VersionDirective() {
+        Assertions.assertEquals("#version 330 core\n#define A\nvoid main() {}",
+                ShaderLibrary.variantSource("#version 330 core\nvoid main() {}", "#define A\n"));
+        Assertions.assertEquals("#define A\nvoid main() {}", ShaderLibrary.variantSource("void main() {}", "#define A\n"));
+    }
+}
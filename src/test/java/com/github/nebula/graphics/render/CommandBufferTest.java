@@ -0,0 +1,127 @@
+package com.github.nebula.graphics.render;
+
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.globjects.GLStateCache;
+import com.github.nebula.graphics.globjects.Shader;
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryStack;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+class CommandBufferTest {
+    private static final String VERTEX_SOURCE = """
+            #version 430 core
+            layout(location = 0) in vec3 position;
+            uniform mat4 model;
+            void main() {
+                gl_Position = model * vec4(position, 1);
+            }
+            """;
+    private static final String FRAGMENT_SOURCE = """
+            #version 430 core
+            uniform vec4 tint;
+            out vec4 color;
+            void main() {
+                color = tint;
+            }
+            """;
+
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private CommandBuffer commands;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+        commands = new CommandBuffer();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        commands.close();
+        contextHolder.close();
+    }
+
+    @Test
+    public void execute_given_StateCommands() {
+        try (val first = new Buffer(GL_SHADER_STORAGE_BUFFER); val second = new Buffer(GL_SHADER_STORAGE_BUFFER)) {
+            first.ndata(512, GL_STATIC_DRAW);
+            second.ndata(512, GL_STATIC_DRAW);
+
+            commands.viewport(0, 0, 16, 8);
+            commands.setBlend(true);
+            commands.depthMask(false);
+            commands.bindBufferBase(GL_SHADER_STORAGE_BUFFER, 0, first);
+            commands.bindBufferRange(GL_SHADER_STORAGE_BUFFER, 1, second, 256, 128);
+            Assertions.assertEquals(5, commands.getCommandCount());
+            commands.execute();
+
+            Assertions.assertEquals(first.id, glGetIntegeri(GL_SHADER_STORAGE_BUFFER_BINDING, 0));
+            Assertions.assertEquals(second.id, glGetIntegeri(GL_SHADER_STORAGE_BUFFER_BINDING, 1));
+            Assertions.assertEquals(256, glGetInteger64i(GL_SHADER_STORAGE_BUFFER_START, 1));
+            Assertions.assertTrue(glIsEnabled(GL_BLEND));
+            Assertions.assertFalse(glGetBoolean(GL_DEPTH_WRITEMASK));
+            try (val stack = MemoryStack.stackPush()) {
+                val viewport = stack.mallocInt(4);
+                glGetIntegerv(GL_VIEWPORT, viewport);
+                Assertions.assertEquals(16, viewport.get(2));
+                Assertions.assertEquals(8, viewport.get(3));
+            }
+
+            // Executing again issues nothing, the state cache already holds every value
+            val cache = GLStateCache.current();
+            cache.resetCounters();
+            commands.execute();
+            Assertions.assertEquals(0, cache.getIssuedCalls());
+        }
+    }
+
+    @Test
+    public void execute_given_Uniforms() {
+        try (val shader = new Shader(VERTEX_SOURCE, FRAGMENT_SOURCE)) {
+            val model = new Matrix4f().translation(1, 2, 3);
+            commands.bindShader(shader);
+            commands.uniformMat4f(shader.getUniformHandle("model"), model);
+            commands.uniformVec4f(shader.getUniformHandle("tint"), 0.25f, 0.5f, 0.75f, 1);
+            // The matrix is copied while recording
+            model.identity();
+            commands.execute();
+
+            try (val stack = MemoryStack.stackPush()) {
+                val values = stack.mallocFloat(16);
+                glGetUniformfv(shader.id, shader.getUniformLocation("model"), values);
+                Assertions.assertEquals(2, values.get(13));
+                glGetUniformfv(shader.id, shader.getUniformLocation("tint"), values);
+                Assertions.assertEquals(0.75f, values.get(2));
+            }
+        }
+    }
+
+    @Test
+    public void reset_given_GrownBuffer() {
+        for (var i = 0; i < 1000; i++) commands.viewport(i, i, i, i);
+        Assertions.assertEquals(1000, commands.getCommandCount());
+        Assertions.assertEquals(1000 * 5 * Integer.BYTES, commands.getByteSize());
+
+        commands.reset();
+        Assertions.assertEquals(0, commands.getCommandCount());
+        Assertions.assertEquals(0, commands.getByteSize());
+        val cache = GLStateCache.current();
+        cache.resetCounters();
+        commands.execute();
+        Assertions.assertEquals(0, cache.getIssuedCalls());
+    }
+}
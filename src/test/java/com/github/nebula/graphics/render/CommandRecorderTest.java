@@ -0,0 +1,82 @@
+package com.github.nebula.graphics.render;
+
+import com.github.nebula.graphics.globjects.Buffer;
+import com.github.nebula.graphics.window.Window;
+import com.github.nebula.graphics.window.WindowHint;
+import com.github.nebula.graphics.window.WindowHints;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.lwjgl.opengl.GL43C.*;
+
+class CommandRecorderTest {
+    /**
+     * Exists just for OpenGL context
+     */
+    private Window contextHolder;
+    private ForkJoinPool pool;
+    private CommandRecorder recorder;
+
+    @BeforeEach
+    public void setup() {
+        val wh = new WindowHints().defaultHints();
+        wh.windowHint(WindowHint.VISIBLE, false);
+        contextHolder = new Window(wh, getClass().getName());
+        contextHolder.createGLCapabilities();
+        pool = new ForkJoinPool(4);
+        recorder = new CommandRecorder(pool);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recorder.close();
+        pool.shutdown();
+        contextHolder.close();
+    }
+
+    @Test
+    public void submit_given_ParallelTasks() {
+        val buffers = new Buffer[16];
+        for (var i = 0; i < buffers.length; i++) {
+            buffers[i] = new Buffer(GL_SHADER_STORAGE_BUFFER);
+            buffers[i].ndata(16, GL_STATIC_DRAW);
+        }
+        try {
+            val recordingThreads = ConcurrentHashMap.<Thread>newKeySet();
+            recorder.record(buffers.length, (index, commands) -> {
+                recordingThreads.add(Thread.currentThread());
+                for (var i = 0; i <= index; i++) commands.bindBufferBase(GL_SHADER_STORAGE_BUFFER, 0, buffers[i]);
+            });
+
+            Assertions.assertFalse(recordingThreads.contains(Thread.currentThread()));
+            Assertions.assertEquals(buffers.length, recorder.getBufferCount());
+            for (var i = 0; i < buffers.length; i++)
+                Assertions.assertEquals(i + 1, recorder.getBuffer(i).getCommandCount());
+
+            // The buffers are executed by task index, so the last task decides the binding
+            recorder.submit();
+            Assertions.assertEquals(buffers[buffers.length - 1].id,
+                    glGetIntegeri(GL_SHADER_STORAGE_BUFFER_BINDING, 0));
+        } finally {
+            for (val buffer : buffers) buffer.close();
+        }
+    }
+
+    @Test
+    public void record_given_SmallerFrame() {
+        recorder.record(4, (index, commands) -> commands.viewport(0, 0, index + 1, index + 1));
+        recorder.record(1, (index, commands) -> commands.viewport(0, 0, 7, 7));
+
+        Assertions.assertEquals(1, recorder.getBufferCount());
+        Assertions.assertEquals(1, recorder.getBuffer(0).getCommandCount());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> recorder.getBuffer(1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> recorder.record(-1, (index, commands) -> {
+        }));
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.nebula.graphics.render;
+
+import com.github.nebula.graphics.Material;
+import com.github.nebula.graphics.data.UniformAttributes;
+import com.github.nebula.graphics.globjects.Shader;
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+class RenderQueueTest {
+
+    /**
+     * Records its binds without touching OpenGL.
+     */
+    private static final class RecordingMaterial implements Material {
+        private final List<String> log;
+        private final String name;
+
+        private RecordingMaterial(List<String> log, String name) {
+            this.log = log;
+            this.name = name;
+        }
+
+        @Override
+        public void bind() {
+            log.add(STR."bind \{name}");
+        }
+
+        @Override
+        public void bind(Shader shader) {
+            bind();
+        }
+
+        @Override
+        public boolean isCompatible(Shader shader) {
+            return true;
+        }
+
+        @Override
+        public boolean isCompatible(UniformAttributes uniformAttributes) {
+            return true;
+        }
+
+        @Override
+        public void setUniform(String name, Object value) {
+        }
+
+        @Override
+        public Shader getShader() {
+            return null;
+        }
+
+        @Override
+        public Object getUniform(String name) {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private record Item(Material material, List<String> log, String name) implements RenderItem {
+        @Override
+        public Material getMaterial() {
+            return material;
+        }
+
+        @Override
+        public void draw() {
+            log.add(STR."draw \{name}");
+        }
+    }
+
+    @Test
+    public void sort_given_RandomKeys() {
+        val queue = new RenderQueue();
+        val random = new Random(42);
+        val keys = new long[1000];
+        val item = new Item(null, new ArrayList<>(), "item");
+        for (var i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            queue.add(keys[i], item);
+        }
+
+        queue.sort();
+        val expected = Arrays.stream(keys).boxed().sorted(Long::compareUnsigned).mapToLong(Long::longValue).toArray();
+        for (var i = 0; i < keys.length; i++) Assertions.assertEquals(expected[i], queue.getKey(i));
+    }
+
+    @Test
+    public void sort_given_EqualKeys() {
+        val queue = new RenderQueue();
+        val log = new ArrayList<String>();
+        val first = new Item(null, log, "first");
+        val second = new Item(null, log, "second");
+        queue.add(5, first);
+        queue.add(1, new Item(null, log, "other"));
+        queue.add(5, second);
+
+        queue.sort();
+        Assertions.assertSame(first, queue.getItem(1));
+        Assertions.assertSame(second, queue.getItem(2));
+    }
+
+    @Test
+    public void submit_given_InterleavedMaterials() {
+        val log = new ArrayList<String>();
+        val stone = new RecordingMaterial(log, "stone");
+        val glass = new RecordingMaterial(log, "glass");
+        val queue = new RenderQueue();
+        val passes = new ArrayList<Integer>();
+        queue.setPassListener(passes::add);
+
+        queue.add(SortKey.transparent(1, 0, 0, 1, 0, 10), new Item(glass, log, "near glass"));
+        queue.add(SortKey.opaque(0, 0, 0, 0, 0, 30), new Item(stone, log, "far stone"));
+        queue.add(SortKey.transparent(1, 0, 0, 1, 0, 40), new Item(glass, log, "far glass"));
+        queue.add(SortKey.opaque(0, 0, 0, 0, 0, 20), new Item(stone, log, "near stone"));
+        queue.submit();
+
+        Assertions.assertEquals(List.of(
+                "bind stone", "draw near stone", "draw far stone",
+                "bind glass", "draw far glass", "draw near glass"
+        ), log);
+        Assertions.assertEquals(2, queue.getMaterialChanges());
+        Assertions.assertEquals(List.of(0, 1), passes);
+
+        queue.clear();
+        Assertions.assertEquals(0, queue.size());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> queue.getKey(0));
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.nebula.graphics.render;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SortKeyTest {
+
+    @Test
+    public void opaque_given_StateAndDepth() {
+        // State groups come before depth
+        Assertions.assertTrue(Long.compareUnsigned(SortKey.opaque(0, 0, 1, 0, 0, SortKey.MAX_DEPTH),
+                SortKey.opaque(0, 0, 2, 0, 0, 0)) < 0);
+        // Within a group, nearer draws come first
+        Assertions.assertTrue(Long.compareUnsigned(SortKey.opaque(0, 0, 1, 1, 1, 10),
+                SortKey.opaque(0, 0, 1, 1, 1, 20)) < 0);
+        // Passes order everything, even with the sign bit set
+        Assertions.assertTrue(Long.compareUnsigned(SortKey.opaque(7, 15, SortKey.MAX_ID, 0, 0, 0),
+                SortKey.opaque(8, 0, 0, 0, 0, 0)) < 0);
+    }
+
+    @Test
+    public void transparent_given_Depths() {
+        // Farther draws come first, regardless of their state
+        Assertions.assertTrue(Long.compareUnsigned(SortKey.transparent(1, 0, 9, 9, 9, 20),
+                SortKey.transparent(1, 0, 0, 0, 0, 10)) < 0);
+        Assertions.assertEquals(1, SortKey.pass(SortKey.transparent(1, 4, 0, 0, 0, 0)));
+        Assertions.assertEquals(4, SortKey.layer(SortKey.transparent(1, 4, 0, 0, 0, 0)));
+        Assertions.assertEquals(15, SortKey.pass(SortKey.opaque(15, 0, 0, 0, 0, 0)));
+    }
+
+    @Test
+    public void quantizeDepth_given_Distances() {
+        Assertions.assertEquals(0, SortKey.quantizeDepth(0.05f, 0.1f, 100));
+        Assertions.assertEquals(SortKey.MAX_DEPTH, SortKey.quantizeDepth(200, 0.1f, 100));
+        Assertions.assertTrue(SortKey.quantizeDepth(10, 0.1f, 100) < SortKey.quantizeDepth(11, 0.1f, 100));
+    }
+
+    @Test
+    public void opaque_given_OutOfRangeFields() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SortKey.opaque(16, 0, 0, 0, 0, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SortKey.opaque(0, 0, SortKey.MAX_ID + 1, 0, 0, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SortKey.transparent(0, 0, 0, 0, 0, -1));
+    }
+}
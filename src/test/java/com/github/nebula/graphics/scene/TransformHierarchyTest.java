@@ -0,0 +1,116 @@
+package com.github.nebula.graphics.scene;
+
+import lombok.val;
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class TransformHierarchyTest {
+    private static final float EPSILON = 1e-3f;
+
+    private static Matrix4f randomTransform(Random random) {
+        return new Matrix4f()
+                .translation(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2)
+                .rotateXYZ(random.nextFloat(), random.nextFloat(), random.nextFloat())
+                .scale(0.9f + random.nextFloat() * 0.2f);
+    }
+
+    /**
+     * Builds a random tree and returns the parent of every node, with nodes created in id order.
+     */
+    private static int[] buildTree(TransformHierarchy hierarchy, Matrix4f[] locals, Random random) {
+        val parents = new int[locals.length];
+        for (var i = 0; i < locals.length; i++) {
+            parents[i] = i == 0 || random.nextInt(16) == 0 ? TransformHierarchy.NULL_NODE : random.nextInt(i);
+            Assertions.assertEquals(i, hierarchy.createNode(parents[i]));
+            locals[i] = randomTransform(random);
+            hierarchy.setLocalTransform(i, locals[i]);
+        }
+        return parents;
+    }
+
+    private static Matrix4f expectedWorld(int node, int[] parents, Matrix4f[] locals) {
+        val world = new Matrix4f(locals[node]);
+        for (var parent = parents[node]; parent != TransformHierarchy.NULL_NODE; parent = parents[parent])
+            locals[parent].mul(world, world);
+        return world;
+    }
+
+    private static void assertWorlds(TransformHierarchy hierarchy, int[] parents, Matrix4f[] locals, boolean[] alive) {
+        val actual = new Matrix4f();
+        for (var i = 0; i < parents.length; i++) {
+            if (alive != null && !alive[i]) continue;
+            Assertions.assertTrue(expectedWorld(i, parents, locals).equals(hierarchy.getWorldTransform(i, actual), EPSILON),
+                    STR."Node \{i}");
+        }
+    }
+
+    @Test
+    public void update_given_RandomTree() {
+        val hierarchy = new TransformHierarchy();
+        val locals = new Matrix4f[500];
+        val parents = buildTree(hierarchy, locals, new Random(3));
+        hierarchy.update();
+        assertWorlds(hierarchy, parents, locals, null);
+        for (var i = 0; i < parents.length; i++)
+            Assertions.assertEquals(parents[i], hierarchy.getParent(i));
+    }
+
+    @Test
+    public void update_given_ChangedNodes() {
+        val hierarchy = new TransformHierarchy();
+        val locals = new Matrix4f[500];
+        val random = new Random(5);
+        val parents = buildTree(hierarchy, locals, random);
+        hierarchy.update();
+        for (var i = 0; i < locals.length; i += 37) {
+            locals[i] = randomTransform(random);
+            hierarchy.setLocalTransform(i, locals[i]);
+        }
+        hierarchy.update();
+        assertWorlds(hierarchy, parents, locals, null);
+    }
+
+    @Test
+    public void update_given_DestroyedSubtree() {
+        val hierarchy = new TransformHierarchy();
+        val locals = new Matrix4f[300];
+        val random = new Random(9);
+        val parents = buildTree(hierarchy, locals, random);
+        hierarchy.update();
+
+        val alive = new boolean[locals.length];
+        Arrays.fill(alive, true);
+        hierarchy.destroyNode(17);
+        for (var i = 0; i < alive.length; i++) {
+            for (var node = i; node != TransformHierarchy.NULL_NODE; node = parents[node])
+                if (node == 17) alive[i] = false;
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> hierarchy.getParent(17));
+
+        locals[0] = randomTransform(random);
+        hierarchy.setLocalTransform(0, locals[0]);
+        hierarchy.update();
+        assertWorlds(hierarchy, parents, locals, alive);
+    }
+
+    @Test
+    public void update_given_LargeTree() {
+        // Large enough to split the update across the pool
+        val hierarchy = new TransformHierarchy();
+        val locals = new Matrix4f[20_000];
+        val random = new Random(13);
+        val parents = new int[locals.length];
+        for (var i = 0; i < locals.length; i++) {
+            parents[i] = i < 4 ? TransformHierarchy.NULL_NODE : random.nextInt(Math.min(i, 64));
+            hierarchy.createNode(parents[i]);
+            locals[i] = randomTransform(random);
+            hierarchy.setLocalTransform(i, locals[i]);
+        }
+        hierarchy.update();
+        assertWorlds(hierarchy, parents, locals, null);
+    }
+}
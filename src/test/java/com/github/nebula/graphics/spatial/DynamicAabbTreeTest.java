@@ -0,0 +1,136 @@
+package com.github.nebula.graphics.spatial;
+
+import com.github.nebula.graphics.culling.Frustum;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class DynamicAabbTreeTest {
+    private static final int PROXIES = 2000;
+    private static final float MARGIN = 0.5f;
+
+    private DynamicAabbTree tree;
+    private float[][] boxes;
+    private int[] proxies;
+    private boolean[] alive;
+
+    @BeforeEach
+    public void setup() {
+        tree = new DynamicAabbTree(MARGIN);
+        boxes = new float[PROXIES][];
+        proxies = new int[PROXIES];
+        alive = new boolean[PROXIES];
+        val random = new Random(7);
+        for (var i = 0; i < PROXIES; i++) {
+            boxes[i] = randomBox(random);
+            proxies[i] = tree.createProxy(boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3], boxes[i][4], boxes[i][5], i);
+            alive[i] = true;
+        }
+    }
+
+    private static float[] randomBox(Random random) {
+        float x = random.nextFloat() * 200 - 100, y = random.nextFloat() * 200 - 100, z = random.nextFloat() * 200 - 100;
+        val size = random.nextFloat() * 3;
+        return new float[]{x, y, z, x + size, y + size, z + size};
+    }
+
+    private Set<Integer> bruteForceBox(float[] query) {
+        val result = new HashSet<Integer>();
+        for (var i = 0; i < PROXIES; i++) {
+            if (!alive[i]) continue;
+            val box = boxes[i];
+            if (box[0] - MARGIN <= query[3] && box[3] + MARGIN >= query[0]
+                    && box[1] - MARGIN <= query[4] && box[4] + MARGIN >= query[1]
+                    && box[2] - MARGIN <= query[5] && box[5] + MARGIN >= query[2])
+                result.add(i);
+        }
+        return result;
+    }
+
+    private Set<Integer> queryBox(float[] query) {
+        val result = new HashSet<Integer>();
+        tree.queryBox(query[0], query[1], query[2], query[3], query[4], query[5], result::add);
+        return result;
+    }
+
+    @Test
+    public void queryBox_given_StaticProxies() {
+        val query = new float[]{-20, -20, -20, 30, 30, 30};
+        Assertions.assertEquals(bruteForceBox(query), queryBox(query));
+    }
+
+    @Test
+    public void queryBox_given_MovedAndDestroyedProxies() {
+        val random = new Random(11);
+        for (var i = 0; i < PROXIES; i += 3) {
+            boxes[i] = randomBox(random);
+            tree.moveProxy(proxies[i], boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3], boxes[i][4], boxes[i][5]);
+        }
+        for (var i = 1; i < PROXIES; i += 5) {
+            tree.destroyProxy(proxies[i]);
+            alive[i] = false;
+        }
+        // Moved proxies keep their old fat bounds only if they still contain the new bounds
+        val query = new float[]{-50, -50, -50, 10, 10, 10};
+        val expected = bruteForceBox(query);
+        val actual = queryBox(query);
+        Assertions.assertTrue(actual.containsAll(expected));
+        for (val userData : actual)
+            Assertions.assertTrue(alive[userData]);
+    }
+
+    @Test
+    public void moveProxy_given_SmallDisplacement() {
+        val box = boxes[0];
+        val offset = MARGIN / 2;
+        Assertions.assertFalse(tree.moveProxy(proxies[0], box[0] + offset, box[1], box[2], box[3] + offset, box[4], box[5]));
+        Assertions.assertTrue(tree.moveProxy(proxies[0], box[0] + 10, box[1], box[2], box[3] + 10, box[4], box[5]));
+    }
+
+    @Test
+    public void height_given_ManyProxies() {
+        // A balanced binary tree with n leaves has a height of about log2(n)
+        val log2 = 32 - Integer.numberOfLeadingZeros(PROXIES);
+        Assertions.assertTrue(tree.getHeight() <= 2 * log2, STR."Tree height \{tree.getHeight()} is not balanced");
+        Assertions.assertEquals(PROXIES, tree.getProxyCount());
+        Assertions.assertEquals(2 * PROXIES - 1, tree.getNodeCount());
+    }
+
+    @Test
+    public void queryFrustum_given_Projection() {
+        val viewProjection = new Matrix4f().perspective((float) Math.toRadians(60), 1, 0.1f, 80)
+                .lookAt(0, 0, 0, 0, 0, -1, 0, 1, 0);
+        val frustum = new Frustum(viewProjection);
+        val actual = new HashSet<Integer>();
+        tree.queryFrustum(frustum, actual::add);
+        for (var i = 0; i < PROXIES; i++) {
+            val box = boxes[i];
+            val visible = frustum.testAabb(box[0] - MARGIN, box[1] - MARGIN, box[2] - MARGIN,
+                    box[3] + MARGIN, box[4] + MARGIN, box[5] + MARGIN);
+            Assertions.assertEquals(visible, actual.contains(i), STR."Proxy \{i}");
+        }
+    }
+
+    @Test
+    public void raycast_given_ClosestHit() {
+        val target = tree.createProxy(-1, -1, 150, 1, 1, 152, -1);
+        val closest = new int[]{Integer.MIN_VALUE};
+        val closestDistance = new float[]{Float.MAX_VALUE};
+        tree.raycast(0, 0, 300, 0.0001f, 0.0001f, -1, 1000, (userData, distance) -> {
+            if (distance < closestDistance[0]) {
+                closestDistance[0] = distance;
+                closest[0] = userData;
+            }
+            return distance;
+        });
+        Assertions.assertEquals(-1, closest[0]);
+        Assertions.assertEquals(300 - 152 - MARGIN, closestDistance[0], 1e-2f);
+        tree.destroyProxy(target);
+    }
+}
@@ -7,7 +7,9 @@ import lombok.val;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 
 class ShaderUtilTest {
 
@@ -89,4 +91,67 @@ class ShaderUtilTest {
             Assertions.assertEquals(uniform.dataType(), dataTypeIterator.next());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseUniforms_given_CommentsConditionalsAndDeclaratorLists() {
+        val source = """
+                #define KERNEL_SIZE 3
+                // uniform float commented;
+                uniform mat4 model, view; uniform float kernel[KERNEL_SIZE];
+                #ifdef SHADOWS
+                uniform sampler2DShadow shadowMap;
+                #else
+                uniform vec3 ambient; /* uniform vec3 blockComment; */
+                #endif
+                layout(std140) uniform Camera {
+                    mat4 projection;
+                };
+                """;
+        val uniforms = ShaderUtil.parseUniformAttributes(source);
+
+        val names = new ArrayList<String>();
+        for (val uniform : uniforms) names.add(uniform.name());
+        Assertions.assertEquals(List.of("model", "view", "kernel[0]", "kernel[1]", "kernel[2]", "ambient"), names);
+    }
+
+    @Test
+    void parseUniforms_given_SharedUniform() {
+        val uniforms = ShaderUtil.parseUniformAttributes("uniform float time;", "uniform float time;\nuniform vec4 tint;");
+
+        Assertions.assertEquals(2, uniforms.size);
+        Assertions.assertEquals(new UniformAttribute(GLDataType.FLOAT, "time"), uniforms.get(0));
+    }
+
+    @Test
+    void parseVertexLayout_given_OutOfOrderLocations() {
+        val layout = ShaderUtil.parseVertexAttributes("""
+                layout(location = 1) in vec2 vUv; layout(location = 0) in vec3 vPos;
+                in vec3 noLocation;
+                """);
+
+        Assertions.assertEquals(new VertexAttribute(GLDataType.VEC3, "vPos", 0), layout.get(0));
+        Assertions.assertEquals(new VertexAttribute(GLDataType.VEC2, "vUv", 1), layout.get(1));
+    }
+
+    @Test
+    void reflect_given_SameSource() {
+        val source = "uniform float memoized;";
+        Assertions.assertSame(ShaderUtil.reflect(source), ShaderUtil.reflect(new String(source.toCharArray())));
+    }
+
+    @Test
+    void reflect_given_MoreSourcesThanCacheSize() {
+        val evicted = "uniform float evicted;";
+        val recent = "uniform float recent;";
+        val evictedReflection = ShaderUtil.reflect(evicted);
+        val recentReflection = ShaderUtil.reflect(recent);
+        for (var i = 0; i < ShaderUtil.REFLECTION_CACHE_SIZE; i++) {
+            ShaderUtil.reflect(STR."uniform float filler\{i};");
+            // Using a source keeps it from being evicted
+            ShaderUtil.reflect(recent);
+        }
+
+        Assertions.assertSame(recentReflection, ShaderUtil.reflect(recent));
+        Assertions.assertNotSame(evictedReflection, ShaderUtil.reflect(evicted));
+    }
+}
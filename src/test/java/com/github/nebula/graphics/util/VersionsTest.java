@@ -0,0 +1,65 @@
+package com.github.nebula.graphics.util;
+
+import com.github.nebula.graphics.InstanceTransformBuffer;
+import com.github.nebula.graphics.NativeMesh;
+import com.github.nebula.graphics.ReadPolicy;
+import com.github.nebula.graphics.culling.Frustum;
+import lombok.val;
+import org.joml.Matrix4f;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class VersionsTest {
+
+    @Test
+    public void next_given_PreviousVersion() {
+        val first = Versions.next();
+        Assertions.assertTrue(Versions.next() > first);
+        Assertions.assertTrue(Versions.current() > first);
+    }
+
+    @Test
+    public void getVersion_given_InstanceTransformBuffer() {
+        try (val transforms = new InstanceTransformBuffer()) {
+            transforms.add();
+            val added = transforms.getVersion();
+            Assertions.assertEquals(added, transforms.getVersion());
+
+            transforms.set(0, new Matrix4f().translation(1, 2, 3));
+            val changed = transforms.getVersion();
+            Assertions.assertTrue(changed > added);
+
+            transforms.swapRemove(0);
+            Assertions.assertTrue(transforms.getVersion() > changed);
+        }
+    }
+
+    @Test
+    public void getVersion_given_Frustum() {
+        val projection = new Matrix4f().perspective(1, 1, 0.1f, 100);
+        val frustum = new Frustum(projection);
+        val version = frustum.getVersion();
+
+        frustum.set(projection);
+        Assertions.assertEquals(version, frustum.getVersion());
+        frustum.set(new Matrix4f(projection).translate(0, 0, -1));
+        Assertions.assertTrue(frustum.getVersion() > version);
+    }
+
+    @Test
+    public void getVersion_given_NativeMesh() {
+        val mesh = new NativeMesh();
+        mesh.setVertices(BufferUtil.newNativeFloatBuffer(new float[]{0, 1, 2}));
+        mesh.setIndices(BufferUtil.newNativeIntBuffer(new int[]{0, 1, 2}));
+        val version = mesh.getVersion();
+        Assertions.assertTrue(version > Versions.INITIAL);
+
+        try (val ignored = mesh.getVertices(ReadPolicy.READ)) {
+            Assertions.assertEquals(version, mesh.getVersion());
+        }
+        try (val ignored = mesh.getVertices(ReadPolicy.READ_WRITE)) {
+            Assertions.assertTrue(mesh.getVersion() > version);
+        }
+        mesh.close();
+    }
+}
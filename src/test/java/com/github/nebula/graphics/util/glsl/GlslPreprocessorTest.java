@@ -0,0 +1,87 @@
+package com.github.nebula.graphics.util.glsl;
+
+import lombok.val;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+class GlslPreprocessorTest {
+
+    private static String tokens(GlslPreprocessor preprocessor) {
+        val builder = new StringBuilder();
+        for (var token = preprocessor.next(); token.type() != GlslToken.Type.END; token = preprocessor.next()) {
+            if (!builder.isEmpty()) builder.append(' ');
+            builder.append(token.text());
+        }
+        return builder.toString();
+    }
+
+    private static String tokens(String source) {
+        return tokens(new GlslPreprocessor(source, null));
+    }
+
+    @Test
+    public void next_given_Macros() {
+        Assertions.assertEquals("float x = ( ( 2 ) * ( 2 ) ) ;", tokens("""
+                #define SQUARE(v) ((v) * (v))
+                #define SIZE 2
+                float x = SQUARE(SIZE);
+                """));
+        // Self referencing macros are not expanded again
+        Assertions.assertEquals("A B", tokens("#define A B\n#define B A\nA B"));
+        // Function-like macros without arguments stay unexpanded
+        Assertions.assertEquals("F ;", tokens("#define F(x) x\nF;"));
+        Assertions.assertEquals("1 + ( 2 , 3 )", tokens("#define F(a, b) a + b\n#define G F\nG(1, (2, 3))"));
+    }
+
+    @Test
+    public void next_given_Conditionals() {
+        Assertions.assertEquals("a c e", tokens("""
+                #version 430 core
+                #define LEVEL 2
+                #if LEVEL > 1 && defined(LEVEL) && __VERSION__ == 430
+                a
+                #if 0
+                b
+                #endif
+                #elif 1
+                never
+                #endif
+                #ifndef MISSING
+                c
+                #else
+                d
+                #endif
+                #if (LEVEL << 2) == 8 ? UNDEFINED_IS_ZERO + 1 : 0
+                e
+                #endif
+                """));
+    }
+
+    @Test
+    public void next_given_Include() {
+        val files = Map.of(
+                "common.glsl", "#include \"constants.glsl\"\nfloat common = PI;",
+                "constants.glsl", "#define PI 3.14"
+        );
+        Assertions.assertEquals("float common = 3.14 ; void", tokens(new GlslPreprocessor("#include <common.glsl>\nvoid",
+                files::get)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tokens("#include \"missing.glsl\""));
+    }
+
+    @Test
+    public void next_given_MalformedDirectives() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tokens("#if 1\na"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tokens("#endif"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tokens("#error unsupported"));
+        // Errors in inactive blocks are ignored
+        Assertions.assertEquals("a", tokens("#if 0\n#error unsupported\n#endif\na"));
+    }
+
+    @Test
+    public void define_given_PredefinedMacro() {
+        val preprocessor = new GlslPreprocessor("#ifdef SHADOWS\nSHADOWS\n#endif", null).define("SHADOWS", "4");
+        Assertions.assertEquals("4", tokens(preprocessor));
+    }
+}